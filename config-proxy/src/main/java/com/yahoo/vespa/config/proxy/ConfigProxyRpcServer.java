@@ -15,11 +15,16 @@ import com.yahoo.jrt.TargetWatcher;
 import com.yahoo.vespa.config.JRTMethods;
 import com.yahoo.vespa.config.RawConfig;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatch;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequestV3;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -78,6 +83,7 @@ public class ConfigProxyRpcServer implements Runnable, TargetWatcher {
 
     private void declareConfigMethods() {
         supervisor.addMethod(JRTMethods.createConfigV3GetConfigMethod(this::getConfigV3));
+        supervisor.addMethod(JRTMethods.createConfigV3GetConfigsMethod(this::getConfigsV3));
         supervisor.addMethod(new Method("ping", "", "i",
                 this::ping)
                 .methodDesc("ping")
@@ -132,6 +138,24 @@ public class ConfigProxyRpcServer implements Runnable, TargetWatcher {
         });
     }
 
+    /**
+     * Handles RPC method "config.v3.getConfigs" requests, where each config request in the batch is handled
+     * as a separate "config.v3.getConfig" request, see {@link JRTServerConfigRequestBatch}.
+     *
+     * @param req a Request
+     */
+    private void getConfigsV3(Request req) {
+        dispatchRpcRequest(req, () -> {
+            JRTServerConfigRequestBatch batch = JRTServerConfigRequestBatch.createFromRequest(req, this::removeDelayedResponses);
+            req.target().addWatcher(this);
+            for (JRTServerConfigRequest request : batch.requests()) {
+                getConfigImpl(request);
+                // Unless answered, the request is now on the delayed responses queue, waiting for config
+                request.setDelayedResponse(true);
+            }
+        });
+    }
+
     /**
      * Returns 0 if server is alive.
      *
@@ -273,6 +297,12 @@ public class ConfigProxyRpcServer implements Runnable, TargetWatcher {
         }
     }
 
+    private void removeDelayedResponses(List<JRTServerConfigRequest> requests) {
+        Set<JRTServerConfigRequest> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(requests);
+        proxyServer.delayedResponses().responses().removeIf(delayed -> removed.contains(delayed.getRequest()));
+    }
+
     private String printSourceConnections() {
         StringBuilder sb = new StringBuilder();
         for (String s : proxyServer.getSourceConnections()) {
@@ -12,12 +12,20 @@ import com.yahoo.vespa.config.ConnectionPool;
 import com.yahoo.vespa.config.ErrorCode;
 import com.yahoo.vespa.config.TimingValues;
 import com.yahoo.vespa.config.protocol.JRTClientConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTClientConfigRequestBatch;
 import com.yahoo.vespa.config.protocol.JRTConfigRequestFactory;
 import com.yahoo.vespa.config.protocol.Trace;
+import com.yahoo.vespa.config.util.ConfigUtils;
 import com.yahoo.yolean.Exceptions;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -34,6 +42,11 @@ import static java.util.logging.Level.WARNING;
  * as context, and puts the request objects on a queue on the subscription,
  * for handling by the user thread.
  *
+ * If enabled by setting VESPA_CONFIG_BATCH_REQUESTS to true, the requests of all subscriptions
+ * are sent together in batches, such that a single request is outstanding per requester instead of one per
+ * subscription. Separate requests are used for config sources which do not support batches.
+ * This is off by default until all config servers and proxies support batches.
+ *
  * @author Vegard Havdal
  */
 public class JRTConfigRequester implements RequestWaiter {
@@ -46,6 +59,9 @@ public class JRTConfigRequester implements RequestWaiter {
     static final float randomFraction = 0.2f;
     /* Time to be added to server timeout to create client timeout. This is the time allowed for the server to respond after serverTimeout has elapsed. */
     private static final Duration additionalTimeForClientTimeout = Duration.ofSeconds(10);
+    /* Time to wait for more requests to send in the same batch. */
+    private static final Duration batchWindow = Duration.ofMillis(10);
+    private static final String VESPA_CONFIG_BATCH_REQUESTS = "VESPA_CONFIG_BATCH_REQUESTS";
 
     private final TimingValues timingValues;
     private final ScheduledThreadPoolExecutor scheduler;
@@ -56,6 +72,10 @@ public class JRTConfigRequester implements RequestWaiter {
     private Instant timeForLastLogWarning;
     private int failures = 0;
     private volatile boolean closed = false;
+    private final boolean batchRequests;
+    private final Set<Connection> connectionsWithoutBatches = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final List<RequestContext> pendingRequests = new ArrayList<>();
+    private boolean batchScheduled = false;
 
     /**
      * Returns a new requester
@@ -65,10 +85,16 @@ public class JRTConfigRequester implements RequestWaiter {
      */
     JRTConfigRequester(ConfigSourceSet configSourceSet, ScheduledThreadPoolExecutor scheduler,
                        ConnectionPool connectionPool, TimingValues timingValues) {
+        this(configSourceSet, scheduler, connectionPool, timingValues, batchRequestsEnabled());
+    }
+
+    JRTConfigRequester(ConfigSourceSet configSourceSet, ScheduledThreadPoolExecutor scheduler,
+                       ConnectionPool connectionPool, TimingValues timingValues, boolean batchRequests) {
         this.configSourceSet = configSourceSet;
         this.scheduler = scheduler;
         this.connectionPool = connectionPool;
         this.timingValues = timingValues;
+        this.batchRequests = batchRequests;
         // Adjust so that we wait 5 seconds with logging warning in case there are some errors just when starting up
         timeForLastLogWarning = Instant.now().minus(delayBetweenWarnings).plus(Duration.ofSeconds(5));
     }
@@ -77,7 +103,13 @@ public class JRTConfigRequester implements RequestWaiter {
      * Only for testing
      */
     public JRTConfigRequester(ConnectionPool connectionPool, TimingValues timingValues) {
-        this(null, new ScheduledThreadPoolExecutor(1), connectionPool, timingValues);
+        this(null, new ScheduledThreadPoolExecutor(1), connectionPool, timingValues, false);
+    }
+
+    static boolean batchRequestsEnabled() {
+        return Boolean.parseBoolean(ConfigUtils.getEnvValue("false",
+                                                            System.getenv(VESPA_CONFIG_BATCH_REQUESTS),
+                                                            System.getProperty(VESPA_CONFIG_BATCH_REQUESTS)));
     }
 
     public static JRTConfigRequester create(ConfigSourceSet sourceSet, TimingValues timingValues) {
@@ -96,6 +128,10 @@ public class JRTConfigRequester implements RequestWaiter {
 
     private <T extends ConfigInstance> void doRequest(JRTConfigSubscription<T> sub, JRTClientConfigRequest req) {
         Connection connection = connectionPool.getCurrent();
+        if (batchRequests && ! connectionsWithoutBatches.contains(connection)) {
+            addToBatch(sub, req);
+            return;
+        }
         Request request = req.getRequest();
         request.setContext(new RequestContext(sub, req, connection));
         if (!req.validateParameters()) throw new ConfigurationRuntimeException("Error in parameters for config request: " + req);
@@ -107,14 +143,99 @@ public class JRTConfigRequester implements RequestWaiter {
         connection.invokeAsync(request, jrtClientTimeout, this);
     }
 
-    @SuppressWarnings("unchecked")
+    private void addToBatch(JRTConfigSubscription<?> sub, JRTClientConfigRequest req) {
+        if (!req.validateParameters()) throw new ConfigurationRuntimeException("Error in parameters for config request: " + req);
+        synchronized (pendingRequests) {
+            pendingRequests.add(new RequestContext(sub, req, null));
+            if (batchScheduled) return;
+            batchScheduled = true;
+        }
+        scheduler.schedule(this::sendBatch, batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void sendBatch() {
+        List<RequestContext> requests;
+        synchronized (pendingRequests) {
+            requests = new ArrayList<>(pendingRequests);
+            pendingRequests.clear();
+            batchScheduled = false;
+        }
+        requests.removeIf(context -> context.sub.isClosed());
+        if (requests.isEmpty()) return;
+
+        Connection connection = connectionPool.getCurrent();
+        if (connectionsWithoutBatches.contains(connection)) {
+            requests.forEach(context -> doRequest(context.sub, context.jrtReq));
+            return;
+        }
+        JRTClientConfigRequestBatch batch = new JRTClientConfigRequestBatch(requests.stream().map(context -> context.jrtReq).toList());
+        Request request = batch.getRequest();
+        request.setContext(new BatchContext(requests, batch, connection));
+        Duration jrtClientTimeout = Duration.ofMillis(batch.getTimeout()).plus(additionalTimeForClientTimeout);
+        log.log(FINE, () -> "Requesting " + requests.size() + " configs in a batch on connection " + connection +
+                            " with client timeout " + jrtClientTimeout);
+        connection.invokeAsync(request, jrtClientTimeout, this::handleBatchDone);
+    }
+
+    private void handleBatchDone(Request request) {
+        BatchContext context = (BatchContext) request.getContext();
+        if (request.errorCode() == com.yahoo.jrt.ErrorCode.NO_SUCH_METHOD) {
+            log.log(FINE, () -> "Config source " + context.connection.getAddress() +
+                                " does not support batched requests, using a request per config");
+            connectionsWithoutBatches.add(context.connection);
+            context.requests.forEach(requestContext -> doRequest(requestContext.sub, requestContext.jrtReq));
+            return;
+        }
+        if (request.isError()) {
+            handleFailedBatch(request, context);
+            return;
+        }
+
+        Set<JRTClientConfigRequest> answered = Collections.newSetFromMap(new IdentityHashMap<>());
+        answered.addAll(context.batch.answeredRequests());
+        for (RequestContext requestContext : context.requests) {
+            if (answered.contains(requestContext.jrtReq)) {
+                handle(requestContext.sub, requestContext.jrtReq, context.connection);
+            } else if ( ! requestContext.sub.isClosed()) { // unchanged, so the same request is sent again
+                requestContext.sub.setLastCallBackOKTS(Instant.now());
+                scheduler.schedule(new GetConfigTask(requestContext.jrtReq, requestContext.sub),
+                                   calculateSuccessDelay(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /** Handles a failure of the batch request itself once, rather than as a failure of each request in it */
+    private void handleFailedBatch(Request request, BatchContext context) {
+        if (request.errorCode() == com.yahoo.jrt.ErrorCode.CONNECTION)
+            log.log(FINE, () -> "Batch request failed: " + request.errorMessage() + "\nConnection spec: " + context.connection);
+        else
+            log.log(WARNING, "Batch request for " + context.requests.size() + " configs failed. Spec: " +
+                             context.connection.getAddress() + " . Req error message: " + request.errorMessage());
+
+        connectionPool.switchConnection(context.connection);
+        if (failures < 10)
+            failures++;
+        long delay = calculateFailedRequestDelay(failures, timingValues);
+        log.log(FINE, () -> "Batch request for " + context.requests.size() + " configs failed with error code " +
+                            request.errorCode() + " (" + request.errorMessage() + "), scheduling new requests in " + delay + " ms");
+        for (RequestContext requestContext : context.requests) {
+            if (requestContext.sub.isClosed()) continue;
+            scheduleNextRequest(requestContext.jrtReq, requestContext.sub, delay, calculateErrorTimeout());
+        }
+    }
+
     @Override
     public void handleRequestDone(Request req) {
+        RequestContext context = (RequestContext) req.getContext();
+        handle(context.sub, context.jrtReq, context.connection);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handle(JRTConfigSubscription<?> subscription, JRTClientConfigRequest jrtReq, Connection connection) {
         JRTConfigSubscription<ConfigInstance> sub = null;
         try {
-            RequestContext context = (RequestContext) req.getContext();
-            sub = context.sub;
-            doHandle(sub, context.jrtReq, context.connection);
+            sub = (JRTConfigSubscription<ConfigInstance>) subscription;
+            doHandle(sub, jrtReq, connection);
         } catch (RuntimeException e) {
             if (sub != null) {
                 // Sets this field, it will get thrown from the user thread
@@ -264,6 +385,18 @@ public class JRTConfigRequester implements RequestWaiter {
         }
     }
 
+    private static class BatchContext {
+        final List<RequestContext> requests;
+        final JRTClientConfigRequestBatch batch;
+        final Connection connection;
+
+        private BatchContext(List<RequestContext> requests, JRTClientConfigRequestBatch batch, Connection connection) {
+            this.requests = requests;
+            this.batch = batch;
+            this.connection = connection;
+        }
+    }
+
     int getFailures() { return failures; }
 
     // TODO: Should be package private, used in integrationtest.rb in system tests
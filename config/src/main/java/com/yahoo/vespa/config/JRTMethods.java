@@ -13,12 +13,27 @@ public class JRTMethods {
     public static final String configV3getConfigMethodName = "config.v3.getConfig";
     private static final String configV3GetConfigRequestTypes = "s";
     private static final String configV3GetConfigResponseTypes = "sx";
+    public static final String configV3getConfigsMethodName = "config.v3.getConfigs";
+    private static final String configV3GetConfigsRequestTypes = "S";
+    private static final String configV3GetConfigsResponseTypes = "ISXIS";
 
     public static Method createConfigV3GetConfigMethod(MethodHandler methodHandler) {
         return addDescriptions(
                 new Method(configV3getConfigMethodName, configV3GetConfigRequestTypes, configV3GetConfigResponseTypes, methodHandler));
     }
 
+    /** Creates the method getting a batch of configs, where each request is as for {@link #configV3getConfigMethodName} */
+    public static Method createConfigV3GetConfigsMethod(MethodHandler methodHandler) {
+        return new Method(configV3getConfigsMethodName, configV3GetConfigsRequestTypes, configV3GetConfigsResponseTypes, methodHandler)
+                .methodDesc("get a batch of configs v3, returning when at least one of them has changed")
+                .paramDesc(0, "requests", "config requests")
+                .returnDesc(0, "indices", "the indices of the answered requests")
+                .returnDesc(1, "responses", "config response of each answered request")
+                .returnDesc(2, "payloads", "config response payload of each answered request")
+                .returnDesc(3, "errorCodes", "error code of each answered request, 0 if ok")
+                .returnDesc(4, "errorMessages", "error message of each answered request");
+    }
+
     private static Method addDescriptions(Method method) {
         return method.methodDesc("get config v3")
                 .paramDesc(0, "request", "config request")
@@ -29,4 +44,8 @@ public class JRTMethods {
     public static boolean checkV3ReturnTypes(Request request) {
         return request.checkReturnTypes(JRTMethods.configV3GetConfigResponseTypes);
     }
+
+    public static boolean checkV3BatchReturnTypes(Request request) {
+        return request.checkReturnTypes(JRTMethods.configV3GetConfigsResponseTypes);
+    }
 }
@@ -0,0 +1,102 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.jrt.DataValue;
+import com.yahoo.jrt.ErrorCode;
+import com.yahoo.jrt.Request;
+import com.yahoo.jrt.StringArray;
+import com.yahoo.jrt.StringValue;
+import com.yahoo.vespa.config.JRTMethods;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of config requests sent in one "config.v3.getConfigs" request, see {@link JRTServerConfigRequestBatch}.
+ * The response to each answered request in the batch is copied to that request, such that it can be
+ * handled as if it was returned separately.
+ *
+ * @author agent
+ */
+public class JRTClientConfigRequestBatch {
+
+    private final List<JRTClientConfigRequest> requests;
+    private final Request request;
+
+    public JRTClientConfigRequestBatch(List<JRTClientConfigRequest> requests) {
+        this.requests = List.copyOf(requests);
+        String[] parameters = new String[requests.size()];
+        for (int i = 0; i < parameters.length; i++)
+            parameters[i] = requests.get(i).getRequest().parameters().get(0).asString();
+        this.request = new Request(JRTMethods.configV3getConfigsMethodName);
+        this.request.parameters().add(new StringArray(parameters));
+    }
+
+    public Request getRequest() { return request; }
+
+    public List<JRTClientConfigRequest> requests() { return requests; }
+
+    /** Returns the server timeout of this batch, which is the smallest timeout of the requests in it */
+    public long getTimeout() {
+        return requests.stream().mapToLong(JRTClientConfigRequest::getTimeout).min().orElse(0);
+    }
+
+    private void validateResponse() {
+        if (request.isError()) return;
+        if ( ! JRTMethods.checkV3BatchReturnTypes(request)) {
+            request.setError(ErrorCode.BAD_REPLY, "Invalid return types for config batch response");
+            return;
+        }
+        int answered = request.returnValues().get(0).count();
+        for (int i = 1; i < request.returnValues().size(); i++) {
+            if (request.returnValues().get(i).count() != answered) {
+                request.setError(ErrorCode.BAD_REPLY, "Config batch response has arrays of different lengths");
+                return;
+            }
+        }
+        for (int index : request.returnValues().get(0).asInt32Array()) {
+            if (index < 0 || index >= requests.size()) {
+                request.setError(ErrorCode.BAD_REPLY, "Config batch response has invalid index " + index +
+                                                      " for a batch of " + requests.size() + " requests");
+                return;
+            }
+        }
+    }
+
+    public boolean isError() { return request.isError(); }
+
+    public int errorCode() { return request.errorCode(); }
+
+    public String errorMessage() { return request.errorMessage(); }
+
+    /**
+     * Copies the response of each answered request in this batch to that request, and returns the answered requests.
+     * If this batch failed, its error is set on all requests, and all are returned.
+     */
+    public List<JRTClientConfigRequest> answeredRequests() {
+        validateResponse();
+        if (request.isError()) {
+            requests.forEach(answered -> answered.getRequest().setError(request.errorCode(), request.errorMessage()));
+            return requests;
+        }
+        int[] indices = request.returnValues().get(0).asInt32Array();
+        String[] responses = request.returnValues().get(1).asStringArray();
+        byte[][] payloads = request.returnValues().get(2).asDataArray();
+        int[] errorCodes = request.returnValues().get(3).asInt32Array();
+        String[] errorMessages = request.returnValues().get(4).asStringArray();
+        List<JRTClientConfigRequest> answered = new ArrayList<>(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            JRTClientConfigRequest part = requests.get(indices[i]);
+            Request partRequest = part.getRequest();
+            if (errorCodes[i] != 0) {
+                partRequest.setError(errorCodes[i], errorMessages[i]);
+            } else {
+                partRequest.returnValues().add(new StringValue(responses[i]));
+                partRequest.returnValues().add(new DataValue(payloads[i]));
+            }
+            answered.add(part);
+        }
+        return answered;
+    }
+
+}
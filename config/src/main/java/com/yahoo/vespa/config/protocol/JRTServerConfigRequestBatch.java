@@ -0,0 +1,171 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.jrt.DataArray;
+import com.yahoo.jrt.Int32Array;
+import com.yahoo.jrt.Request;
+import com.yahoo.jrt.StringArray;
+import com.yahoo.jrt.StringValue;
+import com.yahoo.jrt.Target;
+import com.yahoo.jrt.Values;
+import com.yahoo.vespa.config.JRTMethods;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A batch of version 3 config requests received in one "config.v3.getConfigs" request.
+ *
+ * Each request in the batch is a {@link JRTServerConfigRequestV3} which the server handles as if it was received
+ * in a separate request: Returning it answers it in the batch, and marking it as a delayed response means it is
+ * waiting for a config change. The batch is returned with the answered requests as soon as each request is either
+ * answered or waiting, and at least one is answered. Requests still waiting at that point are passed to the
+ * canceller, such that the server can stop waiting for them.
+ *
+ * @author agent
+ */
+public class JRTServerConfigRequestBatch {
+
+    private enum State { PENDING, WAITING, ANSWERED }
+
+    private final Request request;
+    private final List<JRTServerConfigRequestV3> parts;
+    private final State[] states;
+    private final Consumer<List<JRTServerConfigRequest>> canceller;
+    private int pending;
+    private int answered = 0;
+    private boolean returned = false;
+
+    private JRTServerConfigRequestBatch(Request request, Consumer<List<JRTServerConfigRequest>> canceller) {
+        this.request = request;
+        this.canceller = canceller;
+        String[] requests = request.parameters().get(0).asStringArray();
+        this.parts = new ArrayList<>(requests.length);
+        for (int i = 0; i < requests.length; i++)
+            parts.add(new Part(new PartRequest(i, requests[i])));
+        this.states = new State[requests.length];
+        Arrays.fill(states, State.PENDING);
+        this.pending = requests.length;
+    }
+
+    /**
+     * Creates a batch from a detached "config.v3.getConfigs" request. An empty batch is returned immediately.
+     *
+     * @param canceller receives the requests which are still waiting for a config change when the batch is returned
+     */
+    public static JRTServerConfigRequestBatch createFromRequest(Request request, Consumer<List<JRTServerConfigRequest>> canceller) {
+        JRTServerConfigRequestBatch batch = new JRTServerConfigRequestBatch(request, canceller);
+        if (batch.parts.isEmpty())
+            batch.returnBatch();
+        return batch;
+    }
+
+    /** Returns the requests in this batch, to be handled as separate requests */
+    public List<JRTServerConfigRequest> requests() {
+        return List.copyOf(parts);
+    }
+
+    public Request getRequest() { return request; }
+
+    private void answer(int index) {
+        List<JRTServerConfigRequest> waiting;
+        synchronized (this) {
+            if (returned || states[index] == State.ANSWERED) return;
+            if (states[index] == State.PENDING) pending--;
+            states[index] = State.ANSWERED;
+            answered++;
+            if (pending > 0) return;
+            waiting = returnBatch();
+        }
+        canceller.accept(waiting);
+    }
+
+    private void setWaiting(int index, boolean waiting) {
+        List<JRTServerConfigRequest> stillWaiting;
+        synchronized (this) {
+            if (returned || states[index] == State.ANSWERED) return;
+            State newState = waiting ? State.WAITING : State.PENDING;
+            if (states[index] == newState) return;
+            pending += waiting ? -1 : 1;
+            states[index] = newState;
+            if (pending > 0 || answered == 0) return;
+            stillWaiting = returnBatch();
+        }
+        canceller.accept(stillWaiting);
+    }
+
+    /** Returns this batch with the answered requests, and returns the requests which are still waiting */
+    private synchronized List<JRTServerConfigRequest> returnBatch() {
+        returned = true;
+        int[] indices = new int[answered];
+        String[] responses = new String[answered];
+        byte[][] payloads = new byte[answered][];
+        int[] errorCodes = new int[answered];
+        String[] errorMessages = new String[answered];
+        List<JRTServerConfigRequest> waiting = new ArrayList<>();
+        for (int i = 0, j = 0; i < states.length; i++) {
+            if (states[i] != State.ANSWERED) {
+                waiting.add(parts.get(i));
+                continue;
+            }
+            Request answer = parts.get(i).getRequest();
+            Values values = answer.returnValues();
+            indices[j] = i;
+            responses[j] = values.size() > 0 ? values.get(0).asString() : "";
+            payloads[j] = values.size() > 1 ? values.get(1).asData() : new byte[0];
+            errorCodes[j] = answer.errorCode();
+            errorMessages[j] = answer.isError() ? answer.errorMessage() : "";
+            j++;
+        }
+        request.returnValues().add(new Int32Array(indices));
+        request.returnValues().add(new StringArray(responses));
+        request.returnValues().add(new DataArray(payloads));
+        request.returnValues().add(new Int32Array(errorCodes));
+        request.returnValues().add(new StringArray(errorMessages));
+        request.returnRequest();
+        return waiting;
+    }
+
+    /** A request in this batch, which is waiting for a config change while it is a delayed response */
+    private class Part extends JRTServerConfigRequestV3 {
+
+        private final int index;
+
+        Part(PartRequest request) {
+            super(request);
+            this.index = request.index;
+        }
+
+        @Override
+        public void setDelayedResponse(boolean delayedResponse) {
+            super.setDelayedResponse(delayedResponse);
+            setWaiting(index, delayedResponse);
+        }
+
+    }
+
+    /** The request of a part, which is answered in this batch, and is from the same target as the batch request */
+    private class PartRequest extends Request {
+
+        private final int index;
+
+        PartRequest(int index, String requestData) {
+            super(JRTMethods.configV3getConfigMethodName);
+            this.index = index;
+            parameters().add(new StringValue(requestData));
+        }
+
+        @Override
+        public Target target() { return request.target(); }
+
+        @Override
+        public void detach() { }
+
+        @Override
+        public void returnRequest() { answer(index); }
+
+    }
+
+}
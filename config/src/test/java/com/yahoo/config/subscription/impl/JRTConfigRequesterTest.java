@@ -6,14 +6,18 @@ import com.yahoo.foo.SimpletypesConfig;
 import com.yahoo.jrt.Request;
 import com.yahoo.jrt.RequestWaiter;
 import com.yahoo.vespa.config.ConfigKey;
+import com.yahoo.vespa.config.Connection;
 import com.yahoo.vespa.config.ConnectionPool;
 import com.yahoo.vespa.config.ErrorCode;
+import com.yahoo.vespa.config.JRTMethods;
 import com.yahoo.vespa.config.PayloadChecksums;
 import com.yahoo.vespa.config.TimingValues;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequestV3;
 import org.junit.Test;
 
 import java.util.Random;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.BooleanSupplier;
 
 import static com.yahoo.config.subscription.impl.JRTConfigRequester.calculateFailedRequestDelay;
 import static org.junit.Assert.assertEquals;
@@ -167,6 +171,31 @@ public class JRTConfigRequesterTest {
         }
     }
 
+    @Test
+    public void testFailedBatchIsOneFailure() {
+        TimingValues timingValues = getTestTimingValues();
+        SwitchCountingConnection connection = new SwitchCountingConnection(new ErrorResponseHandler(com.yahoo.jrt.ErrorCode.TIMEOUT));
+        JRTConfigRequester requester = new JRTConfigRequester(null, new ScheduledThreadPoolExecutor(1), connection, timingValues, true);
+        for (int i = 0; i < 10; i++)
+            requester.request(createSubscription(requester, timingValues));
+        waitUntil(() -> requester.getFailures() > 0);
+        assertEquals(JRTMethods.configV3getConfigsMethodName, connection.getRequest().methodName());
+        assertEquals(1, connection.getNumberOfRequests());
+        assertEquals(1, requester.getFailures());
+        assertEquals(1, connection.switches);
+    }
+
+    @Test
+    public void testSingleRequestsAreUsedWhenBatchesAreNotSupported() {
+        TimingValues timingValues = getTestTimingValues();
+        MockConnection connection = new MockConnection(new NoBatchResponseHandler());
+        JRTConfigRequester requester = new JRTConfigRequester(null, new ScheduledThreadPoolExecutor(1), connection, timingValues, true);
+        requester.request(createSubscription(requester, timingValues));
+        waitUntil(() -> connection.getNumberOfRequests() > 1);
+        assertEquals(JRTMethods.configV3getConfigMethodName, connection.getRequest().methodName());
+        assertEquals(0, requester.getFailures());
+    }
+
     private JRTConfigSubscription<SimpletypesConfig> createSubscription(JRTConfigRequester requester, TimingValues timingValues) {
         return new JRTConfigSubscription<>(new ConfigKey<>(SimpletypesConfig.class, "testid"),
                                            requester,
@@ -190,6 +219,16 @@ public class JRTConfigRequesterTest {
         }
     }
 
+    private void waitUntil(BooleanSupplier condition) {
+        for (int i = 0; i < 1000 && ! condition.getAsBoolean(); i++) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     public static TimingValues getTestTimingValues() { return new TimingValues(
             1000,  // successTimeout
             500,   // errorTimeout
@@ -217,6 +256,36 @@ public class JRTConfigRequesterTest {
         }
     }
 
+    /** Fails batch requests as an old config source would, and answers other requests */
+    private static class NoBatchResponseHandler extends MockConnection.OKResponseHandler {
+
+        @Override
+        public void handle(Request request, RequestWaiter requestWaiter) {
+            if (request.methodName().equals(JRTMethods.configV3getConfigsMethodName))
+                request.setError(com.yahoo.jrt.ErrorCode.NO_SUCH_METHOD, "No such method");
+            else
+                createResponse(request);
+            requestWaiter.handleRequestDone(request);
+        }
+
+    }
+
+    private static class SwitchCountingConnection extends MockConnection {
+
+        int switches = 0;
+
+        SwitchCountingConnection(ResponseHandler responseHandler) {
+            super(responseHandler, 2);
+        }
+
+        @Override
+        public Connection switchConnection(Connection connection) {
+            switches++;
+            return this;
+        }
+
+    }
+
     private static class DelayedResponseHandler extends MockConnection.OKResponseHandler {
         private final long waitTimeMilliSeconds;
 
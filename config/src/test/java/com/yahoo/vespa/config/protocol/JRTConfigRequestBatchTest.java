@@ -0,0 +1,162 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.protocol;
+
+import com.yahoo.jrt.Request;
+import com.yahoo.jrt.Value;
+import com.yahoo.slime.Slime;
+import com.yahoo.vespa.config.ConfigKey;
+import com.yahoo.vespa.config.ConfigPayload;
+import com.yahoo.vespa.config.ErrorCode;
+import com.yahoo.vespa.config.JRTMethods;
+import com.yahoo.vespa.config.PayloadChecksums;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class JRTConfigRequestBatchTest {
+
+    private final List<JRTServerConfigRequest> cancelled = new ArrayList<>();
+
+    @Test
+    public void batch_is_returned_when_each_request_is_answered_or_waiting() {
+        JRTClientConfigRequestBatch clientBatch = createClientBatch(3);
+        ReturnableRequest serverRequest = new ReturnableRequest(clientBatch.getRequest());
+        JRTServerConfigRequestBatch batch = JRTServerConfigRequestBatch.createFromRequest(serverRequest, cancelled::addAll);
+        List<JRTServerConfigRequest> requests = batch.requests();
+        assertEquals(3, requests.size());
+        assertTrue(requests.get(0).validateParameters());
+        assertEquals("id/1", requests.get(1).getConfigKey().getConfigId());
+
+        addOkResponse(requests.get(0), "value");
+        requests.get(1).setDelayedResponse(true);
+        assertEquals(0, serverRequest.returned);
+
+        requests.get(2).addErrorResponse(ErrorCode.UNKNOWN_DEFINITION, "unknown");
+        requests.get(2).getRequest().returnRequest();
+        assertEquals(1, serverRequest.returned);
+        assertEquals(List.of(requests.get(1)), cancelled);
+
+        serverRequest.copyReturnValuesTo(clientBatch.getRequest());
+        List<JRTClientConfigRequest> answered = clientBatch.answeredRequests();
+        assertEquals(2, answered.size());
+        assertSame(clientBatch.requests().get(0), answered.get(0));
+        assertTrue(answered.get(0).validateResponse());
+        assertTrue(answered.get(0).hasUpdatedConfig());
+        assertEquals(createPayload("value").getData().toString(),
+                     answered.get(0).getNewPayload().withCompression(CompressionType.UNCOMPRESSED).getData().toString());
+        assertSame(clientBatch.requests().get(2), answered.get(1));
+        assertTrue(answered.get(1).isError());
+        assertEquals(ErrorCode.UNKNOWN_DEFINITION, answered.get(1).errorCode());
+    }
+
+    @Test
+    public void waiting_batch_is_returned_when_a_request_is_answered() {
+        JRTClientConfigRequestBatch clientBatch = createClientBatch(3);
+        ReturnableRequest serverRequest = new ReturnableRequest(clientBatch.getRequest());
+        List<JRTServerConfigRequest> requests = JRTServerConfigRequestBatch.createFromRequest(serverRequest, cancelled::addAll).requests();
+        requests.forEach(request -> request.setDelayedResponse(true));
+        assertEquals(0, serverRequest.returned);
+
+        // Config is activated, so the request is processed again
+        requests.get(1).setDelayedResponse(false);
+        assertEquals(0, serverRequest.returned);
+        addOkResponse(requests.get(1), "changed");
+        assertEquals(1, serverRequest.returned);
+        assertEquals(List.of(requests.get(0), requests.get(2)), cancelled);
+
+        // Responses after the batch is returned are ignored
+        addOkResponse(requests.get(2), "changed");
+        assertEquals(1, serverRequest.returned);
+
+        serverRequest.copyReturnValuesTo(clientBatch.getRequest());
+        assertEquals(List.of(clientBatch.requests().get(1)), clientBatch.answeredRequests());
+    }
+
+    @Test
+    public void empty_batch_is_returned_immediately() {
+        JRTClientConfigRequestBatch clientBatch = createClientBatch(0);
+        ReturnableRequest serverRequest = new ReturnableRequest(clientBatch.getRequest());
+        JRTServerConfigRequestBatch.createFromRequest(serverRequest, cancelled::addAll);
+        assertEquals(1, serverRequest.returned);
+        serverRequest.copyReturnValuesTo(clientBatch.getRequest());
+        assertEquals(List.of(), clientBatch.answeredRequests());
+    }
+
+    @Test
+    public void failed_batch_fails_all_requests() {
+        JRTClientConfigRequestBatch clientBatch = createClientBatch(2);
+        clientBatch.getRequest().setError(com.yahoo.jrt.ErrorCode.CONNECTION, "connection failed");
+        assertEquals(clientBatch.requests(), clientBatch.answeredRequests());
+        for (JRTClientConfigRequest request : clientBatch.requests()) {
+            assertFalse(request.validateResponse());
+            assertEquals(com.yahoo.jrt.ErrorCode.CONNECTION, request.errorCode());
+        }
+    }
+
+    @Test
+    public void batch_timeout_is_smallest_request_timeout() {
+        JRTClientConfigRequestBatch clientBatch = createClientBatch(3);
+        assertEquals(1000, clientBatch.getTimeout());
+    }
+
+    private static void addOkResponse(JRTServerConfigRequest request, String value) {
+        Payload payload = createPayload(value);
+        request.addOkResponse(payload, 2, false, PayloadChecksums.fromPayload(payload));
+        request.getRequest().returnRequest();
+    }
+
+    private static JRTClientConfigRequestBatch createClientBatch(int size) {
+        List<JRTClientConfigRequest> requests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            requests.add(JRTClientConfigRequestV3.createWithParams(ConfigKey.createFull("mydef", "id/" + i, "my.name.space"),
+                                                                   DefContent.fromList(List.of("namespace=my.name.space", "myfield string")),
+                                                                   "myhost",
+                                                                   PayloadChecksums.empty(),
+                                                                   1,
+                                                                   1000L * (i + 1),
+                                                                   Trace.createNew(),
+                                                                   CompressionType.LZ4,
+                                                                   Optional.empty()));
+        }
+        return new JRTClientConfigRequestBatch(requests);
+    }
+
+    private static Payload createPayload(String value) {
+        Slime slime = new Slime();
+        slime.setObject().setString("myfield", value);
+        return Payload.from(new ConfigPayload(slime));
+    }
+
+    /** A request received by the server, which records that it is returned instead of sending the response */
+    private static class ReturnableRequest extends Request {
+
+        int returned = 0;
+
+        ReturnableRequest(Request sent) {
+            super(JRTMethods.configV3getConfigsMethodName);
+            parameters().add(sent.parameters().get(0));
+        }
+
+        @Override
+        public void returnRequest() { returned++; }
+
+        void copyReturnValuesTo(Request sent) {
+            for (int i = 0; i < returnValues().size(); i++) {
+                Value value = returnValues().get(i);
+                sent.returnValues().add(value);
+            }
+        }
+
+    }
+
+}
@@ -7,8 +7,11 @@ import com.yahoo.vespa.config.ConfigDefinitionKey;
 import com.yahoo.vespa.config.PayloadChecksum;
 import com.yahoo.vespa.config.buildergen.ConfigDefinition;
 import com.yahoo.vespa.config.protocol.ConfigResponse;
+import com.yahoo.vespa.config.server.application.ConfigSnapshot;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -16,6 +19,8 @@ import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
 
 /**
  * Cache that holds configs and config definitions (builtin and user config definitions).
+ * Configs missing in the cache are taken from the config snapshot of the application, if any, before they are
+ * resolved from the model.
  *
  * @author vegardh
  */
@@ -28,10 +33,17 @@ public class ServerCache {
     private final Map<ConfigCacheKey, PayloadChecksum> checksums = new ConcurrentHashMap<>();
     private final Map<PayloadChecksum, ConfigResponse> checksumToConfig = new ConcurrentHashMap<>();
     private final Object [] stripedLocks = new Object[113];
+    private final Optional<ConfigSnapshot> snapshot;
 
     public ServerCache(ConfigDefinitionRepo builtinConfigDefinitions, ConfigDefinitionRepo userConfigDefinitions) {
+        this(builtinConfigDefinitions, userConfigDefinitions, Optional.empty());
+    }
+
+    public ServerCache(ConfigDefinitionRepo builtinConfigDefinitions, ConfigDefinitionRepo userConfigDefinitions,
+                       Optional<ConfigSnapshot> snapshot) {
         this.builtinConfigDefinitions = builtinConfigDefinitions;
         this.userConfigDefinitions = userConfigDefinitions;
+        this.snapshot = snapshot;
         for (int i = 0; i < stripedLocks.length; i++) {
             stripedLocks[i] = new Object();
         }
@@ -62,7 +74,7 @@ public class ServerCache {
         synchronized (stripedLocks[Math.abs(key.hashCode()%stripedLocks.length)]) {
             PayloadChecksum xxhash64 = checksums.get(key);
             if (xxhash64 == null) {
-                config = mappingFunction.apply(key);
+                config = snapshot.flatMap(configs -> configs.get(key)).orElseGet(() -> mappingFunction.apply(key));
                 put(key, config);
                 return config;
             }
@@ -70,6 +82,16 @@ public class ServerCache {
         }
     }
 
+    /** Returns a copy of the configs in this cache */
+    public Map<ConfigCacheKey, ConfigResponse> entries() {
+        Map<ConfigCacheKey, ConfigResponse> entries = new HashMap<>();
+        checksums.forEach((key, xxhash64) -> {
+            ConfigResponse config = checksumToConfig.get(xxhash64);
+            if (config != null) entries.put(key, config);
+        });
+        return entries;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -70,6 +70,9 @@ public class Application implements ModelResult {
     @Override
     public Model getModel() { return model; }
 
+    /** Returns whether this serves config from a snapshot, while its real model is being built */
+    public boolean isFromSnapshot() { return model instanceof ConfigSnapshot.SnapshotModel; }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -79,6 +79,11 @@ public final class ApplicationMapper {
         return Collections.unmodifiableSet(requestHandlers.keySet());
     }
 
+    /** Returns the application set registered for the given application id, if any */
+    public Optional<ApplicationSet> get(ApplicationId applicationId) {
+        return Optional.ofNullable(requestHandlers.get(applicationId));
+    }
+
     public List<Application> listApplications(ApplicationId applicationId) {
         return requestHandlers.get(applicationId).getAllApplications();
     }
@@ -0,0 +1,245 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.server.application;
+
+import com.yahoo.component.Version;
+import com.yahoo.config.ConfigInstance;
+import com.yahoo.config.FileReference;
+import com.yahoo.config.model.api.HostInfo;
+import com.yahoo.config.model.api.Model;
+import com.yahoo.config.provision.AllocatedHosts;
+import com.yahoo.config.provision.ApplicationId;
+import com.yahoo.text.Utf8;
+import com.yahoo.text.Utf8Array;
+import com.yahoo.vespa.config.ConfigCacheKey;
+import com.yahoo.vespa.config.ConfigKey;
+import com.yahoo.vespa.config.PayloadChecksum;
+import com.yahoo.vespa.config.PayloadChecksums;
+import com.yahoo.vespa.config.buildergen.ConfigDefinition;
+import com.yahoo.vespa.config.protocol.CompressionInfo;
+import com.yahoo.vespa.config.protocol.CompressionType;
+import com.yahoo.vespa.config.protocol.ConfigResponse;
+import com.yahoo.vespa.config.protocol.SlimeConfigResponse;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.yahoo.vespa.config.PayloadChecksum.Type.MD5;
+import static com.yahoo.vespa.config.PayloadChecksum.Type.XXHASH64;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * The config served by an {@link Application}, persisted such that it can be served when the config server
+ * restarts, before the model of the application is built again. The file is memory mapped when read, and each
+ * config response is decoded from it when requested.
+ *
+ * @author agent
+ */
+public class ConfigSnapshot {
+
+    private static final int magic = 0x56435331; // "VCS1"
+
+    private final ApplicationId applicationId;
+    private final long generation;
+    private final Version version;
+    private final Version wantedNodeVersion;
+    private final Set<String> hosts;
+    private final Set<FileReference> fileReferences;
+    private final ByteBuffer buffer;
+    private final Map<ConfigCacheKey, Integer> offsets;
+
+    private ConfigSnapshot(ByteBuffer buffer) {
+        if (buffer.getInt() != magic) throw new IllegalArgumentException("Not a config snapshot");
+        this.applicationId = ApplicationId.fromSerializedForm(readString(buffer));
+        this.generation = buffer.getLong();
+        this.version = Version.fromString(readString(buffer));
+        this.wantedNodeVersion = Version.fromString(readString(buffer));
+        this.hosts = Set.copyOf(readStrings(buffer));
+        this.fileReferences = readStrings(buffer).stream().map(FileReference::new).collect(toSet());
+        int count = buffer.getInt();
+        this.offsets = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String name = readString(buffer);
+            String namespace = readString(buffer);
+            String configId = readString(buffer);
+            String defMd5 = readString(buffer);
+            offsets.put(new ConfigCacheKey(new ConfigKey<>(name, configId, namespace), defMd5), buffer.position());
+            skipResponse(buffer);
+        }
+        this.buffer = buffer;
+    }
+
+    /** Reads the snapshot in the given file, which is memory mapped */
+    public static ConfigSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return new ConfigSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Writes the config served by the given application to the given file, replacing it atomically */
+    public static void write(Application application, Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Model model = application.getModel();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(magic);
+            writeString(out, application.getId().serializedForm());
+            out.writeLong(application.getApplicationGeneration());
+            writeString(out, application.getVespaVersion().toFullString());
+            writeString(out, model.wantedNodeVersion().toFullString());
+            writeStrings(out, model.getHosts().stream().map(HostInfo::getHostname).toList());
+            writeStrings(out, model.fileReferences().stream().map(FileReference::value).toList());
+            Map<ConfigCacheKey, ConfigResponse> configs = application.getCache().entries();
+            out.writeInt(configs.size());
+            for (var entry : configs.entrySet()) {
+                ConfigKey<?> key = entry.getKey().getKey();
+                writeString(out, key.getName());
+                writeString(out, key.getNamespace());
+                writeString(out, key.getConfigId());
+                writeString(out, entry.getKey().getDefMd5());
+                writeResponse(out, entry.getValue());
+            }
+        }
+        Files.move(temporary, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    public ApplicationId applicationId() { return applicationId; }
+
+    public long generation() { return generation; }
+
+    public Version version() { return version; }
+
+    /** Returns the number of config responses in this */
+    public int size() { return offsets.size(); }
+
+    /** Returns the config response for the given key, if it is in this snapshot */
+    public Optional<ConfigResponse> get(ConfigCacheKey key) {
+        Integer offset = offsets.get(key);
+        if (offset == null) return Optional.empty();
+
+        ByteBuffer response = buffer.duplicate().position(offset);
+        boolean applyOnRestart = response.get() != 0;
+        long generation = response.getLong();
+        PayloadChecksums checksums = PayloadChecksums.from(readString(response), readString(response));
+        CompressionInfo compressionInfo = CompressionInfo.create(CompressionType.valueOf(readString(response)), response.getInt());
+        int length = response.getInt();
+        return Optional.of(new SlimeConfigResponse(new Utf8Array(response, length), generation, applyOnRestart, checksums, compressionInfo));
+    }
+
+    /**
+     * Returns a model which answers everything but config from this snapshot. Config must be resolved
+     * through a {@link com.yahoo.vespa.config.server.ServerCache} holding this snapshot.
+     */
+    public Model model() { return new SnapshotModel(); }
+
+    @Override
+    public String toString() {
+        return "config snapshot of " + applicationId + ", generation " + generation + ", version " + version +
+               ", with " + size() + " configs";
+    }
+
+    private static void writeResponse(DataOutputStream out, ConfigResponse response) throws IOException {
+        out.writeBoolean(response.applyOnRestart());
+        out.writeLong(response.getGeneration());
+        writeString(out, checksum(response.getPayloadChecksums(), MD5));
+        writeString(out, checksum(response.getPayloadChecksums(), XXHASH64));
+        writeString(out, response.getCompressionInfo().getCompressionType().name());
+        out.writeInt(response.getCompressionInfo().getUncompressedSize());
+        ByteBuffer payload = response.getPayload().wrap();
+        out.writeInt(payload.remaining());
+        out.write(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+    }
+
+    private static void skipResponse(ByteBuffer buffer) {
+        buffer.position(buffer.position() + 1 + 8);
+        for (int i = 0; i < 3; i++)
+            buffer.position(buffer.position() + buffer.getInt());
+        buffer.position(buffer.position() + 4);
+        buffer.position(buffer.position() + buffer.getInt());
+    }
+
+    private static String checksum(PayloadChecksums checksums, PayloadChecksum.Type type) {
+        PayloadChecksum checksum = checksums.getForType(type);
+        return checksum == null ? "" : checksum.asString();
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values)
+            writeString(out, value);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = Utf8.toBytes(value);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            values.add(readString(buffer));
+        return values;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[buffer.getInt()];
+        buffer.get(utf8);
+        return Utf8.toString(utf8);
+    }
+
+    /** A model with the hosts and file references of the snapshot, but which does not produce config */
+    class SnapshotModel implements Model {
+
+        @Override
+        public ConfigInstance.Builder getConfigInstance(ConfigKey<?> configKey, ConfigDefinition configDefinition) {
+            throw new IllegalStateException(configKey + " is not in the " + ConfigSnapshot.this +
+                                            ", and the model is not built yet");
+        }
+
+        @Override
+        public Set<ConfigKey<?>> allConfigsProduced() {
+            Set<ConfigKey<?>> keys = new LinkedHashSet<>();
+            offsets.keySet().forEach(key -> keys.add(key.getKey()));
+            return keys;
+        }
+
+        @Override
+        public Collection<HostInfo> getHosts() {
+            return hosts.stream().map(hostname -> new HostInfo(hostname, List.of())).toList();
+        }
+
+        @Override
+        public Set<String> allConfigIds() {
+            return offsets.keySet().stream().map(key -> key.getKey().getConfigId()).collect(toSet());
+        }
+
+        @Override
+        public Set<FileReference> fileReferences() { return fileReferences; }
+
+        @Override
+        public AllocatedHosts allocatedHosts() { return AllocatedHosts.withHosts(Set.of()); }
+
+        @Override
+        public Version version() { return version; }
+
+        @Override
+        public Version wantedNodeVersion() { return wantedNodeVersion; }
+
+    }
+
+}
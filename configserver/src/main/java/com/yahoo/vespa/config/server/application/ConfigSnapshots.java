@@ -0,0 +1,108 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.server.application;
+
+import com.yahoo.component.Version;
+import com.yahoo.config.provision.ApplicationId;
+import com.yahoo.io.IOUtils;
+import com.yahoo.yolean.Exceptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@link ConfigSnapshot}s of the applications of a tenant, stored in a directory per application, with one
+ * file per generation and Vespa version of the application. Only snapshots of the active generation are kept.
+ *
+ * @author agent
+ */
+public class ConfigSnapshots {
+
+    private static final Logger log = Logger.getLogger(ConfigSnapshots.class.getName());
+
+    private final File directory;
+    private final Map<Path, Integer> writtenConfigs = new ConcurrentHashMap<>();
+
+    public ConfigSnapshots(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Writes snapshots of the given application set, unless the set is served from snapshots, or has not served
+     * any new configs since its snapshots were written. Snapshots of other generations are removed when written.
+     *
+     * @return whether any snapshots were written
+     */
+    public boolean write(ApplicationSet applicationSet) {
+        boolean written = false;
+        for (Application application : applicationSet.getAllApplications()) {
+            if (application.isFromSnapshot()) continue;
+
+            Path file = file(application.getId(), application.getApplicationGeneration(), application.getVespaVersion());
+            int configs = application.getCache().checkSumElems();
+            if (configs == 0 || writtenConfigs.getOrDefault(file, 0) == configs) continue;
+
+            try {
+                Files.createDirectories(file.getParent());
+                ConfigSnapshot.write(application, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed writing config snapshot of " + application, e);
+            }
+            writtenConfigs.put(file, configs);
+            written = true;
+        }
+        if (written)
+            removeExcept(applicationSet.getId(), applicationSet.getApplicationGeneration());
+        return written;
+    }
+
+    /** Returns the snapshots of the given generation of the given application, or an empty list if they cannot be read */
+    public List<ConfigSnapshot> read(ApplicationId id, long generation) {
+        File[] files = applicationDirectory(id).listFiles((dir, name) -> name.startsWith(generation + "-") && ! name.endsWith(".tmp"));
+        if (files == null) return List.of();
+
+        List<ConfigSnapshot> snapshots = new ArrayList<>();
+        for (File file : files) {
+            try {
+                snapshots.add(ConfigSnapshot.read(file.toPath()));
+            } catch (IOException | RuntimeException e) {
+                log.log(Level.WARNING, "Could not read config snapshot " + file + ": " + Exceptions.toMessageString(e));
+                return List.of();
+            }
+        }
+        return snapshots;
+    }
+
+    /** Removes all snapshots of the given application */
+    public void remove(ApplicationId id) {
+        writtenConfigs.keySet().removeIf(file -> file.getParent().equals(applicationDirectory(id).toPath()));
+        IOUtils.recursiveDeleteDir(applicationDirectory(id));
+    }
+
+    private void removeExcept(ApplicationId id, long generation) {
+        File[] files = applicationDirectory(id).listFiles((dir, name) -> ! name.startsWith(generation + "-"));
+        if (files == null) return;
+
+        for (File file : files) {
+            writtenConfigs.remove(file.toPath());
+            IOUtils.recursiveDeleteDir(file);
+        }
+    }
+
+    private File applicationDirectory(ApplicationId id) {
+        return new File(directory, id.serializedForm());
+    }
+
+    private Path file(ApplicationId id, long generation, Version version) {
+        return new File(applicationDirectory(id), generation + "-" + version.toFullString()).toPath();
+    }
+
+}
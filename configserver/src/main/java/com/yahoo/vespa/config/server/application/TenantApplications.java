@@ -27,9 +27,12 @@ import com.yahoo.vespa.curator.CompletionTimeoutException;
 import com.yahoo.vespa.curator.Curator;
 import com.yahoo.vespa.curator.Lock;
 import com.yahoo.vespa.curator.transaction.CuratorTransaction;
+import com.yahoo.vespa.flags.BooleanFlag;
 import com.yahoo.vespa.flags.FlagSource;
+import com.yahoo.vespa.flags.Flags;
 import com.yahoo.vespa.flags.ListFlag;
 import com.yahoo.vespa.flags.PermanentFlags;
+import com.yahoo.yolean.Exceptions;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
 import java.nio.file.Files;
@@ -76,6 +79,8 @@ public class TenantApplications implements RequestHandler, HostValidator<Applica
     private final TenantFileSystemDirs tenantFileSystemDirs;
     private final ConfigserverConfig configserverConfig;
     private final ListFlag<String> incompatibleVersions;
+    private final BooleanFlag useConfigSnapshots;
+    private final ConfigSnapshots configSnapshots;
 
     public TenantApplications(TenantName tenant, Curator curator, StripedExecutor<TenantName> zkWatcherExecutor,
                               ExecutorService zkCacheExecutor, Metrics metrics, ConfigActivationListener configActivationListener,
@@ -97,6 +102,8 @@ public class TenantApplications implements RequestHandler, HostValidator<Applica
         this.clock = clock;
         this.configserverConfig = configserverConfig;
         this.incompatibleVersions = PermanentFlags.INCOMPATIBLE_VERSIONS.bindTo(flagSource);
+        this.useConfigSnapshots = Flags.USE_CONFIG_SNAPSHOTS.bindTo(flagSource);
+        this.configSnapshots = new ConfigSnapshots(tenantFileSystemDirs.snapshotsPath());
     }
 
     /** The curator backed ZK storage of this. */
@@ -241,6 +248,28 @@ public class TenantApplications implements RequestHandler, HostValidator<Applica
         }
     }
 
+    /**
+     * Activates the config of the given app, as {@link #activateApplication}, but only if the given session is still
+     * the active session of the application when the application lock is held.
+     *
+     * @return whether the config was activated
+     */
+    public boolean activateApplicationIfSessionIsActive(ApplicationSet applicationSet, long sessionId) {
+        ApplicationId id = applicationSet.getId();
+        try (Lock lock = lock(id)) {
+            if ( ! exists(id))
+                return false; // Application was deleted before activation.
+            if (applicationSet.getApplicationGeneration() != sessionId)
+                return false;
+            if ( ! activeSessionOf(id).equals(Optional.of(sessionId)))
+                return false; // Application activated a new session before we got here.
+
+            setActiveApp(applicationSet);
+            notifyConfigActivationListeners(applicationSet);
+            return true;
+        }
+    }
+
     // Note: Assumes that caller already holds the application lock
     // (when getting event from zookeeper to remove application,
     // the lock should be held by the thread that causes the event to happen)
@@ -251,6 +280,7 @@ public class TenantApplications implements RequestHandler, HostValidator<Applica
             return;
         }
 
+        configSnapshots.remove(applicationId);
         if (hasApplication(applicationId)) {
             applicationMapper.remove(applicationId);
             hostRegistry.removeHostsForKey(applicationId);
@@ -402,6 +432,28 @@ public class TenantApplications implements RequestHandler, HostValidator<Applica
         configActivationListener.verifyHostsAreAvailable(applicationId, newHosts);
     }
 
+    /** The config snapshots of the active applications of this tenant. */
+    public ConfigSnapshots configSnapshots() { return configSnapshots; }
+
+    /**
+     * Writes config snapshots of the active applications which have served new configs since their snapshots were written.
+     *
+     * @return the number of applications for which writing snapshots failed
+     */
+    public int writeConfigSnapshots() {
+        int failures = 0;
+        for (ApplicationId id : applicationMapper.listApplicationIds()) {
+            if ( ! useConfigSnapshots.with(APPLICATION_ID, id.serializedForm()).value()) continue;
+            try {
+                applicationMapper.get(id).ifPresent(configSnapshots::write);
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, TenantRepository.logPre(id) + "Failed writing config snapshots: " + Exceptions.toMessageString(e));
+                failures++;
+            }
+        }
+        return failures;
+    }
+
     public HostValidator<ApplicationId> getHostValidator() {
         return this;
     }
@@ -33,6 +33,10 @@ public class TenantFileSystemDirs {
         return new File(serverDB, Path.fromString("tenants").append(tenant.value()).append("sessions").getRelative());
     }
 
+    public File snapshotsPath() {
+        return new File(serverDB, Path.fromString("tenants").append(tenant.value()).append("snapshots").getRelative());
+    }
+
     public File getUserApplicationDir(long generation) {
         return new File(sessionsPath(), String.valueOf(generation));
     }
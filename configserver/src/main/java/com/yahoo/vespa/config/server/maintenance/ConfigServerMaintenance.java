@@ -55,6 +55,7 @@ public class ConfigServerMaintenance {
         maintainers.add(new SessionsMaintainer(applicationRepository, curator, Duration.ofSeconds(30), flagSource));
         maintainers.add(new ReindexingMaintainer(applicationRepository, curator, flagSource,
                                                  Duration.ofMinutes(3), convergenceChecker, Clock.systemUTC()));
+        maintainers.add(new ConfigSnapshotMaintainer(applicationRepository, curator, Duration.ofMinutes(1), flagSource));
     }
 
     public void shutdown() {
@@ -0,0 +1,38 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.server.maintenance;
+
+import com.yahoo.vespa.config.server.ApplicationRepository;
+import com.yahoo.vespa.config.server.tenant.Tenant;
+import com.yahoo.vespa.curator.Curator;
+import com.yahoo.vespa.flags.FlagSource;
+
+import java.time.Duration;
+
+/**
+ * Writes snapshots of the config served by active applications, such that config can be served from these
+ * when the config server restarts, while the application models are built.
+ *
+ * @author agent
+ */
+public class ConfigSnapshotMaintainer extends ConfigServerMaintainer {
+
+    ConfigSnapshotMaintainer(ApplicationRepository applicationRepository,
+                             Curator curator,
+                             Duration interval,
+                             FlagSource flagSource) {
+        super(applicationRepository, curator, flagSource, applicationRepository.clock().instant(), interval, false);
+    }
+
+    @Override
+    protected double maintain() {
+        int attempts = 0;
+        int failures = 0;
+        for (Tenant tenant : applicationRepository.tenantRepository().getAllTenants()) {
+            attempts++;
+            if (tenant.getApplicationRepo().writeConfigSnapshots() > 0)
+                failures++;
+        }
+        return asSuccessFactor(attempts, failures);
+    }
+
+}
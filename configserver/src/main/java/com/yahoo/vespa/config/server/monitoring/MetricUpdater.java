@@ -16,6 +16,7 @@ import static com.yahoo.vespa.config.server.monitoring.Metrics.getMetricName;
 public class MetricUpdater {
     private static final String METRIC_UNKNOWN_HOSTS = getMetricName("unknownHostRequests");
     private static final String METRIC_SESSION_CHANGE_ERRORS = getMetricName("sessionChangeErrors");
+    private static final String METRIC_DEFERRED_MODEL_BUILD_FAILURES = getMetricName("deferredModelBuildFailures");
     private static final String METRIC_NEW_SESSIONS = getMetricName("newSessions");
     private static final String METRIC_PREPARED_SESSIONS = getMetricName("preparedSessions");
     private static final String METRIC_ACTIVATED_SESSIONS = getMetricName("activeSessions");
@@ -121,6 +122,13 @@ public class MetricUpdater {
         metrics.increment(METRIC_SESSION_CHANGE_ERRORS, metricContext);
     }
 
+    /**
+     * Increment the number of failed model builds of applications activated from config snapshots.
+     */
+    public void incDeferredModelBuildFailures() {
+        metrics.increment(METRIC_DEFERRED_MODEL_BUILD_FAILURES, metricContext);
+    }
+
     /**
      * Set the number of new sessions.
      */
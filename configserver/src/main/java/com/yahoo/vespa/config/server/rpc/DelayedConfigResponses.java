@@ -11,8 +11,12 @@ import com.yahoo.vespa.config.server.monitoring.MetricUpdater;
 import com.yahoo.vespa.config.server.monitoring.Metrics;
 import com.yahoo.vespa.config.server.tenant.TenantRepository;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -43,6 +47,11 @@ public class DelayedConfigResponses {
        config, all requests on this queue are reprocessed as if they were a new request */
     private final Map<ApplicationId, BlockingQueue<DelayedConfigResponse>> delayedResponses =
             new ConcurrentHashMap<>();
+
+    /* The delayed response of each request which is on one of the queues above, and the requests which were
+       cancelled by a returned batch before their delayed response was scheduled. Guarded by responsesByRequest. */
+    private final Map<JRTServerConfigRequest, DelayedConfigResponse> responsesByRequest = new HashMap<>();
+    private final Set<JRTServerConfigRequest> cancelledRequests = new HashSet<>();
             
     DelayedConfigResponses(RpcServer rpcServer, int numTimerThreads) {
         this(rpcServer, numTimerThreads, true);
@@ -99,6 +108,7 @@ public class DelayedConfigResponses {
          */
         private void removeFromQueue() {
             delayedResponsesQueue.remove(this);
+            unregister(this);
         }
 
         JRTServerConfigRequest getRequest() {
@@ -122,6 +132,7 @@ public class DelayedConfigResponses {
         }
 
         synchronized boolean cancel() {
+            unregister(this);
             removeWatcher();
             if (future == null) {
                 throw new IllegalStateException("Cannot cancel a task that has not been scheduled");
@@ -133,6 +144,8 @@ public class DelayedConfigResponses {
             delayedResponsesQueue.put(this);
             future = executorService.schedule(this, delay, TimeUnit.MILLISECONDS);
             addWatcher();
+            if ( ! register(this))
+                cancelAndRemove();
         }
 
         /**
@@ -203,6 +216,40 @@ public class DelayedConfigResponses {
         }
     }
 
+    /**
+     * Cancels the delayed responses of the given requests, which will then not be responded to.
+     * This is used for requests in a batch which is returned while they are waiting for a config change.
+     * A request may be cancelled after it is marked as delayed, but before its response is scheduled,
+     * in which case the response is cancelled when it is scheduled.
+     */
+    void cancel(Collection<JRTServerConfigRequest> requests) {
+        for (JRTServerConfigRequest request : requests) {
+            DelayedConfigResponse response;
+            synchronized (responsesByRequest) {
+                response = responsesByRequest.get(request);
+                if (response == null)
+                    cancelledRequests.add(request);
+            }
+            if (response != null)
+                response.cancelAndRemove();
+        }
+    }
+
+    /** Registers a scheduled response, and returns false if its request is already cancelled */
+    private boolean register(DelayedConfigResponse response) {
+        synchronized (responsesByRequest) {
+            if (cancelledRequests.remove(response.request)) return false;
+            responsesByRequest.put(response.request, response);
+            return true;
+        }
+    }
+
+    private void unregister(DelayedConfigResponse response) {
+        synchronized (responsesByRequest) {
+            responsesByRequest.remove(response.request, response);
+        }
+    }
+
     void stop() {
         executorService.shutdown();
     }
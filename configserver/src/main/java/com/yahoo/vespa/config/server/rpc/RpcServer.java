@@ -25,6 +25,7 @@ import com.yahoo.vespa.config.ErrorCode;
 import com.yahoo.vespa.config.JRTMethods;
 import com.yahoo.vespa.config.protocol.ConfigResponse;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequest;
+import com.yahoo.vespa.config.protocol.JRTServerConfigRequestBatch;
 import com.yahoo.vespa.config.protocol.JRTServerConfigRequestV3;
 import com.yahoo.vespa.config.protocol.Trace;
 import com.yahoo.vespa.config.server.GetConfigContext;
@@ -169,6 +170,19 @@ public class RpcServer implements Runnable, ConfigActivationListener, TenantList
                 .thenRun(() -> addToRequestQueue(JRTServerConfigRequestV3.createFromRequest(req)));
     }
 
+    /**
+     * Handles RPC method "config.v3.getConfigs" requests, where each config request in the batch is
+     * handled as a separate "config.v3.getConfig" request, see {@link JRTServerConfigRequestBatch}.
+     */
+    private void getConfigsV3(Request req) {
+        req.detach();
+        JRTServerConfigRequestBatch batch = JRTServerConfigRequestBatch.createFromRequest(req, delayedConfigResponses::cancel);
+        for (JRTServerConfigRequest request : batch.requests()) {
+            rpcAuthorizer.authorizeConfigRequest(request.getRequest())
+                    .thenRun(() -> addToRequestQueue(request));
+        }
+    }
+
     /**
      * Returns 0 if server is alive.
      */
@@ -239,6 +253,7 @@ public class RpcServer implements Runnable, ConfigActivationListener, TenantList
     public void setUpGetConfigHandlers() {
         // The getConfig method in this class will handle RPC calls for getting config
         getSupervisor().addMethod(JRTMethods.createConfigV3GetConfigMethod(this::getConfigV3));
+        getSupervisor().addMethod(JRTMethods.createConfigV3GetConfigsMethod(this::getConfigsV3));
         isServingConfigRequests = true;
     }
 
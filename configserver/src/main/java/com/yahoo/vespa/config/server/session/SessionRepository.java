@@ -22,8 +22,11 @@ import com.yahoo.transaction.AbstractTransaction;
 import com.yahoo.transaction.NestedTransaction;
 import com.yahoo.transaction.Transaction;
 import com.yahoo.vespa.config.server.ConfigServerDB;
+import com.yahoo.vespa.config.server.ServerCache;
 import com.yahoo.vespa.config.server.TimeoutBudget;
+import com.yahoo.vespa.config.server.application.Application;
 import com.yahoo.vespa.config.server.application.ApplicationSet;
+import com.yahoo.vespa.config.server.application.ConfigSnapshot;
 import com.yahoo.vespa.config.server.application.PermanentApplicationPackage;
 import com.yahoo.vespa.config.server.application.TenantApplications;
 import com.yahoo.vespa.config.server.configchange.ConfigChangeActions;
@@ -42,7 +45,9 @@ import com.yahoo.vespa.config.server.zookeeper.SessionCounter;
 import com.yahoo.vespa.config.server.zookeeper.ZKApplication;
 import com.yahoo.vespa.curator.Curator;
 import com.yahoo.vespa.defaults.Defaults;
+import com.yahoo.vespa.flags.BooleanFlag;
 import com.yahoo.vespa.flags.FlagSource;
+import com.yahoo.vespa.flags.Flags;
 import com.yahoo.vespa.flags.PermanentFlags;
 import com.yahoo.vespa.flags.UnboundStringFlag;
 import com.yahoo.yolean.Exceptions;
@@ -71,6 +76,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -99,6 +105,8 @@ public class SessionRepository {
     private static final Logger log = Logger.getLogger(SessionRepository.class.getName());
     private static final FilenameFilter sessionApplicationsFilter = (dir, name) -> name.matches("\\d+");
     private static final long nonExistingActiveSessionId = 0;
+    private static final Duration minModelBuildRetryDelay = Duration.ofSeconds(10);
+    private static final Duration maxModelBuildRetryDelay = Duration.ofMinutes(10);
 
     private final Object monitor = new Object();
     private final Map<Long, LocalSession> localSessionCache = Collections.synchronizedMap(new HashMap<>());
@@ -128,6 +136,8 @@ public class SessionRepository {
     private final ModelFactoryRegistry modelFactoryRegistry;
     private final ConfigDefinitionRepo configDefinitionRepo;
     private final int maxNodeSize;
+    private final ExecutorService deferredModelBuildExecutor;
+    private final BooleanFlag useConfigSnapshots;
 
     public SessionRepository(TenantName tenantName,
                              TenantApplications applicationRepo,
@@ -147,7 +157,8 @@ public class SessionRepository {
                              Clock clock,
                              ModelFactoryRegistry modelFactoryRegistry,
                              ConfigDefinitionRepo configDefinitionRepo,
-                             int maxNodeSize) {
+                             int maxNodeSize,
+                             ExecutorService deferredModelBuildExecutor) {
         this.tenantName = tenantName;
         sessionCounter = new SessionCounter(curator, tenantName);
         this.sessionsPath = TenantRepository.getSessionsPath(tenantName);
@@ -171,6 +182,8 @@ public class SessionRepository {
         this.modelFactoryRegistry = modelFactoryRegistry;
         this.configDefinitionRepo = configDefinitionRepo;
         this.maxNodeSize = maxNodeSize;
+        this.deferredModelBuildExecutor = deferredModelBuildExecutor;
+        this.useConfigSnapshots = Flags.USE_CONFIG_SNAPSHOTS.bindTo(flagSource);
 
         loadSessions(); // Needs to be done before creating cache below
         this.directoryCache = curator.createDirectoryCache(sessionsPath.getAbsolute(), false, false, zkCacheExecutor);
@@ -477,6 +490,14 @@ public class SessionRepository {
             Optional<Long> activeSession = applicationRepo.activeSessionOf(applicationId);
             if (activeSession.isPresent() && activeSession.get() == session.getSessionId()) {
                 log.log(Level.FINE, () -> "Found active application for session " + session.getSessionId() + " , loading it");
+                Optional<ApplicationSet> fromSnapshots = loadApplicationFromSnapshots(session, applicationId);
+                if (fromSnapshots.isPresent()) {
+                    applicationRepo.activateApplication(fromSnapshots.get(), session.getSessionId());
+                    log.log(Level.INFO, session.logPre() + "Application activated from config snapshots: " + applicationId +
+                                        " (generation " + session.getSessionId() + "), building models in the background");
+                    deferredModelBuildExecutor.execute(() -> activateWithModels(session, applicationId, minModelBuildRetryDelay));
+                    return;
+                }
                 applicationRepo.activateApplication(ensureApplicationLoaded(session), session.getSessionId());
                 log.log(Level.INFO, session.logPre() + "Application activated successfully: " + applicationId + " (generation " + session.getSessionId() + ")");
                 return;
@@ -484,6 +505,64 @@ public class SessionRepository {
         }
     }
 
+    /**
+     * Returns an application set which serves config from the snapshots of the given session, if snapshots
+     * are used and exist for it. Config not in the snapshots is not available until the models are built.
+     */
+    private Optional<ApplicationSet> loadApplicationFromSnapshots(RemoteSession session, ApplicationId applicationId) {
+        if ( ! useConfigSnapshots.with(APPLICATION_ID, applicationId.serializedForm()).value()) return Optional.empty();
+
+        List<ConfigSnapshot> snapshots = applicationRepo.configSnapshots().read(applicationId, session.getSessionId());
+        if (snapshots.isEmpty()) return Optional.empty();
+
+        SessionZooKeeperClient sessionZooKeeperClient = createSessionZooKeeperClient(session.getSessionId());
+        MetricUpdater applicationMetricUpdater = metrics.getOrCreateMetricUpdater(Metrics.createDimensions(applicationId));
+        List<Application> applications = new ArrayList<>();
+        for (ConfigSnapshot snapshot : snapshots) {
+            ServerCache serverCache = new ServerCache(configDefinitionRepo,
+                                                      sessionZooKeeperClient.getUserConfigDefinitions(),
+                                                      Optional.of(snapshot));
+            applications.add(new Application(snapshot.model(),
+                                             serverCache,
+                                             snapshot.generation(),
+                                             snapshot.version(),
+                                             applicationMetricUpdater,
+                                             applicationId));
+        }
+        return Optional.of(ApplicationSet.fromList(applications));
+    }
+
+    /**
+     * Builds the models of the given session, and activates them if the session is still the active one of
+     * the application. A failed build is counted, and retried with increasing delay while the session is active,
+     * as config not in the snapshots is unavailable until the models are built.
+     */
+    private void activateWithModels(RemoteSession session, ApplicationId applicationId, Duration retryDelay) {
+        long sessionId = session.getSessionId();
+        if ( ! applicationRepo.activeSessionOf(applicationId).equals(Optional.of(sessionId))) return;
+
+        ApplicationSet applicationSet;
+        try {
+            applicationSet = ensureApplicationLoaded(session);
+        } catch (Exception e) {
+            metrics.getOrCreateMetricUpdater(Metrics.createDimensions(applicationId)).incDeferredModelBuildFailures();
+            log.log(Level.WARNING, session.logPre() + "Failed building models for " + applicationId + " (generation " +
+                                   sessionId + "), config not in its snapshots is unavailable. Retrying in " +
+                                   retryDelay + ": " + Exceptions.toMessageString(e));
+            Duration nextRetryDelay = retryDelay.multipliedBy(2).compareTo(maxModelBuildRetryDelay) < 0
+                                      ? retryDelay.multipliedBy(2) : maxModelBuildRetryDelay;
+            CompletableFuture.delayedExecutor(retryDelay.toMillis(), TimeUnit.MILLISECONDS, deferredModelBuildExecutor)
+                             .execute(() -> activateWithModels(session, applicationId, nextRetryDelay));
+            return;
+        }
+        if (applicationRepo.activateApplicationIfSessionIsActive(applicationSet, sessionId))
+            log.log(Level.INFO, session.logPre() + "Models built for application activated from config snapshots: " +
+                                applicationId + " (generation " + sessionId + ")");
+        else
+            log.log(Level.FINE, () -> session.logPre() + "Dropping models built for " + applicationId + " (generation " +
+                                      sessionId + "), as another session was activated meanwhile");
+    }
+
     void prepareRemoteSession(long sessionId) {
         // Might need to create local session first
         createLocalSessionFromDistributedApplicationPackage(sessionId);
@@ -106,6 +106,7 @@ public class TenantRepository {
     private final StripedExecutor<TenantName> zkApplicationWatcherExecutor;
     private final FileDistributionFactory fileDistributionFactory;
     private final ExecutorService deployHelperExecutor;
+    private final ExecutorService deferredModelBuildExecutor;
     private final FlagSource flagSource;
     private final SecretStore secretStore;
     private final HostProvisionerProvider hostProvisionerProvider;
@@ -201,6 +202,8 @@ public class TenantRepository {
         this.zookeeperServerConfig = zookeeperServerConfig;
         // This we should control with a feature flag.
         this.deployHelperExecutor = createModelBuilderExecutor();
+        this.deferredModelBuildExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                                                                       ThreadFactoryFactory.getDaemonThreadFactory("deferred-model-build"));
 
         curator.framework().getConnectionStateListenable().addListener(this::stateChanged);
 
@@ -374,7 +377,8 @@ public class TenantRepository {
                                                                     clock,
                                                                     modelFactoryRegistry,
                                                                     configDefinitionRepo,
-                                                                    zookeeperServerConfig.juteMaxBuffer());
+                                                                    zookeeperServerConfig.juteMaxBuffer(),
+                                                                    deferredModelBuildExecutor);
         log.log(Level.INFO, "Adding tenant '" + tenantName + "'" + ", created " + created +
                             ". Bootstrapping in " + Duration.between(start, clock.instant()));
         Tenant tenant = new Tenant(tenantName, sessionRepository, applicationRepo, created);
@@ -549,6 +553,7 @@ public class TenantRepository {
         fileDistributionFactory.close();
         try {
             zkCacheExecutor.shutdown();
+            deferredModelBuildExecutor.shutdownNow();
             checkForRemovedApplicationsService.shutdown();
             zkApplicationWatcherExecutor.shutdownAndWait();
             zkSessionWatcherExecutor.shutdownAndWait();
@@ -0,0 +1,133 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.config.server.application;
+
+import com.yahoo.component.Version;
+import com.yahoo.config.FileReference;
+import com.yahoo.config.model.api.HostInfo;
+import com.yahoo.config.provision.ApplicationId;
+import com.yahoo.vespa.config.ConfigCacheKey;
+import com.yahoo.vespa.config.ConfigKey;
+import com.yahoo.vespa.config.ConfigPayload;
+import com.yahoo.vespa.config.PayloadChecksums;
+import com.yahoo.vespa.config.protocol.ConfigResponse;
+import com.yahoo.vespa.config.protocol.Payload;
+import com.yahoo.vespa.config.server.ModelStub;
+import com.yahoo.vespa.config.server.ServerCache;
+import com.yahoo.vespa.config.server.monitoring.MetricUpdater;
+import com.yahoo.vespa.config.server.rpc.LZ4ConfigResponseFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class ConfigSnapshotsTest {
+
+    private static final ApplicationId applicationId = ApplicationId.from("tenant", "app", "default");
+    private static final Version version = Version.fromString("8.1.2");
+    private static final ConfigCacheKey key = new ConfigCacheKey(new ConfigKey<>("foo", "app/container.0", "bar"), "defmd5");
+    private static final ConfigCacheKey otherKey = new ConfigCacheKey(new ConfigKey<>("foo", "app/container.1", "bar"), "defmd5");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void snapshot_serves_the_configs_of_the_application() throws IOException {
+        ConfigSnapshots snapshots = new ConfigSnapshots(folder.newFolder());
+        Application application = createApplication(5);
+        ConfigResponse config = resolve(application.getCache(), key, "{ \"field\": 1 }");
+        resolve(application.getCache(), otherKey, "{ \"field\": 2 }");
+        assertTrue(snapshots.write(ApplicationSet.from(application)));
+
+        List<ConfigSnapshot> read = snapshots.read(applicationId, 5);
+        assertEquals(1, read.size());
+        ConfigSnapshot snapshot = read.get(0);
+        assertEquals(applicationId, snapshot.applicationId());
+        assertEquals(version, snapshot.version());
+        assertEquals(2, snapshot.size());
+
+        ConfigResponse fromSnapshot = snapshot.get(key).get();
+        assertEquals(config.getPayload(), fromSnapshot.getPayload());
+        assertEquals(config.getPayloadChecksums(), fromSnapshot.getPayloadChecksums());
+        assertEquals(config.getCompressionInfo(), fromSnapshot.getCompressionInfo());
+        assertEquals(config.getGeneration(), fromSnapshot.getGeneration());
+        assertEquals(Optional.empty(), snapshot.get(new ConfigCacheKey(key.getKey(), "otherdefmd5")));
+
+        Application fromSnapshots = new Application(snapshot.model(),
+                                                    new ServerCache(null, null, Optional.of(snapshot)),
+                                                    snapshot.generation(), snapshot.version(),
+                                                    MetricUpdater.createTestUpdater(), applicationId);
+        assertTrue(fromSnapshots.isFromSnapshot());
+        assertEquals(List.of("host1"), fromSnapshots.getModel().getHosts().stream().map(HostInfo::getHostname).toList());
+        assertEquals(Set.of(new FileReference("ref1")), fromSnapshots.getModel().fileReferences());
+        assertEquals(Set.of(key.getKey(), otherKey.getKey()), fromSnapshots.getModel().allConfigsProduced());
+        assertEquals(config.getPayload(),
+                     fromSnapshots.getCache().computeIfAbsent(key, __ -> { throw new AssertionError("Not from snapshot"); }).getPayload());
+        try {
+            fromSnapshots.getModel().getConfigInstance(new ConfigKey<>("foo", "app/other", "bar"), null);
+            fail("Expected exception");
+        } catch (IllegalStateException expected) { }
+
+        // Snapshots of applications served from snapshots are not written
+        assertFalse(snapshots.write(ApplicationSet.from(fromSnapshots)));
+    }
+
+    @Test
+    public void snapshot_is_written_when_application_serves_new_configs() throws IOException {
+        ConfigSnapshots snapshots = new ConfigSnapshots(folder.newFolder());
+        Application application = createApplication(5);
+        assertFalse("Nothing to write", snapshots.write(ApplicationSet.from(application)));
+
+        resolve(application.getCache(), key, "{ \"field\": 1 }");
+        assertTrue(snapshots.write(ApplicationSet.from(application)));
+        assertFalse("No new configs", snapshots.write(ApplicationSet.from(application)));
+        resolve(application.getCache(), otherKey, "{ \"field\": 2 }");
+        assertTrue(snapshots.write(ApplicationSet.from(application)));
+        assertEquals(2, snapshots.read(applicationId, 5).get(0).size());
+
+        Application next = createApplication(7);
+        resolve(next.getCache(), key, "{ \"field\": 3 }");
+        assertTrue(snapshots.write(ApplicationSet.from(next)));
+        assertEquals(List.of(), snapshots.read(applicationId, 5));
+        assertEquals(1, snapshots.read(applicationId, 7).size());
+
+        snapshots.remove(applicationId);
+        assertEquals(List.of(), snapshots.read(applicationId, 7));
+    }
+
+    private static ConfigResponse resolve(ServerCache cache, ConfigCacheKey key, String json) {
+        ConfigPayload payload = ConfigPayload.fromString(json);
+        return cache.computeIfAbsent(key, __ -> new LZ4ConfigResponseFactory().createResponse(payload.toUtf8Array(true),
+                                                                                            3,
+                                                                                            false,
+                                                                                            PayloadChecksums.fromPayload(Payload.from(payload))));
+    }
+
+    private static Application createApplication(long generation) {
+        return new Application(new SnapshotTestModel(), new ServerCache(), generation, version,
+                               MetricUpdater.createTestUpdater(), applicationId);
+    }
+
+    private static class SnapshotTestModel extends ModelStub {
+
+        @Override
+        public Collection<HostInfo> getHosts() { return List.of(new HostInfo("host1", List.of())); }
+
+        @Override
+        public Set<FileReference> fileReferences() { return Set.of(new FileReference("ref1")); }
+
+    }
+
+}
@@ -192,6 +192,21 @@ public class TenantApplicationsTest {
         assertTrue("Node is compatible after upgrading", applications.compatibleWith(Optional.of(nodeVersion1), app1));
     }
 
+    @Test
+    public void config_of_a_session_is_not_activated_after_another_session_is() throws Exception {
+        TenantApplications applications = createZKAppRepo();
+        ApplicationId app1 = createApplicationId("myapp");
+        applications.createApplication(app1);
+        applications.createPutTransaction(app1, 2).commit();
+
+        assertFalse(applications.activateApplicationIfSessionIsActive(createSet(app1, vespaVersion), 1));
+        assertFalse(applications.hasApplication(app1));
+
+        applications.createPutTransaction(app1, 1).commit();
+        assertTrue(applications.activateApplicationIfSessionIsActive(createSet(app1, vespaVersion), 1));
+        assertTrue(applications.hasApplication(app1));
+    }
+
     public static class MockConfigActivationListener implements ConfigActivationListener {
         public final AtomicInteger activated = new AtomicInteger(0);
         final AtomicInteger removed = new AtomicInteger(0);
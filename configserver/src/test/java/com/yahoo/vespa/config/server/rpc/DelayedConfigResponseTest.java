@@ -66,6 +66,25 @@ public class DelayedConfigResponseTest {
         assertEquals(0, responses.size());
     }
 
+    @Test
+    public void testCancelledResponsesAreRemoved() throws IOException {
+        GetConfigContext context = GetConfigContext.testContext(ApplicationId.defaultId());
+        MockRpcServer rpc = new MockRpcServer(13337, temporaryFolder.newFolder());
+        DelayedConfigResponses responses = new DelayedConfigResponses(rpc, 1, false);
+        JRTServerConfigRequest waiting = createRequest("foolio", "myid", 3, 100000, "bar");
+        responses.delayResponse(waiting, context);
+        assertEquals(1, responses.size());
+        responses.cancel(List.of(waiting));
+        assertEquals(0, responses.size());
+
+        // A request in a batch is cancelled when it is marked as delayed, before its response is scheduled
+        JRTServerConfigRequest cancelled = createRequest("foolio", "otherid", 3, 100000, "bar");
+        responses.cancel(List.of(cancelled));
+        responses.delayResponse(cancelled, context);
+        assertTrue(cancelled.isDelayedResponse());
+        assertEquals(0, responses.size());
+    }
+
     @Test
     public void testDelayedConfigResponse() throws IOException {
         MockRpcServer rpc = new MockRpcServer(13337, temporaryFolder.newFolder());
@@ -2,6 +2,7 @@
 package com.yahoo.container.di;
 
 import com.google.inject.Injector;
+import com.yahoo.concurrent.DaemonThreadFactory;
 import com.yahoo.config.ConfigInstance;
 import com.yahoo.config.ConfigurationRuntimeException;
 import com.yahoo.config.subscription.ConfigInterruptedException;
@@ -29,6 +30,8 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,6 +57,7 @@ public class Container {
     private List<String> platformBundles;  // Used to verify that platform bundles don't change.
     private long previousConfigGeneration = -1L;
     private long leastGeneration = -1L;
+    private int constructionThreads = 1; // The number of threads to construct the latest graph with
 
     public Container(SubscriberFactory subscriberFactory, String configId, ComponentDeconstructor destructor, Osgi osgi) {
         this.subscriberFactory = subscriberFactory;
@@ -98,6 +102,10 @@ public class Container {
     }
 
     private void constructComponents(ComponentGraph graph) {
+        if (constructionThreads > 1) {
+            constructComponentsInParallel(graph);
+            return;
+        }
         graph.nodes().forEach(n -> {
             if (Thread.interrupted())
                 throw new UncheckedInterruptedException("Interrupted while constructing component graph", true);
@@ -105,6 +113,16 @@ public class Container {
         });
     }
 
+    private void constructComponentsInParallel(ComponentGraph graph) {
+        ExecutorService executor = Executors.newFixedThreadPool(constructionThreads, new DaemonThreadFactory("component-construction-"));
+        try {
+            graph.constructInstances(executor);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
     private ComponentGraph waitForNewConfigGenAndCreateGraph(
             ComponentGraph graph, Injector fallbackInjector, boolean isInitializing)
     {
@@ -215,6 +233,10 @@ public class Container {
             throw new ConfigurationRuntimeException("The set of all configs does not include a valid 'components' config. Config set: "
                     + configsIncludingBootstrapConfigs.keySet());
         }
+        if (componentsConfig.constructionThreads() < 1)
+            throw new ConfigurationRuntimeException("constructionThreads must be positive, but was " +
+                                                   componentsConfig.constructionThreads());
+        constructionThreads = componentsConfig.constructionThreads();
         addNodes(componentsConfig, graph);
         injectNodes(componentsConfig, graph);
 
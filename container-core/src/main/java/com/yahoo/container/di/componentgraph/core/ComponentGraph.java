@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -165,6 +166,19 @@ public class ComponentGraph {
         }
     }
 
+    /**
+     * Constructs the instances of all nodes of this which are not already constructed, by running the constructors
+     * in the given executor. Each node is constructed as soon as the nodes it uses are, such that nodes which do not
+     * depend on each other are constructed concurrently.
+     * <p>
+     * If a constructor fails, no more constructors are started, and this waits for those already started before
+     * throwing the failure of the node which comes first in construction order. The instances constructed until then
+     * are kept in this graph, such that they are returned by {@link #allConstructedComponentsAndProviders}.
+     */
+    public void constructInstances(Executor executor) {
+        new ParallelConstruction(topologicalSort(nodes()), executor).run();
+    }
+
     /** All constructed components and providers of this, in reverse creation order, i.e., suited for ordered deconstruction. */
     public List<Object> allConstructedComponentsAndProviders() {
         List<Node> orderedNodes = topologicalSort(nodes());
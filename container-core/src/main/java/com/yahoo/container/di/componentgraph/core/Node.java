@@ -1,6 +1,7 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.container.di.componentgraph.core;
 
+import com.google.common.collect.MapMaker;
 import com.google.inject.Key;
 import com.yahoo.component.ComponentId;
 import com.yahoo.config.ConfigInstance;
@@ -13,6 +14,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Tony Vaagenes
@@ -21,6 +23,9 @@ import java.util.Set;
  */
 public abstract class Node {
 
+    /** Locks for calling providers, by provider identity, as components using a provider may be constructed concurrently */
+    private static final ConcurrentMap<Provider<?>, Object> providerLocks = new MapMaker().weakKeys().makeMap();
+
     private final ComponentId componentId;
     protected volatile Optional<Object> instance = Optional.empty();
     List<Node> componentsToInject = new ArrayList<>();
@@ -52,7 +57,9 @@ public abstract class Node {
         constructInstance();
         if (instance.get() instanceof Provider) {
             Provider<?> provider = (Provider<?>) instance.get();
-            return provider.get();
+            synchronized (providerLocks.computeIfAbsent(provider, __ -> new Object())) {
+                return provider.get();
+            }
         } else {
             return instance.get();
         }
@@ -0,0 +1,168 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.container.di.componentgraph.core;
+
+import com.yahoo.component.ComponentId;
+import com.yahoo.yolean.UncheckedInterruptedException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Constructs the nodes of a component graph concurrently, each as soon as all the nodes it uses are constructed.
+ *
+ * @author agent
+ */
+class ParallelConstruction {
+
+    private final List<Node> nodes;
+    private final Executor executor;
+    private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+    private final Map<ComponentId, Integer> orderById = new HashMap<>();
+    private final Map<ComponentId, List<Node>> usersById = new HashMap<>();
+
+    // The state below is guarded by this
+    private final Map<ComponentId, Integer> remainingDependenciesById = new HashMap<>();
+    private final SortedMap<Integer, Throwable> failures = new TreeMap<>();
+    private int running = 0;
+    private int completed = 0;
+    private boolean stopped = false;
+
+    /**
+     * @param nodes the nodes to construct, in an order where each node comes after all the nodes it uses
+     * @param executor the executor running the constructors
+     */
+    ParallelConstruction(List<Node> nodes, Executor executor) {
+        this.nodes = nodes;
+        this.executor = executor;
+        for (int i = 0; i < nodes.size(); i++)
+            orderById.put(nodes.get(i).componentId(), i);
+        for (Node node : nodes) {
+            Set<ComponentId> dependencies = new HashSet<>();
+            for (Node used : node.usedComponents()) {
+                if (orderById.containsKey(used.componentId()) && dependencies.add(used.componentId()))
+                    usersById.computeIfAbsent(used.componentId(), __ -> new ArrayList<>()).add(node);
+            }
+            remainingDependenciesById.put(node.componentId(), dependencies.size());
+        }
+    }
+
+    /**
+     * Constructs all the nodes, and returns when all constructors which were started are finished.
+     *
+     * @throws RuntimeException the failure of the first node in construction order whose constructor failed,
+     *         with the failures of any others added as suppressed exceptions
+     * @throws UncheckedInterruptedException if interrupted while waiting, in which case no more constructors are started
+     */
+    synchronized void run() {
+        Deque<Node> ready = new ArrayDeque<>();
+        for (Node node : nodes)
+            if (remainingDependenciesById.get(node.componentId()) == 0)
+                ready.add(node);
+        start(ready);
+
+        boolean interrupted = false;
+        while (running > 0 || ( ! stopped && completed < nodes.size())) {
+            try {
+                wait();
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+                stopped = true; // wait for running constructors, so all constructed components can be deconstructed
+            }
+        }
+        if ( ! failures.isEmpty())
+            throw failure();
+        if (interrupted)
+            throw new UncheckedInterruptedException("Interrupted while constructing component graph", true);
+    }
+
+    /** Starts construction of the given nodes, and completes those which are already constructed without delay */
+    private void start(Deque<Node> ready) {
+        while ( ! ready.isEmpty() && ! stopped) {
+            Node node = ready.poll();
+            if (node.constructedInstance().isPresent()) { // reused from a previous graph
+                completed(node, ready);
+                continue;
+            }
+            running++;
+            try {
+                executor.execute(() -> construct(node));
+            }
+            catch (RejectedExecutionException e) {
+                running--;
+                failed(node, e);
+            }
+        }
+    }
+
+    private void construct(Node node) {
+        synchronized (this) {
+            if (stopped) { // queued in the executor before construction was stopped
+                running--;
+                notifyAll();
+                return;
+            }
+        }
+
+        Thread thread = Thread.currentThread();
+        ClassLoader threadClassLoader = thread.getContextClassLoader();
+        Throwable failure = null;
+        try {
+            thread.setContextClassLoader(contextClassLoader);
+            node.constructInstance();
+        }
+        catch (Throwable t) {
+            failure = t;
+        }
+        finally {
+            thread.setContextClassLoader(threadClassLoader);
+        }
+
+        synchronized (this) {
+            running--;
+            if (failure != null) {
+                failed(node, failure);
+            }
+            else {
+                Deque<Node> ready = new ArrayDeque<>();
+                completed(node, ready);
+                start(ready);
+            }
+            notifyAll();
+        }
+    }
+
+    private void completed(Node node, Deque<Node> ready) {
+        completed++;
+        for (Node user : usersById.getOrDefault(node.componentId(), List.of()))
+            if (remainingDependenciesById.merge(user.componentId(), -1, Integer::sum) == 0)
+                ready.add(user);
+    }
+
+    private void failed(Node node, Throwable failure) {
+        failures.put(orderById.get(node.componentId()), failure);
+        stopped = true;
+    }
+
+    private RuntimeException failure() {
+        List<Throwable> all = new ArrayList<>(failures.values());
+        Throwable first = all.get(0);
+        for (Throwable other : all.subList(1, all.size()))
+            first.addSuppressed(other);
+        if (first instanceof RuntimeException runtimeException) return runtimeException;
+        if (first instanceof Error error) throw error;
+        return new RuntimeException(first);
+    }
+
+}
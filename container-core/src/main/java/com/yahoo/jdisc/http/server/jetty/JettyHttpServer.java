@@ -152,8 +152,11 @@ public class JettyHttpServer extends AbstractServerProvider {
         var authEnforcer = new TlsClientAuthenticationEnforcer(connectorConfigs);
         authEnforcer.setHandler(proxyHandler);
 
+        ZstdHandler zstdHandler = new ZstdHandler();
+        zstdHandler.setHandler(authEnforcer);
+
         GzipHandler gzipHandler = newGzipHandler(serverConfig);
-        gzipHandler.setHandler(authEnforcer);
+        gzipHandler.setHandler(zstdHandler);
 
         HttpResponseStatisticsCollector statisticsCollector =
                 new HttpResponseStatisticsCollector(serverConfig.metric().monitoringHandlerPaths(),
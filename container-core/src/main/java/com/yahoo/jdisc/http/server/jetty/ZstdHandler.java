@@ -0,0 +1,200 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.jdisc.http.server.jetty;
+
+import com.yahoo.compress.ZstdCompressor;
+import com.yahoo.compress.ZstdFrameDecoder;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.server.HttpChannel;
+import org.eclipse.jetty.server.HttpInput;
+import org.eclipse.jetty.server.HttpOutput;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.eclipse.jetty.util.Callback;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+/**
+ * A Jetty handler which decompresses request content with Content-Encoding zstd, and compresses response content
+ * with zstd when the client accepts this. Response content is compressed as one Zstd frame per buffer written
+ * by Jetty, so streamed responses are compressed as they are written. Request content is decompressed one frame
+ * at a time, as it arrives.
+ *
+ * This must be installed inside the {@link org.eclipse.jetty.server.handler.gzip.GzipHandler}, which then leaves
+ * responses compressed by this alone.
+ *
+ * @author agent
+ */
+class ZstdHandler extends HandlerWrapper {
+
+    static final String ZSTD = "zstd";
+
+    private static final Set<String> compressedMethods = Set.of("GET", "POST", "PUT", "PATCH");
+    private static final int minCompressedSize = 256;
+
+    @Override
+    public void handle(String target, Request request, HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws IOException, ServletException {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            HttpFields fields = request.getHttpFields();
+            if (ZSTD.equalsIgnoreCase(fields.get(HttpHeader.CONTENT_ENCODING))) {
+                fields.remove(HttpHeader.CONTENT_ENCODING);
+                fields.remove(HttpHeader.CONTENT_LENGTH);
+                long maxContentSize = RequestUtils.getConnector(request).connectorConfig().maxDecompressedContentSize();
+                request.getHttpInput().addInterceptor(new ZstdInputInterceptor(maxContentSize));
+            }
+            if (compressedMethods.contains(request.getMethod()) && acceptsZstd(fields.get(HttpHeader.ACCEPT_ENCODING))) {
+                HttpOutput out = request.getResponse().getHttpOutput();
+                out.setInterceptor(new ZstdOutputInterceptor(request.getHttpChannel(), out.getInterceptor()));
+            }
+        }
+        _handler.handle(target, request, servletRequest, servletResponse);
+    }
+
+    /** Returns whether the given Accept-Encoding header value includes zstd, with a non-zero quality */
+    static boolean acceptsZstd(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if ( ! parts[0].trim().equalsIgnoreCase(ZSTD)) continue;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?"))
+                    return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /** Returns whether responses with the given content type should be compressed */
+    static boolean isCompressible(String contentType) {
+        if (contentType == null) return true;
+        String mimeType = contentType.split(";")[0].trim().toLowerCase();
+        return ! (   mimeType.startsWith("image/")
+                  || mimeType.startsWith("video/")
+                  || mimeType.startsWith("audio/")
+                  || mimeType.equals("application/gzip")
+                  || mimeType.equals("application/zip")
+                  || mimeType.equals("application/zstd"));
+    }
+
+    /**
+     * Decompresses request content as complete frames arrive, and returns one frame at a time to Jetty, which
+     * calls this again with the same content until it has returned null. Content which is invalid, or larger
+     * than the max size, fails the request with 400 or 413.
+     */
+    private static class ZstdInputInterceptor implements HttpInput.Interceptor {
+
+        private final ZstdFrameDecoder decoder;
+
+        ZstdInputInterceptor(long maxContentSize) {
+            this.decoder = new ZstdFrameDecoder(maxContentSize);
+        }
+
+        @Override
+        public HttpInput.Content readFrom(HttpInput.Content content) {
+            try {
+                if (content.hasContent()) {
+                    ByteBuffer compressed = content.getByteBuffer();
+                    if (compressed.hasArray()) {
+                        decoder.feed(compressed.array(), compressed.arrayOffset() + compressed.position(), compressed.remaining());
+                        compressed.position(compressed.limit());
+                    }
+                    else {
+                        byte[] chunk = new byte[compressed.remaining()];
+                        compressed.get(chunk);
+                        decoder.feed(chunk, 0, chunk.length);
+                    }
+                }
+                for (byte[] frame; (frame = decoder.next()) != null; )
+                    if (frame.length > 0) return new HttpInput.Content(ByteBuffer.wrap(frame));
+            }
+            catch (ZstdFrameDecoder.ContentTooLargeException e) {
+                throw new RequestException(HttpStatus.PAYLOAD_TOO_LARGE_413, e.getMessage(), e);
+            }
+            catch (RuntimeException e) { // Thrown by the decoder on corrupt data
+                throw new RequestException(HttpStatus.BAD_REQUEST_400, "Invalid zstd content: " + e.getMessage(), e);
+            }
+            if (content instanceof HttpInput.EofContent && ! decoder.isEmpty())
+                throw new RequestException(HttpStatus.BAD_REQUEST_400, "Zstd content ended in the middle of a frame");
+            return null;
+        }
+
+    }
+
+    /** Compresses each buffer of response content written by Jetty as a separate frame */
+    private static class ZstdOutputInterceptor implements HttpOutput.Interceptor {
+
+        private enum State { UNDECIDED, COMPRESSING, NOT_COMPRESSING }
+
+        private final ZstdCompressor compressor = new ZstdCompressor();
+        private final HttpChannel channel;
+        private final HttpOutput.Interceptor next;
+        private State state = State.UNDECIDED;
+
+        ZstdOutputInterceptor(HttpChannel channel, HttpOutput.Interceptor next) {
+            this.channel = channel;
+            this.next = next;
+        }
+
+        @Override
+        public void write(ByteBuffer content, boolean last, Callback callback) {
+            if (state == State.UNDECIDED)
+                state = startCompressing(content, last) ? State.COMPRESSING : State.NOT_COMPRESSING;
+
+            if (state == State.NOT_COMPRESSING || ! content.hasRemaining()) {
+                next.write(content, last, callback);
+                return;
+            }
+
+            byte[] input;
+            int offset;
+            int length = content.remaining();
+            if (content.hasArray()) {
+                input = content.array();
+                offset = content.arrayOffset() + content.position();
+            }
+            else {
+                input = new byte[length];
+                offset = 0;
+                content.duplicate().get(input);
+            }
+            byte[] compressed = compressor.compress(input, offset, length);
+            content.position(content.limit());
+            next.write(ByteBuffer.wrap(compressed), last, callback);
+        }
+
+        private boolean startCompressing(ByteBuffer content, boolean last) {
+            Response response = channel.getResponse();
+            int status = response.getStatus();
+            if (status < 200 || status == HttpStatus.NO_CONTENT_204 || status == HttpStatus.NOT_MODIFIED_304) return false;
+            if (last && content.remaining() < minCompressedSize) return false;
+
+            HttpFields fields = response.getHttpFields();
+            if (fields.get(HttpHeader.CONTENT_ENCODING) != null) return false;
+            if ( ! isCompressible(fields.get(HttpHeader.CONTENT_TYPE))) return false;
+
+            fields.put(HttpHeader.CONTENT_ENCODING, ZSTD);
+            if ( ! fields.contains(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING.asString()))
+                fields.add(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING.asString());
+            response.setContentLength(-1);
+            return true;
+        }
+
+        @Override
+        public HttpOutput.Interceptor getNextInterceptor() { return next; }
+
+        @Override
+        public boolean isOptimizedForDirectBuffers() { return false; }
+
+    }
+
+}
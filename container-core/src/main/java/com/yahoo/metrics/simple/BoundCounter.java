@@ -0,0 +1,48 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.metrics.simple;
+
+import com.yahoo.api.annotations.Beta;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A counter bound to a single point in the metric space. Create one with
+ * {@link Counter#bind(Point)}, and keep it for as long as the point is in use.
+ * Unlike {@link Counter#add(long, Point)}, adding to a bound counter does not
+ * allocate, as the value is accumulated in a striped primitive accumulator
+ * which is read when building the next snapshot.
+ *
+ * @author agent
+ */
+@Beta
+public class BoundCounter {
+
+    private final LongAdder value = new LongAdder();
+
+    BoundCounter() { }
+
+    /** Increase this counter by 1. */
+    public void add() {
+        value.increment();
+    }
+
+    /**
+     * Add to this counter.
+     *
+     * @param n the amount by which to increase this counter
+     */
+    public void add(long n) {
+        value.add(n);
+    }
+
+    /** Moves the value accumulated since the last call into the given bucket. */
+    void harvest(Identifier id, Bucket bucket) {
+        long n = value.sumThenReset();
+        if (n == 0) return;
+
+        UntypedMetric metric = new UntypedMetric(null);
+        metric.add(n);
+        bucket.put(id, metric);
+    }
+
+}
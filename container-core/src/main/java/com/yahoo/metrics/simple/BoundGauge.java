@@ -0,0 +1,103 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.metrics.simple;
+
+import com.yahoo.api.annotations.Beta;
+import org.HdrHistogram.DoubleHistogram;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A gauge bound to a single point in the metric space. Create one with
+ * {@link Gauge#bind(Point)}, and keep it for as long as the point is in use.
+ * Unlike {@link Gauge#sample(double, Point)}, sampling a bound gauge does not
+ * allocate: samples are accumulated in primitive fields, and histogram recorders if the
+ * gauge has histogram {@link MetricSettings}, striped over the calling threads to avoid
+ * contention, and the stripes are merged when building the next snapshot.
+ *
+ * @author agent
+ */
+@Beta
+public class BoundGauge {
+
+    private static final int stripeCount = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final MetricSettings settings;
+    private final Stripe[] stripes;
+
+    BoundGauge(MetricSettings settings) {
+        this.settings = settings;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripes.length; i++)
+            stripes[i] = new Stripe(settings);
+    }
+
+    /**
+     * Record a sample.
+     *
+     * @param x sample value
+     */
+    public void sample(double x) {
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        synchronized (stripe) {
+            stripe.sample(x);
+        }
+    }
+
+    /** Moves the samples recorded since the last call into the given bucket. */
+    void harvest(Identifier id, Bucket bucket) {
+        UntypedMetric metric = null;
+        Stripe[] ordered = Arrays.copyOf(stripes, stripes.length);
+        // The last value of the stripe which was sampled last is the last value of the gauge
+        Arrays.sort(ordered, Comparator.comparingLong(stripe -> stripe.lastNanos));
+        for (Stripe stripe : ordered) {
+            synchronized (stripe) {
+                if (stripe.count == 0) continue;
+                if (metric == null)
+                    metric = new UntypedMetric(settings);
+                metric.putAggregate(stripe.count, stripe.sum, stripe.min, stripe.max, stripe.last, stripe.histogram);
+                stripe.reset();
+            }
+        }
+        if (metric != null)
+            bucket.put(id, metric);
+    }
+
+    private static class Stripe {
+
+        private final DoubleHistogram histogram;
+        private long count = 0;
+        private double sum;
+        private double min;
+        private double max;
+        private double last;
+        private volatile long lastNanos = Long.MIN_VALUE;
+
+        Stripe(MetricSettings settings) {
+            histogram = settings != null && settings.isHistogram() ? new DoubleHistogram(settings.getSignificantdigits()) : null;
+        }
+
+        void sample(double x) {
+            if (count == 0) {
+                sum = min = max = x;
+            } else {
+                sum += x;
+                min = Math.min(min, x);
+                max = Math.max(max, x);
+            }
+            last = x;
+            ++count;
+            if (histogram != null)
+                histogram.recordValue(x);
+            lastNanos = System.nanoTime();
+        }
+
+        void reset() {
+            count = 0;
+            if (histogram != null)
+                histogram.reset();
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.metrics.simple;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The bound counters and gauges of a {@link MetricReceiver}, keyed on their identifiers.
+ * Binding the same metric name and point twice gives the same instance, and the values
+ * of all bound metrics are moved into a bucket by {@link #harvest()} when the aggregator
+ * builds a snapshot.
+ *
+ * @author agent
+ */
+class BoundMetrics {
+
+    private final Map<Identifier, BoundCounter> counters = new ConcurrentHashMap<>();
+    private final Map<Identifier, BoundGauge> gauges = new ConcurrentHashMap<>();
+
+    BoundCounter counter(String name, Point point) {
+        return counters.computeIfAbsent(new Identifier(name, point), __ -> new BoundCounter());
+    }
+
+    BoundGauge gauge(String name, Point point, MetricSettings settings) {
+        return gauges.computeIfAbsent(new Identifier(name, point), __ -> new BoundGauge(settings));
+    }
+
+    /** Returns a bucket with the values accumulated in all bound metrics since the last call */
+    Bucket harvest() {
+        Bucket bucket = new Bucket();
+        counters.forEach((id, counter) -> counter.harvest(id, bucket));
+        gauges.forEach((id, gauge) -> gauge.harvest(id, bucket));
+        return bucket;
+    }
+
+}
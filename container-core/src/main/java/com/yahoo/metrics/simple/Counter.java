@@ -60,6 +60,18 @@ public class Counter {
         metricReceiver.update(new Sample(new Measurement(Long.valueOf(n)), new Identifier(name, p), AssumedType.COUNTER));
     }
 
+    /**
+     * Bind this counter to the given point, for allocation-free updates. Binding
+     * the same point again returns the same instance, so bound counters should be
+     * created for a bounded set of points, and kept by the caller.
+     *
+     * @param p the point in the metric space to bind to, or null for the default point of this counter
+     * @return a thread-safe counter for the given point
+     */
+    public BoundCounter bind(Point p) {
+        return metricReceiver.bindCounter(name, p == null ? defaultPosition : p);
+    }
+
     /**
      * Create a PointBuilder with default dimension values as given when this
      * counter was declared.
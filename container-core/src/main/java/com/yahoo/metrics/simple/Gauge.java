@@ -46,6 +46,18 @@ public class Gauge {
         receiver.update(new Sample(new Measurement(Double.valueOf(x)), new Identifier(name, p), AssumedType.GAUGE));
     }
 
+    /**
+     * Bind this gauge to the given point, for allocation-free sampling. Binding
+     * the same point again returns the same instance, so bound gauges should be
+     * created for a bounded set of points, and kept by the caller.
+     *
+     * @param p the point in the metric space to bind to, or null for the default point of this gauge
+     * @return a thread-safe gauge for the given point
+     */
+    public BoundGauge bind(Point p) {
+        return receiver.bindGauge(name, p == null ? defaultPosition : p);
+    }
+
     /**
      * Create a PointBuilder with the default dimension values reflecting those
      * given when this gauge was declared.
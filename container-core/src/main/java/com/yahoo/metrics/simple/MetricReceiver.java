@@ -9,6 +9,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import com.yahoo.api.annotations.Beta;
 import com.google.common.collect.ImmutableMap;
 import com.yahoo.concurrent.ThreadLocalDirectory;
+import com.yahoo.metrics.simple.UntypedMetric.AssumedType;
 
 /**
  * The reception point for measurements. This is the class users should inject
@@ -22,6 +23,8 @@ public class MetricReceiver {
 
     public static final MetricReceiver nullImplementation = new NullReceiver();
     private final ThreadLocalDirectory<Bucket, Sample> metricsCollection;
+    // The bound metrics harvested with metricsCollection, or null if there is no such harvesting
+    private final BoundMetrics boundMetrics;
 
     // A reference to the current snapshot. The *reference* is shared with MetricsAggregator and updated from there :-/
     private final AtomicReference<Bucket> currentSnapshot;
@@ -52,6 +55,11 @@ public class MetricReceiver {
         public void add(long n, Point p) {
         }
 
+        @Override
+        public BoundCounter bind(Point p) {
+            return new BoundCounter();
+        }
+
         @Override
         public PointBuilder builder() {
             return super.builder();
@@ -71,6 +79,11 @@ public class MetricReceiver {
         public void sample(double x, Point p) {
         }
 
+        @Override
+        public BoundGauge bind(Point p) {
+            return new BoundGauge(null);
+        }
+
         @Override
         public PointBuilder builder() {
             return super.builder();
@@ -78,17 +91,61 @@ public class MetricReceiver {
 
     }
 
+    /** A bound counter which records each addition as a sample, for receivers without bound metrics */
+    private static final class SampledBoundCounter extends BoundCounter {
+
+        private final MetricReceiver receiver;
+        private final Identifier id;
+
+        SampledBoundCounter(MetricReceiver receiver, Identifier id) {
+            this.receiver = receiver;
+            this.id = id;
+        }
+
+        @Override
+        public void add() {
+            add(1L);
+        }
+
+        @Override
+        public void add(long n) {
+            receiver.update(new Sample(new Measurement(n), id, AssumedType.COUNTER));
+        }
+
+    }
+
+    /** A bound gauge which records each value as a sample, for receivers without bound metrics */
+    private static final class SampledBoundGauge extends BoundGauge {
+
+        private final MetricReceiver receiver;
+        private final Identifier id;
+
+        SampledBoundGauge(MetricReceiver receiver, Identifier id) {
+            super(null);
+            this.receiver = receiver;
+            this.id = id;
+        }
+
+        @Override
+        public void sample(double x) {
+            receiver.update(new Sample(new Measurement(x), id, AssumedType.GAUGE));
+        }
+
+    }
+
     public static final class MockReceiver extends MetricReceiver {
 
         private final ThreadLocalDirectory<Bucket, Sample> collection;
+        private final BoundMetrics boundMetrics;
 
-        private MockReceiver(ThreadLocalDirectory<Bucket, Sample> collection) {
-            super(collection, null);
+        private MockReceiver(ThreadLocalDirectory<Bucket, Sample> collection, BoundMetrics boundMetrics) {
+            super(collection, boundMetrics, null);
             this.collection = collection;
+            this.boundMetrics = boundMetrics;
         }
 
         public MockReceiver() {
-            this(new ThreadLocalDirectory<>(new MetricUpdater()));
+            this(new ThreadLocalDirectory<>(new MetricUpdater()), new BoundMetrics());
         }
 
         /** Gathers all data since last snapshot */
@@ -97,6 +154,7 @@ public class MetricReceiver {
             for (Bucket b : collection.fetch()) {
                 merged.merge(b, true);
             }
+            merged.merge(boundMetrics.harvest(), true);
             return merged;
         }
 
@@ -110,7 +168,7 @@ public class MetricReceiver {
     private static final class NullReceiver extends MetricReceiver {
 
         NullReceiver() {
-            super(null, null);
+            super(null, null, null);
         }
 
         @Override
@@ -152,6 +210,16 @@ public class MetricReceiver {
             return null;
         }
 
+        @Override
+        BoundCounter bindCounter(String name, Point point) {
+            return new BoundCounter();
+        }
+
+        @Override
+        BoundGauge bindGauge(String name, Point point) {
+            return new BoundGauge(null);
+        }
+
         @Override
         void addMetricDefinition(String metricName, MetricSettings definition) {
         }
@@ -162,8 +230,18 @@ public class MetricReceiver {
         }
     }
 
+    /**
+     * Creates a receiver which records all metrics in the given collection. Bound counters and gauges
+     * of this record each update there as well, as there is nothing else to harvest them from.
+     */
     public MetricReceiver(ThreadLocalDirectory<Bucket, Sample> metricsCollection, AtomicReference<Bucket> currentSnapshot) {
+        this(metricsCollection, null, currentSnapshot);
+    }
+
+    MetricReceiver(ThreadLocalDirectory<Bucket, Sample> metricsCollection, BoundMetrics boundMetrics,
+                   AtomicReference<Bucket> currentSnapshot) {
         this.metricsCollection = metricsCollection;
+        this.boundMetrics = boundMetrics;
         this.currentSnapshot = currentSnapshot;
         metricSettings = new ImmutableMap.Builder<String, MetricSettings>().build();
     }
@@ -249,6 +327,23 @@ public class MetricReceiver {
         return new Gauge(name, defaultDimensions, this);
     }
 
+    /**
+     * Returns the bound counter for the given metric and point, see {@link Counter#bind(Point)}.
+     */
+    BoundCounter bindCounter(String name, Point point) {
+        if (boundMetrics == null) return new SampledBoundCounter(this, new Identifier(name, point));
+        return boundMetrics.counter(name, point);
+    }
+
+    /**
+     * Returns the bound gauge for the given metric and point, see {@link Gauge#bind(Point)}.
+     * Histogram settings are those declared for the metric when it is first bound.
+     */
+    BoundGauge bindGauge(String name, Point point) {
+        if (boundMetrics == null) return new SampledBoundGauge(this, new Identifier(name, point));
+        return boundMetrics.gauge(name, point, getMetricDefinition(name));
+    }
+
     /**
      * Create a PointBuilder instance with no default settings. PointBuilder
      * instances are not thread-safe.
@@ -61,6 +61,25 @@ public class UntypedMetric {
         ++count;
     }
 
+    /** Adds the given aggregate of gauge samples, where last is the newest sample */
+    void putAggregate(long n, double sum, double min, double max, double last, DoubleHistogram values) {
+        outputFormat = AssumedType.GAUGE;
+        if (count > 0) {
+            this.max = Math.max(max, this.max);
+            this.min = Math.min(min, this.min);
+            this.sum += sum;
+        } else {
+            this.max = max;
+            this.min = min;
+            this.sum = sum;
+        }
+        current = last;
+        count += n;
+        if (histogram != null && values != null) {
+            histogram.add(values);
+        }
+    }
+
     UntypedMetric pruneData() {
         UntypedMetric pruned = new UntypedMetric(null);
         pruned.outputFormat = this.outputFormat;
@@ -13,6 +13,11 @@
  * {@link com.yahoo.metrics.simple.MetricReceiver#declareGauge(String)},
  * {@link com.yahoo.metrics.simple.MetricReceiver#declareGauge(String, Point)}, or
  * {@link com.yahoo.metrics.simple.MetricReceiver#declareGauge(String, java.util.Optional, MetricSettings)}.
+ * Metrics which are updated often at the same point should be bound to that point with
+ * {@link com.yahoo.metrics.simple.Counter#bind(Point)} or
+ * {@link com.yahoo.metrics.simple.Gauge#bind(Point)}, as updating the returned
+ * {@link com.yahoo.metrics.simple.BoundCounter} or {@link com.yahoo.metrics.simple.BoundGauge}
+ * does not allocate.
  * </p>
  *
  * <p>
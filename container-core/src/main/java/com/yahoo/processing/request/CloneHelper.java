@@ -1,6 +1,7 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.processing.request;
 
+import com.yahoo.collections.CopyOnWriteHashMap;
 import com.yahoo.collections.MethodCache;
 import com.yahoo.component.provider.FreezableClass;
 import com.yahoo.lang.PublicCloneable;
@@ -140,4 +141,33 @@ public class CloneHelper {
         return cloneMap;
     }
 
+    /**
+     * Returns a new, empty map which is cheap to clone: The deep clone done by {@link #cloneMap} is deferred
+     * until the map or its clone is modified, or a cloneable value, which the reader may modify, is read from it.
+     */
+    public CopyOnWriteHashMap<CompoundName, Object> createCopyOnWriteMap() {
+        return new DeepCopyOnWriteMap(this);
+    }
+
+    /** A copy-on-write map which is deep cloned by a clone helper */
+    private static class DeepCopyOnWriteMap extends CopyOnWriteHashMap<CompoundName, Object> {
+
+        private final CloneHelper cloneHelper;
+
+        DeepCopyOnWriteMap(CloneHelper cloneHelper) {
+            this.cloneHelper = cloneHelper;
+        }
+
+        @Override
+        protected Map<CompoundName, Object> copyMap(Map<CompoundName, Object> original) {
+            return cloneHelper.cloneMap(original);
+        }
+
+        @Override
+        protected boolean isMutable(Object value) {
+            return value instanceof Cloneable;
+        }
+
+    }
+
 }
@@ -1,17 +1,19 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.processing.request.properties;
 
+import com.yahoo.collections.CopyOnWriteHashMap;
+import com.yahoo.processing.request.CloneHelper;
 import com.yahoo.processing.request.CompoundName;
 import com.yahoo.processing.request.Properties;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * A HashMap backing of Properties.
  * <p>
  * When this is cloned it will deep copy not only the model object map, but also each
- * clonable member inside the map.
+ * clonable member inside the map. The copy is deferred until either this or the clone is
+ * modified, or a clonable member is read.
  * <p>
  * Subclassing is supported, a hook can be implemented to provide conditional inclusion in the map.
  * By default - all properties are accepted, so set is never propagated.
@@ -22,7 +24,9 @@ import java.util.Map;
  */
 public class PropertyMap extends Properties {
 
-    private Map<CompoundName, Object> properties = new HashMap<>();
+    private static final CloneHelper cloneHelper = new CloneHelper();
+
+    private CopyOnWriteHashMap<CompoundName, Object> properties = cloneHelper.createCopyOnWriteMap();
 
     public void set(CompoundName name, Object value, Map<String, String> context) {
         if (shouldSet(name, value))
@@ -51,7 +55,7 @@ public class PropertyMap extends Properties {
     @Override
     PropertyMap clone() {
         PropertyMap clone = (PropertyMap) super.clone();
-        clone.properties = cloneMap(this.properties);
+        clone.properties = this.properties.clone();
         return clone;
     }
 
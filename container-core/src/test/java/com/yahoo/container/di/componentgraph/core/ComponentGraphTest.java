@@ -25,8 +25,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import static com.yahoo.container.di.componentgraph.core.ComponentGraph.isBindingAnnotation;
@@ -95,6 +98,68 @@ public class ComponentGraphTest {
         }
     }
 
+    @Test
+    void independent_components_are_constructed_concurrently_after_their_dependencies() throws InterruptedException {
+        Node innerComponent = mockComponentNode(SimpleComponent.class);
+        Node middleComponent = mockComponentNode(ComponentTakingComponent.class);
+        Node outerComponent = mockComponentNode(ComponentTakingComponentTakingComponent.class);
+        Node concurrent1 = mockComponentNode(ConcurrentlyConstructedComponent.class);
+        Node concurrent2 = mockComponentNode(ConcurrentlyConstructedComponent.class);
+
+        ComponentGraph componentGraph = new ComponentGraph();
+        List.of(innerComponent, middleComponent, outerComponent, concurrent1, concurrent2).forEach(componentGraph::add);
+        componentGraph.complete();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            constructionLatch = new CountDownLatch(2);
+            componentGraph.constructInstances(executor);
+        }
+        finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        ComponentTakingComponentTakingComponent outer = (ComponentTakingComponentTakingComponent) outerComponent.constructedInstance().get();
+        assertSame(middleComponent.constructedInstance().get(), outer.injectedComponent);
+        assertSame(innerComponent.constructedInstance().get(), outer.injectedComponent.injectedComponent);
+        assertTrue(concurrent1.constructedInstance().isPresent());
+        assertTrue(concurrent2.constructedInstance().isPresent());
+        assertEquals(List.of(outer, outer.injectedComponent, outer.injectedComponent.injectedComponent),
+                     componentGraph.allConstructedComponentsAndProviders().stream()
+                                   .filter(component -> ! (component instanceof ConcurrentlyConstructedComponent))
+                                   .toList());
+    }
+
+    @Test
+    void concurrent_construction_waits_for_running_constructors_and_reports_all_failures() throws InterruptedException {
+        Node failing1 = mockComponentNode(ConcurrentlyFailingComponent.class);
+        Node failing2 = mockComponentNode(ConcurrentlyFailingComponent.class);
+        Node dependent = mockComponentNode(ComponentTakingComponent.class);
+        Node dependency = mockComponentNode(SimpleComponent.class);
+
+        ComponentGraph componentGraph = new ComponentGraph();
+        List.of(failing1, failing2, dependent, dependency).forEach(componentGraph::add);
+        componentGraph.complete();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            constructionLatch = new CountDownLatch(2);
+            RuntimeException e = assertThrows(RuntimeException.class, () -> componentGraph.constructInstances(executor));
+            assertTrue(e.getMessage().contains(ConcurrentlyFailingComponent.class.getName()), e.getMessage());
+            assertEquals(1, e.getSuppressed().length);
+        }
+        finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertTrue(failing1.constructedInstance().isEmpty());
+        assertTrue(failing2.constructedInstance().isEmpty());
+        assertTrue(dependent.constructedInstance().isEmpty());
+        for (Object component : componentGraph.allConstructedComponentsAndProviders())
+            assertSame(dependency.constructedInstance().get(), component);
+    }
+
     @Test
     void component_can_be_explicitly_injected_into_another_component() {
         Node injectedComponent = mockComponentNode(SimpleComponent.class);
@@ -531,6 +596,24 @@ public class ComponentGraphTest {
         }
     }
 
+    private static volatile CountDownLatch constructionLatch;
+
+    /** Can only be constructed when another instance is constructed at the same time */
+    public static class ConcurrentlyConstructedComponent extends AbstractComponent {
+        public ConcurrentlyConstructedComponent() throws InterruptedException {
+            constructionLatch.countDown();
+            assertTrue(constructionLatch.await(10, TimeUnit.SECONDS), "Constructed concurrently");
+        }
+    }
+
+    public static class ConcurrentlyFailingComponent extends AbstractComponent {
+        public ConcurrentlyFailingComponent() throws InterruptedException {
+            constructionLatch.countDown();
+            constructionLatch.await(10, TimeUnit.SECONDS);
+            throw new IllegalStateException("Failing");
+        }
+    }
+
     public static class ComponentTakingComponent extends AbstractComponent {
         final SimpleComponent injectedComponent;
 
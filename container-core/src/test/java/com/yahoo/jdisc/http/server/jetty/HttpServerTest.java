@@ -3,6 +3,7 @@ package com.yahoo.jdisc.http.server.jetty;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Module;
+import com.yahoo.compress.ZstdCompressor;
 import com.yahoo.container.logging.ConnectionLog;
 import com.yahoo.container.logging.ConnectionLogEntry;
 import com.yahoo.container.logging.RequestLog;
@@ -55,6 +56,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -65,10 +67,12 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
+import static com.yahoo.jdisc.Response.Status.BAD_REQUEST;
 import static com.yahoo.jdisc.Response.Status.GATEWAY_TIMEOUT;
 import static com.yahoo.jdisc.Response.Status.INTERNAL_SERVER_ERROR;
 import static com.yahoo.jdisc.Response.Status.NOT_FOUND;
 import static com.yahoo.jdisc.Response.Status.OK;
+import static com.yahoo.jdisc.Response.Status.REQUEST_TOO_LONG;
 import static com.yahoo.jdisc.Response.Status.REQUEST_URI_TOO_LONG;
 import static com.yahoo.jdisc.Response.Status.UNAUTHORIZED;
 import static com.yahoo.jdisc.Response.Status.UNSUPPORTED_MEDIA_TYPE;
@@ -577,6 +581,64 @@ public class HttpServerTest {
         assertTrue(driver.close());
     }
 
+    @Test
+    void requireThatZstdEncodingRequestsAreAutomaticallyDecompressed() throws Exception {
+        JettyTestDriver driver = JettyTestDriver.newInstance(new ParameterPrinterRequestHandler());
+        String requestContent = generateContent('a', 30);
+        ResponseValidator response = driver.client().newPost("/status.html")
+                .addHeader(CONTENT_TYPE, APPLICATION_X_WWW_FORM_URLENCODED)
+                .setZstdContent(requestContent)
+                .execute();
+        response.expectStatusCode(is(OK))
+                .expectContent(startsWith('{' + requestContent + "=[]}"));
+        assertTrue(driver.close());
+    }
+
+    @Test
+    void requireThatTooLargeZstdContentIsRejected() throws Exception {
+        JettyTestDriver driver = JettyTestDriver.newConfiguredInstance(new ParameterPrinterRequestHandler(),
+                                                                       new ServerConfig.Builder(),
+                                                                       new ConnectorConfig.Builder().maxDecompressedContentSize(1000));
+        driver.client().newPost("/status.html")
+              .addHeader(CONTENT_TYPE, APPLICATION_X_WWW_FORM_URLENCODED)
+              .setZstdContent(generateContent('a', 1001))
+              .execute()
+              .expectStatusCode(is(REQUEST_TOO_LONG));
+        assertTrue(driver.close());
+    }
+
+    @Test
+    void requireThatTruncatedZstdContentIsRejected() throws Exception {
+        JettyTestDriver driver = JettyTestDriver.newInstance(new ParameterPrinterRequestHandler());
+        byte[] content = generateContent('a', 1000).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = new ZstdCompressor().compress(content, 0, content.length);
+        driver.client().newPost("/status.html")
+              .addHeader(CONTENT_TYPE, APPLICATION_X_WWW_FORM_URLENCODED)
+              .addHeader("Content-Encoding", "zstd")
+              .setBinaryContent(Arrays.copyOf(compressed, compressed.length - 1))
+              .execute()
+              .expectStatusCode(is(BAD_REQUEST));
+        assertTrue(driver.close());
+    }
+
+    @Test
+    void requireThatResponsesAreZstdCompressedWhenAccepted() throws Exception {
+        JettyTestDriver driver = JettyTestDriver.newInstance(new EchoRequestHandler());
+        driver.client().newPost("/status.html")
+              .addHeader("Accept-Encoding", "gzip;q=0.5, zstd")
+              .setContent(generateContent('a', 1000))
+              .execute()
+              .expectStatusCode(is(OK))
+              .expectHeader("Content-Encoding", is("zstd"));
+        driver.client().newPost("/status.html")
+              .addHeader("Accept-Encoding", "zstd;q=0")
+              .setContent(generateContent('a', 1000))
+              .execute()
+              .expectStatusCode(is(OK))
+              .expectNoHeader("Content-Encoding");
+        assertTrue(driver.close());
+    }
+
     @Test
     void requireThatResponseStatsAreCollected() throws Exception {
         RequestTypeHandler handler = new RequestTypeHandler();
@@ -1,6 +1,7 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.jdisc.http.server.jetty;
 
+import com.yahoo.compress.ZstdCompressor;
 import org.apache.hc.client5.http.SystemDefaultDnsResolver;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
@@ -146,6 +147,12 @@ public class SimpleHttpClient implements AutoCloseable {
             return this;
         }
 
+        public RequestExecutor setZstdContent(String content) {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            this.entity = new ByteArrayEntity(new ZstdCompressor().compress(bytes, 0, bytes.length), null, "zstd");
+            return this;
+        }
+
         public RequestExecutor setBinaryContent(final byte[] content) {
             this.entity = new ByteArrayEntity(content, ContentType.DEFAULT_BINARY);
             return this;
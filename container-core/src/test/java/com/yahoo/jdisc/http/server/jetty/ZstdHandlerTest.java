@@ -0,0 +1,35 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.jdisc.http.server.jetty;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author agent
+ */
+class ZstdHandlerTest {
+
+    @Test
+    void zstd_is_accepted_unless_quality_is_zero() {
+        assertTrue(ZstdHandler.acceptsZstd("zstd"));
+        assertTrue(ZstdHandler.acceptsZstd("gzip, deflate, ZSTD;q=0.8"));
+        assertTrue(ZstdHandler.acceptsZstd("zstd; q=0.01"));
+        assertFalse(ZstdHandler.acceptsZstd(null));
+        assertFalse(ZstdHandler.acceptsZstd("gzip, deflate"));
+        assertFalse(ZstdHandler.acceptsZstd("zstd;q=0"));
+        assertFalse(ZstdHandler.acceptsZstd("zstd;q=0.000, gzip"));
+        assertFalse(ZstdHandler.acceptsZstd("x-zstd"));
+    }
+
+    @Test
+    void already_compressed_content_types_are_not_compressed() {
+        assertTrue(ZstdHandler.isCompressible(null));
+        assertTrue(ZstdHandler.isCompressible("application/json; charset=UTF-8"));
+        assertTrue(ZstdHandler.isCompressible("text/html"));
+        assertFalse(ZstdHandler.isCompressible("image/png"));
+        assertFalse(ZstdHandler.isCompressible("application/zstd"));
+    }
+
+}
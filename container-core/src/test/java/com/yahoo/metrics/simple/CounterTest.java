@@ -1,14 +1,19 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.metrics.simple;
 
+import com.yahoo.concurrent.ThreadLocalDirectory;
+
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -107,4 +112,40 @@ public class CounterTest {
         assertEquals(twoToThePowerOfFourtyeight, x.get(0).getValue().getCount());
     }
 
+    @Test
+    final void testBoundCounter() throws InterruptedException {
+        final String metricName = "unitTestCounter";
+        Counter c = receiver.declareCounter(metricName);
+        Point p = c.builder().set("x", 2L).build();
+        BoundCounter bound = c.bind(p);
+        assertSame(bound, c.bind(p));
+        bound.add();
+        bound.add(4L);
+        c.add(2L, p);
+        Bucket b = receiver.getSnapshot();
+        final Map<Point, UntypedMetric> values = b.getMapForMetric(metricName);
+        assertEquals(1, values.size());
+        assertEquals(7L, values.get(p).getCount());
+        assertTrue(values.get(p).isCounter());
+
+        // values are moved into the snapshot, not copied
+        assertEquals(0, receiver.getSnapshot().getMapForMetric(metricName).size());
+    }
+
+    @Test
+    final void testBoundCounterIsRecordedInCollectionWithoutBoundMetrics() {
+        final String metricName = "unitTestCounter";
+        ThreadLocalDirectory<Bucket, Sample> collection = new ThreadLocalDirectory<>(new MetricUpdater());
+        MetricReceiver collectingReceiver = new MetricReceiver(collection, new AtomicReference<>());
+        Counter c = collectingReceiver.declareCounter(metricName);
+        Point p = c.builder().set("x", 2L).build();
+        BoundCounter bound = c.bind(p);
+        bound.add();
+        bound.add(4L);
+        Bucket b = new Bucket();
+        for (Bucket threadBucket : collection.fetch())
+            b.merge(threadBucket, true);
+        assertEquals(5L, b.getMapForMetric(metricName).get(p).getCount());
+    }
+
 }
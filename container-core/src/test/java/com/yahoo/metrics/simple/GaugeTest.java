@@ -6,9 +6,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -78,4 +80,26 @@ public class GaugeTest {
         assertEquals(Math.E, x.get(0).getValue().getLast(), 1e-15);
     }
 
+    @Test
+    final void testBoundGauge() throws InterruptedException {
+        final String metricName = "unitTestGauge";
+        Gauge g = receiver.declareGauge(metricName, Optional.empty(), new MetricSettings.Builder().histogram(true).build());
+        Point p = g.builder().set("x", 2L).build();
+        BoundGauge bound = g.bind(p);
+        assertSame(bound, g.bind(p));
+        Thread other = new Thread(() -> bound.sample(1.0d));
+        other.start();
+        other.join();
+        bound.sample(3.0d);
+        bound.sample(2.0d);
+        Bucket b = receiver.getSnapshot();
+        UntypedMetric value = b.getMapForMetric(metricName).get(p);
+        assertEquals(3L, value.getCount());
+        assertEquals(1.0d, value.getMin(), 0.0d);
+        assertEquals(3.0d, value.getMax(), 0.0d);
+        assertEquals(6.0d, value.getSum(), 0.0d);
+        assertEquals(2.0d, value.getLast(), 0.0d);
+        assertEquals(3.0d, value.getHistogram().getValueAtPercentile(100.0d), 0.01d);
+    }
+
 }
@@ -16,12 +16,12 @@ import com.yahoo.prelude.fastsearch.SummaryParameters;
 import com.yahoo.prelude.fastsearch.VespaBackEndSearcher;
 import com.yahoo.search.Query;
 import com.yahoo.search.Result;
-import com.yahoo.search.Searcher;
 import com.yahoo.search.config.ClusterConfig;
 import com.yahoo.search.dispatch.Dispatcher;
 import com.yahoo.search.query.ParameterParser;
 import com.yahoo.search.result.ErrorMessage;
 import com.yahoo.search.schema.SchemaInfo;
+import com.yahoo.search.searchchain.AsyncSearcher;
 import com.yahoo.search.searchchain.Execution;
 import com.yahoo.vespa.streamingvisitors.VdsStreamingSearcher;
 import com.yahoo.yolean.Exceptions;
@@ -34,9 +34,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
 
 import static com.yahoo.container.QrSearchersConfig.Searchcluster.Indexingmode.STREAMING;
@@ -49,7 +49,7 @@ import static com.yahoo.container.QrSearchersConfig.Searchcluster.Indexingmode.S
  * @author geirst
  */
 @After("*")
-public class ClusterSearcher extends Searcher {
+public class ClusterSearcher extends AsyncSearcher {
 
     private final static long DEFAULT_MAX_QUERY_TIMEOUT = 600000L;
     private final static long DEFAULT_MAX_QUERY_CACHE_TIMEOUT = 10000L;
@@ -166,13 +166,13 @@ public class ClusterSearcher extends Searcher {
     }
 
     @Override
-    public void fill(com.yahoo.search.Result result, String summaryClass, Execution execution) {
+    public CompletableFuture<Void> fillAsync(Result result, String summaryClass, Execution execution) {
         Query query = result.getQuery();
 
         VespaBackEndSearcher searcher = server;
         if (searcher != null) {
             if (query.getTimeLeft() > 0) {
-                searcher.fill(result, summaryClass, execution);
+                return searcher.fillAsync(result, summaryClass, execution);
             } else {
                 if (result.hits().getErrorHit() == null) {
                     result.hits().addError(ErrorMessage.createTimeout("No time left to get summaries, query timeout was " +
@@ -184,18 +184,19 @@ public class ClusterSearcher extends Searcher {
                 result.hits().addError(ErrorMessage.createNoBackendsInService("Could not fill result"));
             }
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    public Result search(Query query, Execution execution) {
+    public CompletableFuture<Result> searchAsync(Query query, Execution execution) {
         validateQueryTimeout(query);
         validateQueryCache(query);
         VespaBackEndSearcher searcher = server;
         if (searcher == null) {
-            return new Result(query, ErrorMessage.createNoBackendsInService("Could not search"));
+            return CompletableFuture.completedFuture(new Result(query, ErrorMessage.createNoBackendsInService("Could not search")));
         }
         if (query.getTimeLeft() <= 0) {
-            return new Result(query, ErrorMessage.createTimeout("No time left for searching"));
+            return CompletableFuture.completedFuture(new Result(query, ErrorMessage.createTimeout("No time left for searching")));
         }
 
         return doSearch(searcher, query, execution);
@@ -222,59 +223,73 @@ public class ClusterSearcher extends Searcher {
         query.getRanking().setQueryCache(false);
     }
 
-    private Result doSearch(Searcher searcher, Query query, Execution execution) {
+    private CompletableFuture<Result> doSearch(VespaBackEndSearcher searcher, Query query, Execution execution) {
         if (schemas.size() > 1) {
             return searchMultipleDocumentTypes(searcher, query, execution);
         } else {
             String docType = schemas.iterator().next();
             query.getModel().setRestrict(docType);
-            return searcher.search(query, execution);
+            return searcher.searchAsync(query, execution);
         }
     }
 
-    private static void processResult(Query query, FutureTask<Result> task, Result mergedResult) {
+    private static void processResult(Query query, CompletableFuture<Result> task, Result mergedResult) {
         try {
-            Result result = task.get();
+            Result result = task.join();
             mergedResult.mergeWith(result);
             mergedResult.hits().addAll(result.hits().asUnorderedHits());
-        } catch (ExecutionException | InterruptedException e) {
+        } catch (CompletionException e) {
             mergedResult.hits().addError(ErrorMessage.createInternalServerError("Failed querying '" +
                                                                                 query.getModel().getRestrict() + "': " +
-                                                                                Exceptions.toMessageString(e)));
+                                                                                Exceptions.toMessageString(e.getCause())));
         }
     }
 
-    private Result searchMultipleDocumentTypes(Searcher searcher, Query query, Execution execution) {
+    private CompletableFuture<Result> searchMultipleDocumentTypes(VespaBackEndSearcher searcher, Query query, Execution execution) {
         Set<String> schemas = resolveSchemas(query, execution.context().getIndexFacts());
         List<Query> queries = createQueries(query, schemas);
         if (queries.size() == 1) {
-            return searcher.search(queries.get(0), execution);
+            return searcher.searchAsync(queries.get(0), execution);
         } else {
             Result mergedResult = new Result(query);
-            List<FutureTask<Result>> pending = new ArrayList<>(queries.size());
-            for (Query q : queries) {
-                FutureTask<Result> task = new FutureTask<>(() -> searcher.search(q, execution));
-                try {
-                    executor.execute(task);
-                    pending.add(task);
-                } catch (RejectedExecutionException rej) {
-                    task.run();
-                    processResult(query, task, mergedResult);
-                }
-            }
-            for (FutureTask<Result> task : pending) {
-                processResult(query, task, mergedResult);
-            }
-            // Should we trim the merged result?
-            if (query.getOffset() > 0 || query.getHits() < mergedResult.hits().size()) {
-                if (mergedResult.getHitOrderer() != null) {
-                    // Make sure we have the necessary data for sorting
-                    searcher.fill(mergedResult, VespaBackEndSearcher.SORTABLE_ATTRIBUTES_SUMMARY_CLASS, execution);
-                }
-                mergedResult.hits().trim(query.getOffset(), query.getHits());
-                query.setOffset(0); // Needed when doing a trim
-            }
-            return mergedResult;
+            List<CompletableFuture<Result>> pending = new ArrayList<>(queries.size());
+            for (Query q : queries)
+                pending.add(searchInParallel(searcher, q, execution));
+
+            return CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new))
+                                    .handle((__, exception) -> {
+                                        for (CompletableFuture<Result> task : pending)
+                                            processResult(query, task, mergedResult);
+                                        return mergedResult;
+                                    })
+                                    .thenCompose(merged -> {
+                                        // Should we trim the merged result?
+                                        if (query.getOffset() == 0 && query.getHits() >= merged.hits().size())
+                                            return CompletableFuture.completedFuture(merged);
+
+                                        // Make sure we have the necessary data for sorting
+                                        CompletableFuture<Void> sortable = merged.getHitOrderer() == null
+                                                                           ? CompletableFuture.completedFuture(null)
+                                                                           : searcher.fillAsync(merged, VespaBackEndSearcher.SORTABLE_ATTRIBUTES_SUMMARY_CLASS, execution);
+                                        return sortable.thenApply(__ -> {
+                                            merged.hits().trim(query.getOffset(), query.getHits());
+                                            query.setOffset(0); // Needed when doing a trim
+                                            return merged;
+                                        });
+                                    });
+        }
+    }
+
+    /**
+     * Prepares and dispatches the given query in a thread of the executor, such that multiple queries are prepared
+     * in parallel, without holding the thread while waiting for the result
+     */
+    private CompletableFuture<Result> searchInParallel(VespaBackEndSearcher searcher, Query query, Execution execution) {
+        try {
+            return CompletableFuture.supplyAsync(() -> searcher.searchAsync(query, execution), executor)
+                                    .thenCompose(result -> result);
+        } catch (RejectedExecutionException e) {
+            return searcher.searchAsync(query, execution);
         }
     }
 
@@ -19,7 +19,11 @@ import com.yahoo.search.schema.SchemaInfo;
 import com.yahoo.search.searchchain.Execution;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * The searcher which forwards queries to fdispatch nodes, using the fnet/fs4
@@ -100,15 +104,53 @@ public class FastSearcher extends VespaBackEndSearcher {
                 fill(result, query.getPresentation().getSummary(), execution); // ARGH
             }
             return result;
-        } catch (TimeoutException e) {
-            return new Result(query,ErrorMessage.createTimeout(e.getMessage()));
         } catch (IOException e) {
-            Result result = new Result(query);
-            if (query.getTrace().getLevel() >= 1)
-                query.trace(getName() + " error response: " + result, false, 1);
-            result.hits().addError(ErrorMessage.createBackendCommunicationError(getName() + " failed: "+ e.getMessage()));
-            return result;
+            return errorResult(query, e);
+        }
+    }
+
+    /** Dispatches the query without holding a thread while waiting for the search nodes to respond */
+    @Override
+    public CompletableFuture<Result> searchAsync(Query query, Execution execution) {
+        SearchInvoker invoker;
+        try {
+            Optional<Result> rejected = prepareSearch(query);
+            if (rejected.isPresent()) return CompletableFuture.completedFuture(rejected.get());
+
+            if (dispatcher.searchCluster().allGroupsHaveSize1())
+                forceSinglePassGrouping(query);
+            invoker = getSearchInvoker(query);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return invoker.searchAsync(query, execution, executorOf(execution))
+                      .whenComplete((result, exception) -> invoker.close())
+                      .thenCompose(result -> {
+                          injectSource(result.hits());
+                          if ( ! query.properties().getBoolean(Ranking.RANKFEATURES, false))
+                              return CompletableFuture.completedFuture(result);
+                          // See doSearch2
+                          return fillAsync(result, query.getPresentation().getSummary(), execution).thenApply(__ -> result);
+                      })
+                      .exceptionally(exception -> {
+                          Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+                          if (cause instanceof UncheckedIOException e) return errorResult(query, e.getCause());
+                          if (cause instanceof RuntimeException e) throw e;
+                          throw new CompletionException(cause);
+                      })
+                      .thenApply(result -> traceResult(query, result));
+    }
+
+    private Result errorResult(Query query, IOException e) {
+        if (e instanceof TimeoutException)
+            return new Result(query,ErrorMessage.createTimeout(e.getMessage()));
+
+        Result result = new Result(query);
+        if (query.getTrace().getLevel() >= 1)
+            query.trace(getName() + " error response: " + result, false, 1);
+        result.hits().addError(ErrorMessage.createBackendCommunicationError(getName() + " failed: "+ e.getMessage()));
+        return result;
     }
 
     /**
@@ -156,6 +198,24 @@ public class FastSearcher extends VespaBackEndSearcher {
      * depends on query properties with the default being an invoker that uses RPC to interface with
      * content nodes.
      */
+    /** Fills the given partial result without holding a thread while waiting for the search nodes to respond */
+    @Override
+    protected CompletableFuture<Void> doPartialFillAsync(Result result, String summaryClass, Executor executor) {
+        if (result.isFilled(summaryClass)) return CompletableFuture.completedFuture(null);
+
+        Query query = result.getQuery();
+        traceQuery(getName(), "fill", query, query.getOffset(), query.getHits(), 1, quotedSummaryClass(summaryClass));
+
+        FillInvoker invoker;
+        try {
+            invoker = getFillInvoker(result);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return invoker.fillAsync(result, summaryClass, executor).whenComplete((__, exception) -> invoker.close());
+    }
+
     private FillInvoker getFillInvoker(Result result) {
         return dispatcher.getFillInvoker(result, this);
     }
@@ -28,6 +28,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Logger;
 
 /**
@@ -103,7 +106,7 @@ public abstract class VespaBackEndSearcher extends PingableSearcher {
         DocsumDefinition docsumDefinition = documentDb.getDocsumDefinitionSet().getDocsum(query.getPresentation().getSummary());
         if (docsumDefinition.isDynamic()) return true;
 
-        if (hasLocation(query.getModel().getQueryTree())) return true;
+        if (hasLocation(query.getModel().getReadOnlyQueryTree())) return true;
 
         // Needed to generate ranking features?
         RankProfile rankProfile = documentDb.schema().rankProfiles().get(query.getRanking().getProfile());
@@ -159,16 +162,41 @@ public abstract class VespaBackEndSearcher extends PingableSearcher {
 
     @Override
     public Result search(Query query, Execution execution) {
+        Optional<Result> rejected = prepareSearch(query);
+        if (rejected.isPresent()) return rejected.get();
+
+        return traceResult(query, doSearch2(query, execution));
+    }
+
+    /**
+     * Searches asynchronously, see {@link com.yahoo.search.searchchain.AsyncSearcher}.
+     * This default implementation searches synchronously, in the calling thread.
+     */
+    public CompletableFuture<Result> searchAsync(Query query, Execution execution) {
+        try {
+            return CompletableFuture.completedFuture(search(query, execution));
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Validates and rewrites the given query before it is dispatched.
+     *
+     * @return the result to return instead of dispatching the query, or empty if it should be dispatched
+     */
+    protected final Optional<Result> prepareSearch(Query query) {
         // query root should not be null here
         Item root = query.getModel().getQueryTree().getRoot();
         if (root == null || root instanceof NullItem) {
-            return new Result(query, ErrorMessage.createNullQuery(query.getHttpRequest().getUri().toString()));
+            return Optional.of(new Result(query, ErrorMessage.createNullQuery(query.getHttpRequest().getUri().toString())));
         }
 
         if ( ! getDocumentDatabase(query).schema().rankProfiles().containsKey(query.getRanking().getProfile()))
-            return new Result(query, ErrorMessage.createInvalidQueryParameter(getDocumentDatabase(query).schema() +
-                                                                              " does not contain requested rank profile '" +
-                                                                              query.getRanking().getProfile() + "'"));
+            return Optional.of(new Result(query, ErrorMessage.createInvalidQueryParameter(getDocumentDatabase(query).schema() +
+                                                                                          " does not contain requested rank profile '" +
+                                                                                          query.getRanking().getProfile() + "'")));
 
         QueryRewrite.optimizeByRestrict(query);
         QueryRewrite.optimizeAndNot(query);
@@ -176,7 +204,7 @@ public abstract class VespaBackEndSearcher extends PingableSearcher {
 
         root = query.getModel().getQueryTree().getRoot();
         if (root == null || root instanceof NullItem) // root can become null after optimization
-            return new Result(query);
+            return Optional.of(new Result(query));
 
         resolveDocumentDatabase(query);
         transformQuery(query);
@@ -184,10 +212,13 @@ public abstract class VespaBackEndSearcher extends PingableSearcher {
 
         root = query.getModel().getQueryTree().getRoot();
         if (root == null || root instanceof NullItem) // root can become null after resolving and transformation?
-            return new Result(query);
+            return Optional.of(new Result(query));
 
-        Result result = doSearch2(query, execution);
+        return Optional.empty();
+    }
 
+    /** Traces the given result of dispatching the given query, and returns it */
+    protected final Result traceResult(Query query, Result result) {
         if (query.getTrace().getLevel() >= 1)
             query.trace(getName() + " dispatch response: " + result, false, 1);
         result.trace(getName());
@@ -235,6 +266,54 @@ public abstract class VespaBackEndSearcher extends PingableSearcher {
         }
     }
 
+    /**
+     * Fills asynchronously, see {@link com.yahoo.search.searchchain.AsyncSearcher}.
+     * The partitions of the result are filled in parallel, by {@link #doPartialFillAsync}.
+     */
+    public CompletableFuture<Void> fillAsync(Result result, String summaryClass, Execution execution) {
+        if (result.isFilled(summaryClass)) return CompletableFuture.completedFuture(null);
+
+        List<Result> parts = partitionHits(result, summaryClass);
+        if (parts.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<?>[] filled = new CompletableFuture<?>[parts.size()];
+        for (int i = 0; i < parts.size(); i++)
+            filled[i] = doPartialFillAsync(parts.get(i), summaryClass, executorOf(execution));
+        return CompletableFuture.allOf(filled).thenRun(() -> {
+            for (Result r : parts)
+                mergeErrorsInto(result, r);
+            result.hits().setSorted(false);
+            result.analyzeHits();
+        });
+    }
+
+    /**
+     * Fills the given partial result asynchronously, processing responses in the given executor.
+     * This default implementation calls {@link #doPartialFill}, in the calling thread.
+     */
+    protected CompletableFuture<Void> doPartialFillAsync(Result result, String summaryClass, Executor executor) {
+        try {
+            doPartialFill(result, summaryClass);
+            return CompletableFuture.completedFuture(null);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Returns an executor which runs tasks in the calling thread if the executor of the given execution rejects them */
+    protected static Executor executorOf(Execution execution) {
+        Executor executor = execution.context().executor();
+        return command -> {
+            try {
+                executor.execute(command);
+            }
+            catch (RejectedExecutionException e) {
+                command.run();
+            }
+        };
+    }
+
     private void mergeErrorsInto(Result destination, Result source) {
         destination.hits().addErrorsFrom(source.hits());
     }
@@ -245,7 +324,7 @@ public abstract class VespaBackEndSearcher extends PingableSearcher {
         StringBuilder s = new StringBuilder();
         s.append(sourceName).append(" ").append(type).append(" to dispatch: ")
                 .append("query=[")
-                .append(query.getModel().getQueryTree().getRoot().toString())
+                .append(query.getModel().getReadOnlyQueryTree().getRoot().toString())
                 .append("]");
 
         s.append(" timeout=").append(query.getTimeout()).append("ms");
@@ -311,7 +390,7 @@ public abstract class VespaBackEndSearcher extends PingableSearcher {
         query.trace(s.toString(), false, level);
         if (query.getTrace().isTraceable(level + 1)) {
             query.trace("Current state of query tree: "
-                            + new TextualQueryRepresentation(query.getModel().getQueryTree().getRoot()),
+                            + new TextualQueryRepresentation(query.getModel().getReadOnlyQueryTree().getRoot()),
                     false, level+1);
         }
         if (query.getTrace().isTraceable(level + 2)) {
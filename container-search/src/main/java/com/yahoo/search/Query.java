@@ -623,7 +623,7 @@ public class Query extends com.yahoo.processing.Request implements Cloneable {
         String queryTree;
         // getQueryTree isn't exception safe
         try {
-            queryTree = model.getQueryTree().toString();
+            queryTree = model.getReadOnlyQueryTree().toString();
         } catch (Exception | StackOverflowError e) {
             queryTree = "[Could not parse user input: " + model.getQueryString() + "]";
         }
@@ -632,7 +632,7 @@ public class Query extends com.yahoo.processing.Request implements Cloneable {
 
     /** Returns a string describing this query in more detail */
     public String toDetailString() {
-        return "query=[" + new TextualQueryRepresentation(getModel().getQueryTree().getRoot()) + "]" +
+        return "query=[" + new TextualQueryRepresentation(getModel().getReadOnlyQueryTree().getRoot()) + "]" +
                " offset=" + getOffset() + " hits=" + getHits() +
                " sources=" + getModel().getSources() +
                " restrict= " + getModel().getRestrict() +
@@ -646,7 +646,7 @@ public class Query extends com.yahoo.processing.Request implements Cloneable {
      * @return the number of encoded query tree items
      */
     public int encode(ByteBuffer buffer) {
-        return model.getQueryTree().encode(buffer);
+        return model.getReadOnlyQueryTree().encode(buffer);
     }
 
     /** Calls getTrace().trace(message, traceLevel). */
@@ -68,6 +68,9 @@ public class Dispatcher extends AbstractComponent {
 
     private final int maxHitsPerNode;
 
+    /** The policy deciding when to send queries to a second group, or null if queries are not hedged */
+    private final HedgingPolicy hedgingPolicy;
+
     private static final QueryProfileType argumentType;
 
     static {
@@ -121,6 +124,9 @@ public class Dispatcher extends AbstractComponent {
         this.metric = metric;
         this.metricContext = metric.createContext(null);
         this.maxHitsPerNode = dispatchConfig.maxHitsPerNode();
+        this.hedgingPolicy = dispatchConfig.hedgeSearches() && searchCluster.orderedGroups().size() > 1
+                             ? new HedgingPolicy(dispatchConfig.hedgeLatencyPercentile(), dispatchConfig.hedgeBudget())
+                             : null;
         searchCluster.addMonitoring(clusterMonitor);
         Thread warmup = new Thread(() -> warmup(dispatchConfig.warmuptime()));
         warmup.start();
@@ -225,6 +231,8 @@ public class Dispatcher extends AbstractComponent {
                 query.trace(false, 2, "Dispatching to group ", group.id(), " after retries = ", i);
                 query.getModel().setSearchPath("/" + group.id());
                 invoker.get().teardown((success, time) -> loadBalancer.releaseGroup(group, success, time));
+                if (hedgingPolicy != null)
+                    return hedged(invoker.get(), group, rejected, query, searcher);
                 return invoker.get();
             } else {
                 loadBalancer.releaseGroup(group, false, RequestDuration.of(Duration.ZERO));
@@ -237,6 +245,30 @@ public class Dispatcher extends AbstractComponent {
         throw new IllegalStateException("No suitable groups to dispatch query. Rejected: " + rejected);
     }
 
+    private SearchInvoker hedged(SearchInvoker invoker, Group group, Set<Integer> rejected,
+                                 Query query, VespaBackEndSearcher searcher) {
+        Set<Integer> excluded = rejected == null ? new HashSet<>() : new HashSet<>(rejected);
+        excluded.add(group.id());
+        hedgingPolicy.queryDispatched();
+        return new HedgedSearchInvoker(invoker, hedgingPolicy, () -> getHedgeInvoker(query, searcher, excluded));
+    }
+
+    /** Returns an invoker of a group not in the given set which has full coverage, or empty if there is none */
+    private Optional<SearchInvoker> getHedgeInvoker(Query query, VespaBackEndSearcher searcher, Set<Integer> excluded) {
+        Optional<Group> groupInCluster = loadBalancer.takeGroup(excluded);
+        if (groupInCluster.isEmpty()) return Optional.empty();
+
+        Group group = groupInCluster.get();
+        Optional<SearchInvoker> invoker = invokerFactory.createSearchInvoker(searcher, query, group.nodes(), false, maxHitsPerNode);
+        if (invoker.isEmpty()) {
+            loadBalancer.releaseGroup(group, false, RequestDuration.of(Duration.ZERO));
+            return Optional.empty();
+        }
+        query.trace(false, 2, "Hedging to group ", group.id());
+        invoker.get().teardown((success, time) -> loadBalancer.releaseGroup(group, success, time));
+        return invoker;
+    }
+
     /**
      * We want to avoid groups blocking feed because their data may be out of date.
      * If there is a single group blocking feed, we want to reject it.
@@ -3,6 +3,9 @@ package com.yahoo.search.dispatch;
 
 import com.yahoo.search.Result;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * FillInvoker encapsulates an allocated connection for running a document summary retrieval.
  * The invocation object can be stateful and should not be reused.
@@ -17,6 +20,23 @@ public abstract class FillInvoker extends CloseableInvoker {
         getFillResults(result, summaryClass);
     }
 
+    /**
+     * Retrieves document summaries for the unfilled hits in the given {@link Result}, without holding a thread
+     * while waiting for them if the invoker supports this. The responses are processed by the given executor.
+     * This default implementation fills synchronously, in the calling thread.
+     *
+     * @return a future which completes when the result is filled, exceptionally where {@link #fill} throws
+     */
+    public CompletableFuture<Void> fillAsync(Result result, String summaryClass, Executor executor) {
+        try {
+            fill(result, summaryClass);
+            return CompletableFuture.completedFuture(null);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     protected abstract void getFillResults(Result result, String summaryClass);
 
     protected abstract void sendFillRequest(Result result, String summaryClass);
@@ -3,30 +3,72 @@ package com.yahoo.search.dispatch;
 
 import com.yahoo.prelude.fastsearch.DocsumDefinitionSet;
 import com.yahoo.prelude.fastsearch.GroupingListHit;
+import com.yahoo.prelude.fastsearch.TimeoutException;
 import com.yahoo.search.Query;
 import com.yahoo.searchlib.aggregation.Grouping;
 import com.yahoo.searchlib.aggregation.Hit;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Incrementally merges underlying {@link Grouping} instances from {@link GroupingListHit} hits.
  *
+ * If created with an executor, partial results are merged pairwise on the executor as they arrive, forming a
+ * reduction tree, instead of one by one into a single result in the calling thread. Partial merges may then
+ * also be pruned to the precision of each grouping level, see {@link Grouping#prune()}.
+ * The thread awaiting the merged result runs queued merges itself rather than waiting for the executor to get to them.
+ *
  * @author bjorncs
  */
 class GroupingResultAggregator {
     private static final Logger log = Logger.getLogger(GroupingResultAggregator.class.getName());
 
-    private final Map<Integer, Grouping> groupings = new LinkedHashMap<>();
+    private final Executor mergeExecutor;
+    private final int maxParallelMerges;
+    private final boolean prunePartialMerges;
+    private final Object monitor = new Object();
+
+    /** A partial merge which is not yet merged with any other, guarded by monitor */
+    private Map<Integer, Grouping> groupings = null;
+    /** The number of merges in progress or queued on the executor, guarded by monitor */
+    private int merging = 0;
+    /** Merges handed to the executor, which may not have started yet, guarded by monitor */
+    private final Deque<Merge> queuedMerges = new ArrayDeque<>();
+    /** The first failure of a merge on the executor, guarded by monitor */
+    private RuntimeException failure = null;
+
     private DocsumDefinitionSet docsumDefinitions = null;
     private Query query = null;
     private int groupingHitsMerged = 0;
 
+    /** Creates an aggregator merging in the calling thread */
+    GroupingResultAggregator() {
+        this(null, 0, false);
+    }
+
+    /**
+     * Creates an aggregator
+     *
+     * @param mergeExecutor the executor to merge on, or null to merge in the calling thread
+     * @param maxParallelMerges the max number of merges to run on the executor at once, 0 to merge in the calling thread
+     * @param prunePartialMerges whether to prune partial merges done on the executor
+     */
+    GroupingResultAggregator(Executor mergeExecutor, int maxParallelMerges, boolean prunePartialMerges) {
+        this.mergeExecutor = maxParallelMerges > 0 ? mergeExecutor : null;
+        this.maxParallelMerges = maxParallelMerges;
+        this.prunePartialMerges = prunePartialMerges && this.mergeExecutor != null;
+    }
+
     void mergeWith(GroupingListHit result) {
         ++groupingHitsMerged;
         if (docsumDefinitions == null) docsumDefinitions = result.getDocsumDefinitionSet();
@@ -34,20 +76,25 @@ class GroupingResultAggregator {
         log.log(Level.FINE, () ->
                 String.format("Merging hit #%d having %d groupings",
                         groupingHitsMerged, result.getGroupingList().size()));
+        Map<Integer, Grouping> partial = new LinkedHashMap<>();
         for (Grouping grouping : result.getGroupingList()) {
-            groupings.merge(grouping.getId(), grouping, (existingGrouping, newGrouping) -> {
-                existingGrouping.merge(newGrouping);
-                return existingGrouping;
-            });
+            partial.merge(grouping.getId(), grouping, GroupingResultAggregator::mergeGrouping);
         }
+        offer(partial, false);
     }
 
-    Optional<GroupingListHit> toAggregatedHit() {
+    /**
+     * Returns the merged result, if any results were merged
+     *
+     * @throws TimeoutException if the query times out before merges on the executor complete
+     */
+    Optional<GroupingListHit> toAggregatedHit() throws TimeoutException {
         if (groupingHitsMerged == 0) return Optional.empty();
+        Map<Integer, Grouping> merged = awaitMerged();
         log.log(Level.FINE, () ->
                 String.format("Creating aggregated hit containing %d groupings from %d hits with docsums '%s' and %s",
-                        groupings.size(), groupingHitsMerged, docsumDefinitions, query));
-        GroupingListHit groupingHit = new GroupingListHit(List.copyOf(groupings.values()), docsumDefinitions);
+                        merged.size(), groupingHitsMerged, docsumDefinitions, query));
+        GroupingListHit groupingHit = new GroupingListHit(List.copyOf(merged.values()), docsumDefinitions);
         groupingHit.setQuery(query);
         groupingHit.getGroupingList().forEach(g -> {
             g.select(o -> o instanceof Hit, o -> ((Hit)o).setContext(groupingHit));
@@ -56,4 +103,118 @@ class GroupingResultAggregator {
         return Optional.of(groupingHit);
     }
 
+    /**
+     * Adds a partial result. If there is another partial result waiting, the two are merged,
+     * and the result of that merge is offered in turn. The calling thread hands the merge to the executor
+     * if fewer than maxParallelMerges are in progress there, and merges itself otherwise.
+     *
+     * @param fromMerge whether the given partial result is the result of a merge on the executor,
+     *                  in which case this thread keeps merging until there is nothing to merge with
+     */
+    private void offer(Map<Integer, Grouping> partial, boolean fromMerge) {
+        while (true) {
+            Map<Integer, Grouping> other;
+            Merge merge = null;
+            synchronized (monitor) {
+                if (groupings == null) {
+                    groupings = partial;
+                    if (fromMerge) --merging;
+                    monitor.notifyAll();
+                    return;
+                }
+                other = groupings;
+                groupings = null;
+                if ( ! fromMerge && mergeExecutor != null && merging < maxParallelMerges) {
+                    ++merging;
+                    merge = new Merge(other, partial);
+                    queuedMerges.add(merge);
+                }
+            }
+            if (merge != null) {
+                try {
+                    mergeExecutor.execute(merge);
+                } catch (RejectedExecutionException e) {
+                    merge.run();
+                }
+                return;
+            }
+            partial = mergeAndPrune(other, partial);
+        }
+    }
+
+    private Map<Integer, Grouping> awaitMerged() throws TimeoutException {
+        while (true) {
+            Merge queued;
+            synchronized (monitor) {
+                if (merging == 0) {
+                    if (failure != null)
+                        throw failure;
+                    return groupings;
+                }
+                queued = queuedMerges.poll();
+                if (queued == null) {
+                    long timeLeft = query != null ? query.getTimeLeft() : Long.MAX_VALUE; // No query only in tests
+                    if (timeLeft <= 0)
+                        throw new TimeoutException("Timed out waiting for " + merging + " grouping merges");
+                    try {
+                        monitor.wait(timeLeft);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException("Interrupted while waiting for grouping results to be merged", e);
+                    }
+                    continue;
+                }
+            }
+            queued.run(); // Does nothing if the executor already started it
+        }
+    }
+
+    private Map<Integer, Grouping> mergeAndPrune(Map<Integer, Grouping> existing, Map<Integer, Grouping> partial) {
+        Map<Integer, Grouping> merged = merge(existing, partial);
+        if (prunePartialMerges)
+            merged.values().forEach(Grouping::prune);
+        return merged;
+    }
+
+    /** Merges the given partial result into the existing one, and returns the existing one */
+    private static Map<Integer, Grouping> merge(Map<Integer, Grouping> existing, Map<Integer, Grouping> partial) {
+        for (Grouping grouping : partial.values()) {
+            existing.merge(grouping.getId(), grouping, GroupingResultAggregator::mergeGrouping);
+        }
+        return existing;
+    }
+
+    private static Grouping mergeGrouping(Grouping existingGrouping, Grouping newGrouping) {
+        existingGrouping.merge(newGrouping);
+        return existingGrouping;
+    }
+
+    /** A merge of two partial results, run by either the executor or the thread awaiting the merged result */
+    private class Merge implements Runnable {
+
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private final Map<Integer, Grouping> existing;
+        private final Map<Integer, Grouping> partial;
+
+        Merge(Map<Integer, Grouping> existing, Map<Integer, Grouping> partial) {
+            this.existing = existing;
+            this.partial = partial;
+        }
+
+        @Override
+        public void run() {
+            if ( ! started.compareAndSet(false, true)) return;
+            try {
+                offer(mergeAndPrune(existing, partial), true);
+            } catch (RuntimeException e) {
+                synchronized (monitor) {
+                    --merging;
+                    if (failure == null) failure = e;
+                    monitor.notifyAll();
+                }
+            }
+        }
+
+    }
+
 }
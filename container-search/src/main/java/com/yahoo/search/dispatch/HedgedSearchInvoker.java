@@ -0,0 +1,165 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import com.yahoo.search.Query;
+import com.yahoo.search.searchchain.Execution;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends a query to a second group if the group it is first sent to has not answered
+ * within the delay given by a {@link HedgingPolicy}, and uses the first complete answer.
+ * The invoker which does not answer first is closed.
+ *
+ * @author agent
+ */
+class HedgedSearchInvoker extends SearchInvoker implements ResponseMonitor<SearchInvoker> {
+
+    private final SearchInvoker primary;
+    private final HedgingPolicy policy;
+    private final Supplier<Optional<SearchInvoker>> hedgeFactory;
+    private final LinkedBlockingQueue<SearchInvoker> completed = new LinkedBlockingQueue<>();
+
+    private Query query;
+    private RequestDuration primaryDuration;
+    private SearchInvoker hedge = null;
+    private SearchInvoker winner;
+    private boolean hedgingDecided = false;
+    private boolean signalAdaptiveTimeouts = false;
+
+    /**
+     * @param primary the invoker of the group the query is first sent to
+     * @param policy the policy deciding whether and when to hedge
+     * @param hedgeFactory creates an invoker of another group, or returns empty if there is none
+     */
+    HedgedSearchInvoker(SearchInvoker primary, HedgingPolicy policy, Supplier<Optional<SearchInvoker>> hedgeFactory) {
+        super(Optional.empty());
+        this.primary = primary;
+        this.policy = policy;
+        this.hedgeFactory = hedgeFactory;
+        this.winner = primary;
+    }
+
+    @Override
+    protected Object sendSearchRequest(Query query, Object context) throws IOException {
+        this.query = query;
+        primaryDuration = new RequestDuration();
+        primary.setMonitor(this);
+        return primary.sendSearchRequest(query, context);
+    }
+
+    @Override
+    protected void signalAdaptiveTimeouts() {
+        signalAdaptiveTimeouts = true;
+        primary.signalAdaptiveTimeouts();
+    }
+
+    @Override
+    protected InvokerResult getSearchResult(Execution execution) throws IOException {
+        winner = awaitFirstComplete();
+        SearchInvoker loser = winner == primary ? hedge : primary;
+        if (loser != null) {
+            loser.close();
+        }
+        if (winner == hedge) {
+            query.trace(false, 2, "Using the answer of the hedged query");
+        }
+        return winner.getSearchResult(execution);
+    }
+
+    /** Returns the invoker which completed first, or the primary if none completed in time */
+    private SearchInvoker awaitFirstComplete() throws IOException {
+        try {
+            if ( ! hedgingDecided) {
+                Optional<Duration> delay = policy.delay();
+                if (delay.isEmpty() || delay.get().toMillis() >= query.getTimeLeft()) return primary;
+
+                SearchInvoker first = completed.poll(delay.get().toNanos(), TimeUnit.NANOSECONDS);
+                if (first != null) return first;
+                hedge(delay.get());
+            }
+            if (hedge == null) return primary;
+
+            SearchInvoker first = completed.poll(Math.max(0, query.getTimeLeft()), TimeUnit.MILLISECONDS);
+            return first != null ? first : primary;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for search results", e);
+        }
+    }
+
+    /** Waits for the delay of the policy without holding a thread, and hedges if no invoker has completed by then */
+    @Override
+    protected CompletableFuture<Void> awaitResponses(Query query, CompletableFuture<Void> responded, Executor executor) {
+        hedgingDecided = true;
+        Optional<Duration> delay = policy.delay();
+        if (delay.isEmpty() || delay.get().toMillis() >= query.getTimeLeft())
+            return super.awaitResponses(query, responded, executor);
+
+        return responded.copy()
+                        .completeOnTimeout(null, delay.get().toNanos(), TimeUnit.NANOSECONDS)
+                        .thenComposeAsync(__ -> {
+                            if (completed.isEmpty()) {
+                                try {
+                                    hedge(delay.get());
+                                }
+                                catch (IOException e) {
+                                    return CompletableFuture.failedFuture(new UncheckedIOException(e));
+                                }
+                            }
+                            return super.awaitResponses(query, responded, executor);
+                        }, executor);
+    }
+
+    /** Sends the query to another group, if the policy and available groups allow it */
+    private void hedge(Duration delay) throws IOException {
+        hedgingDecided = true;
+        if ( ! policy.tryHedge()) return;
+
+        Optional<SearchInvoker> created = hedgeFactory.get();
+        if (created.isEmpty()) return;
+        hedge = created.get();
+        hedge.setMonitor(this);
+        if (signalAdaptiveTimeouts)
+            hedge.signalAdaptiveTimeouts();
+        hedge.sendSearchRequest(query, null);
+        query.trace(false, 2, "Hedging query to another group after ", delay.toMillis(), " ms");
+    }
+
+    @Override
+    protected void setFinalStatus(boolean success) {
+        super.setFinalStatus(success);
+        winner.setFinalStatus(success);
+    }
+
+    @Override
+    protected Optional<Integer> distributionKey() {
+        return primary.distributionKey();
+    }
+
+    /** Records the latency of the primary group when it has answered, as the time waited is only a lower bound of it */
+    @Override
+    public void responseAvailable(SearchInvoker from) {
+        if (from == primary)
+            policy.record(primaryDuration.complete());
+        completed.add(from);
+        responseAvailable();
+    }
+
+    @Override
+    protected void release() {
+        primary.close();
+        if (hedge != null) {
+            hedge.close();
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Decides when a query sent to one group should also be sent to a second group: When the first group has
+ * not answered within a percentile of the latencies of recent queries, as long as the extra queries are
+ * within a budget given as a fraction of all queries.
+ *
+ * This class is multithread safe.
+ *
+ * @author agent
+ */
+class HedgingPolicy {
+
+    /** The number of recent latencies the percentile is computed from */
+    static final int WINDOW_SIZE = 1024;
+    /** The number of latencies needed before any query is hedged */
+    static final int MIN_SAMPLES = 100;
+    private static final int SAMPLES_BETWEEN_UPDATES = 32;
+    /** The max number of hedged queries which may be saved up, to allow for bursts of slow queries */
+    private static final double MAX_TOKENS = 10;
+
+    private final double percentile;
+    private final double budget;
+
+    private final long[] latencies = new long[WINDOW_SIZE];
+    private long samples = 0;
+    private double tokens = 0;
+    private volatile Duration delay = null;
+
+    /**
+     * @param percentile the percentile, in (0, 100], of recent latencies to wait for the first group
+     * @param budget the max number of hedged queries as a fraction of all queries
+     */
+    HedgingPolicy(double percentile, double budget) {
+        if (percentile <= 0 || percentile > 100)
+            throw new IllegalArgumentException("Hedging percentile must be in (0, 100], but was " + percentile);
+        if (budget < 0 || budget > 1)
+            throw new IllegalArgumentException("Hedging budget must be in [0, 1], but was " + budget);
+        this.percentile = percentile;
+        this.budget = budget;
+    }
+
+    /** Records the time a group used to answer a query. Only the latencies of answers must be recorded */
+    void record(RequestDuration duration) {
+        long nanos = duration.duration().toNanos();
+        synchronized (this) {
+            latencies[(int)(samples++ % WINDOW_SIZE)] = nanos;
+            if (samples >= MIN_SAMPLES && samples % SAMPLES_BETWEEN_UPDATES == 0)
+                delay = computePercentile();
+        }
+    }
+
+    private Duration computePercentile() {
+        int n = (int)Math.min(samples, WINDOW_SIZE);
+        long[] sorted = Arrays.copyOf(latencies, n);
+        Arrays.sort(sorted);
+        int index = (int)Math.ceil(percentile / 100 * n) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(n - 1, index))]);
+    }
+
+    /** Returns the time to wait for the first group before hedging, or empty if too few latencies are recorded */
+    Optional<Duration> delay() {
+        return Optional.ofNullable(delay);
+    }
+
+    /** Registers that a query is dispatched, which adds to the budget of hedged queries */
+    synchronized void queryDispatched() {
+        tokens = Math.min(MAX_TOKENS, tokens + budget);
+    }
+
+    /** Returns whether a query may be hedged now, and if so, takes it from the budget */
+    synchronized boolean tryHedge() {
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+}
@@ -20,8 +20,11 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -43,6 +46,14 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
     private final LinkedBlockingQueue<SearchInvoker> availableForProcessing;
     private final Set<Integer> alreadyFailedNodes;
     private final CoverageAggregator coverageAggregator;
+    private final int groupingMergeParallelism;
+    private final boolean pruneGroupingMerges;
+    /** The number of contained invokers which have not yet responded */
+    private final AtomicInteger pendingResponses = new AtomicInteger();
+    /** Whether the response of this has been signalled to its monitor */
+    private final AtomicBoolean responseSignalled = new AtomicBoolean();
+    /** Whether to signal a response when the adaptive timeout expires, see {@link #signalAdaptiveTimeouts} */
+    private volatile boolean signalAdaptiveTimeouts = false;
     private Query query;
 
     private TimeoutHandler timeoutHandler;
@@ -50,6 +61,20 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
                                     SearchCluster searchCluster,
                                     Group group,
                                     Set<Integer> alreadyFailedNodes) {
+        this(timer, invokers, searchCluster, group, alreadyFailedNodes, 0, false);
+    }
+
+    /**
+     * @param groupingMergeParallelism the max number of grouping merges of a query to run in parallel on the executor
+     *                                 of its execution, or 0 to merge grouping results in the query thread
+     * @param pruneGroupingMerges whether to prune partially merged grouping results to the precision of each level
+     */
+    public InterleavedSearchInvoker(Timer timer, Collection<SearchInvoker> invokers,
+                                    SearchCluster searchCluster,
+                                    Group group,
+                                    Set<Integer> alreadyFailedNodes,
+                                    int groupingMergeParallelism,
+                                    boolean pruneGroupingMerges) {
         super(Optional.empty());
         this.timer = timer;
         this.invokers = Collections.newSetFromMap(new IdentityHashMap<>());
@@ -58,6 +83,8 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
         this.group = group;
         this.availableForProcessing = newQueue();
         this.alreadyFailedNodes = alreadyFailedNodes;
+        this.groupingMergeParallelism = groupingMergeParallelism;
+        this.pruneGroupingMerges = pruneGroupingMerges;
         coverageAggregator = new CoverageAggregator(invokers.size());
     }
 
@@ -76,6 +103,7 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
     protected Object sendSearchRequest(Query query, Object unusedContext) throws IOException {
         this.query = query;
         invokers.forEach(invoker -> invoker.setMonitor(this));
+        pendingResponses.set(invokers.size());
 
         int originalHits = query.getHits();
         int originalOffset = query.getOffset();
@@ -90,11 +118,12 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
         query.setHits(q);
         query.setOffset(0);
 
+        // Created before sending, as responses may arrive, and use it, before all requests are sent
+        timeoutHandler = createTimeoutHandler(searchCluster.dispatchConfig(), invokers.size(), query);
         Object context = null;
         for (SearchInvoker invoker : invokers) {
             context = invoker.sendSearchRequest(query, context);
         }
-        timeoutHandler = createTimeoutHandler(searchCluster.dispatchConfig(), invokers.size(), query);
 
         query.setHits(originalHits);
         query.setOffset(originalOffset);
@@ -106,7 +135,8 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
         InvokerResult result = new InvokerResult(query, query.getHits());
         List<LeanHit> merged = Collections.emptyList();
         long nextTimeout = query.getTimeLeft();
-        var groupingResultAggregator = new GroupingResultAggregator();
+        var groupingResultAggregator = new GroupingResultAggregator(execution != null ? execution.context().executor() : null,
+                                                                    groupingMergeParallelism, pruneGroupingMerges);
         try {
             while (!invokers.isEmpty() && nextTimeout >= 0) {
                 SearchInvoker invoker = availableForProcessing.poll(nextTimeout, TimeUnit.MILLISECONDS);
@@ -119,7 +149,7 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
                     merged = mergeResult(result.getResult(), toMerge, merged, groupingResultAggregator);
                     ejectInvoker(invoker);
                 }
-                nextTimeout = timeoutHandler.nextTimeoutMS(coverageAggregator.getAnsweredNodes());
+                nextTimeout = nextTimeoutMS(coverageAggregator.getAnsweredNodes());
             }
         } catch (InterruptedException e) {
             throw new RuntimeException("Interrupted while waiting for search results", e);
@@ -238,16 +268,35 @@ public class InterleavedSearchInvoker extends SearchInvoker implements ResponseM
         }
     }
 
+    @Override
+    protected void signalAdaptiveTimeouts() {
+        signalAdaptiveTimeouts = true;
+    }
+
     @Override
     public void responseAvailable(SearchInvoker from) {
         if (availableForProcessing != null) {
             availableForProcessing.add(from);
         }
+        int pending = pendingResponses.decrementAndGet();
+        if (pending == 0) {
+            signalResponse(); // all contained invokers have responded
+        } else if (signalAdaptiveTimeouts) {
+            long timeout = nextTimeoutMS(coverageAggregator.getAskedNodes() - pending);
+            if (timeout < query.getTimeLeft()) // enough responses to stop waiting before the query times out
+                CompletableFuture.delayedExecutor(Math.max(0, timeout), TimeUnit.MILLISECONDS).execute(this::signalResponse);
+        }
     }
 
-    @Override
-    protected void setMonitor(ResponseMonitor<SearchInvoker> monitor) {
-        // never to be called
+    private void signalResponse() {
+        if (responseSignalled.compareAndSet(false, true)) {
+            super.responseAvailable();
+        }
+    }
+
+    /** Returns the time to wait for more responses, given the number answered. Responses may call this concurrently */
+    private synchronized long nextTimeoutMS(int answeredNodes) {
+        return timeoutHandler.nextTimeoutMS(answeredNodes);
     }
 
     // For overriding in tests
@@ -10,6 +10,7 @@ import com.yahoo.search.dispatch.searchcluster.Node;
 import com.yahoo.search.dispatch.searchcluster.SearchCluster;
 import com.yahoo.search.result.Coverage;
 import com.yahoo.search.result.ErrorMessage;
+import com.yahoo.vespa.config.search.DispatchConfig;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -24,8 +25,15 @@ public abstract class InvokerFactory {
 
     protected final SearchCluster searchCluster;
 
+    /** The max number of grouping merges of a query to run in parallel, or 0 to merge in the query thread */
+    private final int groupingMergeParallelism;
+    private final boolean pruneGroupingMerges;
+
     public InvokerFactory(SearchCluster searchCluster) {
         this.searchCluster = searchCluster;
+        DispatchConfig config = searchCluster.dispatchConfig();
+        this.groupingMergeParallelism = config != null ? Math.max(0, config.groupingMergeParallelism()) : 0;
+        this.pruneGroupingMerges = config != null && config.pruneGroupingMerges();
     }
 
     protected abstract Optional<SearchInvoker> createNodeSearchInvoker(VespaBackEndSearcher searcher,
@@ -90,7 +98,8 @@ public abstract class InvokerFactory {
         if (invokers.size() == 1 && failed == null) {
             return Optional.of(invokers.get(0));
         } else {
-            return Optional.of(new InterleavedSearchInvoker(Timer.monotonic, invokers, searchCluster, group, failed));
+            return Optional.of(new InterleavedSearchInvoker(Timer.monotonic, invokers, searchCluster, group, failed,
+                                                                 groupingMergeParallelism, pruneGroupingMerges));
         }
     }
 
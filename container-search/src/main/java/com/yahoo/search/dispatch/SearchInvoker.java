@@ -9,7 +9,11 @@ import com.yahoo.search.result.ErrorMessage;
 import com.yahoo.search.searchchain.Execution;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SearchInvoker encapsulates an allocated connection for running a single search query.
@@ -39,6 +43,55 @@ public abstract class SearchInvoker extends CloseableInvoker {
         return result.getResult();
     }
 
+    /**
+     * Sends the given {@link Query} and returns the future result, without holding a thread while
+     * waiting for the response. The result is collected by the given executor, once the response is
+     * available or the query times out. The returned future completes exceptionally on failures
+     * where {@link #search} throws, with an IOException wrapped in an {@link UncheckedIOException}.
+     *
+     * Invokers must call {@link #responseAvailable()} when their response is ready to be used with this.
+     */
+    public CompletableFuture<Result> searchAsync(Query query, Execution execution, Executor executor) {
+        CompletableFuture<Void> responded = new CompletableFuture<>();
+        setMonitor(__ -> responded.complete(null));
+        signalAdaptiveTimeouts();
+        try {
+            sendSearchRequest(query, null);
+        }
+        catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return awaitResponses(query, responded, executor).thenApplyAsync(__ -> {
+            try {
+                InvokerResult result = getSearchResult(execution);
+                setFinalStatus(result.getResult().hits().getError() == null);
+                result.complete();
+                return result.getResult();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Returns a future which completes when the result of this may be collected without waiting,
+     * which is when the given future, completed when a response is available, does, or when the query times out.
+     */
+    protected CompletableFuture<Void> awaitResponses(Query query, CompletableFuture<Void> responded, Executor executor) {
+        return responded.copy().completeOnTimeout(null, Math.max(0, query.getTimeLeft()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Makes this call {@link #responseAvailable()} also when it should stop waiting for more responses before
+     * all are received, as decided by an adaptive coverage timeout. This is needed when this is used
+     * asynchronously, as no thread is then polling for the responses. This default implementation does nothing.
+     */
+    protected void signalAdaptiveTimeouts() { }
+
     /**
      *
      * @param query the query to send
@@ -58,7 +58,7 @@ public class ProtobufSerialization {
         if (documentDb != null) {
             builder.setDocumentType(documentDb);
         }
-        builder.setQueryTreeBlob(serializeQueryTree(query.getModel().getQueryTree()));
+        builder.setQueryTreeBlob(serializeQueryTree(query.getModel().getReadOnlyQueryTree()));
 
         if (query.getGroupingSessionCache() || query.getRanking().getQueryCache()) {
             // TODO verify that the session key is included whenever rank properties would have been
@@ -182,7 +182,7 @@ public class ProtobufSerialization {
         var ranking = query.getRanking();
         var featureMap = ranking.getFeatures().asMap();
 
-        builder.setQueryTreeBlob(serializeQueryTree(query.getModel().getQueryTree()));
+        builder.setQueryTreeBlob(serializeQueryTree(query.getModel().getReadOnlyQueryTree()));
 
         MapConverter.convertMapPrimitives(featureMap, builder::addFeatureOverrides);
         MapConverter.convertMapTensors(featureMap, builder::addTensorFeatureOverrides);
@@ -26,6 +26,8 @@ import com.yahoo.slime.BinaryFormat;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -56,6 +58,9 @@ public class RpcProtobufFillInvoker extends FillInvoker {
     /** The number of responses we should receive (and process) before this is complete */
     private int outstandingResponses;
 
+    /** Completed when all responses have been received */
+    private final CompletableFuture<Void> allReceived = new CompletableFuture<>();
+
     RpcProtobufFillInvoker(RpcResourcePool resourcePool, DocumentDatabase documentDb, String serverId, boolean summaryNeedsQuery) {
         this.documentDb = documentDb;
         this.resourcePool = resourcePool;
@@ -106,6 +111,20 @@ public class RpcProtobufFillInvoker extends FillInvoker {
         }
     }
 
+    /** Sends the requests, and processes the responses in the given executor once all are received, or the query times out */
+    @Override
+    public CompletableFuture<Void> fillAsync(Result result, String summaryClass, Executor executor) {
+        try {
+            sendFillRequest(result, summaryClass);
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return allReceived.copy()
+                          .completeOnTimeout(null, Math.max(0, result.getQuery().getTimeLeft()), TimeUnit.MILLISECONDS)
+                          .thenRunAsync(() -> getFillResults(result, summaryClass), executor);
+    }
+
     @Override
     protected void release() {
         // nothing to release
@@ -114,6 +133,9 @@ public class RpcProtobufFillInvoker extends FillInvoker {
     /** Called by a thread belonging to the client when a valid response becomes available */
     public void receive(Client.ResponseOrError<ProtobufResponse> response, List<FastHit> hitsContext) {
         responses.add(new Pair<>(response, hitsContext));
+        if (responses.remainingCapacity() == 0) {
+            allReceived.complete(null);
+        }
     }
 
     /** Return a map of hits by their search node (partition) id */
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.yahoo.text.Lowercase.toLowerCase;
 
@@ -85,6 +86,8 @@ public class Model implements Cloneable {
     private Language language = null;
     private Locale locale = null;
     private QueryTree queryTree = null; // The query tree to execute. This is lazily created from the program
+    /** The number of models sharing the query tree of this. It is copied on access unless this is the sole owner */
+    private AtomicInteger queryTreeOwners = new AtomicInteger(1);
     private String defaultIndex = null;
     private Query.Type type = Query.Type.WEAKAND;
     private Query parent;
@@ -239,11 +242,30 @@ public class Model implements Cloneable {
     public String getQueryString() { return queryString; }
 
     /**
-     * Returns the query as an object structure. Remember to have the correct Query.Type set.
-     * This causes parsing of the query string if it has changed since this was last called
+     * Returns the query as an object structure, which the caller may modify. Remember to have the correct
+     * Query.Type set. This causes parsing of the query string if it has changed since this was last called
      * (i.e query parsing is lazy)
+     * <p>
+     * Clones of this share the query tree with this until it is accessed through this method, which then
+     * makes a copy owned by this model alone. Hence, references to the tree or its items which are obtained
+     * before this is cloned must not be used to modify it afterwards: Call this again to get the tree to modify.
+     * Use {@link #getReadOnlyQueryTree} to avoid the copy when the tree is only read.
      */
     public QueryTree getQueryTree() {
+        QueryTree queryTree = getReadOnlyQueryTree();
+        if (queryTreeOwners.get() > 1) { // shared with a clone: Make a copy which can be modified by the caller
+            this.queryTree = queryTree.clone();
+            releaseQueryTree();
+        }
+        return this.queryTree;
+    }
+
+    /**
+     * Returns the query as an object structure, which the caller must not modify, as it may be shared
+     * with clones of this query. This causes parsing of the query string in the same way as
+     * {@link #getQueryTree}, but never copies the query tree.
+     */
+    public QueryTree getReadOnlyQueryTree() {
         if (queryTree == null) {
             try {
                 Parser parser = ParserFactory.newInstance(type, ParserEnvironment.fromExecutionContext(execution.context()));
@@ -258,12 +280,20 @@ public class Model implements Cloneable {
         return queryTree;
     }
 
+    /** Stops sharing the query tree currently held by this with clones */
+    private void releaseQueryTree() {
+        if (queryTreeOwners.get() == 1) return;
+        queryTreeOwners.decrementAndGet();
+        queryTreeOwners = new AtomicInteger(1);
+    }
+
     /**
      * Clears the parsed query such that it will be created anew from the textual representation (a query string or
      * select.where expression) on the next access.
      */
     public void clearQueryTree() {
         queryTree = null;
+        releaseQueryTree();
     }
 
     /**
@@ -330,21 +360,23 @@ public class Model implements Cloneable {
             return QueryHelper.equals(other.queryString, this.queryString) &&
                    QueryHelper.equals(other.filter, this.filter);
         else // make sure we compare a parsed variant of both
-            return QueryHelper.equals(other.getQueryTree(), this.getQueryTree());
+            return QueryHelper.equals(other.getReadOnlyQueryTree(), this.getReadOnlyQueryTree());
     }
 
     @Override
     public int hashCode() {
         return getClass().hashCode() +
-               QueryHelper.combineHash(encoding,filter,language,getQueryTree(),sources,restrict,defaultIndex,type,searchPath);
+               QueryHelper.combineHash(encoding,filter,language,getReadOnlyQueryTree(),sources,restrict,defaultIndex,type,searchPath);
     }
 
     @Override
     public Model clone() {
         try {
             Model clone = (Model)super.clone();
-            if (queryTree != null)
-                clone.queryTree = this.queryTree.clone();
+            if (queryTree != null) // shared until accessed, see getQueryTree
+                queryTreeOwners.incrementAndGet();
+            else
+                clone.queryTreeOwners = new AtomicInteger(1);
             if (sources != null)
                 clone.sources = new LinkedHashSet<>(this.sources);
             if (restrict != null)
@@ -200,7 +200,7 @@ public class Trace implements Cloneable {
     }
 
     private String queryTreeText() {
-        QueryTree root = parent.getModel().getQueryTree();
+        QueryTree root = parent.getModel().getReadOnlyQueryTree();
 
         if (level < 2)
             return root.toString();
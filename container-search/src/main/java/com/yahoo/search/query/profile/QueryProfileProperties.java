@@ -2,13 +2,14 @@
 package com.yahoo.search.query.profile;
 
 import ai.vespa.cloud.ZoneInfo;
+import com.yahoo.collections.CopyOnWriteHashMap;
 import com.yahoo.collections.Pair;
 import com.yahoo.language.process.Embedder;
 import com.yahoo.processing.IllegalInputException;
 import com.yahoo.processing.request.CompoundName;
-import com.yahoo.processing.request.properties.PropertyMap;
 import com.yahoo.protect.Validator;
 import com.yahoo.search.query.Properties;
+import com.yahoo.search.query.properties.CloneHelper;
 import com.yahoo.search.query.profile.compiled.CompiledQueryProfile;
 import com.yahoo.search.query.profile.compiled.DimensionalValue;
 import com.yahoo.search.query.profile.types.ConversionContext;
@@ -34,6 +35,7 @@ public class QueryProfileProperties extends Properties {
     private static final String ENVIRONMENT = "environment";
     private static final String REGION = "region";
     private static final String INSTANCE = "instance";
+    private static final CloneHelper cloneHelper = new CloneHelper();
     private final CompiledQueryProfile profile;
     private final Map<String, Embedder> embedders;
     private final ZoneInfo zoneInfo;
@@ -42,7 +44,7 @@ public class QueryProfileProperties extends Properties {
     // Note: The priority order is: values has precedence over references
 
     /** Values which has been overridden at runtime, or null if none */
-    private Map<CompoundName, Object> values = null;
+    private CopyOnWriteHashMap<CompoundName, Object> values = null;
 
     /**
      * Query profile references which has been overridden at runtime, possibly to the null value to clear values,
@@ -157,7 +159,7 @@ public class QueryProfileProperties extends Properties {
                     references.add(0, new Pair<>(name, (CompiledQueryProfile) value));
                 } else {
                     if (values == null)
-                        values = new HashMap<>();
+                        values = cloneHelper.createCopyOnWriteMap();
                     values.put(name, value);
                 }
             }
@@ -225,8 +227,13 @@ public class QueryProfileProperties extends Properties {
             references = new ArrayList<>();
         references.add(new Pair<>(name, null));
 
-        if (values != null)
-            values.keySet().removeIf(key -> key.hasPrefix(name));
+        if (values != null) {
+            List<CompoundName> cleared = new ArrayList<>();
+            for (CompoundName key : values.keySet())
+                if (key.hasPrefix(name))
+                    cleared.add(key);
+            cleared.forEach(values::remove); // removing through the key set would write to a map shared with clones
+        }
     }
 
     @Override
@@ -373,7 +380,9 @@ public class QueryProfileProperties extends Properties {
     public QueryProfileProperties clone() {
         QueryProfileProperties clone = (QueryProfileProperties)super.clone();
         if (this.values != null)
-            clone.values = PropertyMap.cloneMap(this.values);
+            clone.values = this.values.clone();
+        if (this.references != null)
+            clone.references = new ArrayList<>(this.references);
         return clone;
     }
 
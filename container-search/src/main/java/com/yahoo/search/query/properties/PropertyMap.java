@@ -1,17 +1,17 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 
 package com.yahoo.search.query.properties;
+import com.yahoo.collections.CopyOnWriteHashMap;
 import com.yahoo.processing.request.CompoundName;
 import com.yahoo.search.query.Properties;
 import java.util.Map;
-import java.util.LinkedHashMap;
-import java.util.HashMap;
 
 /**
  * A Map backing of Properties.
  * <p>
  * When this is cloned it will deep copy not only the model object map, but also each
- * clonable member inside the map.
+ * clonable member inside the map. The copy is deferred until either this or the clone is
+ * modified, or a clonable member is read, such that cloning is cheap when the clone is only read.
  * <p>
  * Subclassing is supported, a hook can be implemented to provide conditional inclusion in the map.
  * By default - all properties are accepted, so set is never propagated.
@@ -25,7 +25,7 @@ public class PropertyMap extends Properties {
     private final static CloneHelper cloneHelper = new CloneHelper();
 
     /** The properties of this */
-    private Map<CompoundName, Object> properties = new LinkedHashMap<>();
+    private CopyOnWriteHashMap<CompoundName, Object> properties = cloneHelper.createCopyOnWriteMap();
 
     public void set(CompoundName name, Object value, Map<String, String> context) {
         if (value == null) // Both clear and forward
@@ -60,13 +60,7 @@ public class PropertyMap extends Properties {
     @Override
     public PropertyMap clone() {
         PropertyMap clone = (PropertyMap)super.clone();
-        clone.properties = new HashMap<>();
-        for (Map.Entry<CompoundName, Object> entry : this.properties.entrySet()) {
-            Object cloneValue = cloneHelper.clone(entry.getValue());
-            if (cloneValue == null)
-                cloneValue = entry.getValue(); // Shallow copy objects which does not support cloning
-            clone.properties.put(entry.getKey(), cloneValue);
-        }
+        clone.properties = this.properties.clone();
         return clone;
     }
 
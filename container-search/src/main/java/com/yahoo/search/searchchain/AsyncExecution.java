@@ -45,6 +45,13 @@ import java.util.concurrent.TimeoutException;
  * created for each AsyncExecution instance.
  * </p>
  *
+ * <p>
+ * When the next searcher is an {@link AsyncSearcher} no thread is used to wait for
+ * its result: The returned future completes when the future of that searcher does.
+ * Otherwise, the chain is run in a thread of the executor, which is held until the chain
+ * returns, also while a synchronous searcher waits for an asynchronous one further down.
+ * </p>
+ *
  * @see com.yahoo.search.searchchain.Execution
  * @author Arne Bergene Fossaa
  */
@@ -110,10 +117,17 @@ public class AsyncExecution {
      * @see com.yahoo.search.searchchain.Execution
      */
     public FutureResult search(Query query) {
+        if (execution.isNextAsync())
+            return new FutureResult(execution.searchAsync(query), execution, query);
         return getFutureResult(execution.context().executor(), () -> execution.search(query), query);
     }
 
     public FutureResult searchAndFill(Query query) {
+        if (execution.isNextAsync())
+            return new FutureResult(execution.searchAsync(query)
+                                             .thenCompose(result -> execution.fillAsync(result, query.getPresentation().getSummary())
+                                                                             .thenApply(__ -> result)),
+                                    execution, query);
         return getFutureResult(execution.context().executor(), () -> {
             Result result = execution.search(query);
             execution.fill(result, query.getPresentation().getSummary());
@@ -127,6 +141,9 @@ public class AsyncExecution {
      * @see com.yahoo.search.searchchain.Execution
      */
     public FutureResult fill(Result result, String summaryClass) {
+        if (execution.isNextAsyncFill())
+            return new FutureResult(execution.fillAsync(result, summaryClass).thenApply(__ -> result),
+                                    execution, result.getQuery());
         return getFutureResult(execution.context().executor(), () -> {
             execution.fill(result, summaryClass);
             return result;
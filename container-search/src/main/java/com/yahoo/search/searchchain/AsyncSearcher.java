@@ -0,0 +1,109 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.searchchain;
+
+import com.yahoo.component.ComponentId;
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import com.yahoo.search.Searcher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A searcher which returns a future result rather than waiting for it, such that it does not itself hold
+ * a thread while it waits for something else, like a backend, to respond.
+ * <p>
+ * Asynchronous searchers pass the query on by calling {@link Execution#searchAsync}, and continue working
+ * on the result by composing with the returned future. Each invocation of an asynchronous searcher is
+ * given an execution of its own, which may be used by the continuations it composes, also after
+ * searchAsync has returned.
+ * <p>
+ * Asynchronous and synchronous searchers may be mixed freely in a chain: Synchronous searchers invoked
+ * by {@link Execution#searchAsync} are run in the calling thread, and asynchronous searchers invoked
+ * by {@link Execution#search} are waited for. Only the part of a chain which is invoked through
+ * {@link com.yahoo.search.searchchain.AsyncExecution}, and where each searcher is asynchronous, runs without
+ * holding a thread while waiting. In particular, the search handler still waits for the result of its chain
+ * in the request thread.
+ * <p>
+ * Subclasses may override {@link #search} and {@link #fill}, in which case those are always used instead of
+ * {@link #searchAsync} and {@link #fillAsync}, respectively, also when invoked asynchronously.
+ *
+ * @author agent
+ */
+public abstract class AsyncSearcher extends Searcher {
+
+    private final boolean searchesAsync = isInherited("search", Query.class, Execution.class);
+    private final boolean fillsAsync = isInherited("fill", Result.class, String.class, Execution.class);
+
+    public AsyncSearcher() {}
+
+    /** Creates an asynchronous searcher from an id */
+    public AsyncSearcher(ComponentId id) {
+        super(id);
+    }
+
+    /**
+     * Override this to implement your searcher. This must not block, but return a future which completes
+     * with the result of the query. Failures should be returned as a future which completes exceptionally,
+     * with the exception a synchronous searcher would throw.
+     *
+     * @param query the query
+     * @param execution the execution of the searchers following this
+     * @return the future result of making this query
+     */
+    public abstract CompletableFuture<Result> searchAsync(Query query, Execution execution);
+
+    /**
+     * Fills the given result asynchronously, see {@link Searcher#fill}. This passes the fill on to the
+     * next searcher by default.
+     *
+     * @param result the result to fill
+     * @param summaryClass the name of the collection of fields to fetch the values of, or null to use the default
+     * @param execution the execution of the searchers following this
+     * @return a future which completes when the result is filled
+     */
+    public CompletableFuture<Void> fillAsync(Result result, String summaryClass, Execution execution) {
+        return execution.fillAsync(result, summaryClass);
+    }
+
+    /** Calls {@link #searchAsync} and waits for the result. This is used when invoked by a synchronous searcher. */
+    @Override
+    public Result search(Query query, Execution execution) {
+        return await(searchAsync(query, execution));
+    }
+
+    /** Calls {@link #fillAsync} and waits for it to complete. This is used when invoked by a synchronous searcher. */
+    @Override
+    public void fill(Result result, String summaryClass, Execution execution) {
+        await(fillAsync(result, summaryClass, execution));
+    }
+
+    /** Returns whether this searches by {@link #searchAsync}, i.e., whether {@link #search} is not overridden */
+    boolean searchesAsync() { return searchesAsync; }
+
+    /** Returns whether this fills by {@link #fillAsync}, i.e., whether {@link #fill} is not overridden */
+    boolean fillsAsync() { return fillsAsync; }
+
+    /** Returns whether the given method of this is the one declared in this class, rather than an override */
+    private boolean isInherited(String name, Class<?> ... parameterTypes) {
+        try {
+            return getClass().getMethod(name, parameterTypes).getDeclaringClass() == AsyncSearcher.class;
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Waits for the given future and returns its value, or throws its failure as a synchronous searcher would */
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ import com.yahoo.search.schema.SchemaInfo;
 import com.yahoo.search.rendering.RendererRegistry;
 import com.yahoo.search.statistics.TimeTracker;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
@@ -499,6 +500,50 @@ public class Execution extends com.yahoo.processing.execution.Execution {
         return (Result)super.process(query);
     }
 
+    /**
+     * Calls search on the next searcher in this chain, without waiting for the result if the next searcher
+     * is an {@link AsyncSearcher}. Other searchers are invoked synchronously, in the calling thread,
+     * which is then held until they return.
+     * If there is no next, a completed future with an empty result is returned.
+     * <p>
+     * This does not make the caller asynchronous: A synchronous searcher, or the search handler, which
+     * needs the result still waits for it.
+     *
+     * @return the future result of the query, which completes exceptionally if the search fails
+     */
+    public CompletableFuture<Result> searchAsync(Query query) {
+        if ( ! isNextAsync()) {
+            try {
+                return CompletableFuture.completedFuture(search(query));
+            }
+            catch (RuntimeException | Error e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        timer.sampleSearch(nextIndex(), context.getDetailedDiagnostics());
+        query.getModel().setExecution(this);
+        trace().setTraceLevel(query.getTrace().getLevel());
+
+        AsyncSearcher searcher = (AsyncSearcher)next();
+        CompletableFuture<Result> result;
+        try {
+            nextProcessor();
+            onInvoking(query, searcher);
+            // The searcher gets an execution of its own as its continuations may run after this has moved on
+            result = searcher.searchAsync(query, new Execution(chain(), context, nextIndex()));
+            if (result == null)
+                throw new NullPointerException(searcher + " returned null, not a future Result");
+        }
+        catch (RuntimeException | Error e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        finally {
+            previousProcessor();
+        }
+        return result.whenComplete((response, exception) -> onReturning(query, searcher, response));
+    }
+
     @Override
     protected void onInvoking(Request request, Processor processor) {
         super.onInvoking(request,processor);
@@ -571,6 +616,57 @@ public class Execution extends com.yahoo.processing.execution.Execution {
         }
     }
 
+    /**
+     * Calls fill on the next searcher in this chain, without waiting for it to complete if the next searcher
+     * is an {@link AsyncSearcher}. Other searchers are invoked synchronously, in the calling thread,
+     * which is then held until they return.
+     *
+     * @return a future which completes when the result is filled, exceptionally if filling fails
+     */
+    public CompletableFuture<Void> fillAsync(Result result, String summaryClass) {
+        if (summaryClass == null)
+            summaryClass = result.getQuery().getPresentation().getSummary();
+        if ( ! isNextAsyncFill() || result.isFilled(summaryClass)) {
+            try {
+                fill(result, summaryClass);
+                return CompletableFuture.completedFuture(null);
+            }
+            catch (RuntimeException | Error e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        String summary = summaryClass;
+        timer.sampleFill(nextIndex(), context.getDetailedDiagnostics());
+        AsyncSearcher searcher = (AsyncSearcher)next();
+        CompletableFuture<Void> filled;
+        try {
+            nextProcessor();
+            onInvokingFill(searcher, summary);
+            filled = searcher.fillAsync(result, summary, new Execution(chain(), context, nextIndex()));
+        }
+        catch (RuntimeException | Error e) {
+            filled = CompletableFuture.failedFuture(e);
+        }
+        finally {
+            previousProcessor();
+        }
+        return filled.whenComplete((__, exception) -> {
+            onReturningFill(searcher, summary);
+            timer.sampleFillReturn(nextIndex(), context.getDetailedDiagnostics(), result);
+        });
+    }
+
+    /** Returns whether the next searcher in this chain is an {@link AsyncSearcher} which searches asynchronously */
+    boolean isNextAsync() {
+        return next() instanceof AsyncSearcher searcher && searcher.searchesAsync();
+    }
+
+    /** Returns whether the next searcher in this chain is an {@link AsyncSearcher} which fills asynchronously */
+    boolean isNextAsyncFill() {
+        return next() instanceof AsyncSearcher searcher && searcher.fillsAsync();
+    }
+
     private void onInvokingFill(Searcher searcher, String summaryClass) {
         int traceFillAt = 5;
         if (trace().getTraceLevel() < traceFillAt) return;
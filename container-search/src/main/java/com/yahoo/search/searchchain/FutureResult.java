@@ -8,6 +8,8 @@ import com.yahoo.yolean.Exceptions;
 
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +36,18 @@ public class FutureResult extends FutureTask<Result> {
         this.execution = execution;
     }
 
+    /** Creates a future result which completes when the given future completes, rather than by being run */
+    public FutureResult(CompletableFuture<Result> future, Execution execution, Query query) {
+        this(() -> { throw new IllegalStateException("A future result of a completable future cannot be run"); },
+             execution, query);
+        future.whenComplete((result, exception) -> {
+            if (exception == null)
+                set(result);
+            else
+                setException(exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+        });
+    }
+
     /** 
      * Returns a Result containing the hits returned from this source, or an error otherwise.
      * This will block for however long it takes to get the result: Using this is a bad idea.
@@ -240,7 +240,7 @@ class VdsVisitor extends VisitorDataHandler implements Visitor {
             try {
                 switch(code){
                     case 0:
-                        ed.setReturned(query.getModel().getQueryTree().getRoot().encode(buf));
+                        ed.setReturned(query.getModel().getReadOnlyQueryTree().getRoot().encode(buf));
                         break;
                     case 1:
                         ed.setReturned(QueryEncoder.encodeAsProperties(query, buf));
@@ -0,0 +1,182 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author agent
+ */
+public class HedgedSearchInvokerTest {
+
+    private static final HedgeSupplier NO_HEDGE = () -> { throw new AssertionError("No hedge expected"); };
+
+    @Test
+    void requireThatDelayIsAPercentileOfRecordedLatencies() {
+        HedgingPolicy policy = new HedgingPolicy(95.0, 0.05);
+        for (int i = 1; i < HedgingPolicy.MIN_SAMPLES; i++)
+            policy.record(RequestDuration.of(Duration.ofMillis(i)));
+        assertEquals(Optional.empty(), policy.delay());
+
+        for (int i = HedgingPolicy.MIN_SAMPLES; i <= 128; i++)
+            policy.record(RequestDuration.of(Duration.ofMillis(i)));
+        assertEquals(Optional.of(Duration.ofMillis(122)), policy.delay());
+    }
+
+    @Test
+    void requireThatOnlyLatenciesOfPrimaryAnswersAreRecorded() throws Exception {
+        HedgingPolicy policy = new HedgingPolicy(95.0, 0.0);
+        for (int i = 1; i < 128; i++)
+            policy.record(RequestDuration.of(Duration.ofMillis(50)));
+
+        try (HedgedSearchInvoker invoker = hedged(new TestInvoker(0, false), policy, NO_HEDGE)) {
+            invoker.search(new Query(), null);
+        }
+        assertEquals(Optional.empty(), policy.delay());
+
+        try (HedgedSearchInvoker invoker = hedged(new TestInvoker(0, true), policy, NO_HEDGE)) {
+            invoker.search(new Query(), null);
+        }
+        assertEquals(Optional.of(Duration.ofMillis(50)), policy.delay());
+    }
+
+    @Test
+    void requireThatHedgingIsLimitedByBudget() {
+        HedgingPolicy policy = new HedgingPolicy(95.0, 0.25);
+        for (int i = 0; i < 3; i++) {
+            policy.queryDispatched();
+            assertFalse(policy.tryHedge());
+        }
+        policy.queryDispatched();
+        assertTrue(policy.tryHedge());
+        assertFalse(policy.tryHedge());
+    }
+
+    @Test
+    void requireThatQueryIsNotHedgedBeforeLatenciesAreKnown() throws Exception {
+        HedgingPolicy policy = new HedgingPolicy(95.0, 1.0);
+        TestInvoker primary = new TestInvoker(0, false);
+        try (HedgedSearchInvoker invoker = hedged(primary, policy, NO_HEDGE)) {
+            invoker.search(new Query(), null);
+        }
+        assertTrue(primary.closed);
+    }
+
+    @Test
+    void requireThatPrimaryAnsweringBeforeDelayIsUsed() throws Exception {
+        HedgingPolicy policy = trainedPolicy(1.0);
+        TestInvoker primary = new TestInvoker(0, true);
+        try (HedgedSearchInvoker invoker = hedged(primary, policy, NO_HEDGE)) {
+            invoker.search(new Query(), null);
+            assertFalse(primary.closed);
+        }
+        assertTrue(primary.closed);
+    }
+
+    @Test
+    void requireThatSlowPrimaryIsHedgedAndClosed() throws Exception {
+        HedgingPolicy policy = trainedPolicy(1.0);
+        TestInvoker primary = new TestInvoker(0, false);
+        TestInvoker hedge = new TestInvoker(1, true);
+        try (HedgedSearchInvoker invoker = hedged(primary, policy, () -> hedge)) {
+            invoker.search(new Query(), null);
+            assertTrue(hedge.sent);
+            assertTrue(primary.closed);
+            assertFalse(hedge.closed);
+        }
+        assertTrue(hedge.closed);
+    }
+
+    @Test
+    void requireThatQueryIsNotHedgedWhenBudgetIsSpent() throws Exception {
+        HedgingPolicy policy = trainedPolicy(0.0);
+        TestInvoker primary = new TestInvoker(0, false);
+        try (HedgedSearchInvoker invoker = hedged(primary, policy, NO_HEDGE)) {
+            invoker.search(new Query(), null);
+        }
+        assertTrue(primary.closed);
+    }
+
+    @Test
+    void requireThatSlowPrimaryIsHedgedInAsyncSearch() throws Exception {
+        HedgingPolicy policy = trainedPolicy(1.0);
+        TestInvoker primary = new TestInvoker(0, false);
+        TestInvoker hedge = new TestInvoker(1, true);
+        try (HedgedSearchInvoker invoker = hedged(primary, policy, () -> hedge)) {
+            CompletableFuture<Result> result = invoker.searchAsync(new Query(), null, Runnable::run);
+            assertNotNull(result.get(10, TimeUnit.SECONDS));
+            assertTrue(hedge.sent);
+            assertTrue(primary.closed);
+            assertFalse(hedge.closed);
+        }
+        assertTrue(hedge.closed);
+    }
+
+    @Test
+    void requireThatPrimaryAnsweringBeforeDelayIsUsedInAsyncSearch() throws Exception {
+        HedgingPolicy policy = trainedPolicy(1.0);
+        TestInvoker primary = new TestInvoker(0, true);
+        try (HedgedSearchInvoker invoker = hedged(primary, policy, NO_HEDGE)) {
+            CompletableFuture<Result> result = invoker.searchAsync(new Query(), null, Runnable::run);
+            assertNotNull(result.get(10, TimeUnit.SECONDS));
+            assertFalse(primary.closed);
+        }
+        assertTrue(primary.closed);
+    }
+
+    private static HedgedSearchInvoker hedged(TestInvoker primary, HedgingPolicy policy, HedgeSupplier hedge) {
+        policy.queryDispatched();
+        return new HedgedSearchInvoker(primary, policy, () -> Optional.of(hedge.get()));
+    }
+
+    private static HedgingPolicy trainedPolicy(double budget) {
+        HedgingPolicy policy = new HedgingPolicy(95.0, budget);
+        for (int i = 0; i < 128; i++)
+            policy.record(RequestDuration.of(Duration.ofMillis(1)));
+        return policy;
+    }
+
+    private interface HedgeSupplier {
+        SearchInvoker get();
+    }
+
+    /** An invoker which either answers as soon as the query is sent, or never signals an answer */
+    private static class TestInvoker extends MockInvoker {
+
+        private final boolean answers;
+        boolean sent = false;
+        boolean closed = false;
+
+        TestInvoker(int key, boolean answers) {
+            super(key);
+            this.answers = answers;
+        }
+
+        @Override
+        protected Object sendSearchRequest(Query query, Object context) {
+            sent = true;
+            Object result = super.sendSearchRequest(query, context);
+            if (answers)
+                responseAvailable();
+            return result;
+        }
+
+        @Override
+        protected void release() {
+            closed = true;
+        }
+
+    }
+
+}
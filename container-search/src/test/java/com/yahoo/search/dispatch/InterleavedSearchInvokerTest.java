@@ -4,6 +4,8 @@ package com.yahoo.search.dispatch;
 import com.yahoo.concurrent.Timer;
 import com.yahoo.document.GlobalId;
 import com.yahoo.document.idstring.IdString;
+import com.yahoo.language.simple.SimpleLinguistics;
+import com.yahoo.prelude.IndexFacts;
 import com.yahoo.prelude.fastsearch.FastHit;
 import com.yahoo.prelude.fastsearch.GroupingListHit;
 import com.yahoo.search.Query;
@@ -11,10 +13,14 @@ import com.yahoo.search.Result;
 import com.yahoo.search.dispatch.searchcluster.Group;
 import com.yahoo.search.dispatch.searchcluster.Node;
 import com.yahoo.search.dispatch.searchcluster.SearchCluster;
+import com.yahoo.search.rendering.RendererRegistry;
 import com.yahoo.search.result.Coverage;
 import com.yahoo.search.result.ErrorMessage;
 import com.yahoo.search.result.Hit;
 import com.yahoo.search.result.Relevance;
+import com.yahoo.search.schema.SchemaInfo;
+import com.yahoo.search.searchchain.Execution;
+import com.yahoo.search.searchchain.SearchChainRegistry;
 import com.yahoo.searchlib.aggregation.Grouping;
 import com.yahoo.searchlib.aggregation.MaxAggregationResult;
 import com.yahoo.searchlib.aggregation.MinAggregationResult;
@@ -33,6 +39,9 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.StreamSupport;
@@ -106,6 +115,24 @@ public class InterleavedSearchInvokerTest {
         }
     }
 
+    @Test
+    void requireThatAdaptiveTimeoutIsUsedWhenSearchingAsynchronously() throws Exception {
+        SearchCluster cluster = new MockSearchCluster("!", createDispatchConfig(50.0, List.of()).maxWaitAfterCoverageFactor(0).build(), 1, 4);
+        for (int i = 0; i < 4; i++)
+            invokers.add(new MockInvoker(i));
+        Query query = new Query();
+        query.setTimeout(60_000);
+        try (InterleavedSearchInvoker invoker = new InterleavedSearchInvoker(Timer.monotonic, invokers, cluster, new Group(0, List.of()), Collections.emptySet())) {
+            CompletableFuture<Result> pending = invoker.searchAsync(query, null, Runnable::run);
+            invoker.responseAvailable(invokers.get(0));
+            assertFalse(pending.isDone(), "Waits for the minimum coverage");
+
+            invoker.responseAvailable(invokers.get(1));
+            Result result = pending.get(30, TimeUnit.SECONDS); // long before the query times out
+            assertTrue(result.getCoverage(false).isDegradedByAdapativeTimeout(), "Degradation reason is an adaptive timeout");
+        }
+    }
+
     @Test
     void requireCorrectCoverageCalculationWhenAllNodesOk() throws IOException {
         SearchCluster cluster = new MockSearchCluster("!", 1, 2);
@@ -374,6 +401,46 @@ public class InterleavedSearchInvokerTest {
         }
     }
 
+    @Test
+    void requireThatGroupingsAreMergedOnExecutor() throws IOException {
+        SearchCluster cluster = new MockSearchCluster("!", 1, 8);
+        List<SearchInvoker> invokers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Grouping grouping = new Grouping(0);
+            grouping.setRoot(new com.yahoo.searchlib.aggregation.Group()
+                    .addChild(new com.yahoo.searchlib.aggregation.Group()
+                            .setId(new StringResultNode("unique" + i))
+                            .addAggregationResult(new MaxAggregationResult().setMax(new IntegerResultNode(i)).setTag(4)))
+                    .addChild(new com.yahoo.searchlib.aggregation.Group()
+                            .setId(new StringResultNode("common"))
+                            .addAggregationResult(new MaxAggregationResult().setMax(new IntegerResultNode(i)).setTag(4))));
+            invokers.add(new MockInvoker(i).setHits(List.of(new GroupingListHit(List.of(grouping)))));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Execution execution = new Execution(new Execution.Context(new SearchChainRegistry(), new IndexFacts(), SchemaInfo.empty(),
+                                                                  null, new RendererRegistry(Runnable::run),
+                                                                  new SimpleLinguistics(), executor));
+        try (InterleavedSearchInvoker invoker = new InterleavedSearchInvoker(Timer.monotonic, invokers, cluster, new Group(0, List.of()),
+                                                                             Collections.emptySet(), 2, false)) {
+            invokers.forEach(invoker::responseAvailable);
+            Result result = invoker.search(query, execution);
+            List<Grouping> groupings = ((GroupingListHit) result.hits().get(0)).getGroupingList();
+            assertEquals(1, groupings.size());
+            List<com.yahoo.searchlib.aggregation.Group> groups = groupings.get(0).getRoot().getChildren();
+            assertEquals(9, groups.size());
+            com.yahoo.searchlib.aggregation.Group common = groups.stream()
+                    .filter(group -> group.getId().equals(new StringResultNode("common"))).findFirst().get();
+            assertEquals(new IntegerResultNode(7), ((MaxAggregationResult)common.getAggregationResults().get(0)).getMax());
+        }
+        finally {
+            executor.shutdown();
+        }
+        for (SearchInvoker invoker : invokers) {
+            invoker.close();
+        }
+    }
+
     private static InterleavedSearchInvoker createInterLeavedTestInvoker(List<Double> a, List<Double> b, Group group) {
         SearchCluster cluster = new MockSearchCluster("!", 1, 2);
         List<SearchInvoker> invokers = new ArrayList<>();
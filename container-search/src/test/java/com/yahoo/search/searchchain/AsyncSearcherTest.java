@@ -0,0 +1,195 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.searchchain;
+
+import com.yahoo.component.chain.Chain;
+import com.yahoo.processing.IllegalInputException;
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import com.yahoo.search.Searcher;
+import com.yahoo.search.result.Hit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests chains of asynchronous searchers.
+ *
+ * @author agent
+ */
+public class AsyncSearcherTest {
+
+    @Test
+    void asyncChainDoesNotWaitForTheBackend() {
+        BackendSearcher backend = new BackendSearcher();
+        Chain<Searcher> chain = new Chain<>(new AddingSearcher("first"), new AddingSearcher("second"), backend);
+
+        CompletableFuture<Result> result = new Execution(chain, Execution.Context.createContextStub()).searchAsync(new Query());
+        assertFalse(result.isDone());
+        assertEquals(1, backend.pending.size());
+
+        backend.respond();
+        assertTrue(result.isDone());
+        assertEquals(List.of("backend", "second", "first"), ids(result.join()));
+    }
+
+    @Test
+    void syncSearchersAreRunInTheCallingThread() {
+        Chain<Searcher> chain = new Chain<>(new AddingSearcher("async"), new SyncSearcher("sync"));
+
+        CompletableFuture<Result> result = new Execution(chain, Execution.Context.createContextStub()).searchAsync(new Query());
+        assertTrue(result.isDone());
+        assertEquals(List.of("sync", "async"), ids(result.join()));
+    }
+
+    @Test
+    void overriddenSearchIsUsedWhenInvokedAsynchronously() {
+        BackendSearcher backend = new BackendSearcher();
+        backend.respondImmediately = true;
+        AsyncSearcher overriding = new AddingSearcher("async") {
+            @Override
+            public Result search(Query query, Execution execution) {
+                Result result = execution.search(query);
+                result.hits().add(new Hit("overridden"));
+                return result;
+            }
+        };
+        Chain<Searcher> chain = new Chain<>(new AddingSearcher("first"), overriding, backend);
+
+        CompletableFuture<Result> result = new Execution(chain, Execution.Context.createContextStub()).searchAsync(new Query());
+        assertTrue(result.isDone());
+        assertEquals(List.of("backend", "overridden", "first"), ids(result.join()));
+    }
+
+    @Test
+    void asyncSearchersAreWaitedForBySyncSearchers() {
+        BackendSearcher backend = new BackendSearcher();
+        backend.respondImmediately = true;
+        Chain<Searcher> chain = new Chain<>(new SyncSearcher("sync"), new AddingSearcher("async"), backend);
+
+        Result result = new Execution(chain, Execution.Context.createContextStub()).search(new Query());
+        assertEquals(List.of("backend", "async", "sync"), ids(result));
+    }
+
+    @Test
+    void failuresAreThrownAsBySyncSearchers() {
+        Chain<Searcher> chain = new Chain<>(new FailingSearcher());
+
+        CompletableFuture<Result> result = new Execution(chain, Execution.Context.createContextStub()).searchAsync(new Query());
+        assertTrue(result.isCompletedExceptionally());
+        assertThrows(IllegalInputException.class,
+                     () -> new Execution(chain, Execution.Context.createContextStub()).search(new Query()));
+    }
+
+    @Test
+    void asyncExecutionCompletesWithTheAsyncChain() {
+        BackendSearcher backend = new BackendSearcher();
+        Chain<Searcher> chain = new Chain<>(new AddingSearcher("async"), backend);
+
+        FutureResult result = new AsyncExecution(chain, Execution.Context.createContextStub()).searchAndFill(new Query());
+        assertFalse(result.isDone());
+
+        backend.respond();
+        assertTrue(result.isDone());
+        Result filled = result.get();
+        assertEquals(List.of("backend", "async"), ids(filled));
+        assertEquals(1, backend.fills);
+        assertTrue(filled.isFilled(filled.getQuery().getPresentation().getSummary()));
+    }
+
+    private static List<String> ids(Result result) {
+        List<String> ids = new ArrayList<>();
+        for (Hit hit : result.hits())
+            ids.add(hit.getId().toString());
+        return ids;
+    }
+
+    /** Adds a hit to the result of the rest of the chain, when it completes */
+    private static class AddingSearcher extends AsyncSearcher {
+
+        private final String hitId;
+
+        AddingSearcher(String hitId) {
+            this.hitId = hitId;
+        }
+
+        @Override
+        public CompletableFuture<Result> searchAsync(Query query, Execution execution) {
+            return execution.searchAsync(query).thenApply(result -> {
+                result.hits().add(new Hit(hitId));
+                return result;
+            });
+        }
+
+    }
+
+    private static class SyncSearcher extends Searcher {
+
+        private final String hitId;
+
+        SyncSearcher(String hitId) {
+            this.hitId = hitId;
+        }
+
+        @Override
+        public Result search(Query query, Execution execution) {
+            Result result = execution.search(query);
+            result.hits().add(new Hit(hitId));
+            return result;
+        }
+
+    }
+
+    /** Returns results when told to */
+    private static class BackendSearcher extends AsyncSearcher {
+
+        final List<CompletableFuture<Result>> pending = new ArrayList<>();
+        boolean respondImmediately = false;
+        int fills = 0;
+
+        @Override
+        public CompletableFuture<Result> searchAsync(Query query, Execution execution) {
+            CompletableFuture<Result> result = new CompletableFuture<>();
+            pending.add(result);
+            if (respondImmediately)
+                respond();
+            return result;
+        }
+
+        @Override
+        public CompletableFuture<Void> fillAsync(Result result, String summaryClass, Execution execution) {
+            fills++;
+            for (Hit hit : result.hits())
+                hit.setFilled(summaryClass);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        void respond() {
+            for (CompletableFuture<Result> result : pending) {
+                Result response = new Result(new Query());
+                Hit hit = new Hit("backend");
+                hit.setFillable();
+                response.hits().add(hit);
+                result.complete(response);
+            }
+            pending.clear();
+        }
+
+    }
+
+    private static class FailingSearcher extends AsyncSearcher {
+
+        @Override
+        public CompletableFuture<Result> searchAsync(Query query, Execution execution) {
+            return CompletableFuture.failedFuture(new IllegalInputException("Bad query"));
+        }
+
+    }
+
+}
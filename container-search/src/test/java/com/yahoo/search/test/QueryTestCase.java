@@ -139,6 +139,38 @@ public class QueryTestCase {
         assertNotSame(q.getModel().getQueryTree(), p.getModel().getQueryTree());
     }
 
+    @Test
+    void testClonesDoNotSeeModificationsOfTheQueryTree() {
+        Query q = new Query(httpEncode("/sdfsd.html?query=a+b"));
+        assertEquals("WEAKAND(100) a b", q.getModel().getQueryTree().toString());
+        Query p = q.clone();
+        Query r = p.clone();
+        assertEquals(q, p);
+
+        ((CompositeItem)p.getModel().getQueryTree().getRoot()).addItem(new WordItem("c"));
+        assertEquals("WEAKAND(100) a b", q.getModel().getQueryTree().toString());
+        assertEquals("WEAKAND(100) a b c", p.getModel().getQueryTree().toString());
+        assertEquals("WEAKAND(100) a b", r.getModel().getQueryTree().toString());
+
+        q.getModel().getQueryTree().setRoot(new WordItem("d"));
+        assertEquals("d", q.getModel().getQueryTree().toString());
+        assertEquals("WEAKAND(100) a b", r.getModel().getQueryTree().toString());
+    }
+
+    @Test
+    void testReadingTheQueryTreeDoesNotCopyIt() {
+        Query q = new Query(httpEncode("/sdfsd.html?query=a+b"));
+        QueryTree tree = q.getModel().getQueryTree();
+        Query p = q.clone();
+        assertSame(tree, q.getModel().getReadOnlyQueryTree());
+        assertSame(tree, p.getModel().getReadOnlyQueryTree());
+
+        QueryTree modifiable = p.getModel().getQueryTree();
+        assertNotSame(tree, modifiable);
+        assertSame(modifiable, p.getModel().getReadOnlyQueryTree());
+        assertSame(tree, q.getModel().getQueryTree()); // sole owner after p copied it
+    }
+
     private boolean isA(String s) {
         return (s.equals("a"));
     }
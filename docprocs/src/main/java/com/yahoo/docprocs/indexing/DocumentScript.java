@@ -20,6 +20,7 @@ import com.yahoo.vespa.indexinglanguage.AdapterFactory;
 import com.yahoo.vespa.indexinglanguage.expressions.Expression;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -41,16 +42,27 @@ public class DocumentScript {
     }
 
     public Expression getExpression() { return expression; }
+
     public Document execute(AdapterFactory adapterFactory, Document document) {
+        return execute(adapterFactory, document, new HashMap<>());
+    }
+
+    /** Executes this on the given document, reusing values (such as tokenizations) cached in the given map */
+    public Document execute(AdapterFactory adapterFactory, Document document, Map<Object, Object> cache) {
         for (Iterator<Map.Entry<Field, FieldValue>> it = document.iterator(); it.hasNext(); ) {
             Map.Entry<Field, FieldValue> entry = it.next();
             requireThatFieldIsDeclaredInDocument(entry.getKey());
             removeAnyLinguisticsSpanTree(entry.getValue());
         }
-        return expression.execute(adapterFactory, document);
+        return expression.execute(adapterFactory, document, cache);
     }
 
     public DocumentUpdate execute(AdapterFactory adapterFactory, DocumentUpdate update) {
+        return execute(adapterFactory, update, new HashMap<>());
+    }
+
+    /** Executes this on the given update, reusing values (such as tokenizations) cached in the given map */
+    public DocumentUpdate execute(AdapterFactory adapterFactory, DocumentUpdate update, Map<Object, Object> cache) {
         for (FieldUpdate fieldUpdate : update.fieldUpdates()) {
             requireThatFieldIsDeclaredInDocument(fieldUpdate.getField());
             for (ValueUpdate<?> valueUpdate : fieldUpdate.getValueUpdates()) {
@@ -63,7 +75,7 @@ public class DocumentScript {
                 removeAnyLinguisticsSpanTree(((AssignFieldPathUpdate)fieldUpdate).getFieldValue());
             }
         }
-        return Expression.execute(expression, adapterFactory, update);
+        return Expression.execute(expression, adapterFactory, update, cache);
     }
 
     private void requireThatFieldIsDeclaredInDocument(Field field) {
@@ -25,6 +25,7 @@ import com.yahoo.vespa.indexinglanguage.AdapterFactory;
 import com.yahoo.vespa.indexinglanguage.SimpleAdapterFactory;
 import com.yahoo.vespa.indexinglanguage.expressions.Expression;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
@@ -70,11 +71,12 @@ public class IndexingProcessor extends DocumentProcessor {
             return Progress.DONE;
         }
         List<DocumentOperation> out = new ArrayList<>(proc.getDocumentOperations().size());
+        Map<Object, Object> cache = new HashMap<>(); // Values, such as tokenizations, reused within this batch
         for (DocumentOperation documentOperation : proc.getDocumentOperations()) {
             if (documentOperation instanceof DocumentPut) {
-                processDocument((DocumentPut)documentOperation, out);
+                processDocument((DocumentPut)documentOperation, out, cache);
             } else if (documentOperation instanceof DocumentUpdate) {
-                processUpdate((DocumentUpdate)documentOperation, out);
+                processUpdate((DocumentUpdate)documentOperation, out, cache);
             } else if (documentOperation instanceof DocumentRemove) {
                 processRemove((DocumentRemove)documentOperation, out);
             } else if (documentOperation != null) {
@@ -92,7 +94,7 @@ public class IndexingProcessor extends DocumentProcessor {
         return docTypeMgr;
     }
 
-    private void processDocument(DocumentPut prev, List<DocumentOperation> out) {
+    private void processDocument(DocumentPut prev, List<DocumentOperation> out, Map<Object, Object> cache) {
         DocumentScript script = scriptMgr.getScript(prev.getDocument().getDataType());
         if (script == null) {
             log.log(Level.FINE, "No indexing script for document '%s'.", prev.getId());
@@ -100,7 +102,7 @@ public class IndexingProcessor extends DocumentProcessor {
             return;
         }
         log.log(Level.FINE, "Processing document '%s'.", prev.getId());
-        Document next = script.execute(adapterFactory, prev.getDocument());
+        Document next = script.execute(adapterFactory, prev.getDocument(), cache);
         if (next == null) {
             log.log(Level.FINE, "Document '%s' produced no output.", prev.getId());
             return;
@@ -109,7 +111,7 @@ public class IndexingProcessor extends DocumentProcessor {
         out.add(new DocumentPut(prev, next));
     }
 
-    private void processUpdate(DocumentUpdate prev, List<DocumentOperation> out) {
+    private void processUpdate(DocumentUpdate prev, List<DocumentOperation> out, Map<Object, Object> cache) {
         DocumentScript script = scriptMgr.getScript(prev.getType());
         if (script == null) {
             log.log(Level.FINE, "No indexing script for update '%s'.", prev.getId());
@@ -117,7 +119,7 @@ public class IndexingProcessor extends DocumentProcessor {
             return;
         }
         log.log(Level.FINE, "Processing update '%s'.", prev.getId());
-        DocumentUpdate next = script.execute(adapterFactory, prev);
+        DocumentUpdate next = script.execute(adapterFactory, prev, cache);
         if (next == null) {
             log.log(Level.FINE, "Update '%s' produced no output.", prev.getId());
             return;
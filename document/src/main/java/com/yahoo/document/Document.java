@@ -200,6 +200,20 @@ public class Document extends StructuredFieldValue {
         return header.iterator();
     }
 
+    @Override
+    public Iterator<Map.Entry<Field, FieldValue>> serializationIterator() {
+        return header.serializationIterator();
+    }
+
+    /**
+     * Sets the value of the given field to a serialized value which is deserialized when first accessed.
+     *
+     * @see Struct#setSerializedFieldValue
+     */
+    public void setSerializedFieldValue(Field field, DocumentTypeManager manager, byte[] data, int offset, int length) {
+        header.setSerializedFieldValue(field, manager, data, offset, length);
+    }
+
     public String toString() {
         return "document '" + docId + "' of type '" + getDataType().getName() + "'";
     }
@@ -0,0 +1,236 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.columnar;
+
+import com.yahoo.tensor.IndexedTensor;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+import com.yahoo.text.Utf8;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.List;
+
+/**
+ * The values of one field of all the documents in a {@link ColumnarBatch}. Fixed width values and tensor cells
+ * are read directly from the decoded batch, while strings are decoded when the column is read.
+ *
+ * @author agent
+ */
+public class Column {
+
+    /** The encoding of the values of a column */
+    public enum Type {
+
+        // Do not change the codes, they are part of the format.
+        BYTE(1, 1),
+        BOOL(2, 1),
+        INT(3, 4),
+        LONG(4, 8),
+        FLOAT(5, 4),
+        DOUBLE(6, 8),
+        /** Strings, stored as indices into a dictionary of the distinct values of the batch */
+        STRING(7, 0),
+        /** Strings, stored as they are */
+        TEXT(8, 0),
+        /** Values of any other field type, stored as the JSON they have in the document JSON format */
+        JSON(9, 0),
+        /** Dense tensors with bound dimensions, stored as the cells of each tensor in standard value order */
+        TENSOR(10, 0);
+
+        private final byte code;
+        private final int width;
+
+        Type(int code, int width) {
+            this.code = (byte) code;
+            this.width = width;
+        }
+
+        public byte code() { return code; }
+
+        /** Returns the number of bytes per value of this type, or 0 if the values do not have a fixed width */
+        public int width() { return width; }
+
+        public static Type fromCode(byte code) {
+            for (Type type : values())
+                if (type.code == code) return type;
+            throw new IllegalArgumentException("Unknown column type " + code);
+        }
+
+    }
+
+    private final String name;
+    private final Type type;
+    private final int size;
+    private final byte[] present;
+    private final ByteBuffer values;
+    private final List<String> dictionary;
+    private final IntBuffer indices;
+    private final String[] strings;
+    private final TensorType tensorType;
+    private final int cellsPerTensor;
+
+    private Column(String name, Type type, int size, byte[] present, ByteBuffer values, List<String> dictionary,
+                   IntBuffer indices, String[] strings, TensorType tensorType, int cellsPerTensor) {
+        this.name = name;
+        this.type = type;
+        this.size = size;
+        this.present = present;
+        this.values = values;
+        this.dictionary = dictionary;
+        this.indices = indices;
+        this.strings = strings;
+        this.tensorType = tensorType;
+        this.cellsPerTensor = cellsPerTensor;
+    }
+
+    /** Returns the name of the field of this column */
+    public String name() { return name; }
+
+    public Type type() { return type; }
+
+    /** Returns the number of values in this, which is the number of documents in the batch */
+    public int size() { return size; }
+
+    /** Returns whether the given document has no value for this field */
+    public boolean isNull(int row) {
+        checkRow(row);
+        return (present[row >> 3] & (1 << (row & 7))) == 0;
+    }
+
+    /** Returns the value of a byte, bool, int or long column, where true is 1, and null is 0 */
+    public long getLong(int row) {
+        checkRow(row);
+        return switch (type) {
+            case BYTE, BOOL -> values.get(row);
+            case INT -> values.getInt(row * 4);
+            case LONG -> values.getLong(row * 8);
+            default -> throw wrongType("getLong");
+        };
+    }
+
+    /** Returns the value of a numeric column, where null is 0 */
+    public double getDouble(int row) {
+        checkRow(row);
+        return switch (type) {
+            case FLOAT -> values.getFloat(row * 4);
+            case DOUBLE -> values.getDouble(row * 8);
+            case BYTE, INT, LONG -> getLong(row);
+            default -> throw wrongType("getDouble");
+        };
+    }
+
+    /** Returns the value of a bool column, where null is false */
+    public boolean getBoolean(int row) {
+        if (type != Type.BOOL) throw wrongType("getBoolean");
+        return getLong(row) != 0;
+    }
+
+    /** Returns the value of a string, text or JSON column, or null if the document has no value for this field */
+    public String getString(int row) {
+        if (isNull(row)) return null;
+        return switch (type) {
+            case STRING -> dictionary.get(indices.get(row));
+            case TEXT, JSON -> strings[row];
+            default -> throw wrongType("getString");
+        };
+    }
+
+    /** Returns the distinct values of a string column, which {@link #getDictionaryIndex} points into */
+    public List<String> dictionary() {
+        if (type != Type.STRING) throw wrongType("dictionary");
+        return dictionary;
+    }
+
+    /** Returns the index of the value of a string column in the {@link #dictionary}, or -1 if it is null */
+    public int getDictionaryIndex(int row) {
+        if (type != Type.STRING) throw wrongType("getDictionaryIndex");
+        return isNull(row) ? -1 : indices.get(row);
+    }
+
+    /** Returns the type of the tensors of a tensor column */
+    public TensorType tensorType() {
+        if (type != Type.TENSOR) throw wrongType("tensorType");
+        return tensorType;
+    }
+
+    /** Returns the value of a tensor column, or null if the document has no value for this field */
+    public Tensor getTensor(int row) {
+        if (type != Type.TENSOR) throw wrongType("getTensor");
+        if (isNull(row)) return null;
+        if (tensorType.valueType() == TensorType.Value.DOUBLE) {
+            double[] cells = new double[cellsPerTensor];
+            values.slice(row * cellsPerTensor * 8, cellsPerTensor * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(cells);
+            return IndexedTensor.Builder.of(tensorType, cells).build();
+        }
+        else {
+            float[] cells = new float[cellsPerTensor];
+            values.slice(row * cellsPerTensor * 4, cellsPerTensor * 4).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(cells);
+            return IndexedTensor.Builder.of(tensorType, cells).build();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + " column '" + name + "' with " + size + " values";
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row " + row + " is outside " + this);
+    }
+
+    private IllegalStateException wrongType(String method) {
+        return new IllegalStateException(method + " is not supported for " + this);
+    }
+
+    /** Returns whether tensors of the given type are stored as float32 cells, rather than float64 */
+    static boolean hasFloatCells(TensorType type) {
+        return type.valueType() != TensorType.Value.DOUBLE;
+    }
+
+    /** Reads a column of the given number of values from the given buffer, which must be little endian */
+    static Column read(ByteBuffer buffer, int size) {
+        String name = readString(buffer);
+        Type type = Type.fromCode(buffer.get());
+        byte[] present = new byte[(size + 7) / 8];
+        buffer.get(present);
+        return switch (type) {
+            case BYTE, BOOL, INT, LONG, FLOAT, DOUBLE ->
+                    new Column(name, type, size, present, slice(buffer, size * type.width()), null, null, null, null, 0);
+            case STRING -> {
+                String[] dictionary = new String[buffer.getInt()];
+                for (int i = 0; i < dictionary.length; i++)
+                    dictionary[i] = readString(buffer);
+                IntBuffer indices = slice(buffer, size * 4).asIntBuffer();
+                yield new Column(name, type, size, present, null, List.of(dictionary), indices, null, null, 0);
+            }
+            case TEXT, JSON -> {
+                String[] strings = new String[size];
+                for (int i = 0; i < size; i++)
+                    strings[i] = readString(buffer);
+                yield new Column(name, type, size, present, null, null, null, strings, null, 0);
+            }
+            case TENSOR -> {
+                TensorType tensorType = TensorType.fromSpec(readString(buffer));
+                int cells = buffer.getInt();
+                int width = hasFloatCells(tensorType) ? 4 : 8;
+                yield new Column(name, type, size, present, slice(buffer, size * cells * width), null, null, null, tensorType, cells);
+            }
+        };
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+        ByteBuffer slice = buffer.slice(buffer.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(buffer.position() + length);
+        return slice;
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value = Utf8.toString(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+}
@@ -0,0 +1,47 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.columnar;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A batch of documents of one document type, read from the columnar format written by {@link ColumnarDocumentWriter},
+ * with one {@link Column} per field of the document type.
+ *
+ * @author agent
+ */
+public class ColumnarBatch {
+
+    private final String documentType;
+    private final Column ids;
+    private final List<Column> columns;
+
+    ColumnarBatch(String documentType, Column ids, List<Column> columns) {
+        this.documentType = documentType;
+        this.ids = ids;
+        this.columns = List.copyOf(columns);
+    }
+
+    /** Returns the name of the document type of the documents in this */
+    public String documentType() { return documentType; }
+
+    /** Returns the number of documents in this */
+    public int size() { return ids.size(); }
+
+    /** Returns the id of the given document */
+    public String id(int row) { return ids.getString(row); }
+
+    /** Returns the columns of this, in the order of the fields of the document type */
+    public List<Column> columns() { return columns; }
+
+    /** Returns the column of the given field, if the field is in the document type */
+    public Optional<Column> column(String field) {
+        return columns.stream().filter(column -> column.name().equals(field)).findFirst();
+    }
+
+    @Override
+    public String toString() {
+        return "batch of " + size() + " '" + documentType + "' documents";
+    }
+
+}
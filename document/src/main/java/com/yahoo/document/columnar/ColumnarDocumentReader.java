@@ -0,0 +1,77 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.columnar;
+
+import com.yahoo.compress.CompressionType;
+import com.yahoo.compress.Compressor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the batches written by a {@link ColumnarDocumentWriter}. This does not need the document types of the
+ * documents, as each batch describes its own columns.
+ *
+ * @author agent
+ */
+public class ColumnarDocumentReader {
+
+    private static final Compressor compressor = new Compressor();
+
+    private final InputStream in;
+
+    public ColumnarDocumentReader(InputStream in) {
+        this.in = in;
+    }
+
+    /** Returns the next batch in the stream, or empty if the stream has ended */
+    public Optional<ColumnarBatch> next() throws IOException {
+        byte[] header = in.readNBytes(ColumnarDocumentWriter.headerSize);
+        if (header.length == 0) return Optional.empty();
+        if (header.length < ColumnarDocumentWriter.headerSize) throw new EOFException("Stream ended inside a batch header");
+
+        int compressedSize = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN).getInt(ColumnarDocumentWriter.headerSize - 4);
+        byte[] data = in.readNBytes(compressedSize);
+        if (data.length < compressedSize) throw new EOFException("Stream ended inside a batch");
+
+        return Optional.of(decode(ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN), data));
+    }
+
+    /** Returns the single batch in the given frame, as returned by {@link ColumnarDocumentWriter#encode} */
+    public static ColumnarBatch decode(byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer header = buffer.slice(0, ColumnarDocumentWriter.headerSize).order(ByteOrder.LITTLE_ENDIAN);
+        int compressedSize = header.getInt(ColumnarDocumentWriter.headerSize - 4);
+        if (frame.length != ColumnarDocumentWriter.headerSize + compressedSize)
+            throw new IllegalArgumentException("Expected a frame of " + (ColumnarDocumentWriter.headerSize + compressedSize) +
+                                               " bytes, but got " + frame.length);
+
+        byte[] data = new byte[compressedSize];
+        buffer.get(ColumnarDocumentWriter.headerSize, data);
+        return decode(header, data);
+    }
+
+    private static ColumnarBatch decode(ByteBuffer header, byte[] data) {
+        if (header.getInt() != ColumnarDocumentWriter.magic) throw new IllegalArgumentException("Not a columnar document batch");
+        CompressionType compression = CompressionType.valueOf(header.get());
+        int uncompressedSize = header.getInt();
+        int compressedSize = header.getInt();
+
+        byte[] uncompressed = compressor.decompress(compression, data, 0, uncompressedSize, Optional.of(compressedSize));
+        ByteBuffer buffer = ByteBuffer.wrap(uncompressed).order(ByteOrder.LITTLE_ENDIAN);
+        String documentType = Column.readString(buffer);
+        int size = buffer.getInt();
+        int columnCount = buffer.getInt();
+        Column ids = Column.read(buffer, size);
+        List<Column> columns = new ArrayList<>(columnCount - 1);
+        for (int i = 1; i < columnCount; i++)
+            columns.add(Column.read(buffer, size));
+        return new ColumnarBatch(documentType, ids, columns);
+    }
+
+}
@@ -0,0 +1,266 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.columnar;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.yahoo.compress.CompressionType;
+import com.yahoo.compress.Compressor;
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.Field;
+import com.yahoo.document.TensorDataType;
+import com.yahoo.document.datatypes.BoolFieldValue;
+import com.yahoo.document.datatypes.FieldValue;
+import com.yahoo.document.datatypes.NumericFieldValue;
+import com.yahoo.document.datatypes.StringFieldValue;
+import com.yahoo.document.datatypes.TensorFieldValue;
+import com.yahoo.document.json.JsonWriter;
+import com.yahoo.io.GrowableByteBuffer;
+import com.yahoo.tensor.IndexedTensor;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+import com.yahoo.text.Utf8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes documents in a columnar, compressed binary format, which is much cheaper to produce and consume than
+ * JSON when exporting many documents. Documents are written in batches of a given size, where each batch holds
+ * documents of a single document type, and is self-describing, such that it can be read without knowing the
+ * document types. Use {@link ColumnarDocumentReader} to read the batches.
+ *
+ * <p>All numbers are little endian. Each batch is a frame, with</p>
+ * <ul>
+ *     <li>the int magic number 0x56434431, the byte code of its {@link CompressionType}, its int uncompressed size,
+ *         and its int compressed size, followed by the compressed data, which is</li>
+ *     <li>the document type name, the int number of documents, and the int number of columns, followed by
+ *         the columns, where the first holds the document ids. Each column is</li>
+ *     <li>the field name, the byte code of the {@link Column.Type}, a bitmap, with the lowest bit first,
+ *         of which documents have a value for the field, followed by the values of all documents, where
+ *         missing values are zero, or empty strings:</li>
+ *     <li>fixed width types have the values one after another,</li>
+ *     <li>string has the int number of distinct strings, the strings, and an int index into these per document,</li>
+ *     <li>text and JSON have the strings one after another,</li>
+ *     <li>tensor has the type spec, the int number of cells per tensor, and the cells of each tensor in standard
+ *         value order, as float64 when the value type is double, and float32 otherwise.</li>
+ * </ul>
+ * <p>Strings are an int byte length followed by the UTF-8 bytes.</p>
+ *
+ * @author agent
+ */
+public class ColumnarDocumentWriter implements Closeable {
+
+    static final int magic = 0x56434431; // "VCD1"
+    static final int headerSize = 4 + 1 + 4 + 4;
+    static final String idColumn = "[id]";
+
+    private static final Compressor compressor = new Compressor(CompressionType.LZ4, 3);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final OutputStream out;
+    private final int batchSize;
+    private final CompressionType compression;
+    private final List<Document> batch = new ArrayList<>();
+
+    /**
+     * Creates a writer of batches to the given stream
+     *
+     * @param out the stream to write batches to
+     * @param batchSize the max number of documents per batch
+     * @param compression the compression to use for each batch; batches which don't compress well are not compressed
+     */
+    public ColumnarDocumentWriter(OutputStream out, int batchSize, CompressionType compression) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+        this.out = out;
+        this.batchSize = batchSize;
+        this.compression = compression;
+    }
+
+    /** Adds the given document to the current batch, which is written when it is full, or of another document type */
+    public void write(Document document) throws IOException {
+        if ( ! batch.isEmpty() && ! batch.get(0).getDataType().equals(document.getDataType()))
+            writeBatch();
+
+        batch.add(document);
+        if (batch.size() >= batchSize)
+            writeBatch();
+    }
+
+    /** Writes the current batch, if it has any documents, and flushes the underlying stream */
+    public void flush() throws IOException {
+        writeBatch();
+        out.flush();
+    }
+
+    /** Writes the current batch, and closes the underlying stream */
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private void writeBatch() throws IOException {
+        if (batch.isEmpty()) return;
+        out.write(encode(batch, compression));
+        batch.clear();
+    }
+
+    /**
+     * Returns a single frame holding the given documents, which must all be of the same document type.
+     * This can be read by {@link ColumnarDocumentReader#decode}, or as part of a stream of frames.
+     */
+    public static byte[] encode(List<Document> documents, CompressionType compression) {
+        if (documents.isEmpty()) throw new IllegalArgumentException("Can not encode an empty batch");
+
+        DocumentType type = documents.get(0).getDataType();
+        GrowableByteBuffer buffer = new GrowableByteBuffer(64 * documents.size()).order(ByteOrder.LITTLE_ENDIAN);
+        putString(buffer, type.getName());
+        buffer.putInt(documents.size());
+        buffer.putInt(1 + type.fieldSet().size());
+
+        List<FieldValue> ids = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            if ( ! document.getDataType().equals(type))
+                throw new IllegalArgumentException("All documents in a batch must be of type '" + type.getName() +
+                                                   "', but " + document.getId() + " is of type '" +
+                                                   document.getDataType().getName() + "'");
+            ids.add(new StringFieldValue(document.getId().toString()));
+        }
+        putColumn(buffer, idColumn, Column.Type.TEXT, null, ids);
+
+        for (Field field : type.fieldSet()) {
+            List<FieldValue> values = new ArrayList<>(documents.size());
+            for (Document document : documents)
+                values.add(document.getFieldValue(field));
+            putColumn(buffer, field.getName(), typeOf(field.getDataType()), field.getDataType(), values);
+        }
+
+        buffer.flip();
+        Compressor.Compression compressed = compressor.compress(compression, buffer.array(), 0, buffer.limit());
+        ByteBuffer frame = ByteBuffer.allocate(headerSize + compressed.data().length).order(ByteOrder.LITTLE_ENDIAN);
+        frame.putInt(magic);
+        frame.put(compressed.type().getCode());
+        frame.putInt(compressed.uncompressedSize());
+        frame.putInt(compressed.data().length);
+        frame.put(compressed.data());
+        return frame.array();
+    }
+
+    /** Returns the column type used for fields of the given type */
+    static Column.Type typeOf(DataType type) {
+        if (type.equals(DataType.BYTE)) return Column.Type.BYTE;
+        if (type.equals(DataType.BOOL)) return Column.Type.BOOL;
+        if (type.equals(DataType.INT)) return Column.Type.INT;
+        if (type.equals(DataType.LONG)) return Column.Type.LONG;
+        if (type.equals(DataType.FLOAT) || type.equals(DataType.FLOAT16)) return Column.Type.FLOAT;
+        if (type.equals(DataType.DOUBLE)) return Column.Type.DOUBLE;
+        if (type.equals(DataType.STRING)) return Column.Type.STRING;
+        if (type instanceof TensorDataType tensorType && isDense(tensorType.getTensorType())) return Column.Type.TENSOR;
+        return Column.Type.JSON;
+    }
+
+    private static boolean isDense(TensorType type) {
+        return type.rank() > 0 && type.dimensions().stream().allMatch(dimension -> dimension.type() == TensorType.Dimension.Type.indexedBound);
+    }
+
+    private static void putColumn(GrowableByteBuffer buffer, String name, Column.Type type, DataType dataType, List<FieldValue> values) {
+        List<String> strings = type == Column.Type.STRING || type == Column.Type.TEXT ? strings(values) : null;
+        Map<String, Integer> dictionary = type == Column.Type.STRING ? dictionary(strings) : null;
+        if (type == Column.Type.STRING && dictionary.size() > values.size() / 2)
+            type = Column.Type.TEXT; // Mostly distinct values: A dictionary would only add to the size
+
+        putString(buffer, name);
+        buffer.put(type.code());
+        byte[] present = new byte[(values.size() + 7) / 8];
+        for (int row = 0; row < values.size(); row++)
+            if (values.get(row) != null)
+                present[row >> 3] |= (byte) (1 << (row & 7));
+        buffer.put(present);
+
+        switch (type) {
+            case BYTE -> values.forEach(value -> buffer.put(value == null ? 0 : number(value).byteValue()));
+            case BOOL -> values.forEach(value -> buffer.put((byte) (value != null && ((BoolFieldValue) value).getBoolean() ? 1 : 0)));
+            case INT -> values.forEach(value -> buffer.putInt(value == null ? 0 : number(value).intValue()));
+            case LONG -> values.forEach(value -> buffer.putLong(value == null ? 0 : number(value).longValue()));
+            case FLOAT -> values.forEach(value -> buffer.putFloat(value == null ? 0 : number(value).floatValue()));
+            case DOUBLE -> values.forEach(value -> buffer.putDouble(value == null ? 0 : number(value).doubleValue()));
+            case STRING -> {
+                buffer.putInt(dictionary.size());
+                dictionary.keySet().forEach(value -> putString(buffer, value));
+                strings.forEach(value -> buffer.putInt(value == null ? 0 : dictionary.get(value)));
+            }
+            case TEXT -> strings.forEach(value -> putString(buffer, value == null ? "" : value));
+            case JSON -> values.forEach(value -> putString(buffer, value == null ? "" : toJson(value)));
+            case TENSOR -> putTensors(buffer, ((TensorDataType) dataType).getTensorType(), values);
+        }
+    }
+
+    private static void putTensors(GrowableByteBuffer buffer, TensorType type, List<FieldValue> values) {
+        putString(buffer, type.toString());
+        int cells = (int) type.dimensions().stream().mapToLong(dimension -> dimension.size().get()).reduce(1, (a, b) -> a * b);
+        buffer.putInt(cells);
+        boolean floatCells = Column.hasFloatCells(type);
+        ByteBuffer block = ByteBuffer.allocate(values.size() * cells * (floatCells ? 4 : 8)).order(ByteOrder.LITTLE_ENDIAN);
+        for (int row = 0; row < values.size(); row++) {
+            if (values.get(row) == null) continue;
+            Tensor tensor = ((TensorFieldValue) values.get(row)).getTensor().orElse(null);
+            if (tensor == null) continue;
+            if ( ! (tensor instanceof IndexedTensor indexed) || tensor.size() != cells)
+                throw new IllegalArgumentException("Expected a tensor of type " + type + ", but got " + tensor.type());
+
+            if (floatCells)
+                indexed.copyTo(block.asFloatBuffer().position(row * cells));
+            else
+                indexed.copyTo(block.asDoubleBuffer().position(row * cells));
+        }
+        buffer.put(block.array());
+    }
+
+    private static List<String> strings(List<FieldValue> values) {
+        List<String> strings = new ArrayList<>(values.size());
+        for (FieldValue value : values)
+            strings.add(value == null ? null : ((StringFieldValue) value).getString());
+        return strings;
+    }
+
+    private static Map<String, Integer> dictionary(List<String> strings) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (String value : strings)
+            if (value != null)
+                dictionary.putIfAbsent(value, dictionary.size());
+        return dictionary;
+    }
+
+    private static Number number(FieldValue value) {
+        return ((NumericFieldValue) value).getNumber();
+    }
+
+    private static String toJson(FieldValue value) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            value.serialize(null, new JsonWriter(generator));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Utf8.toString(json.toByteArray());
+    }
+
+    private static void putString(GrowableByteBuffer buffer, String value) {
+        byte[] utf8 = Utf8.toBytes(value);
+        buffer.putInt(utf8.length);
+        buffer.put(utf8);
+    }
+
+}
@@ -0,0 +1,8 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+/**
+ * A columnar, compressed binary format for exporting batches of documents, and a reader of this format.
+ */
+@ExportPackage
+package com.yahoo.document.columnar;
+
+import com.yahoo.osgi.annotation.ExportPackage;
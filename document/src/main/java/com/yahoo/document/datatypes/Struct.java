@@ -4,15 +4,19 @@ package com.yahoo.document.datatypes;
 import com.yahoo.collections.Hashlet;
 import com.yahoo.document.DataType;
 import com.yahoo.document.Document;
+import com.yahoo.document.DocumentTypeManager;
 import com.yahoo.document.Field;
 import com.yahoo.document.PositionDataType;
 import com.yahoo.document.StructDataType;
+import com.yahoo.document.serialization.DocumentDeserializerFactory;
 import com.yahoo.document.serialization.FieldReader;
 import com.yahoo.document.serialization.FieldWriter;
 import com.yahoo.document.serialization.XmlSerializationHelper;
 import com.yahoo.document.serialization.XmlStream;
+import com.yahoo.io.GrowableByteBuffer;
 import com.yahoo.vespa.objects.Ids;
 
+import java.nio.ByteBuffer;
 import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -47,6 +51,23 @@ public class Struct extends StructuredFieldValue {
         order = null;
     }
 
+    /**
+     * Returns the value at the given index, deserializing it first if it is still serialized.
+     * This never modifies this, so concurrent reads are safe as for any other struct.
+     */
+    private FieldValue resolve(int index) {
+        FieldValue value = values.value(index);
+        if (value instanceof SerializedFieldValue) {
+            return ((SerializedFieldValue)value).value();
+        }
+        return value;
+    }
+
+    private FieldValue resolveField(int id) {
+        int index = values.getIndexOfKey(id);
+        return index < 0 ? null : resolve(index);
+    }
+
     public Struct(DataType type) {
         super((StructDataType) type);
         this.version = Document.SERIALIZED_VERSION;
@@ -106,7 +127,7 @@ public class Struct extends StructuredFieldValue {
 
     @Override
     public FieldValue getFieldValue(Field field) {
-        return values.get(field.getId());
+        return resolveField(field.getId());
     }
 
 
@@ -120,6 +141,37 @@ public class Struct extends StructuredFieldValue {
         return values.size();
     }
 
+    /**
+     * Sets the value of the given field to the given serialized value, in the current document format.
+     * The value is deserialized the first time it is accessed, and is serialized by copying
+     * the given bytes as long as it has not been accessed. The given bytes must not be modified after this call.
+     *
+     * @param field the field to set the value of
+     * @param manager the document type manager to use when deserializing the value
+     * @param data the array holding the serialized value
+     * @param offset the offset of the serialized value in the given array
+     * @param length the length of the serialized value
+     */
+    public void setSerializedFieldValue(Field field, DocumentTypeManager manager, byte[] data, int offset, int length) {
+        Field myField = getDataType().getField(field.getId());
+        if (myField == null) {
+            throw new IllegalArgumentException("No such field in " + getDataType() + " : " + field.getName());
+        }
+        SerializedFieldValue value = new SerializedFieldValue(myField, manager, data, offset, length);
+        int index = values.getIndexOfKey(field.getId());
+        if (index == -1) {
+            values.put(field.getId(), value);
+            invalidateOrder();
+        } else {
+            values.setValue(index, value);
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<Field, FieldValue>> serializationIterator() {
+        return new FieldSetIterator(false);
+    }
+
     @Override
     protected void doSetFieldValue(Field field, FieldValue value) {
         if (field == null) {
@@ -154,7 +206,7 @@ public class Struct extends StructuredFieldValue {
 
     @Override
     public FieldValue removeFieldValue(Field field) {
-        FieldValue found = values.get(field.getId());
+        FieldValue found = resolveField(field.getId());
         if (found != null) {
             Hashlet<Integer, FieldValue> copy = new Hashlet<>();
             copy.reserve(values.size() - 1);
@@ -202,7 +254,11 @@ public class Struct extends StructuredFieldValue {
         if (!super.equals(o)) return false;
 
         Struct struct = (Struct) o;
-        return values.equals(struct.values);
+        if (values.size() != struct.values.size()) return false;
+        for (int i = 0; i < values.size(); i++) {
+            if ( ! resolve(i).equals(struct.resolveField(values.key(i)))) return false;
+        }
+        return true;
     }
 
     @Override
@@ -219,7 +275,7 @@ public class Struct extends StructuredFieldValue {
         int [] increasing = getInOrder();
         for (int i = 0; i < increasing.length; i++) {
             int id = increasing[i];
-            retVal.append(getDataType().getField(id)).append("=").append(values.get(id)).append(", ");
+            retVal.append(getDataType().getField(id)).append("=").append(resolveField(id)).append(", ");
         }
         return retVal.toString();
     }
@@ -267,9 +323,11 @@ public class Struct extends StructuredFieldValue {
 
     private class FieldEntry implements Map.Entry<Field, FieldValue> {
         private int id;
+        private final boolean deserialize;
 
-        private FieldEntry(int id) {
+        private FieldEntry(int id, boolean deserialize) {
             this.id = id;
+            this.deserialize = deserialize;
         }
 
         public Field getKey() {
@@ -277,7 +335,7 @@ public class Struct extends StructuredFieldValue {
         }
 
         public FieldValue getValue() {
-            return values.get(id);
+            return deserialize ? resolveField(id) : values.get(id);
         }
 
         public FieldValue setValue(FieldValue value) {
@@ -291,7 +349,7 @@ public class Struct extends StructuredFieldValue {
                 values.put(id, value);
                 invalidateOrder();
             } else {
-                retVal = values.value(index);
+                retVal = resolve(index);
                 values.setValue(index, value);
             }
 
@@ -319,7 +377,7 @@ public class Struct extends StructuredFieldValue {
 
         @Override
         public Iterator<Map.Entry<Field, FieldValue>> iterator() {
-            return new FieldSetIterator();
+            return new FieldSetIterator(true);
         }
 
 
@@ -328,6 +386,11 @@ public class Struct extends StructuredFieldValue {
     private class FieldSetIterator implements Iterator<Map.Entry<Field, FieldValue>> {
         private int position = 0;
         private int [] increasing = getInOrder();
+        private final boolean deserialize;
+
+        private FieldSetIterator(boolean deserialize) {
+            this.deserialize = deserialize;
+        }
 
         public boolean hasNext() {
             return (position < increasing.length);
@@ -337,7 +400,7 @@ public class Struct extends StructuredFieldValue {
             if (position >= increasing.length) {
                 throw new NoSuchElementException("No more elements in collection");
             }
-            FieldEntry retval = new FieldEntry(increasing[position]);
+            FieldEntry retval = new FieldEntry(increasing[position], deserialize);
             position++;
             return retval;
         }
@@ -347,6 +410,101 @@ public class Struct extends StructuredFieldValue {
         }
     }
 
+    /**
+     * A field value which is still serialized. The value is deserialized at most once, on first access, and
+     * is then safely published to all threads reading it. Until it is accessed, this serializes by copying its
+     * bytes. All other operations delegate to the deserialized value.
+     */
+    private static final class SerializedFieldValue extends FieldValue {
+
+        private final Field field;
+        private final DocumentTypeManager manager;
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+        private volatile FieldValue value = null;
+
+        SerializedFieldValue(Field field, DocumentTypeManager manager, byte[] data, int offset, int length) {
+            this.field = field;
+            this.manager = manager;
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /** Returns the deserialized value, deserializing it if this is the first access */
+        FieldValue value() {
+            FieldValue value = this.value;
+            if (value == null) {
+                synchronized (this) {
+                    value = this.value;
+                    if (value == null) {
+                        value = field.getDataType().createFieldValue();
+                        value.deserialize(field, DocumentDeserializerFactory.createHead(manager, GrowableByteBuffer.wrap(data, offset, length)));
+                        this.value = value;
+                    }
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public DataType getDataType() { return field.getDataType(); }
+
+        @Override
+        public FieldValue clone() {
+            FieldValue value = this.value;
+            return value != null ? value.clone() : new SerializedFieldValue(field, manager, data, offset, length);
+        }
+
+        @Override
+        public void serialize(Field field, FieldWriter writer) {
+            FieldValue value = this.value;
+            if (value != null)
+                value.serialize(field, writer); // May have been modified since it was deserialized
+            else
+                writer.put(null, ByteBuffer.wrap(data, offset, length));
+        }
+
+        @Override
+        public void printXml(XmlStream xml) { value().printXml(xml); }
+
+        @Override
+        public void clear() { value().clear(); }
+
+        @Override
+        public void assign(Object o) { value().assign(o); }
+
+        @Override
+        public void deserialize(Field field, FieldReader reader) {
+            FieldValue value = getDataType().createFieldValue();
+            value.deserialize(field, reader);
+            synchronized (this) {
+                this.value = value;
+            }
+        }
+
+        @Override
+        public Object getWrappedValue() { return value().getWrappedValue(); }
+
+        @Override
+        public int compareTo(FieldValue other) {
+            return value().compareTo(other instanceof SerializedFieldValue ? ((SerializedFieldValue) other).value() : other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return value().equals(o instanceof SerializedFieldValue ? ((SerializedFieldValue) o).value() : o);
+        }
+
+        @Override
+        public int hashCode() { return value().hashCode(); }
+
+        @Override
+        public String toString() { return value().toString(); }
+
+    }
+
     public static <T> T getFieldValue(FieldValue struct, DataType structType, String fieldName, Class<T> fieldType) {
         if (!(struct instanceof Struct)) {
             return null;
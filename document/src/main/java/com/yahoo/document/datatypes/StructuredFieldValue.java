@@ -173,6 +173,15 @@ public abstract class StructuredFieldValue extends CompositeFieldValue {
 
     public abstract Iterator<Map.Entry<Field, FieldValue>> iterator();
 
+    /**
+     * Returns an iterator over the fields of this for serialization. Values which are not yet deserialized
+     * are returned as values which can only be serialized (by copying their bytes), so the values returned
+     * must not be used for anything else than serializing them.
+     */
+    public Iterator<Map.Entry<Field, FieldValue>> serializationIterator() {
+        return iterator();
+    }
+
     @Override
     public FieldPathIteratorHandler.ModificationStatus iterateNested(FieldPath fieldPath, int pos,
                                                                      FieldPathIteratorHandler handler) {
@@ -2,11 +2,19 @@
 package com.yahoo.document.select;
 
 import com.yahoo.document.DocumentOperation;
+import com.yahoo.document.DocumentPut;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.DocumentUpdate;
 import com.yahoo.document.select.parser.ParseException;
 import com.yahoo.document.select.parser.SelectInput;
 import com.yahoo.document.select.parser.SelectParser;
 import com.yahoo.document.select.parser.TokenMgrException;
 import com.yahoo.document.select.rule.ExpressionNode;
+import com.yahoo.document.select.rule.LiteralNode;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A document selector is a filter which accepts or rejects documents
@@ -22,6 +30,9 @@ public class DocumentSelector {
 
     private final ExpressionNode expression;
 
+    /** The expression compiled for each document type it has been evaluated over, by type name */
+    private final Map<String, CompiledExpression> compiledExpressions = new ConcurrentHashMap<>();
+
     /**
      * Creates a document selector from a Document Selection Language string
      *
@@ -62,7 +73,42 @@ public class DocumentSelector {
      * @throws RuntimeException if the evaluation enters an illegal state
      */
     public Result accepts(Context context) {
-        return Result.toResult(expression.evaluate(context));
+        return Result.toResult(expressionFor(context.getDocumentOperation()).evaluate(context));
+    }
+
+    /**
+     * Returns the result of this selector for all puts and updates of documents of the given type,
+     * if it is the same for all of them, without evaluating it over any document.
+     *
+     * @param type the type of the documents
+     * @return the result for all puts and updates of documents of this type,
+     *         or empty if it depends on the document or update
+     */
+    public Optional<Result> resultFor(DocumentType type) {
+        ExpressionNode compiled = compiled(type);
+        if ( ! (compiled instanceof LiteralNode)) return Optional.empty();
+        return Optional.of(Result.toResult(((LiteralNode)compiled).getValue()));
+    }
+
+    /**
+     * Returns the expression to evaluate over the given operation: Puts and updates are evaluated by
+     * the expression compiled for their document type, all other operations by the parsed expression.
+     */
+    private ExpressionNode expressionFor(DocumentOperation op) {
+        if (op instanceof DocumentPut)
+            return compiled(((DocumentPut)op).getDocument().getDataType());
+        if (op instanceof DocumentUpdate)
+            return compiled(((DocumentUpdate)op).getDocumentType());
+        return expression;
+    }
+
+    private ExpressionNode compiled(DocumentType type) {
+        CompiledExpression compiled = compiledExpressions.get(type.getName());
+        if (compiled == null || compiled.type() != type) {
+            compiled = new CompiledExpression(type, expression.compile(type));
+            compiledExpressions.put(type.getName(), compiled);
+        }
+        return compiled.expression();
     }
 
     /**
@@ -98,4 +144,7 @@ public class DocumentSelector {
         expression.accept(visitor);
     }
 
+    /** An expression compiled for a document type, which is kept to detect changed types of the same name */
+    private record CompiledExpression(DocumentType type, ExpressionNode expression) {}
+
 }
@@ -2,6 +2,7 @@
 package com.yahoo.document.select.rule;
 
 import com.yahoo.document.BucketIdFactory;
+import com.yahoo.document.DocumentType;
 import com.yahoo.document.datatypes.NumericFieldValue;
 import com.yahoo.document.select.BucketSet;
 import com.yahoo.document.select.Context;
@@ -44,6 +45,18 @@ public class ArithmeticNode implements ExpressionNode {
         return null;
     }
 
+    @Override
+    public ExpressionNode compile(DocumentType type) {
+        ArithmeticNode compiled = new ArithmeticNode();
+        List<ExpressionNode> operands = new ArrayList<>();
+        for (NodeItem item : items) {
+            ExpressionNode operand = item.node.compile(type);
+            compiled.items.add(new NodeItem(item.operator, operand));
+            operands.add(operand);
+        }
+        return LiteralNode.fold(compiled, operands);
+    }
+
     @Override
     public Object evaluate(Context context) {
         StringBuilder ret = null;        
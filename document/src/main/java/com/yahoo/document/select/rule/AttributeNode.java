@@ -87,6 +87,27 @@ public class AttributeNode implements ExpressionNode {
         return obj;
     }
 
+    @Override
+    public ExpressionNode compile(DocumentType type) {
+        ExpressionNode compiled = value.compile(type);
+        if (compiled instanceof LiteralNode)
+            return LiteralNode.fold(new AttributeNode(compiled, items), List.of(compiled));
+        if (compiled instanceof DocumentNode && ! items.isEmpty() && items.stream().noneMatch(item -> item.getType() == Item.FUNCTION))
+            return DocumentFieldNode.create(this, fieldPathString(), type);
+        return compiled == value ? this : new AttributeNode(compiled, items);
+    }
+
+    /** Returns the field path accessed by the items of this, which must not contain functions */
+    private String fieldPathString() {
+        StringBuilder b = new StringBuilder();
+        for (Item item : items) {
+            if (b.length() > 0)
+                b.append(".");
+            b.append(item.getName());
+        }
+        return b.toString();
+    }
+
     public static class VariableValueList extends ArrayList<ResultList.VariableValue> {
 
     }
@@ -139,7 +160,7 @@ public class AttributeNode implements ExpressionNode {
         return false;
     }
 
-    private static boolean isSimpleImportedField(String path, DocumentType documentType) {
+    static boolean isSimpleImportedField(String path, DocumentType documentType) {
         if (looksLikeComplexFieldPath(path)) {
             return false;
         }
@@ -4,6 +4,7 @@ package com.yahoo.document.select.rule;
 import com.yahoo.document.BucketId;
 import com.yahoo.document.BucketIdFactory;
 import com.yahoo.document.DocumentId;
+import com.yahoo.document.DocumentType;
 import com.yahoo.document.datatypes.BoolFieldValue;
 import com.yahoo.document.datatypes.FieldPathIteratorHandler;
 import com.yahoo.document.datatypes.NumericFieldValue;
@@ -14,6 +15,7 @@ import com.yahoo.document.select.Result;
 import com.yahoo.document.select.ResultList;
 import com.yahoo.document.select.Visitor;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -27,6 +29,9 @@ public class ComparisonNode implements ExpressionNode {
     // The operator string for this.
     private String operator;
 
+    // The last regex pattern compiled when evaluating this, as it is usually the same in every evaluation.
+    private volatile CompiledPattern lastPattern = null;
+
     /**
      * Constructs a new comparison node.
      *
@@ -125,6 +130,13 @@ public class ComparisonNode implements ExpressionNode {
         return null;
     }
 
+    @Override
+    public ExpressionNode compile(DocumentType type) {
+        ExpressionNode lhs = this.lhs.compile(type);
+        ExpressionNode rhs = this.rhs.compile(type);
+        return LiteralNode.fold(new ComparisonNode(lhs, operator, rhs), List.of(lhs, rhs));
+    }
+
     @Override
     public Object evaluate(Context context) {
         Object oLeft = lhs.evaluate(context);
@@ -322,11 +334,17 @@ public class ComparisonNode implements ExpressionNode {
     private Result evaluateString(Object lhs, Object rhs) {
         String left = "" + lhs; // Allows null objects to evaluate to string.
         String right = "" + rhs;
-        if (operator.equals("=~")) {
-            return Result.toResult(Pattern.compile(right).matcher(left).find());
-        } else {
-            return Result.toResult(Pattern.compile(globToRegex(right)).matcher(left).find());
+        return Result.toResult(patternOf(right, ! operator.equals("=~")).matcher(left).find());
+    }
+
+    /** Returns the compiled pattern of the given regex or glob */
+    private Pattern patternOf(String source, boolean glob) {
+        CompiledPattern pattern = lastPattern;
+        if (pattern == null || pattern.glob() != glob || ! pattern.source().equals(source)) {
+            pattern = new CompiledPattern(source, glob, Pattern.compile(glob ? globToRegex(source) : source));
+            lastPattern = pattern;
         }
+        return pattern.pattern();
     }
 
     /**
@@ -385,4 +403,7 @@ public class ComparisonNode implements ExpressionNode {
     public String toString() {
         return lhs + " " + operator + " " + rhs;
     }
+
+    private record CompiledPattern(String source, boolean glob, Pattern pattern) {}
+
 }
@@ -0,0 +1,110 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.select.rule;
+
+import com.yahoo.document.BucketIdFactory;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentOperation;
+import com.yahoo.document.DocumentPut;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.DocumentUpdate;
+import com.yahoo.document.Field;
+import com.yahoo.document.FieldPath;
+import com.yahoo.document.FieldPathEntry;
+import com.yahoo.document.PrimitiveDataType;
+import com.yahoo.document.datatypes.FieldPathIteratorHandler;
+import com.yahoo.document.datatypes.FieldValue;
+import com.yahoo.document.select.BucketSet;
+import com.yahoo.document.select.Context;
+import com.yahoo.document.select.Result;
+import com.yahoo.document.select.ResultList;
+import com.yahoo.document.select.Visitor;
+
+/**
+ * An attribute node accessing a field path in documents of a given type, compiled from an attribute node
+ * of a document node. The field path is resolved once instead of in each evaluation, and fields of primitive
+ * types are looked up directly instead of by iterating the field path.
+ * Operations other than puts and updates are evaluated by the attribute node this is compiled from.
+ *
+ * @author agent
+ */
+class DocumentFieldNode implements ExpressionNode {
+
+    private final AttributeNode original;
+
+    /** The path to access, or null if it is an imported field, which evaluates to missing */
+    private final FieldPath fieldPath;
+
+    /** The field accessed if the path is a single field of a primitive type, or null */
+    private final Field primitiveField;
+
+    private DocumentFieldNode(AttributeNode original, FieldPath fieldPath) {
+        this.original = original;
+        this.fieldPath = fieldPath;
+        this.primitiveField = isPrimitiveField(fieldPath) ? fieldPath.get(0).getFieldRef() : null;
+    }
+
+    /**
+     * Returns a node accessing the given path in documents of the given type,
+     * or the original node if the path is not valid for the type.
+     */
+    static ExpressionNode create(AttributeNode original, String path, DocumentType type) {
+        if (AttributeNode.isSimpleImportedField(path, type))
+            return new DocumentFieldNode(original, null);
+        try {
+            return new DocumentFieldNode(original, type.buildFieldPath(path));
+        }
+        catch (IllegalArgumentException e) { // Fail during evaluation instead, as the original node does
+            return original;
+        }
+    }
+
+    private static boolean isPrimitiveField(FieldPath fieldPath) {
+        return fieldPath != null
+               && fieldPath.size() == 1
+               && fieldPath.get(0).getType() == FieldPathEntry.Type.STRUCT_FIELD
+               && fieldPath.get(0).getFieldRef().getDataType() instanceof PrimitiveDataType;
+    }
+
+    @Override
+    public BucketSet getBucketSet(BucketIdFactory factory) {
+        return null;
+    }
+
+    @Override
+    public Object evaluate(Context context) {
+        DocumentOperation op = context.getDocumentOperation();
+        if (op instanceof DocumentPut)
+            return evaluate(((DocumentPut)op).getDocument());
+        else if (op instanceof DocumentUpdate)
+            return Result.INVALID;
+        else
+            return original.evaluate(context);
+    }
+
+    private Object evaluate(Document document) {
+        if (fieldPath == null) return null;
+
+        if (primitiveField != null) {
+            FieldValue value = document.getFieldValue(primitiveField);
+            if (value == null) return null;
+            AttributeNode.VariableValueList values = new AttributeNode.VariableValueList();
+            values.add(new ResultList.VariableValue(new FieldPathIteratorHandler.VariableMap(), value));
+            return values;
+        }
+
+        AttributeNode.IteratorHandler handler = new AttributeNode.IteratorHandler();
+        document.iterateNested(fieldPath, 0, handler);
+        return handler.values.isEmpty() ? null : handler.values;
+    }
+
+    @Override
+    public void accept(Visitor visitor) {
+        original.accept(visitor);
+    }
+
+    @Override
+    public String toString() {
+        return original.toString();
+    }
+
+}
@@ -68,6 +68,12 @@ public class DocumentNode implements ExpressionNode {
         return op instanceof DocumentPut || op instanceof DocumentUpdate;
     }
 
+    /** Returns a constant false if documents of the given type are not of the type of this, and this otherwise */
+    @Override
+    public ExpressionNode compile(DocumentType type) {
+        return type.isA(this.type) ? this : new LiteralNode(false);
+    }
+
     public void accept(Visitor visitor) {
         visitor.visit(this);
     }
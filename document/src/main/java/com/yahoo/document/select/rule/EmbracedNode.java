@@ -2,6 +2,7 @@
 package com.yahoo.document.select.rule;
 
 import com.yahoo.document.BucketIdFactory;
+import com.yahoo.document.DocumentType;
 import com.yahoo.document.select.BucketSet;
 import com.yahoo.document.select.Context;
 import com.yahoo.document.select.Visitor;
@@ -36,6 +37,11 @@ public class EmbracedNode implements ExpressionNode {
         return node.evaluate(context);
     }
 
+    @Override
+    public ExpressionNode compile(DocumentType type) {
+        return node.compile(type);
+    }
+
     @Override
     public String toString() {
         return "(" + node + ")";
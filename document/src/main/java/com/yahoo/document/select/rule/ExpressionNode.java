@@ -2,6 +2,7 @@
 package com.yahoo.document.select.rule;
 
 import com.yahoo.document.BucketIdFactory;
+import com.yahoo.document.DocumentType;
 import com.yahoo.document.select.BucketSet;
 import com.yahoo.document.select.Context;
 import com.yahoo.document.select.Visitor;
@@ -36,4 +37,16 @@ public interface ExpressionNode {
      */
     void accept(Visitor visitor);
 
+    /**
+     * Returns a node which evaluates to the same value as this for all puts and updates of documents of
+     * the given type, where as much as possible is resolved in advance. Constant subexpressions are returned
+     * as literal nodes. This node is not modified.
+     *
+     * @param type the type of the documents the returned node will be evaluated over
+     * @return the specialized node, or this if it cannot be specialized
+     */
+    default ExpressionNode compile(DocumentType type) {
+        return this;
+    }
+
 }
@@ -7,6 +7,8 @@ import com.yahoo.document.select.Context;
 import com.yahoo.document.select.Visitor;
 import com.yahoo.document.select.parser.SelectParserUtils;
 
+import java.util.List;
+
 /**
  * @author Simon Thoresen Hult
  */
@@ -37,6 +39,21 @@ public class LiteralNode implements ExpressionNode {
         return value;
     }
 
+    /**
+     * Returns a literal node of the value of the given node if all its operands are literals,
+     * or the given node if not, or if it fails to evaluate.
+     */
+    static ExpressionNode fold(ExpressionNode node, List<ExpressionNode> operands) {
+        for (ExpressionNode operand : operands)
+            if ( ! (operand instanceof LiteralNode)) return node;
+        try {
+            return new LiteralNode(node.evaluate(new Context(null)));
+        }
+        catch (RuntimeException e) { // Fail during evaluation instead, as the original node would
+            return node;
+        }
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
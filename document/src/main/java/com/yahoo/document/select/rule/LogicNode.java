@@ -2,8 +2,10 @@
 package com.yahoo.document.select.rule;
 
 import com.yahoo.document.BucketIdFactory;
+import com.yahoo.document.DocumentType;
 import com.yahoo.document.select.BucketSet;
 import com.yahoo.document.select.Context;
+import com.yahoo.document.select.Result;
 import com.yahoo.document.select.ResultList;
 import com.yahoo.document.select.Visitor;
 
@@ -132,6 +134,35 @@ public class LogicNode implements ExpressionNode {
         buf.push(new LazyCombinedItem(lhs, rhs));
     }
 
+    @Override
+    public ExpressionNode compile(DocumentType type) {
+        LogicNode compiled = new LogicNode();
+        List<ExpressionNode> operands = new ArrayList<>();
+        for (NodeItem item : items) {
+            ExpressionNode operand = item.node.compile(type);
+            compiled.items.add(new NodeItem(item.operator, operand));
+            operands.add(operand);
+        }
+        ExpressionNode folded = LiteralNode.fold(compiled, operands);
+        if (folded != compiled) return folded;
+
+        // A false first operand of a conjunction, or a true first operand of a disjunction, decides it
+        // without evaluating the rest
+        if (operands.get(0) instanceof LiteralNode) {
+            Result first = Result.toResult(((LiteralNode)operands.get(0)).getValue());
+            if (first == Result.FALSE && hasOnly(AND)) return new LiteralNode(Result.FALSE);
+            if (first == Result.TRUE && hasOnly(OR)) return new LiteralNode(Result.TRUE);
+        }
+        return compiled;
+    }
+
+    /** Returns whether all the items of this after the first are combined with the given operator */
+    private boolean hasOnly(int operator) {
+        for (int i = 1; i < items.size(); i++)
+            if (items.get(i).operator != operator) return false;
+        return true;
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -2,11 +2,14 @@
 package com.yahoo.document.select.rule;
 
 import com.yahoo.document.BucketIdFactory;
+import com.yahoo.document.DocumentType;
 import com.yahoo.document.select.BucketSet;
 import com.yahoo.document.select.Context;
 import com.yahoo.document.select.Result;
 import com.yahoo.document.select.Visitor;
 
+import java.util.List;
+
 /**
  * @author Simon Thoresen Hult
  */
@@ -37,6 +40,12 @@ public class NegationNode implements ExpressionNode {
         return Result.invert(Result.toResult(node.evaluate(context)));
     }
 
+    @Override
+    public ExpressionNode compile(DocumentType type) {
+        ExpressionNode compiled = node.compile(type);
+        return LiteralNode.fold(new NegationNode(compiled), List.of(compiled));
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -78,14 +78,20 @@ import static com.yahoo.text.Utf8.calculateStringPositions;
 public class VespaDocumentDeserializer6 extends BufferSerializer implements DocumentDeserializer {
 
     private final DocumentTypeManager manager;
+    private final boolean lazyFieldDeserialization;
     private short version;
     private List<SpanNode> spanNodes;
     private List<Annotation> annotations;
     private int[] stringPositions;
 
     VespaDocumentDeserializer6(DocumentTypeManager manager, GrowableByteBuffer buf) {
+        this(manager, buf, false);
+    }
+
+    VespaDocumentDeserializer6(DocumentTypeManager manager, GrowableByteBuffer buf, boolean lazyFieldDeserialization) {
         super(buf);
         this.manager = manager;
+        this.lazyFieldDeserialization = lazyFieldDeserialization;
         this.version = Document.SERIALIZED_VERSION;
     }
 
@@ -331,7 +337,11 @@ public class VespaDocumentDeserializer6 extends BufferSerializer implements Docu
             int posBefore = position();
             Integer f_id = fieldIdsAndLengths.get(i).first;
             Field structField = priType.getField(f_id);
-            if (structField != null) {
+            if (structField != null && lazyFieldDeserialization) {
+                target.setSerializedFieldValue(structField, manager, buf.array(), buf.arrayOffset() + posBefore,
+                                               fieldIdsAndLengths.get(i).second.intValue());
+            }
+            else if (structField != null) {
                 FieldValue value = structField.getDataType().createFieldValue();
                 value.deserialize(structField, this);
                 target.setFieldValue(structField, value);
@@ -23,6 +23,14 @@ public class VespaDocumentDeserializerHead extends VespaDocumentDeserializer6 {
         super(manager, buffer);
     }
 
+    /**
+     * Creates a deserializer which, if lazyFieldDeserialization is true, leaves the fields of documents
+     * serialized until they are accessed, and which then requires the given buffer to be left unmodified.
+     */
+    public VespaDocumentDeserializerHead(DocumentTypeManager manager, GrowableByteBuffer buffer, boolean lazyFieldDeserialization) {
+        super(manager, buffer, lazyFieldDeserialization);
+    }
+
     @Override
     protected ValueUpdate readTensorModifyUpdate(DataType type) {
         byte operationId = getByte(null);
@@ -330,7 +330,7 @@ public class VespaDocumentSerializer6 extends BufferSerializer implements Docume
         List<Integer> fieldIds = new LinkedList<>();
         List<java.lang.Integer> fieldLengths = new LinkedList<>();
 
-        var iter = s.iterator();
+        var iter = s.serializationIterator();
         while (iter.hasNext()) {
             Map.Entry<Field, FieldValue> value = iter.next();
 
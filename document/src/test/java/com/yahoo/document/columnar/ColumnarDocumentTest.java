@@ -0,0 +1,184 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.document.columnar;
+
+import com.yahoo.compress.CompressionType;
+import com.yahoo.document.ArrayDataType;
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.Field;
+import com.yahoo.document.TensorDataType;
+import com.yahoo.document.datatypes.Array;
+import com.yahoo.document.datatypes.BoolFieldValue;
+import com.yahoo.document.datatypes.DoubleFieldValue;
+import com.yahoo.document.datatypes.FloatFieldValue;
+import com.yahoo.document.datatypes.IntegerFieldValue;
+import com.yahoo.document.datatypes.LongFieldValue;
+import com.yahoo.document.datatypes.StringFieldValue;
+import com.yahoo.document.datatypes.TensorFieldValue;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ */
+public class ColumnarDocumentTest {
+
+    private static final TensorType floatTensor = TensorType.fromSpec("tensor<float>(x[2],y[2])");
+    private static final TensorType doubleTensor = TensorType.fromSpec("tensor(x[3])");
+    private final DocumentType music = new DocumentType("music");
+    private final DocumentType other = new DocumentType("other");
+
+    public ColumnarDocumentTest() {
+        music.addField(new Field("year", DataType.INT));
+        music.addField(new Field("plays", DataType.LONG));
+        music.addField(new Field("rating", DataType.FLOAT));
+        music.addField(new Field("score", DataType.DOUBLE));
+        music.addField(new Field("live", DataType.BOOL));
+        music.addField(new Field("genre", DataType.STRING));
+        music.addField(new Field("title", DataType.STRING));
+        music.addField(new Field("embedding", new TensorDataType(floatTensor)));
+        music.addField(new Field("weights", new TensorDataType(doubleTensor)));
+        music.addField(new Field("tags", new ArrayDataType(DataType.STRING)));
+        other.addField(new Field("year", DataType.INT));
+    }
+
+    @Test
+    public void documents_are_written_and_read_in_batches() throws IOException {
+        for (CompressionType compression : List.of(CompressionType.NONE, CompressionType.LZ4, CompressionType.ZSTD)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ColumnarDocumentWriter writer = new ColumnarDocumentWriter(out, 4, compression);
+            for (int i = 0; i < 10; i++)
+                writer.write(musicDocument(i));
+            writer.close();
+
+            ColumnarDocumentReader reader = new ColumnarDocumentReader(new ByteArrayInputStream(out.toByteArray()));
+            List<ColumnarBatch> batches = new ArrayList<>();
+            reader.next().ifPresent(batches::add);
+            reader.next().ifPresent(batches::add);
+            reader.next().ifPresent(batches::add);
+            assertFalse(reader.next().isPresent());
+            assertEquals(List.of(4, 4, 2), batches.stream().map(ColumnarBatch::size).toList());
+
+            ColumnarBatch batch = batches.get(1);
+            assertEquals("music", batch.documentType());
+            assertEquals("id:ns:music::4", batch.id(0));
+            assertEquals(List.of("year", "plays", "rating", "score", "live", "genre", "title", "embedding", "weights", "tags"),
+                         batch.columns().stream().map(Column::name).toList());
+
+            Column year = batch.column("year").get();
+            assertEquals(Column.Type.INT, year.type());
+            assertEquals(1974, year.getLong(0));
+            assertTrue(year.isNull(1));
+            assertEquals(0, year.getLong(1));
+            assertEquals(1976, year.getLong(2));
+
+            assertEquals(4_000_000_000L + 5, batch.column("plays").get().getLong(1));
+            assertEquals(2.5, batch.column("rating").get().getDouble(1), 0);
+            assertEquals(0.5, batch.column("score").get().getDouble(1), 0);
+            assertTrue(batch.column("live").get().getBoolean(0));
+            assertFalse(batch.column("live").get().getBoolean(1));
+
+            Column genre = batch.column("genre").get();
+            assertEquals(Column.Type.STRING, genre.type());
+            assertEquals(List.of("pop", "rock"), genre.dictionary());
+            assertEquals("rock", genre.getString(1));
+            assertEquals(1, genre.getDictionaryIndex(3));
+            Column title = batch.column("title").get();
+            assertEquals("Distinct strings are not dictionary encoded", Column.Type.TEXT, title.type());
+            assertEquals("Title 6", title.getString(2));
+
+            Column embedding = batch.column("embedding").get();
+            assertEquals(Column.Type.TENSOR, embedding.type());
+            assertEquals(floatTensor, embedding.tensorType());
+            assertEquals(floatTensor(5), embedding.getTensor(1));
+            assertNull(embedding.getTensor(0));
+            assertEquals(doubleTensor(7), batch.column("weights").get().getTensor(3));
+
+            Column tags = batch.column("tags").get();
+            assertEquals(Column.Type.JSON, tags.type());
+            assertEquals("[\"tag\",\"tag5\"]", tags.getString(1));
+
+            try {
+                genre.getLong(0);
+                fail("Expected exception");
+            }
+            catch (IllegalStateException expected) { }
+        }
+    }
+
+    @Test
+    public void batch_is_written_when_document_type_changes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarDocumentWriter writer = new ColumnarDocumentWriter(out, 100, CompressionType.LZ4);
+        writer.write(musicDocument(1));
+        Document otherDocument = new Document(other, "id:ns:other::1");
+        otherDocument.setFieldValue("year", new IntegerFieldValue(2000));
+        writer.write(otherDocument);
+        writer.write(musicDocument(2));
+        writer.flush();
+
+        ColumnarDocumentReader reader = new ColumnarDocumentReader(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("music", reader.next().get().documentType());
+        ColumnarBatch batch = reader.next().get();
+        assertEquals("other", batch.documentType());
+        assertEquals(2000, batch.column("year").get().getLong(0));
+        assertEquals("music", reader.next().get().documentType());
+        assertFalse(reader.next().isPresent());
+    }
+
+    @Test
+    public void single_batch_is_encoded_and_decoded() {
+        byte[] frame = ColumnarDocumentWriter.encode(List.of(musicDocument(0), musicDocument(1)), CompressionType.LZ4);
+        ColumnarBatch batch = ColumnarDocumentReader.decode(frame);
+        assertEquals(2, batch.size());
+        assertEquals("id:ns:music::1", batch.id(1));
+        assertEquals(floatTensor(1), batch.column("embedding").get().getTensor(1));
+
+        try {
+            ColumnarDocumentWriter.encode(List.of(musicDocument(0), new Document(other, "id:ns:other::1")), CompressionType.LZ4);
+            fail("Expected exception");
+        }
+        catch (IllegalArgumentException expected) { }
+    }
+
+    private Document musicDocument(int i) {
+        Document document = new Document(music, "id:ns:music::" + i);
+        if (i % 4 != 1) document.setFieldValue("year", new IntegerFieldValue(1970 + i));
+        document.setFieldValue("plays", new LongFieldValue(4_000_000_000L + i));
+        document.setFieldValue("rating", new FloatFieldValue(i / 2.0f));
+        document.setFieldValue("score", new DoubleFieldValue(1.0 / (i - 3)));
+        document.setFieldValue("live", new BoolFieldValue(i % 2 == 0));
+        document.setFieldValue("genre", new StringFieldValue(i % 2 == 0 ? "pop" : "rock"));
+        document.setFieldValue("title", new StringFieldValue("Title " + i));
+        if (i % 4 != 0) document.setFieldValue("embedding", new TensorFieldValue(floatTensor(i)));
+        document.setFieldValue("weights", new TensorFieldValue(doubleTensor(i)));
+        Array<StringFieldValue> tags = new Array<>(DataType.getArray(DataType.STRING));
+        tags.add(new StringFieldValue("tag"));
+        tags.add(new StringFieldValue("tag" + i));
+        document.setFieldValue("tags", tags);
+        return document;
+    }
+
+    private static Tensor floatTensor(int i) {
+        return Tensor.from(floatTensor, "[[" + i + ", " + (i + 1) + "], [" + (i + 2) + ", " + (i + 3) + "]]");
+    }
+
+    private static Tensor doubleTensor(int i) {
+        return Tensor.from(doubleTensor, "[" + i + ", 0.5, " + (-i) + "]");
+    }
+
+}
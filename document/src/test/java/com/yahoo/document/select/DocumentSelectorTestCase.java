@@ -36,6 +36,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -824,6 +825,37 @@ public class DocumentSelectorTestCase {
         }
     }
 
+    @Test
+    public void testResultForDocumentType() throws ParseException {
+        DocumentType test = manager.getDocumentType("test");
+        assertEquals(Optional.empty(), new DocumentSelector("test.hint > 3").resultFor(test));
+        assertEquals(Optional.empty(), new DocumentSelector("test").resultFor(test));
+        assertEquals(Optional.empty(), new DocumentSelector("test.hint > 3 or true").resultFor(test));
+        assertEquals(Optional.of(Result.INVALID), new DocumentSelector("music.year > 2000").resultFor(test));
+        assertEquals(Optional.of(Result.TRUE), new DocumentSelector("music.year > 2000 or true").resultFor(test));
+        assertEquals(Optional.of(Result.FALSE), new DocumentSelector("false and test.hint > 3").resultFor(test));
+        assertEquals(Optional.of(Result.TRUE), new DocumentSelector("true or test.hint > 3").resultFor(test));
+        assertEquals(Optional.of(Result.FALSE), new DocumentSelector("not (1 + 2 > 2)").resultFor(test));
+    }
+
+    @Test
+    public void testCompiledSelectorsEvaluateLikeParsedSelectors() throws ParseException {
+        List<DocumentOperation> operations = new ArrayList<>(createDocs());
+        operations.add(new DocumentUpdate(manager.getDocumentType("test"), new DocumentId("id:myspace:test::anything")));
+        for (String expression : List.of("test.hint > 14", "test.hint = 15 and test.hstring = \"ba*\"",
+                                         "test.hstring =~ \"^b.r$\" or test.content == \"some\"",
+                                         "parent.parentField == \"parentValue\"", "music.year > 2000 or test.hfloat < 2",
+                                         "test.content.lowercase() == \"more\"", "test.my_imported_field == null",
+                                         "not test.hint", "test.truth == true",
+                                         "test.intarray == 3", "test.mystruct.key > 0", "test.mymap{3} == \"x\"",
+                                         "test and test.hint < 15")) {
+            DocumentSelector selector = new DocumentSelector(expression);
+            for (DocumentOperation operation : operations)
+                assertEquals(expression + " over " + operation,
+                             selector.getMatchingResultList(operation).toResult(), selector.accepts(operation));
+        }
+    }
+
     @Test
     public void testTicket1769674() {
         assertParseError("music.uri=\"junk",
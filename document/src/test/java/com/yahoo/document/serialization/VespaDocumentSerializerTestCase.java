@@ -4,7 +4,10 @@ package com.yahoo.document.serialization;
 import com.yahoo.document.DataType;
 import com.yahoo.document.Document;
 import com.yahoo.document.DocumentType;
+import com.yahoo.document.DocumentTypeManager;
 import com.yahoo.document.Field;
+import com.yahoo.document.datatypes.Array;
+import com.yahoo.document.datatypes.FieldValue;
 import com.yahoo.document.datatypes.IntegerFieldValue;
 import com.yahoo.document.datatypes.PredicateFieldValue;
 import com.yahoo.document.datatypes.StringFieldValue;
@@ -12,7 +15,15 @@ import com.yahoo.io.GrowableByteBuffer;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * @author Simon Thoresen Hult
@@ -47,4 +58,82 @@ public class VespaDocumentSerializerTestCase {
         Mockito.verify(predicate, Mockito.times(1)).serialize(Mockito.same(field), Mockito.any(FieldWriter.class));
     }
 
+    @Test
+    public void lazily_deserialized_fields_are_deserialized_on_access_and_otherwise_copied() {
+        DocumentTypeManager manager = new DocumentTypeManager();
+        DocumentType docType = new DocumentType("my_type");
+        docType.addField("my_str", DataType.STRING);
+        docType.addField("my_int", DataType.INT);
+        docType.addField("my_array", DataType.getArray(DataType.STRING));
+        manager.registerDocumentType(docType);
+        Document doc = new Document(docType, "id:ns:my_type::");
+        doc.setFieldValue("my_str", new StringFieldValue("foo"));
+        doc.setFieldValue("my_int", new IntegerFieldValue(69));
+        Array<StringFieldValue> array = new Array<>(DataType.getArray(DataType.STRING));
+        array.add(new StringFieldValue("bar"));
+        doc.setFieldValue("my_array", array);
+        byte[] serialized = serialize(doc);
+
+        Document untouched = new Document(DocumentDeserializerFactory.createLazyHead(manager, GrowableByteBuffer.wrap(serialized)));
+        assertArrayEquals(serialized, serialize(untouched));
+        assertEquals(3, untouched.getFieldCount());
+
+        Document modified = new Document(DocumentDeserializerFactory.createLazyHead(manager, GrowableByteBuffer.wrap(serialized)));
+        assertEquals(new IntegerFieldValue(69), modified.getFieldValue("my_int"));
+        modified.setFieldValue("my_str", new StringFieldValue("baz"));
+        doc.setFieldValue("my_str", new StringFieldValue("baz"));
+        assertArrayEquals(serialize(doc), serialize(modified));
+        assertEquals(doc, modified);
+
+        Document cloned = new Document(DocumentDeserializerFactory.createLazyHead(manager, GrowableByteBuffer.wrap(serialized))).clone();
+        assertEquals(array, cloned.getFieldValue("my_array"));
+        assertEquals(new StringFieldValue("foo"), cloned.removeFieldValue("my_str"));
+        assertEquals(2, cloned.getFieldCount());
+    }
+
+    @Test
+    public void lazily_deserialized_fields_are_deserialized_once_and_modifications_are_serialized() throws Exception {
+        DocumentTypeManager manager = new DocumentTypeManager();
+        DocumentType docType = new DocumentType("my_type");
+        docType.addField("my_array", DataType.getArray(DataType.STRING));
+        manager.registerDocumentType(docType);
+        Document doc = new Document(docType, "id:ns:my_type::");
+        Array<StringFieldValue> array = new Array<>(DataType.getArray(DataType.STRING));
+        array.add(new StringFieldValue("foo"));
+        doc.setFieldValue("my_array", array);
+        byte[] serialized = serialize(doc);
+
+        Document lazy = new Document(DocumentDeserializerFactory.createLazyHead(manager, GrowableByteBuffer.wrap(serialized)));
+        assertEquals(doc, lazy);
+        assertEquals(lazy, doc);
+        assertEquals(doc.hashCode(), lazy.hashCode());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<FieldValue>> reads = new ArrayList<>();
+            for (int i = 0; i < 16; i++)
+                reads.add(executor.submit(() -> lazy.getFieldValue("my_array")));
+            for (Future<FieldValue> read : reads)
+                assertSame(reads.get(0).get(), read.get());
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        @SuppressWarnings("unchecked")
+        Array<StringFieldValue> lazyArray = (Array<StringFieldValue>) lazy.getFieldValue("my_array");
+        lazyArray.add(new StringFieldValue("bar"));
+        array.add(new StringFieldValue("bar"));
+        assertArrayEquals(serialize(doc), serialize(lazy));
+    }
+
+    private static byte[] serialize(Document doc) {
+        GrowableByteBuffer buf = new GrowableByteBuffer();
+        DocumentSerializerFactory.createHead(buf).write(doc);
+        buf.flip();
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        return bytes;
+    }
+
 }
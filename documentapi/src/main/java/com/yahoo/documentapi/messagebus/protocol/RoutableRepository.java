@@ -12,6 +12,7 @@ import com.yahoo.document.serialization.DocumentSerializerFactory;
 import com.yahoo.io.GrowableByteBuffer;
 import java.util.logging.Level;
 import com.yahoo.messagebus.Routable;
+import com.yahoo.yolean.concurrent.ConcurrentResourcePool;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -33,6 +34,15 @@ final class RoutableRepository {
     private final CopyOnWriteHashMap<Integer, VersionMap> factoryTypes = new CopyOnWriteHashMap<>();
     private final CopyOnWriteHashMap<CacheKey, RoutableFactory> cache = new CopyOnWriteHashMap<>();
 
+    /** Buffers larger than this are not reused */
+    private static final int maxPooledBufferSize = 1 << 20;
+
+    /** Buffers which are reused for encoding, such that each encoding only allocates the encoded size */
+    private final ConcurrentResourcePool<GrowableByteBuffer> buffers = new ConcurrentResourcePool<>(this::createBuffer);
+
+    /** The size to create new buffers with: The largest size encoded so far, up to the max size of pooled buffers */
+    private volatile int encodedSizeEstimate = 8192;
+
     public RoutableRepository() {}
 
     /**
@@ -54,7 +64,8 @@ final class RoutableRepository {
             log.log(Level.SEVERE,"Can not decode anything from (version " + version + "). Only major version 5 and up supported.");
             return null;
         }
-        DocumentDeserializer in = DocumentDeserializerFactory.createHead(docMan, GrowableByteBuffer.wrap(data));
+        // Document fields are deserialized on access, as most documents are passed on with few or no fields inspected
+        DocumentDeserializer in = DocumentDeserializerFactory.createLazyHead(docMan, GrowableByteBuffer.wrap(data));
 
 
         int type = in.getInt(null);
@@ -93,18 +104,35 @@ final class RoutableRepository {
             log.log(Level.SEVERE,"Can not encode routable type " + type + " (version " + version + "). Only major version 5 and up supported.");
             return new byte[0];
         }
-        DocumentSerializer out= DocumentSerializerFactory.createHead(new GrowableByteBuffer(8192));
-
-        out.putInt(null, type);
-        if (!factory.encode(obj, out)) {
-            log.log(Level.SEVERE, "Routable factory " + factory.getClass().getName() + " failed to serialize " +
-                                    "routable of type " + type + " (version " + version + ").");
-            return new byte[0];
+        GrowableByteBuffer buffer = buffers.alloc();
+        try {
+            DocumentSerializer out = DocumentSerializerFactory.createHead(buffer);
+            out.putInt(null, type);
+            if (!factory.encode(obj, out)) {
+                log.log(Level.SEVERE, "Routable factory " + factory.getClass().getName() + " failed to serialize " +
+                                      "routable of type " + type + " (version " + version + ").");
+                return new byte[0];
+            }
+            byte[] ret = new byte[buffer.position()];
+            buffer.rewind();
+            buffer.get(ret);
+            if (ret.length > encodedSizeEstimate)
+                encodedSizeEstimate = Math.min(ret.length, maxPooledBufferSize);
+            return ret;
         }
-        byte[] ret = new byte[out.getBuf().position()];
-        out.getBuf().rewind();
-        out.getBuf().get(ret);
-        return ret;
+        finally {
+            free(buffer);
+        }
+    }
+
+    private GrowableByteBuffer createBuffer() {
+        return new GrowableByteBuffer(encodedSizeEstimate);
+    }
+
+    private void free(GrowableByteBuffer buffer) {
+        if (buffer.capacity() > maxPooledBufferSize) return;
+        buffer.clear();
+        buffers.free(buffer);
     }
 
     /**
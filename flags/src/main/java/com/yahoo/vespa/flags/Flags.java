@@ -542,6 +542,14 @@ public class Flags {
             "Takes effect at next tick",
             APPLICATION_ID);
 
+    public static final UnboundBooleanFlag USE_CONFIG_SNAPSHOTS = defineFeatureFlag(
+            "use-config-snapshots", false,
+            List.of("hmusum"), "2022-10-01", "2023-02-01",
+            "Whether config servers should persist snapshots of the config served for active applications, " +
+            "and serve config from these when restarting, while building the application models in the background",
+            "Takes effect at next run of ConfigSnapshotMaintainer, and when restarting config server",
+            ZONE_ID, APPLICATION_ID);
+
     /** WARNING: public for testing: All flags should be defined in {@link Flags}. */
     public static UnboundBooleanFlag defineFeatureFlag(String flagId, boolean defaultValue, List<String> owners,
                                                        String createdAt, String expiresAt, String description,
@@ -7,6 +7,7 @@ import com.yahoo.document.datatypes.FieldValue;
 import com.yahoo.language.Language;
 import com.yahoo.language.Linguistics;
 import com.yahoo.language.detect.Detection;
+import com.yahoo.vespa.indexinglanguage.UpdateAdapter;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +19,7 @@ public class ExecutionContext implements FieldTypeAdapter, FieldValueAdapter, Cl
 
     private final Map<String, FieldValue> variables = new HashMap<>();
     private final FieldValueAdapter adapter;
+    private final Map<Object, Object> cache;
     private FieldValue value;
     private Language language;
 
@@ -26,7 +28,17 @@ public class ExecutionContext implements FieldTypeAdapter, FieldValueAdapter, Cl
     }
 
     public ExecutionContext(FieldValueAdapter adapter) {
+        this(adapter, new HashMap<>());
+    }
+
+    /**
+     * Creates an execution context which stores cached values in the given map.
+     * Pass the same map to several contexts to share cached values between them,
+     * e.g. for all the operations in a processing batch.
+     */
+    public ExecutionContext(FieldValueAdapter adapter, Map<Object, Object> cache) {
         this.adapter = adapter;
+        this.cache = cache;
         this.language = Language.UNKNOWN;
     }
 
@@ -76,6 +88,25 @@ public class ExecutionContext implements FieldTypeAdapter, FieldValueAdapter, Cl
         return adapter;
     }
 
+    /**
+     * Returns whether this is executing on a complete document, as opposed to a partial update,
+     * where only the fields touched by the update are available as input.
+     */
+    public boolean isComplete() {
+        return ! (adapter instanceof UpdateAdapter);
+    }
+
+    /** Returns the value cached for the given key, or null if none */
+    public Object getCachedValue(Object key) {
+        return cache.get(key);
+    }
+
+    /** Caches a value which may be reused by later executions sharing the cache of this */
+    public ExecutionContext putCachedValue(Object key, Object value) {
+        cache.put(key, value);
+        return this;
+    }
+
     public FieldValue getVariable(String name) {
         return variables.get(name);
     }
@@ -15,6 +15,7 @@ import com.yahoo.vespa.indexinglanguage.parser.IndexingInput;
 import com.yahoo.vespa.indexinglanguage.parser.ParseException;
 import com.yahoo.vespa.objects.Selectable;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -46,15 +47,29 @@ public abstract class Expression extends Selectable {
         return execute(factory.newDocumentAdapter(doc));
     }
 
+    /** Executes this on the given document, storing and reusing cached values in the given cache */
+    public final Document execute(AdapterFactory factory, Document doc, Map<Object, Object> cache) {
+        DocumentAdapter adapter = factory.newDocumentAdapter(doc);
+        execute(new ExecutionContext(adapter, cache));
+        return adapter.getFullOutput();
+    }
+
     public final Document execute(DocumentAdapter adapter) {
         execute((FieldValueAdapter)adapter);
         return adapter.getFullOutput();
     }
 
     public static DocumentUpdate execute(Expression expression, AdapterFactory factory, DocumentUpdate update) {
+        return execute(expression, factory, update, new HashMap<>());
+    }
+
+    /** Executes the given expression on the given update, storing and reusing cached values in the given cache */
+    public static DocumentUpdate execute(Expression expression, AdapterFactory factory, DocumentUpdate update,
+                                         Map<Object, Object> cache) {
         DocumentUpdate ret = null;
         for (UpdateAdapter adapter : factory.newUpdateAdapterList(update)) {
-            DocumentUpdate output = adapter.getExpression(expression).execute(adapter);
+            adapter.getExpression(expression).execute(new ExecutionContext(adapter, cache));
+            DocumentUpdate output = adapter.getOutput();
             if (output == null) {
                 // ignore
             } else if (ret != null) {
@@ -37,12 +37,27 @@ public final class ScriptExpression extends ExpressionList<StatementExpression>
     @Override
     protected void doExecute(ExecutionContext context) {
         FieldValue input = context.getValue();
-        for (Expression exp : this) {
-            context.setValue(input).execute(exp);
+        for (StatementExpression statement : this) {
+            if (context.isComplete() || dependsOnInputIn(statement, context))
+                context.setValue(input).execute(statement);
         }
         context.setValue(input);
     }
 
+    /**
+     * Returns whether the given statement should be executed on a partial update.
+     * Statements reading only fields which are not touched by the update cannot produce anything useful
+     * (and may even produce default values which should not be written), so only those without any input,
+     * or with at least one input present, are executed.
+     */
+    private static boolean dependsOnInputIn(StatementExpression statement, ExecutionContext context) {
+        if (statement.getInputFields().isEmpty()) return true;
+        for (String inputField : statement.getInputFields()) {
+            if (context.getInputValue(inputField) != null) return true;
+        }
+        return false;
+    }
+
     @Override
     protected void doVerify(VerificationContext context) {
         DataType input = context.getValueType();
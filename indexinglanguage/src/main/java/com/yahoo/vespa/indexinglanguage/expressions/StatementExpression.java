@@ -15,12 +15,16 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * @author Simon Thoresen Hult
  */
 public final class StatementExpression extends ExpressionList<Expression> {
 
+    /** The names of the fields consumed by this statement */
+    private final List<String> inputFields;
+
     /** The name of the (last) output field tthis statement will write to, or null if none */
     private String outputField;
 
@@ -34,8 +38,14 @@ public final class StatementExpression extends ExpressionList<Expression> {
 
     private StatementExpression(Iterable<Expression> list, Object unused) {
         super(list, resolveInputType(list));
+        InputExpression.InputFieldNameExtractor inputFieldNameExtractor = new InputExpression.InputFieldNameExtractor();
+        select(inputFieldNameExtractor, inputFieldNameExtractor);
+        this.inputFields = inputFieldNameExtractor.getInputFieldNames().stream().filter(Objects::nonNull).toList();
     }
 
+    /** Returns the names of the fields this statement reads as input, which may be empty */
+    public List<String> getInputFields() { return inputFields; }
+
     @Override
     protected void doExecute(ExecutionContext context) {
         for (Expression exp : this) {
@@ -2,6 +2,8 @@
 package com.yahoo.vespa.indexinglanguage.expressions;
 
 import com.yahoo.document.DataType;
+import com.yahoo.document.annotation.SpanTree;
+import com.yahoo.document.annotation.SpanTrees;
 import com.yahoo.document.datatypes.StringFieldValue;
 import com.yahoo.language.Language;
 import com.yahoo.language.Linguistics;
@@ -42,8 +44,18 @@ public final class TokenizeExpression extends Expression {
         if (lang != null) {
             cfg.setLanguage(lang);
         }
+        if (output.getSpanTree(SpanTrees.LINGUISTICS) != null) return;
+
+        // The same text is often tokenized by several statements, or by many operations in the same batch
+        TokenizationKey key = new TokenizationKey(output.getString(), cfg);
+        SpanTree cached = (SpanTree)context.getCachedValue(key);
+        if (cached != null) {
+            output.setSpanTree(new SpanTree(cached));
+            return;
+        }
         LinguisticsAnnotator annotator = new LinguisticsAnnotator(linguistics, cfg);
-        annotator.annotate(output);
+        if (annotator.annotate(output))
+            context.putCachedValue(key, new SpanTree(output.getSpanTree(SpanTrees.LINGUISTICS)));
     }
 
     @Override
@@ -88,4 +100,8 @@ public final class TokenizeExpression extends Expression {
     public int hashCode() {
         return getClass().hashCode() + config.hashCode();
     }
+
+    /** The tokenization of a text is determined by the text and the resolved config, which includes the language */
+    private record TokenizationKey(String text, AnnotatorConfig config) { }
+
 }
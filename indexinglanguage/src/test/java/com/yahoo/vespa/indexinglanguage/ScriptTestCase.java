@@ -5,6 +5,7 @@ import com.yahoo.document.ArrayDataType;
 import com.yahoo.document.DataType;
 import com.yahoo.document.Document;
 import com.yahoo.document.DocumentType;
+import com.yahoo.document.DocumentUpdate;
 import com.yahoo.document.Field;
 import com.yahoo.document.TensorDataType;
 import com.yahoo.document.datatypes.Array;
@@ -12,6 +13,7 @@ import com.yahoo.document.datatypes.BoolFieldValue;
 import com.yahoo.document.datatypes.IntegerFieldValue;
 import com.yahoo.document.datatypes.StringFieldValue;
 import com.yahoo.document.datatypes.TensorFieldValue;
+import com.yahoo.document.update.FieldUpdate;
 import com.yahoo.language.process.Embedder;
 import com.yahoo.language.simple.SimpleLinguistics;
 import com.yahoo.tensor.Tensor;
@@ -56,6 +58,28 @@ public class ScriptTestCase {
         assertEquals(new StringFieldValue("9"), output.getFieldValue("out-2"));
     }
 
+    @Test
+    public void requireThatOnlyStatementsWithUpdatedInputsAreExecutedOnUpdates() {
+        DocumentUpdate update = new DocumentUpdate(type, "id:scheme:mytype::");
+        update.addFieldUpdate(FieldUpdate.createAssign(type.getField("in-1"), new StringFieldValue("6")));
+
+        Expression exp = new ScriptExpression(
+                new StatementExpression(new InputExpression("in-1"), new AttributeExpression("out-1")),
+                new StatementExpression(new InputExpression("in-2"),
+                                        new SetValueExpression(new StringFieldValue("default")),
+                                        new AttributeExpression("out-2")));
+        DocumentUpdate output = Expression.execute(exp, update);
+        assertNotNull(output);
+        assertNotNull(output.getFieldUpdate("out-1"));
+        assertNull(output.getFieldUpdate("out-2"));
+
+        Document input = new Document(type, "id:scheme:mytype::");
+        input.setFieldValue("in-1", new StringFieldValue("6"));
+        Document document = Expression.execute(exp, input);
+        assertEquals(new StringFieldValue("6"), document.getFieldValue("out-1"));
+        assertEquals(new StringFieldValue("default"), document.getFieldValue("out-2"));
+    }
+
     @Test
     public void requireThatEachStatementHasEmptyInput() {
         Document input = new Document(type, "id:scheme:mytype::");
@@ -2,6 +2,7 @@
 package com.yahoo.vespa.indexinglanguage.expressions;
 
 import com.yahoo.document.DataType;
+import com.yahoo.document.annotation.SpanTree;
 import com.yahoo.document.annotation.SpanTrees;
 import com.yahoo.document.datatypes.FieldValue;
 import com.yahoo.document.datatypes.StringFieldValue;
@@ -13,6 +14,9 @@ import com.yahoo.vespa.indexinglanguage.linguistics.AnnotatorConfig;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static com.yahoo.vespa.indexinglanguage.expressions.ExpressionAssert.assertVerify;
 import static com.yahoo.vespa.indexinglanguage.expressions.ExpressionAssert.assertVerifyThrows;
 import static org.junit.Assert.*;
@@ -62,4 +66,26 @@ public class TokenizeTestCase {
         assertTrue(val instanceof StringFieldValue);
         assertNotNull(((StringFieldValue)val).getSpanTree(SpanTrees.LINGUISTICS));
     }
+
+    @Test
+    public void requireThatTokenizationIsReusedWithinSharedCache() {
+        Linguistics linguistics = Mockito.spy(new SimpleLinguistics());
+        Expression exp = new TokenizeExpression(linguistics, new AnnotatorConfig());
+        Map<Object, Object> cache = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            ExecutionContext ctx = new ExecutionContext(new SimpleTestAdapter(), cache);
+            ctx.setValue(new StringFieldValue("foo bar"));
+            exp.execute(ctx);
+            SpanTree tree = ((StringFieldValue)ctx.getValue()).getSpanTree(SpanTrees.LINGUISTICS);
+            assertNotNull(tree);
+            assertEquals(2, tree.numAnnotations());
+        }
+        Mockito.verify(linguistics, Mockito.times(1)).getTokenizer();
+
+        ExecutionContext ctx = new ExecutionContext(new SimpleTestAdapter(), cache);
+        ctx.setValue(new StringFieldValue("baz"));
+        exp.execute(ctx);
+        Mockito.verify(linguistics, Mockito.times(2)).getTokenizer();
+    }
+
 }
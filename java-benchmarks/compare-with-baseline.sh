@@ -0,0 +1,66 @@
+#!/bin/bash
+# Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+#
+# Runs the benchmarks on a baseline commit and on the current tree, and compares the results.
+# The benchmarks of the current tree are used for both, so benchmarks can be added before the code they measure is changed.
+# Benchmarks which do not compile against the baseline are skipped there, and are listed without a baseline score.
+#
+# Usage: compare-with-baseline.sh <baseline-commit> [JMH arguments, e.g a benchmark regex]
+
+set -euo pipefail
+
+if [ $# -lt 1 ]; then
+    echo "Usage: $0 <baseline-commit> [JMH arguments]" >&2
+    exit 1
+fi
+BASELINE=$1
+shift
+
+SOURCE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+WORK_DIR=$(mktemp -d)
+trap 'git -C "$SOURCE_DIR" worktree remove --force "$WORK_DIR/baseline" > /dev/null 2>&1 || true; rm -rf "$WORK_DIR"' EXIT
+
+echo "Building baseline $BASELINE in $WORK_DIR/baseline"
+git -C "$SOURCE_DIR" worktree add --detach "$WORK_DIR/baseline" "$BASELINE"
+rm -rf "$WORK_DIR/baseline/java-benchmarks"
+cp -r "$SOURCE_DIR/java-benchmarks" "$WORK_DIR/baseline/java-benchmarks"
+# The baseline may predate the benchmarks profile, so build it through an aggregator which adds the module
+mkdir "$WORK_DIR/baseline/.benchmarks"
+cat > "$WORK_DIR/baseline/.benchmarks/pom.xml" <<POM
+<project xmlns="http://maven.apache.org/POM/4.0.0">
+  <modelVersion>4.0.0</modelVersion>
+  <groupId>com.yahoo.vespa</groupId>
+  <artifactId>java-benchmarks-baseline</artifactId>
+  <version>8-SNAPSHOT</version>
+  <packaging>pom</packaging>
+  <modules>
+    <module>..</module>
+    <module>../java-benchmarks</module>
+  </modules>
+</project>
+POM
+# Benchmarks using API which is not in the baseline fail to compile there: Remove those and build again
+BASELINE_LOG="$WORK_DIR/baseline-build.log"
+until mvn -B -q -f "$WORK_DIR/baseline/.benchmarks/pom.xml" -pl ../java-benchmarks -am -DskipTests package > "$BASELINE_LOG" 2>&1; do
+    FAILING=$(grep -o "/[^ :]*/java-benchmarks/src/main/java/[^ :]*\.java" "$BASELINE_LOG" | sort -u || true)
+    if [ -z "$FAILING" ]; then
+        cat "$BASELINE_LOG" >&2
+        echo "Failed building baseline $BASELINE" >&2
+        exit 1
+    fi
+    for FILE in $FAILING; do
+        echo "Skipping $(basename "$FILE" .java) in the baseline, as it does not compile against it"
+        rm "$FILE"
+    done
+done
+
+echo "Building current tree"
+mvn -B -q -f "$SOURCE_DIR/pom.xml" -P benchmarks -pl java-benchmarks -am -DskipTests package
+
+echo "Running baseline benchmarks"
+java -jar "$WORK_DIR/baseline/java-benchmarks/target/benchmarks.jar" -rf json -rff "$WORK_DIR/baseline.json" "$@"
+echo "Running current benchmarks"
+java -jar "$SOURCE_DIR/java-benchmarks/target/benchmarks.jar" -rf json -rff "$WORK_DIR/current.json" "$@"
+
+java -cp "$SOURCE_DIR/java-benchmarks/target/benchmarks.jar" ai.vespa.benchmarks.BenchmarkComparison \
+     "$WORK_DIR/baseline.json" "$WORK_DIR/current.json" | tee "$SOURCE_DIR/java-benchmarks/target/comparison.txt"
@@ -0,0 +1,91 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.slime.Inspector;
+import com.yahoo.slime.ObjectTraverser;
+import com.yahoo.slime.SlimeUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files written with "-rf json", typically from a baseline commit and the current tree,
+ * and prints the change of each benchmark. A change is reported as a regression or improvement only when
+ * the error intervals of the two scores do not overlap.
+ *
+ * Usage: BenchmarkComparison baseline.json current.json
+ *
+ * @author agent
+ */
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison baseline.json current.json");
+            System.exit(1);
+        }
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %24s %24s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (var entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %24s %24s%n", entry.getKey(), "-", after);
+                continue;
+            }
+            double change = (after.value - before.value) / before.value * 100;
+            String verdict = "";
+            if (after.differsFrom(before)) {
+                boolean better = after.higherIsBetter ? after.value > before.value : after.value < before.value;
+                verdict = better ? "  improvement" : "  REGRESSION";
+                if ( ! better) regressions++;
+            }
+            System.out.printf("%-70s %24s %24s %+8.1f%%%s%n", entry.getKey(), before, after, change, verdict);
+        }
+        for (var key : baseline.keySet())
+            if ( ! current.containsKey(key))
+                System.out.printf("%-70s %24s %24s%n", key, baseline.get(key), "-");
+        System.out.println(regressions == 0 ? "No regressions" : regressions + " regression(s)");
+    }
+
+    /** Returns the scores in the given result file by benchmark name and parameters */
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        Inspector results = SlimeUtils.jsonToSlimeOrThrow(Files.readAllBytes(file)).get();
+        SlimeUtils.entriesStream(results).forEach(result -> {
+            Map<String, String> params = new LinkedHashMap<>();
+            result.field("params").traverse((ObjectTraverser) (name, value) -> params.put(name, value.asString()));
+            String key = result.field("benchmark").asString() + (params.isEmpty() ? "" : params.toString());
+            Inspector metric = result.field("primaryMetric");
+            scores.put(key, new Score(metric.field("score").asDouble(),
+                                      metric.field("scoreError").asDouble(),
+                                      metric.field("scoreUnit").asString(),
+                                      result.field("mode").asString().equals("thrpt")));
+        });
+        return scores;
+    }
+
+    private record Score(double value, double error, String unit, boolean higherIsBetter) {
+
+        /** Returns whether the error intervals of this and the given score do not overlap */
+        boolean differsFrom(Score other) {
+            double error = Double.isNaN(this.error) ? 0 : this.error;
+            double otherError = Double.isNaN(other.error) ? 0 : other.error;
+            return value - error > other.value + otherError || value + error < other.value - otherError;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f +- %.3f %s", value, error, unit);
+        }
+
+    }
+
+}
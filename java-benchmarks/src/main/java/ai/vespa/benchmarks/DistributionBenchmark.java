@@ -0,0 +1,79 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.document.BucketId;
+import com.yahoo.document.BucketIdFactory;
+import com.yahoo.document.DocumentId;
+import com.yahoo.vdslib.distribution.Distribution;
+import com.yahoo.vdslib.state.ClusterState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing of documents to distributors: Computing the bucket of a document id and the ideal distributor of the bucket.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DistributionBenchmark {
+
+    private static final int documentCount = 1024;
+
+    private Distribution distribution;
+    private ClusterState state;
+    private BucketIdFactory bucketIdFactory;
+    private DocumentId[] documentIds;
+    private BucketId[] bucketIds;
+    private int next = 0;
+
+    @Setup
+    public void setup() throws ParseException {
+        distribution = new Distribution("raw:" + Distribution.getDefaultDistributionConfig(2, 10));
+        state = new ClusterState("distributor:10 storage:10 .3.s:d");
+        bucketIdFactory = new BucketIdFactory();
+        documentIds = new DocumentId[documentCount];
+        bucketIds = new BucketId[documentCount];
+        for (int i = 0; i < documentCount; i++) {
+            documentIds[i] = new DocumentId("id:ns:music::" + i);
+            bucketIds[i] = bucketIdFactory.getBucketId(documentIds[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        distribution.close();
+    }
+
+    @Benchmark
+    public BucketId bucketOfDocument() {
+        return bucketIdFactory.getBucketId(documentIds[next()]);
+    }
+
+    @Benchmark
+    public int idealDistributor() throws Distribution.TooFewBucketBitsInUseException,
+                                       Distribution.NoDistributorsAvailableException {
+        return distribution.getIdealDistributorNode(state, bucketIds[next()], "uim");
+    }
+
+    private int next() {
+        return next = (next + 1) % documentCount;
+    }
+
+}
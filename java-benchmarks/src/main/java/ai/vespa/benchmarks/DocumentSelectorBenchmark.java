@@ -0,0 +1,102 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentPut;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.select.Context;
+import com.yahoo.document.select.DocumentSelector;
+import com.yahoo.document.select.Result;
+import com.yahoo.document.select.parser.ParseException;
+import com.yahoo.document.select.parser.SelectInput;
+import com.yahoo.document.select.parser.SelectParser;
+import com.yahoo.document.select.rule.ExpressionNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of document selections over puts, as done when visiting and routing documents, by a selector
+ * which compiles the selection for the document type, and by evaluating the parsed selection directly.
+ * The score is the time per document.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DocumentSelectorBenchmark {
+
+    private static final int documentCount = 1000;
+
+    @Param({"music.year > 2000",
+            "music.year > 2000 and music.artist = \"*beatles*\"",
+            "music.title =~ \"^[a-m]\" or music.year < 1970",
+            "book.pages > 100 and music.year > 2000"})
+    public String selection;
+
+    private List<DocumentPut> puts;
+    private DocumentSelector selector;
+    private ExpressionNode parsed;
+
+    @Setup
+    public void setup() throws ParseException {
+        puts = createPuts();
+        selector = new DocumentSelector(selection);
+        parsed = new SelectParser(new SelectInput(selection)).expression();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(documentCount)
+    public int compiled() {
+        int accepted = 0;
+        for (DocumentPut put : puts)
+            if (selector.accepts(put) == Result.TRUE)
+                accepted++;
+        return accepted;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(documentCount)
+    public int parsed() {
+        int accepted = 0;
+        for (DocumentPut put : puts)
+            if (Result.toResult(parsed.evaluate(new Context(put))) == Result.TRUE)
+                accepted++;
+        return accepted;
+    }
+
+    private static List<DocumentPut> createPuts() {
+        DocumentType music = new DocumentType("music");
+        music.addField("year", DataType.INT);
+        music.addField("artist", DataType.STRING);
+        music.addField("title", DataType.STRING);
+        List<DocumentPut> puts = new ArrayList<>();
+        for (int i = 0; i < documentCount; i++) {
+            Document document = new Document(music, "id:test:music::" + i);
+            document.setFieldValue("year", 1950 + i % 70);
+            document.setFieldValue("artist", i % 3 == 0 ? "the beatles" : "artist " + i);
+            document.setFieldValue("title", "title " + (char)('a' + i % 26));
+            puts.add(new DocumentPut(document));
+        }
+        return puts;
+    }
+
+}
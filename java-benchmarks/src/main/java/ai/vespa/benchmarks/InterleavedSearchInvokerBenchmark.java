@@ -0,0 +1,126 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.concurrent.Timer;
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import com.yahoo.search.dispatch.InterleavedSearchInvoker;
+import com.yahoo.search.dispatch.InvokerResult;
+import com.yahoo.search.dispatch.LeanHit;
+import com.yahoo.search.dispatch.SearchInvoker;
+import com.yahoo.search.dispatch.searchcluster.Node;
+import com.yahoo.search.dispatch.searchcluster.SearchCluster;
+import com.yahoo.search.result.Coverage;
+import com.yahoo.search.searchchain.Execution;
+import com.yahoo.vespa.config.search.DispatchConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging of the hits and coverage of the content nodes in a group, as done by the dispatcher for each query.
+ * The content nodes are replaced by invokers which respond immediately with a fixed set of hits.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InterleavedSearchInvokerBenchmark {
+
+    @Param({"4", "32"})
+    public int nodes;
+
+    @Param({"10", "400"})
+    public int hits;
+
+    private SearchCluster cluster;
+    private List<List<LeanHit>> nodeHits;
+
+    @Setup
+    public void setup() {
+        DispatchConfig.Builder config = new DispatchConfig.Builder();
+        config.minActivedocsPercentage(88.0);
+        config.minSearchCoverage(100.0);
+        config.distributionPolicy(DispatchConfig.DistributionPolicy.Enum.ROUNDROBIN);
+        for (int key = 0; key < nodes; key++)
+            config.node(new DispatchConfig.Node.Builder().key(key).host("host" + key).port(10000 + key).group(0));
+        cluster = new SearchCluster("benchmark", config.build(), null, null);
+
+        Random random = new Random(42);
+        nodeHits = new ArrayList<>();
+        for (int key = 0; key < nodes; key++) {
+            List<LeanHit> leanHits = new ArrayList<>();
+            for (int i = 0; i < hits; i++) {
+                byte[] gid = ByteBuffer.allocate(12).putInt(key).putLong(random.nextLong()).array();
+                leanHits.add(new LeanHit(gid, 0, key, random.nextDouble()));
+            }
+            Collections.sort(leanHits);
+            nodeHits.add(leanHits);
+        }
+    }
+
+    @Benchmark
+    public Result search() throws IOException {
+        List<SearchInvoker> invokers = new ArrayList<>();
+        for (Node node : cluster.orderedGroups().get(0).nodes())
+            invokers.add(new RespondingInvoker(node, nodeHits.get(node.key())));
+        Query query = new Query("?query=test&hits=" + hits);
+        try (InterleavedSearchInvoker invoker = new InterleavedSearchInvoker(Timer.monotonic, invokers, cluster,
+                                                                             cluster.orderedGroups().get(0), null)) {
+            return invoker.search(query, null);
+        }
+    }
+
+    /** An invoker which responds immediately with the given hits */
+    private static class RespondingInvoker extends SearchInvoker {
+
+        private final List<LeanHit> hits;
+        private Query query;
+
+        RespondingInvoker(Node node, List<LeanHit> hits) {
+            super(Optional.of(node));
+            this.hits = hits;
+        }
+
+        @Override
+        protected Object sendSearchRequest(Query query, Object context) {
+            this.query = query;
+            responseAvailable();
+            return context;
+        }
+
+        @Override
+        protected InvokerResult getSearchResult(Execution execution) {
+            InvokerResult result = new InvokerResult(query, hits.size());
+            result.getLeanHits().addAll(hits);
+            result.getResult().setCoverage(new Coverage(1000, 1000, 1));
+            return result;
+        }
+
+        @Override
+        protected void release() { }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.document.DocumentOperation;
+import com.yahoo.document.DocumentTypeManager;
+import com.yahoo.document.json.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a JSON feed of document puts into documents.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonFeedParsingBenchmark {
+
+    @Param({"1", "100"})
+    public int documents;
+
+    private DocumentTypeManager types;
+    private byte[] feed;
+
+    @Setup
+    public void setup() {
+        types = TestDocuments.types();
+        feed = TestDocuments.feed(documents);
+    }
+
+    @Benchmark
+    public void parseFeed(Blackhole blackhole) {
+        JsonReader reader = new JsonReader(types, new ByteArrayInputStream(feed), TestDocuments.jsonFactory);
+        for (DocumentOperation operation; (operation = reader.next()) != null; )
+            blackhole.consume(operation);
+    }
+
+}
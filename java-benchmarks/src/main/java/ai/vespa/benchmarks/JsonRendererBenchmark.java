@@ -0,0 +1,82 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.search.Query;
+import com.yahoo.search.Result;
+import com.yahoo.search.rendering.JsonRenderer;
+import com.yahoo.search.result.Hit;
+import com.yahoo.search.searchchain.Execution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a search result with 10 hits of typical fields to JSON.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonRendererBenchmark {
+
+    private ExecutorService executor;
+    private JsonRenderer blueprint;
+    private Result result;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        blueprint = new JsonRenderer(executor);
+        result = new Result(new Query("?query=madonna"));
+        for (int i = 0; i < 10; i++) {
+            Hit hit = new Hit("id:ns:music::" + i, 1.0 - i / 10.0);
+            hit.setField("title", "Title number " + i + " of the collection");
+            hit.setField("artist", "Artist " + i);
+            hit.setField("year", 1980 + i);
+            hit.setField("popularity", i / 10.0);
+            hit.setField("tags", List.of("rock", "live", "tag" + i));
+            result.hits().add(hit);
+        }
+        result.setTotalHitCount(1234);
+    }
+
+    @TearDown
+    public void tearDown() {
+        blueprint.deconstruct();
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public byte[] render() throws InterruptedException, ExecutionException {
+        JsonRenderer renderer = (JsonRenderer)blueprint.clone();
+        renderer.init();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            renderer.renderResponse(out, result, new Execution(Execution.Context.createContextStub()), null).get();
+            return out.toByteArray();
+        }
+        finally {
+            renderer.deconstruct();
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.searchlib.rankingexpression.RankingExpression;
+import com.yahoo.searchlib.rankingexpression.evaluation.ArrayContext;
+import com.yahoo.searchlib.rankingexpression.evaluation.MapContext;
+import com.yahoo.searchlib.rankingexpression.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a ranking expression, and evaluation of it with the variables bound by name and by index.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RankingExpressionEvaluationBenchmark {
+
+    private static final String expression =
+            "if (freshness > 0.5, 0.6 * bm25_title + 0.4 * bm25_body, 0.3 * bm25_title + 0.2 * bm25_body) + " +
+            "log(1 + popularity) * 0.25 + if (attribute_match < 0.1, -1, attribute_match * 2.5) + " +
+            "exp(-distance / 1000.0) * closeness + max(freshness, 0.1) * sqrt(popularity + 1)";
+
+    private RankingExpression rankingExpression;
+    private ArrayContext arrayContext;
+    private MapContext mapContext;
+    private int[] indexes;
+
+    @Setup
+    public void setup() throws ParseException {
+        rankingExpression = parse();
+        arrayContext = new ArrayContext(rankingExpression);
+        mapContext = new MapContext();
+        String[] names = { "freshness", "bm25_title", "bm25_body", "popularity", "attribute_match", "distance", "closeness" };
+        indexes = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            indexes[i] = arrayContext.getIndex(names[i]);
+            mapContext.put(names[i], 0.1 * (i + 1));
+        }
+    }
+
+    @Benchmark
+    public RankingExpression parse() throws ParseException {
+        return new RankingExpression(expression);
+    }
+
+    @Benchmark
+    public double evaluateWithMapContext() {
+        return rankingExpression.evaluate(mapContext).asDouble();
+    }
+
+    @Benchmark
+    public double evaluateWithArrayContext() {
+        for (int i = 0; i < indexes.length; i++)
+            arrayContext.put(indexes[i], 0.1 * (i + 1));
+        return rankingExpression.evaluate(arrayContext).asDouble();
+    }
+
+}
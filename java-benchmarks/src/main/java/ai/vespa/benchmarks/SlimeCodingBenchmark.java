@@ -0,0 +1,81 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.slime.BinaryFormat;
+import com.yahoo.slime.Cursor;
+import com.yahoo.slime.JsonFormat;
+import com.yahoo.slime.Slime;
+import com.yahoo.slime.SlimeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a Slime structure the size of a typical config or status response,
+ * in the binary and JSON formats.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SlimeCodingBenchmark {
+
+    private Slime slime;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        slime = new Slime();
+        Cursor root = slime.setObject();
+        root.setString("name", "benchmark");
+        root.setLong("generation", 1234567);
+        Cursor nodes = root.setArray("nodes");
+        for (int i = 0; i < 200; i++) {
+            Cursor node = nodes.addObject();
+            node.setString("hostname", "host" + i + ".example.com");
+            node.setLong("port", 19050 + i);
+            node.setDouble("load", i / 200.0);
+            node.setBool("up", i % 7 != 0);
+            Cursor tags = node.setArray("tags");
+            tags.addString("content");
+            tags.addString("group" + (i % 4));
+        }
+        binary = BinaryFormat.encode(slime);
+        json = encodeJson();
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return BinaryFormat.encode(slime);
+    }
+
+    @Benchmark
+    public Slime decodeBinary() {
+        return BinaryFormat.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return JsonFormat.toJsonBytes(slime);
+    }
+
+    @Benchmark
+    public Slime decodeJson() {
+        return SlimeUtils.jsonToSlime(json);
+    }
+
+}
@@ -0,0 +1,91 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+import com.yahoo.tensor.evaluation.MapEvaluationContext;
+import com.yahoo.tensor.evaluation.Name;
+import com.yahoo.tensor.evaluation.VariableTensor;
+import com.yahoo.tensor.functions.ConstantTensor;
+import com.yahoo.tensor.functions.Join;
+import com.yahoo.tensor.functions.Reduce;
+import com.yahoo.tensor.functions.TensorFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dot products of tensors, as in ranking with embeddings, and a matrix product.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TensorFunctionsBenchmark {
+
+    private static final int vectorSize = 384;
+    private static final int rows = 16;
+
+    /** The type of the vector dimension */
+    @Param({"x[" + vectorSize + "]", "x{}"})
+    public String dimension;
+
+    private TensorFunction<Name> dotProduct;
+    private TensorFunction<Name> matrixProduct;
+    private MapEvaluationContext<Name> context;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        TensorType vectorType = TensorType.fromSpec("tensor<float>(" + dimension + ")");
+        TensorType matrixType = TensorType.fromSpec("tensor<float>(" + dimension + ",y[" + rows + "])");
+        Tensor query = random(vectorType, random);
+        Tensor matrix = random(matrixType, random);
+        context = new MapEvaluationContext<>();
+        context.put("argument", random(vectorType, random));
+        dotProduct = new Reduce<>(new Join<>(new ConstantTensor<>(query), new VariableTensor<>("argument"), (a, b) -> a * b),
+                                  Reduce.Aggregator.sum).toPrimitive();
+        matrixProduct = new Reduce<>(new Join<>(new ConstantTensor<>(matrix), new VariableTensor<>("argument"), (a, b) -> a * b),
+                                     Reduce.Aggregator.sum, "x").toPrimitive();
+    }
+
+    @Benchmark
+    public double dotProduct() {
+        return dotProduct.evaluate(context).asDouble();
+    }
+
+    @Benchmark
+    public Tensor matrixProduct() {
+        return matrixProduct.evaluate(context);
+    }
+
+    private static Tensor random(TensorType type, Random random) {
+        Tensor.Builder builder = Tensor.Builder.of(type);
+        for (int i = 0; i < vectorSize; i++) {
+            if (type.rank() == 1) {
+                builder.cell().label("x", i).value(random.nextFloat());
+            }
+            else {
+                for (int j = 0; j < rows; j++)
+                    builder.cell().label("x", i).label("y", j).value(random.nextFloat());
+            }
+        }
+        return builder.build();
+    }
+
+}
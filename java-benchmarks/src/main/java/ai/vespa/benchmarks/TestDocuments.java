@@ -0,0 +1,78 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.yahoo.document.ArrayDataType;
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentOperation;
+import com.yahoo.document.DocumentPut;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.DocumentTypeManager;
+import com.yahoo.document.Field;
+import com.yahoo.document.TensorDataType;
+import com.yahoo.document.json.JsonReader;
+import com.yahoo.tensor.TensorType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A document type and a feed of documents of it with typical field types, shared by the document benchmarks.
+ *
+ * @author agent
+ */
+class TestDocuments {
+
+    static final JsonFactory jsonFactory = new JsonFactory();
+
+    private TestDocuments() {}
+
+    static DocumentTypeManager types() {
+        DocumentTypeManager types = new DocumentTypeManager();
+        DocumentType music = new DocumentType("music");
+        music.addField(new Field("title", DataType.STRING));
+        music.addField(new Field("artist", DataType.STRING));
+        music.addField(new Field("year", DataType.INT));
+        music.addField(new Field("popularity", DataType.DOUBLE));
+        music.addField(new Field("tags", new ArrayDataType(DataType.STRING)));
+        music.addField(new Field("embedding", new TensorDataType(TensorType.fromSpec("tensor<float>(x[384])"))));
+        types.register(music);
+        return types;
+    }
+
+    /** Returns a JSON feed of the given number of puts of music documents */
+    static byte[] feed(int documentCount) {
+        Random random = new Random(42);
+        StringBuilder b = new StringBuilder("[");
+        for (int i = 0; i < documentCount; i++) {
+            if (i > 0) b.append(",");
+            b.append("{\"put\":\"id:ns:music::").append(i).append("\",\"fields\":{");
+            b.append("\"title\":\"Title number ").append(i).append(" of the collection\",");
+            b.append("\"artist\":\"Artist ").append(random.nextInt(1000)).append("\",");
+            b.append("\"year\":").append(1950 + random.nextInt(70)).append(",");
+            b.append("\"popularity\":").append(random.nextDouble()).append(",");
+            b.append("\"tags\":[\"rock\",\"live\",\"tag").append(random.nextInt(100)).append("\"],");
+            b.append("\"embedding\":{\"values\":[");
+            for (int x = 0; x < 384; x++) {
+                if (x > 0) b.append(",");
+                b.append(random.nextFloat());
+            }
+            b.append("]}}}");
+        }
+        return b.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Returns the documents of the given feed */
+    static List<Document> documents(DocumentTypeManager types, byte[] feed) {
+        List<Document> documents = new ArrayList<>();
+        JsonReader reader = new JsonReader(types, new ByteArrayInputStream(feed), jsonFactory);
+        for (DocumentOperation operation; (operation = reader.next()) != null; )
+            documents.add(((DocumentPut)operation).getDocument());
+        return documents;
+    }
+
+}
@@ -0,0 +1,56 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.benchmarks;
+
+import com.yahoo.search.query.QueryTree;
+import com.yahoo.search.query.parser.Parsable;
+import com.yahoo.search.query.parser.ParserEnvironment;
+import com.yahoo.search.yql.YqlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of YQL queries into query trees.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class YqlParsingBenchmark {
+
+    @Param({"simple", "complex"})
+    public String query;
+
+    @Benchmark
+    public QueryTree parse() {
+        YqlParser parser = new YqlParser(new ParserEnvironment());
+        return parser.parse(new Parsable().setQuery(yql(query)));
+    }
+
+    private static String yql(String query) {
+        return switch (query) {
+            case "simple" -> "select * from sources * where title contains \"madonna\"";
+            case "complex" -> "select * from sources music, books where " +
+                              "(title contains \"madonna\" or artist contains phrase(\"like\", \"a\", \"prayer\")) and " +
+                              "year > 1980 and year < 2000 and !(tags contains \"live\") and " +
+                              "weightedSet(genre, {\"pop\":2, \"rock\":1}) and " +
+                              "({targetHits: 100}nearestNeighbor(embedding, query_embedding)) " +
+                              "order by year desc limit 20 offset 10";
+            default -> throw new IllegalArgumentException("Unknown query '" + query + "'");
+        };
+    }
+
+}
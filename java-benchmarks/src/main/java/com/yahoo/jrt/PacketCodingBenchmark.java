@@ -0,0 +1,68 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.jrt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of JRT request packets, such as those carrying document operations between
+ * containers and content nodes. This is in the jrt package as packets are not public.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PacketCodingBenchmark {
+
+    /** The size of the data payload of the request */
+    @Param({"100", "10000"})
+    public int payloadSize;
+
+    private RequestPacket packet;
+    private ByteBuffer encoded;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        Values parameters = new Values();
+        parameters.add(new StringValue("storageapi.v1.send"));
+        parameters.add(new Int32Value(7));
+        parameters.add(new Int64Value(123456789L));
+        parameters.add(new DataValue(new byte[payloadSize]));
+        packet = new RequestPacket(0, 17, "mbus.send1", parameters);
+        buffer = ByteBuffer.allocate(packet.getPacketInfo().packetLength());
+        encoded = ByteBuffer.allocate(buffer.capacity());
+        packet.getPacketInfo().encodePacket(packet, encoded);
+        encoded.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        buffer.clear();
+        packet.getPacketInfo().encodePacket(packet, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Packet decode() {
+        encoded.rewind();
+        return PacketInfo.getPacketInfo(encoded).decodePacket(encoded);
+    }
+
+}
@@ -0,0 +1,116 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.dispatch;
+
+import com.yahoo.concurrent.DaemonThreadFactory;
+import com.yahoo.prelude.fastsearch.GroupingListHit;
+import com.yahoo.prelude.fastsearch.TimeoutException;
+import com.yahoo.searchlib.aggregation.CountAggregationResult;
+import com.yahoo.searchlib.aggregation.Group;
+import com.yahoo.searchlib.aggregation.Grouping;
+import com.yahoo.searchlib.aggregation.GroupingLevel;
+import com.yahoo.searchlib.expression.IntegerResultNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging of two-level grouping results from many content nodes, in the query thread when there are no
+ * parallel merges, or in a reduction tree on an executor, with and without pruning of partial merges.
+ * This is in the dispatch package as the aggregator is not public.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GroupingMergeBenchmark {
+
+    private static final int nodes = 64;
+    private static final int groupsPerLevel = 200;
+    private static final int precision = 50;
+
+    /** The max number of merges run in parallel on the executor, or 0 to merge in the calling thread */
+    @Param({"0", "8"})
+    public int parallelMerges;
+
+    /** Whether partial merges are pruned to the precision of each level. This only applies to parallel merges */
+    @Param({"false", "true"})
+    public boolean prune;
+
+    private final Random random = new Random(1);
+    private ExecutorService executor;
+    private List<GroupingListHit> hits;
+
+    @Setup(Level.Trial)
+    public void createExecutor() {
+        executor = Executors.newFixedThreadPool(8, new DaemonThreadFactory("grouping-merge-"));
+    }
+
+    /** Merging modifies the groupings, so each invocation merges new ones */
+    @Setup(Level.Invocation)
+    public void createHits() {
+        hits = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++)
+            hits.add(new GroupingListHit(List.of(createGrouping())));
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Optional<GroupingListHit> merge() throws TimeoutException {
+        GroupingResultAggregator aggregator = new GroupingResultAggregator(executor, parallelMerges, prune);
+        for (GroupingListHit hit : hits)
+            aggregator.mergeWith(hit);
+        return aggregator.toAggregatedHit();
+    }
+
+    /** Creates a two-level grouping with partially overlapping groups, as returned from one content node */
+    private Grouping createGrouping() {
+        Grouping grouping = new Grouping(0);
+        grouping.addLevel(new GroupingLevel().setMaxGroups(10).setPrecision(precision));
+        grouping.addLevel(new GroupingLevel().setMaxGroups(10).setPrecision(precision));
+        grouping.setLastLevel(2);
+        for (int id : distinctIds(groupsPerLevel, groupsPerLevel * 2)) {
+            Group group = createGroup(id);
+            for (int childId : distinctIds(groupsPerLevel / 10, groupsPerLevel))
+                group.addChild(createGroup(childId));
+            grouping.getRoot().addChild(group);
+        }
+        return grouping;
+    }
+
+    private int[] distinctIds(int count, int bound) {
+        return random.ints(0, bound).distinct().limit(count).toArray();
+    }
+
+    private Group createGroup(int id) {
+        return new Group().setId(new IntegerResultNode(id))
+                          .setRank(random.nextDouble())
+                          .addAggregationResult(new CountAggregationResult(1).setTag(1));
+    }
+
+}
@@ -0,0 +1,88 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.tensor.serialization;
+
+import com.yahoo.io.GrowableByteBuffer;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of an embedding, as done when feeding and serializing documents, in the dense binary format
+ * and through the typed binary format which wraps it. This is in the serialization package as the formats are not public.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TensorBinaryFormatBenchmark {
+
+    private static final int embeddingSize = 768;
+
+    /** The cell value type of the embedding */
+    @Param({"float", "double", "bfloat16", "int8"})
+    public String valueType;
+
+    private TensorType type;
+    private Tensor embedding;
+    private DenseBinaryFormat denseFormat;
+    private byte[] denseEncoded;
+    private byte[] typedEncoded;
+
+    @Setup
+    public void setup() {
+        type = TensorType.fromSpec("tensor<" + valueType + ">(x[" + embeddingSize + "])");
+        Random random = new Random(42);
+        Tensor.Builder builder = Tensor.Builder.of(type);
+        for (int i = 0; i < embeddingSize; i++)
+            builder.cell().label("x", i).value(type.valueType() == TensorType.Value.INT8 ? random.nextInt(256) - 128
+                                                                                         : random.nextFloat());
+        embedding = builder.build();
+        denseFormat = new DenseBinaryFormat(type.valueType());
+        denseEncoded = denseEncode();
+        typedEncoded = typedEncode();
+    }
+
+    @Benchmark
+    public byte[] denseEncode() {
+        GrowableByteBuffer buffer = new GrowableByteBuffer();
+        denseFormat.encode(buffer, embedding);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public Tensor denseDecode() {
+        return denseFormat.decode(Optional.of(type), GrowableByteBuffer.wrap(denseEncoded));
+    }
+
+    @Benchmark
+    public byte[] typedEncode() {
+        return TypedBinaryFormat.encode(embedding);
+    }
+
+    @Benchmark
+    public Tensor typedDecode() {
+        return TypedBinaryFormat.decode(Optional.of(type), GrowableByteBuffer.wrap(typedEncoded));
+    }
+
+}
@@ -13,9 +13,11 @@ import com.yahoo.jrt.Values;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -40,7 +42,7 @@ public class Mirror implements IMirror {
     private volatile long iterations = 0;
     private boolean requestDone = false;
     private boolean logOnSuccess = true;
-    private final AtomicReference<Entry[]> specs = new AtomicReference<>(new Entry[0]);
+    private final AtomicReference<Specs> specs = new AtomicReference<>(Specs.empty);
     private int specsGeneration = 0;
     private final TransportThread transportThread;
     private final Task updateTask;
@@ -93,14 +95,7 @@ public class Mirror implements IMirror {
 
     @Override
     public List<Entry> lookup(String pattern) {
-        ArrayList<Entry> found = new ArrayList<>();
-        char[] p = pattern.toCharArray();
-        for (Entry specEntry : specs.get()) {
-            if (match(specEntry.getNameArray(), p)) {
-                found.add(specEntry);
-            }
-        }
-        return found;
+        return new ArrayList<>(specs.get().lookup(pattern));
     }
 
     @Override
@@ -244,7 +239,7 @@ public class Mirror implements IMirror {
                 }
             } else {
                 Map<String, Entry> map = new HashMap<>();
-                for (Entry e : specs.get()) {
+                for (Entry e : specs.get().entries()) {
                     map.put(e.getName(), e);
                 }
                 for (String rem : r) {
@@ -265,7 +260,7 @@ public class Mirror implements IMirror {
             } else {
                 log.fine(() -> "successfully updated from location broker "+currSlobrok+" (now "+newSpecs.length+" service names)");
             }
-            specs.set(newSpecs);
+            specs.set(new Specs(newSpecs));
 
             specsGeneration = diffToGeneration;
             int u = (updates + 1);
@@ -292,7 +287,92 @@ public class Mirror implements IMirror {
             target.close();
             target = null;
         }
-        specs.set(new Entry[0]);
+        specs.set(Specs.empty);
+    }
+
+    /**
+     * An immutable generation of the registered services, indexed for lookup. The entries which may match a pattern
+     * are found by the pattern shape: Unless the pattern contains '**' they must have as many '/' separators
+     * as the pattern, and they must start with the part of the pattern preceding its first '*'.
+     * The result of each lookup is kept, as an immutable list, until the next generation replaces this,
+     * or the number of kept results reaches its limit.
+     */
+    static final class Specs {
+
+        static final Specs empty = new Specs(new Entry[0]);
+
+        /** The max number of distinct patterns to keep lookup results for */
+        private static final int maxCachedPatterns = 1000;
+
+        private final Entry[] entries;
+
+        /** The entries sorted by name */
+        private final Entry[] sorted;
+
+        /** The entries sorted by name, by their number of separators */
+        private final Map<Integer, Entry[]> bySeparatorCount = new HashMap<>();
+
+        private final Map<String, List<Entry>> lookups = new ConcurrentHashMap<>();
+
+        Specs(Entry[] entries) {
+            this.entries = entries;
+            this.sorted = entries.clone();
+            Arrays.sort(sorted);
+            Map<Integer, List<Entry>> grouped = new HashMap<>();
+            for (Entry entry : sorted)
+                grouped.computeIfAbsent(separatorCount(entry.getName()), __ -> new ArrayList<>()).add(entry);
+            grouped.forEach((separators, group) -> bySeparatorCount.put(separators, group.toArray(new Entry[0])));
+        }
+
+        Entry[] entries() { return entries; }
+
+        List<Entry> lookup(String pattern) {
+            List<Entry> found = lookups.get(pattern);
+            if (found != null) return found;
+
+            found = find(pattern);
+            if (lookups.size() >= maxCachedPatterns)
+                lookups.clear(); // Start over rather than keep the first patterns seen forever
+            lookups.put(pattern, found);
+            return found;
+        }
+
+        private List<Entry> find(String pattern) {
+            Entry[] candidates = pattern.contains("**") ? sorted
+                                                         : bySeparatorCount.getOrDefault(separatorCount(pattern), empty.sorted);
+            int wildcard = pattern.indexOf('*');
+            String prefix = wildcard < 0 ? pattern : pattern.substring(0, wildcard);
+            char[] p = pattern.toCharArray();
+            List<Entry> found = new ArrayList<>();
+            for (int i = firstWithPrefix(candidates, prefix); i < candidates.length && candidates[i].getName().startsWith(prefix); i++) {
+                if (match(candidates[i].getNameArray(), p))
+                    found.add(candidates[i]);
+            }
+            return List.copyOf(found);
+        }
+
+        /** Returns the index of the first of the given entries sorted by name whose name is not before the prefix */
+        private static int firstWithPrefix(Entry[] entries, String prefix) {
+            int low = 0;
+            int high = entries.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (entries[middle].getName().compareTo(prefix) < 0)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+            return low;
+        }
+
+        private static int separatorCount(String name) {
+            int count = 0;
+            for (int i = 0; i < name.length(); i++)
+                if (name.charAt(i) == '/')
+                    count++;
+            return count;
+        }
+
     }
 
     /**
@@ -2,6 +2,12 @@
 package com.yahoo.jrt.slobrok.api;
 
 import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 
@@ -86,4 +92,47 @@ public class MirrorTest {
         mustNotMatch(nomatch, pattern);
     }
 
+    @Test public void requireThatIndexedLookupFindsTheSameEntriesAsMatchingAll() {
+        String[] names = { "A", "A/x", "A/x/w", "A/y/w", "B/x", "B/x/w", "foo/bar/qux", "foo/bar/bar/qux",
+                           "foo/bar.1/qux.3/bar.4/nop.5", "foo/*/qux", "storage/cluster.c/distributor/0/default",
+                           "storage/cluster.c/distributor/1/default", "storage/cluster.c/storage/0", "storage/cluster.d/storage/0" };
+        Mirror.Entry[] entries = new Mirror.Entry[names.length];
+        for (int i = 0; i < names.length; i++)
+            entries[i] = new Mirror.Entry(names[i], "tcp/localhost:" + (19000 + i));
+        Mirror.Specs specs = new Mirror.Specs(entries);
+
+        String[] patterns = { "A", "A*", "A**", "*", "*/*", "*/*/*", "**", "A/*/w", "*/x", "*/x/*", "B/x", "B/x/**",
+                              "foo/*/qux", "foo/**/qux", "foo/**", "f**", "foo/bar.*/qux.*/bar*/nop*",
+                              "storage/cluster.c/distributor/*/default", "storage/cluster.c/*/0", "storage/*/storage/0",
+                              "storage/cluster.c/distributor/2/default", "C/*", "" };
+        for (String pattern : patterns) {
+            List<Mirror.Entry> expected = new ArrayList<>();
+            for (Mirror.Entry entry : entries)
+                if (Mirror.match(entry.getName().toCharArray(), pattern.toCharArray()))
+                    expected.add(entry);
+            List<Mirror.Entry> actual = new ArrayList<>(specs.lookup(pattern));
+            expected.sort(null);
+            actual.sort(null);
+            assertEquals("Lookup of '" + pattern + "'", expected, actual);
+        }
+    }
+
+    @Test public void requireThatLookupsAreReusedWithinAGeneration() {
+        Mirror.Specs specs = new Mirror.Specs(new Mirror.Entry[] { new Mirror.Entry("A/x", "tcp/localhost:19000") });
+        List<Mirror.Entry> found = specs.lookup("A/*");
+        assertEquals(1, found.size());
+        assertSame(found, specs.lookup("A/*"));
+
+        Mirror.Specs next = new Mirror.Specs(new Mirror.Entry[0]);
+        assertTrue(next.lookup("A/*").isEmpty());
+    }
+
+    @Test public void requireThatLookupsAreReusedAfterManyDistinctPatterns() {
+        Mirror.Specs specs = new Mirror.Specs(new Mirror.Entry[] { new Mirror.Entry("A/x", "tcp/localhost:19000") });
+        for (int i = 0; i < 2500; i++)
+            specs.lookup("A/" + i);
+        List<Mirror.Entry> found = specs.lookup("A/*");
+        assertSame(found, specs.lookup("A/*"));
+    }
+
 }
@@ -0,0 +1,102 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.logserver.protocol;
+
+import com.yahoo.jrt.DataValue;
+import com.yahoo.jrt.ErrorCode;
+import com.yahoo.jrt.Int32Value;
+import com.yahoo.jrt.Int8Value;
+import com.yahoo.jrt.Method;
+import com.yahoo.jrt.Request;
+import com.yahoo.jrt.Values;
+import com.yahoo.log.LogMessage;
+import com.yahoo.logserver.handlers.archive.IndexedLogReader;
+import com.yahoo.logserver.handlers.archive.LogQuery;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RPC method that returns archived log messages matching a query
+ *
+ * @author agent
+ */
+public class QueryLogMessagesMethod {
+
+    static final String METHOD_NAME = "vespa.logserver.queryLogMessages";
+
+    /** The max number of messages returned by a query, regardless of the number requested */
+    static final int MAX_MESSAGES = 10000;
+
+    private static final Logger log = Logger.getLogger(QueryLogMessagesMethod.class.getName());
+
+    private final Executor executor = Executors.newSingleThreadExecutor();
+    private final IndexedLogReader reader;
+    private final int maxMessagesLimit;
+    private final Method method;
+
+    public QueryLogMessagesMethod(IndexedLogReader reader) {
+        this(reader, MAX_MESSAGES);
+    }
+
+    QueryLogMessagesMethod(IndexedLogReader reader, int maxMessagesLimit) {
+        this.reader = reader;
+        this.maxMessagesLimit = maxMessagesLimit;
+        this.method = new Method(METHOD_NAME, "llsssi", "bix", this::query)
+                .methodDesc("Query archived log messages")
+                .paramDesc(0, "from", "Start of time range, inclusive, in epoch milliseconds")
+                .paramDesc(1, "to", "End of time range, exclusive, in epoch milliseconds")
+                .paramDesc(2, "hosts", "Comma separated hosts to match, or empty to match all")
+                .paramDesc(3, "services", "Comma separated services to match, or empty to match all")
+                .paramDesc(4, "levels", "Comma separated levels to match, or empty to match all")
+                .paramDesc(5, "maxMessages", "Max number of messages to return, at most " + maxMessagesLimit)
+                .returnDesc(0, "compressionType", "Compression type (0=raw)")
+                .returnDesc(1, "uncompressedSize", "Uncompressed size")
+                .returnDesc(2, "logMessages", "Matching log messages, encoded as a log request with protobuf");
+    }
+
+    public Method methodDefinition() {
+        return method;
+    }
+
+    private void query(Request rpcRequest) {
+        rpcRequest.detach();
+        executor.execute(() -> run(rpcRequest));
+    }
+
+    private void run(Request rpcRequest) {
+        try {
+            Values parameters = rpcRequest.parameters();
+            LogQuery query = new LogQuery(Instant.ofEpochMilli(parameters.get(0).asInt64()),
+                                          Instant.ofEpochMilli(parameters.get(1).asInt64()),
+                                          split(parameters.get(2).asString()),
+                                          split(parameters.get(3).asString()),
+                                          split(parameters.get(4).asString()));
+            int maxMessages = Math.min(parameters.get(5).asInt32(), maxMessagesLimit);
+            List<LogMessage> messages = new ArrayList<>();
+            if (maxMessages > 0)
+                reader.read(query, message -> messages.add(message) && messages.size() < maxMessages);
+
+            byte[] payload = ProtobufSerialization.toLogRequest(messages);
+            rpcRequest.returnValues().add(new Int8Value((byte)0));
+            rpcRequest.returnValues().add(new Int32Value(payload.length));
+            rpcRequest.returnValues().add(new DataValue(payload));
+            rpcRequest.returnRequest();
+        } catch (Exception e) {
+            String errorMessage = "Failed to query log messages: " + e.getMessage();
+            log.log(Level.WARNING, e, () -> errorMessage);
+            rpcRequest.setError(ErrorCode.METHOD_FAILED, errorMessage);
+            rpcRequest.returnRequest();
+        }
+    }
+
+    private static List<String> split(String values) {
+        return Arrays.stream(values.split(",")).map(String::trim).filter(value -> ! value.isEmpty()).toList();
+    }
+
+}
@@ -0,0 +1,114 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.logserver;
+
+import com.yahoo.logserver.handlers.archive.IndexedLogReader;
+import com.yahoo.logserver.handlers.archive.LogQuery;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line tool which streams the messages matching a query from an indexed log archive to stdout.
+ *
+ * @author agent
+ */
+public class LogArchiveQueryTool {
+
+    static void help() {
+        System.out.println("Usage: vespa-logarchive-query [options]");
+        System.out.println();
+        System.out.println("Prints messages from the indexed log archive, in native log format.");
+        System.out.println();
+        System.out.println("Options:");
+        System.out.println(" --dir <dir>          root of the log archive");
+        System.out.println(" --from <time>        start of time range, inclusive (default: one hour ago)");
+        System.out.println(" --to <time>          end of time range, exclusive (default: now)");
+        System.out.println(" --host <hosts>       comma separated hosts to match (default: all)");
+        System.out.println(" --service <services> comma separated services to match (default: all)");
+        System.out.println(" --level <levels>     comma separated levels to match (default: all)");
+        System.out.println(" --limit <count>      max number of messages to print (default: no limit)");
+        System.out.println();
+        System.out.println("Times are given in ISO-8601, e.g., 2022-06-01T12:00:00Z, or as seconds since epoch.");
+        System.out.println();
+    }
+
+    public static void main(String[] args) throws IOException {
+        File dir = new File("logarchive");
+        Instant to = Instant.now();
+        Instant from = null;
+        List<String> hosts = new ArrayList<>();
+        List<String> services = new ArrayList<>();
+        List<String> levels = new ArrayList<>();
+        long limit = Long.MAX_VALUE;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("-help") || option.equals("--help")) {
+                    help();
+                    System.exit(0);
+                }
+                if (i + 1 == args.length)
+                    throw new IllegalArgumentException("Missing value for " + option);
+
+                String value = args[++i];
+                switch (option) {
+                    case "--dir": dir = new File(value); break;
+                    case "--from": from = parseTime(value); break;
+                    case "--to": to = parseTime(value); break;
+                    case "--host": hosts.addAll(split(value)); break;
+                    case "--service": services.addAll(split(value)); break;
+                    case "--level": levels.addAll(split(value)); break;
+                    case "--limit": limit = Long.parseLong(value); break;
+                    default: throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (from == null)
+                from = to.minus(Duration.ofHours(1));
+
+            LogQuery query = new LogQuery(from, to, hosts, services, levels);
+            long maxMessages = limit;
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            long[] printed = { 0 };
+            new IndexedLogReader(dir).read(query, message -> {
+                if (printed[0] >= maxMessages) return false;
+                try {
+                    out.write(message.toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return ++printed[0] < maxMessages;
+            });
+            out.flush();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            help();
+            System.exit(1);
+        }
+    }
+
+    static Instant parseTime(String value) {
+        if (value.chars().allMatch(c -> Character.isDigit(c) || c == '.')) {
+            BigDecimal seconds = new BigDecimal(value);
+            return Instant.ofEpochSecond(seconds.longValue(), seconds.remainder(BigDecimal.ONE).movePointRight(9).longValue());
+        }
+        return Instant.parse(value);
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(v -> ! v.isEmpty()).toList();
+    }
+
+}
@@ -4,6 +4,7 @@ package com.yahoo.logserver;
 import ai.vespa.logserver.protocol.ArchiveLogMessagesMethod;
 import ai.vespa.logserver.protocol.RpcServer;
 import com.yahoo.io.FatalErrorHandler;
+import com.yahoo.jrt.Method;
 import com.yahoo.log.LogSetup;
 import com.yahoo.log.event.Event;
 import com.yahoo.logserver.handlers.HandlerThread;
@@ -96,6 +97,11 @@ public class Server implements Runnable {
         /* NOP */
     }
 
+    /** Adds a method to the RPC server; plugins may call this when they are initialized. */
+    public void registerRpcMethod(Method method) {
+        rpcServer.addMethod(method);
+    }
+
     /**
      * Initialize the server and start up all its plugins,
      */
@@ -104,11 +110,11 @@ public class Server implements Runnable {
             throw new IllegalStateException(APPNAME + " already initialized");
         }
 
-        // plugins
-        registerPluginLoader(new BuiltinPluginLoader());
-
         rpcServer = new RpcServer(rpcListenPort);
         rpcServer.addMethod(new ArchiveLogMessagesMethod(dispatch).methodDefinition());
+
+        // plugins
+        registerPluginLoader(new BuiltinPluginLoader());
     }
 
     /**
@@ -1,9 +1,12 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.logserver.handlers.archive;
 
+import java.io.File;
 import java.util.logging.Logger;
 
+import ai.vespa.logserver.protocol.QueryLogMessagesMethod;
 import com.yahoo.logserver.Server;
+import com.yahoo.logserver.handlers.AbstractLogHandler;
 import com.yahoo.plugin.Config;
 import com.yahoo.plugin.Plugin;
 
@@ -22,9 +25,15 @@ public class ArchiverPlugin implements Plugin {
 
     private static final String DEFAULT_COMPRESSION = "gzip";
 
+    /**
+     * Default archive format: "text" for plain log files, or "indexed" for files of
+     * compressed blocks, indexed for queries, see {@link IndexedArchiverHandler}.
+     */
+    private static final String DEFAULT_FORMAT = "text";
+
     private final Server server = Server.getInstance();
     private static final Logger log = Logger.getLogger(ArchiverPlugin.class.getName());
-    private ArchiverHandler archiver;
+    private AbstractLogHandler archiver;
 
     /**
      * @return the name of this plugin
@@ -41,6 +50,8 @@ public class ArchiverPlugin implements Plugin {
      * maxfilesize
      * dir            The root of the logarchive, make sure this does
      * <b>not</b> end with a '/' character.
+     * compression    Compression of old text files, gzip or zstd
+     * format         text or indexed; the indexed archive may be queried over RPC
      */
     public void initPlugin(Config config) {
 
@@ -55,9 +66,20 @@ public class ArchiverPlugin implements Plugin {
         int maxFileSize = config.getInt("maxfilesize", DEFAULT_MAXFILESIZE);
         String threadName = config.get("thread", getPluginName());
         String zip = config.get("compression", DEFAULT_COMPRESSION);
+        String format = config.get("format", DEFAULT_FORMAT);
 
         // register log handler and flusher
-        archiver = new ArchiverHandler(rootDir, maxFileSize, zip);
+        switch (format) {
+            case "text":
+                archiver = new ArchiverHandler(rootDir, maxFileSize, zip);
+                break;
+            case "indexed":
+                archiver = new IndexedArchiverHandler(rootDir, maxFileSize);
+                server.registerRpcMethod(new QueryLogMessagesMethod(new IndexedLogReader(new File(rootDir))).methodDefinition());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown log archive format '" + format + "'");
+        }
         server.registerLogHandler(archiver, threadName);
         server.registerFlusher(archiver);
     }
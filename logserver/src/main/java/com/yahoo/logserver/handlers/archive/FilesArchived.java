@@ -287,7 +287,7 @@ public class FilesArchived {
             return true;
         }
 
-        private static int generationOf(String name) {
+        static int generationOf(String name) {
             int dash = name.lastIndexOf('-');
             if (dash < 0) return 0;
             String suff = name.substring(dash + 1);
@@ -310,6 +310,7 @@ public class FilesArchived {
         private static boolean zSuffix(String name) {
             if (name.endsWith(".gz")) return true;
             if (name.endsWith(".zst")) return true;
+            if (name.endsWith(IndexedLogWriter.SUFFIX)) return true; // blocks are compressed by the writer
             // add other compression suffixes here
             return false;
         }
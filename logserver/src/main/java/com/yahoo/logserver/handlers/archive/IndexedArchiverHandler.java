@@ -0,0 +1,116 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.logserver.handlers.archive;
+
+import com.yahoo.log.LogMessage;
+import com.yahoo.logserver.handlers.AbstractLogHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A log handler which archives the incoming messages in files of compressed blocks, indexed on
+ * time, host, service and level, see {@link IndexedLogWriter}. As for {@link ArchiverHandler},
+ * files are partitioned by the hour of the message timestamps, as <code>root/yyyy/MM/dd/HH-generation.vlog</code>,
+ * and the archive can be queried with an {@link IndexedLogReader}.
+ *
+ * @author agent
+ */
+public class IndexedArchiverHandler extends AbstractLogHandler {
+
+    private static final Logger log = Logger.getLogger(IndexedArchiverHandler.class.getName());
+
+    static final DateTimeFormatter hourFormat = DateTimeFormatter.ofPattern("yyyy/MM/dd/HH").withZone(ZoneOffset.UTC);
+
+    /** Max number of hour slots with open files at any given time */
+    private static final int maxFilesOpen = 5;
+
+    private final File root;
+    private final long maxFileSize;
+    private final FilesArchived filesArchived;
+    private final Map<Long, IndexedLogWriter> writers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, IndexedLogWriter> eldest) {
+            if (size() <= maxFilesOpen) return false;
+            close(eldest.getValue());
+            return true;
+        }
+    };
+
+    public IndexedArchiverHandler(String rootDir, long maxFileSize) {
+        this.root = new File(rootDir).getAbsoluteFile();
+        this.maxFileSize = maxFileSize;
+        if ( ! root.isDirectory() && ! root.mkdirs())
+            log.log(Level.SEVERE, "Unable to create directory " + root);
+
+        // Blocks are already compressed, so this is used only to find generations and to remove old files
+        this.filesArchived = new FilesArchived(root, "zstd");
+        setLogFilter(null);
+    }
+
+    /** Returns the path prefix of the files holding messages with the given timestamp */
+    static String prefixOf(File root, Instant timestamp) {
+        return root.getPath() + "/" + hourFormat.format(timestamp);
+    }
+
+    private synchronized IndexedLogWriter getLogWriter(LogMessage message) {
+        long hour = message.getTimestamp().getEpochSecond() / 3600;
+        return writers.computeIfAbsent(hour, __ -> new IndexedLogWriter(prefixOf(root, message.getTimestamp()),
+                                                                       maxFileSize,
+                                                                       filesArchived));
+    }
+
+    @Override
+    public synchronized boolean doHandle(LogMessage message) {
+        try {
+            getLogWriter(message).write(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void flush() {
+        for (IndexedLogWriter writer : writers.values()) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Flushing failed", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        Iterator<IndexedLogWriter> it = writers.values().iterator();
+        while (it.hasNext()) {
+            close(it.next());
+            it.remove();
+        }
+    }
+
+    private static void close(IndexedLogWriter writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Closing failed", e);
+        }
+    }
+
+    public File root() { return root; }
+
+    @Override
+    public String toString() {
+        return IndexedArchiverHandler.class.getName() + ": root=" + root;
+    }
+
+}
@@ -0,0 +1,162 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.logserver.handlers.archive;
+
+import com.yahoo.compress.ZstdCompressor;
+import com.yahoo.log.InvalidLogFormatException;
+import com.yahoo.log.LogMessage;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Finds the log messages matching a {@link LogQuery} in an archive written by an {@link IndexedArchiverHandler}.
+ * Only the hour directories overlapping the query time range are visited, and in each file only blocks whose
+ * header may match the query are decompressed. Messages are streamed to the given consumer in file order,
+ * which is roughly, but not strictly, time order.
+ *
+ * @author agent
+ */
+public class IndexedLogReader {
+
+    private static final Logger log = Logger.getLogger(IndexedLogReader.class.getName());
+
+    private static final ZstdCompressor compressor = new ZstdCompressor();
+
+    private final File root;
+
+    public IndexedLogReader(File root) {
+        this.root = root.getAbsoluteFile();
+    }
+
+    /**
+     * Passes messages matching the given query to the given consumer, until it returns false,
+     * or there are no more matching messages.
+     *
+     * @return the number of messages passed to the consumer
+     */
+    public long read(LogQuery query, Predicate<LogMessage> consumer) throws IOException {
+        return read(query, consumer, new Statistics());
+    }
+
+    long read(LogQuery query, Predicate<LogMessage> consumer, Statistics statistics) throws IOException {
+        for (File file : filesFor(query)) {
+            if ( ! read(file, query, consumer, statistics)) break;
+        }
+        log.log(Level.FINE, () -> "Read " + statistics + " for " + query);
+        return statistics.messagesMatched;
+    }
+
+    /** Returns the archive files which may contain messages in the time range of the given query */
+    List<File> filesFor(LogQuery query) throws IOException {
+        List<File> files = new ArrayList<>();
+        Instant end = query.to();
+        for (Instant hour = query.from().truncatedTo(ChronoUnit.HOURS); hour.isBefore(end); hour = hour.plus(1, ChronoUnit.HOURS)) {
+            String prefix = IndexedArchiverHandler.prefixOf(root, hour);
+            Path dir = Path.of(prefix).getParent();
+            if ( ! Files.isDirectory(dir)) continue;
+
+            String namePrefix = Path.of(prefix).getFileName() + "-";
+            try (Stream<Path> paths = Files.list(dir)) {
+                paths.filter(path -> path.getFileName().toString().startsWith(namePrefix))
+                     .filter(path -> path.getFileName().toString().endsWith(IndexedLogWriter.SUFFIX))
+                     .sorted((a, b) -> Integer.compare(FilesArchived.LogFile.generationOf(a.toString()),
+                                                       FilesArchived.LogFile.generationOf(b.toString())))
+                     .map(Path::toFile)
+                     .forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    /** Reads matching messages from the given file, and returns whether the consumer wants more */
+    boolean read(File file, LogQuery query, Predicate<LogMessage> consumer, Statistics statistics) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()), 64 * 1024))) {
+            while (true) {
+                LogBlockHeader header;
+                try {
+                    header = LogBlockHeader.readFrom(in);
+                } catch (EOFException e) {
+                    return true;
+                }
+                ++statistics.blocksRead;
+
+                if ( ! header.mayMatch(query)) {
+                    skipFully(in, header.compressedSize());
+                    continue;
+                }
+
+                byte[] compressed = new byte[header.compressedSize()];
+                try {
+                    in.readFully(compressed);
+                } catch (EOFException e) {
+                    return true; // block is still being written, or was truncated by a crash
+                }
+                ++statistics.blocksDecompressed;
+                byte[] uncompressed = new byte[header.uncompressedSize()];
+                compressor.decompress(compressed, 0, compressed.length, uncompressed, 0, uncompressed.length);
+                if ( ! readBlock(uncompressed, query, consumer, statistics)) return false;
+            }
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed reading log archive file " + file + ": " + e.getMessage());
+            return true;
+        }
+    }
+
+    private static boolean readBlock(byte[] block, LogQuery query, Predicate<LogMessage> consumer, Statistics statistics) {
+        int start = 0;
+        for (int i = 0; i < block.length; i++) {
+            if (block[i] != '\n') continue;
+
+            String line = new String(block, start, i - start, StandardCharsets.UTF_8);
+            start = i + 1;
+            try {
+                LogMessage message = LogMessage.parseNativeFormat(line);
+                if ( ! query.matches(message)) continue;
+
+                ++statistics.messagesMatched;
+                if ( ! consumer.test(message)) return false;
+            } catch (InvalidLogFormatException e) {
+                log.log(Level.FINE, () -> "Skipping invalid log line in archive: " + line);
+            }
+        }
+        return true;
+    }
+
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) {
+                if (in.read() < 0) return;
+                skipped = 1;
+            }
+            bytes -= skipped;
+        }
+    }
+
+    static class Statistics {
+        long blocksRead = 0;
+        long blocksDecompressed = 0;
+        long messagesMatched = 0;
+
+        @Override
+        public String toString() {
+            return blocksRead + " blocks, decompressed " + blocksDecompressed + ", and matched " + messagesMatched + " messages";
+        }
+    }
+
+}
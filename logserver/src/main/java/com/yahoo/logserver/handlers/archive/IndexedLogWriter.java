@@ -0,0 +1,159 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.logserver.handlers.archive;
+
+import com.yahoo.compress.ZstdCompressor;
+import com.yahoo.log.LogMessage;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes log messages to files of compressed, indexed blocks, see {@link LogBlockHeader}.
+ * Messages are buffered until a block is full or the writer is flushed, and files are
+ * rotated when they exceed the max size. Files are never resumed, as a block which was
+ * partially written before a crash would make the rest of the file unreadable.
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @author agent
+ */
+public class IndexedLogWriter {
+
+    private static final Logger log = Logger.getLogger(IndexedLogWriter.class.getName());
+
+    static final String SUFFIX = ".vlog";
+    static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+    private static final ZstdCompressor compressor = new ZstdCompressor();
+
+    private final String prefix;
+    private final long maxSize;
+    private final int blockSize;
+    private final FilesArchived archive;
+
+    private final ByteArrayOutputStream block;
+    private final Set<String> hosts = new LinkedHashSet<>();
+    private final Set<String> services = new LinkedHashSet<>();
+    private final Set<String> levels = new LinkedHashSet<>();
+    private long minTimestampMillis = Long.MAX_VALUE;
+    private long maxTimestampMillis = Long.MIN_VALUE;
+    private int messageCount = 0;
+
+    private int generation;
+    private File currentFile;
+    private DataOutputStream out;
+    private long bytesWritten = 0;
+
+    public IndexedLogWriter(String prefix, long maxSize, FilesArchived archive) {
+        this(prefix, maxSize, DEFAULT_BLOCK_SIZE, archive);
+    }
+
+    IndexedLogWriter(String prefix, long maxSize, int blockSize, FilesArchived archive) {
+        this.prefix = prefix;
+        this.maxSize = maxSize;
+        this.blockSize = blockSize;
+        this.archive = archive;
+        this.generation = archive.highestGen(prefix);
+        this.block = new ByteArrayOutputStream(blockSize + blockSize / 4);
+    }
+
+    public void write(LogMessage message) throws IOException {
+        byte[] line = message.toString().getBytes(StandardCharsets.UTF_8);
+        block.write(line, 0, line.length);
+        hosts.add(message.getHost());
+        services.add(message.getService());
+        levels.add(LogQuery.levelName(message));
+        long timestamp = message.getTimestamp().toEpochMilli();
+        minTimestampMillis = Math.min(minTimestampMillis, timestamp);
+        maxTimestampMillis = Math.max(maxTimestampMillis, timestamp);
+        ++messageCount;
+
+        if (block.size() >= blockSize)
+            writeBlock();
+    }
+
+    private void writeBlock() throws IOException {
+        if (messageCount == 0) return;
+
+        if (out == null) {
+            out = nextOutput();
+            archive.triggerMaintenance();
+        }
+
+        byte[] uncompressed = block.toByteArray();
+        byte[] compressed = compressor.compress(uncompressed, 0, uncompressed.length);
+        LogBlockHeader header = new LogBlockHeader(minTimestampMillis, maxTimestampMillis, messageCount,
+                                                   hosts, services, levels, uncompressed.length, compressed.length);
+        int sizeBefore = out.size();
+        header.writeTo(out);
+        out.write(compressed);
+        bytesWritten += out.size() - sizeBefore;
+
+        block.reset();
+        hosts.clear();
+        services.clear();
+        levels.clear();
+        minTimestampMillis = Long.MAX_VALUE;
+        maxTimestampMillis = Long.MIN_VALUE;
+        messageCount = 0;
+
+        if (bytesWritten >= maxSize) {
+            log.fine(() -> "logfile '" + currentFile.getAbsolutePath() + "' full, rotating");
+            closeOutput();
+        }
+    }
+
+    private DataOutputStream nextOutput() throws IOException {
+        int maxAttempts = 1000;
+        while (maxAttempts-- > 0) {
+            File f = new File(prefix + "-" + generation++ + SUFFIX);
+            File dir = f.getParentFile();
+            if (! dir.exists()) {
+                dir.mkdirs();
+            }
+            if (f.exists()) continue;
+
+            log.log(Level.FINE, () -> "nextOutput, new file: " + f);
+            currentFile = f;
+            bytesWritten = 0;
+            return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f), 64 * 1024));
+        }
+        throw new IOException("Unable to create next log file for " + prefix);
+    }
+
+    private void closeOutput() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    /** Writes any buffered messages as a block, and flushes the file. */
+    public void flush() throws IOException {
+        writeBlock();
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    public void close() throws IOException {
+        writeBlock();
+        closeOutput();
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedLogWriter{prefix=" + prefix + "}";
+    }
+
+}
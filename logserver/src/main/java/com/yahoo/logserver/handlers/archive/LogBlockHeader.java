@@ -0,0 +1,94 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.logserver.handlers.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The header preceding each compressed block of an indexed log archive file. It holds the time range,
+ * and the distinct hosts, services and levels of the messages in the block, so readers can skip blocks
+ * which cannot match a query without decompressing them.
+ *
+ * <p>Layout, using {@link DataOutput} encodings:</p>
+ * <pre>
+ * int     magic
+ * long    min timestamp (epoch millis)
+ * long    max timestamp (epoch millis)
+ * int     message count
+ * 3 x (int count, count x UTF) hosts, services, levels
+ * int     uncompressed size
+ * int     compressed size
+ * </pre>
+ * The compressed (zstd) block follows the header. It holds the messages in native log format, one per line.
+ *
+ * @author agent
+ */
+record LogBlockHeader(long minTimestampMillis, long maxTimestampMillis, int messageCount,
+                      Set<String> hosts, Set<String> services, Set<String> levels,
+                      int uncompressedSize, int compressedSize) {
+
+    static final int MAGIC = 0x564c4f47; // "VLOG"
+
+    LogBlockHeader {
+        hosts = Set.copyOf(hosts);
+        services = Set.copyOf(services);
+        levels = Set.copyOf(levels);
+    }
+
+    boolean mayMatch(LogQuery query) {
+        return query.mayMatch(minTimestampMillis, maxTimestampMillis, hosts, services, levels);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(minTimestampMillis);
+        out.writeLong(maxTimestampMillis);
+        out.writeInt(messageCount);
+        writeStrings(out, hosts);
+        writeStrings(out, services);
+        writeStrings(out, levels);
+        out.writeInt(uncompressedSize);
+        out.writeInt(compressedSize);
+    }
+
+    static LogBlockHeader readFrom(DataInput in) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC)
+            throw new IOException("Bad block magic " + Integer.toHexString(magic));
+
+        long minTimestampMillis = in.readLong();
+        long maxTimestampMillis = in.readLong();
+        int messageCount = in.readInt();
+        Set<String> hosts = readStrings(in);
+        Set<String> services = readStrings(in);
+        Set<String> levels = readStrings(in);
+        int uncompressedSize = in.readInt();
+        int compressedSize = in.readInt();
+        if (uncompressedSize < 0 || compressedSize < 0)
+            throw new IOException("Bad block sizes " + uncompressedSize + ", " + compressedSize);
+
+        return new LogBlockHeader(minTimestampMillis, maxTimestampMillis, messageCount,
+                                  hosts, services, levels, uncompressedSize, compressedSize);
+    }
+
+    private static void writeStrings(DataOutput out, Set<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String string : strings)
+            out.writeUTF(string);
+    }
+
+    private static Set<String> readStrings(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0)
+            throw new IOException("Bad string count " + count);
+
+        Set<String> strings = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++)
+            strings.add(in.readUTF());
+        return strings;
+    }
+
+}
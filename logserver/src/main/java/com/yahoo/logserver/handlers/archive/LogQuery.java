@@ -0,0 +1,97 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.logserver.handlers.archive;
+
+import com.yahoo.log.LogMessage;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A query for log messages in an indexed log archive. A message matches if its timestamp is in
+ * [from, to), and its host, service and level are among the given ones. An empty set matches any value.
+ *
+ * @author agent
+ */
+public class LogQuery {
+
+    private final Instant from;
+    private final Instant to;
+    private final Set<String> hosts;
+    private final Set<String> services;
+    private final Set<String> levels;
+
+    public LogQuery(Instant from, Instant to, Collection<String> hosts, Collection<String> services, Collection<String> levels) {
+        if (from.isAfter(to))
+            throw new IllegalArgumentException("Query start " + from + " is after end " + to);
+
+        this.from = from;
+        this.to = to;
+        this.hosts = Set.copyOf(hosts);
+        this.services = Set.copyOf(services);
+        this.levels = levels.stream().map(level -> level.toLowerCase(Locale.ENGLISH)).collect(Collectors.toUnmodifiableSet());
+    }
+
+    public Instant from() { return from; }
+    public Instant to() { return to; }
+    public Set<String> hosts() { return hosts; }
+    public Set<String> services() { return services; }
+    public Set<String> levels() { return levels; }
+
+    /** Returns whether the given message matches this query */
+    public boolean matches(LogMessage message) {
+        return ! message.getTimestamp().isBefore(from)
+               && message.getTimestamp().isBefore(to)
+               && matchesAny(hosts, message.getHost())
+               && matchesAny(services, message.getService())
+               && matchesAny(levels, levelName(message));
+    }
+
+    /** Returns whether a block with the given time range and distinct values may contain messages matching this query */
+    boolean mayMatch(long minTimestampMillis, long maxTimestampMillis,
+                     Set<String> blockHosts, Set<String> blockServices, Set<String> blockLevels) {
+        return maxTimestampMillis >= from.toEpochMilli()
+               && minTimestampMillis < to.toEpochMilli()
+               && intersects(hosts, blockHosts)
+               && intersects(services, blockServices)
+               && intersects(levels, blockLevels);
+    }
+
+    static String levelName(LogMessage message) {
+        return message.getLevel().toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static boolean matchesAny(Set<String> wanted, String value) {
+        return wanted.isEmpty() || wanted.contains(value);
+    }
+
+    private static boolean intersects(Set<String> wanted, Set<String> present) {
+        if (wanted.isEmpty()) return true;
+        for (String value : present)
+            if (wanted.contains(value)) return true;
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LogQuery other = (LogQuery) o;
+        return from.equals(other.from) && to.equals(other.to) && hosts.equals(other.hosts)
+               && services.equals(other.services) && levels.equals(other.levels);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to, hosts, services, levels);
+    }
+
+    @Override
+    public String toString() {
+        return "log query [" + from + ", " + to + ") hosts=" + hosts + " services=" + services + " levels=" + levels;
+    }
+
+}
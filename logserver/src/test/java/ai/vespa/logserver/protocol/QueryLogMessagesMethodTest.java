@@ -0,0 +1,116 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.logserver.protocol;
+
+import com.yahoo.jrt.Int32Value;
+import com.yahoo.jrt.Int64Value;
+import com.yahoo.jrt.Request;
+import com.yahoo.jrt.Spec;
+import com.yahoo.jrt.StringValue;
+import com.yahoo.jrt.Supervisor;
+import com.yahoo.jrt.Target;
+import com.yahoo.jrt.Transport;
+import com.yahoo.jrt.Values;
+import com.yahoo.log.LogMessage;
+import com.yahoo.logserver.handlers.archive.IndexedArchiverHandler;
+import com.yahoo.logserver.handlers.archive.IndexedLogReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.logging.Level;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author agent
+ */
+public class QueryLogMessagesMethodTest {
+
+    private static final Instant START = Instant.parse("2022-06-01T11:30:00Z");
+    private static final LogMessage MESSAGE_1 =
+            LogMessage.of(START, "host1", 12, 3456, "my-service", "my-component", Level.WARNING, "My warning message");
+    private static final LogMessage MESSAGE_2 =
+            LogMessage.of(START.plusSeconds(1), "host2", 12, 6543, "my-service", "my-component", Level.INFO, "My info message");
+    private static final LogMessage MESSAGE_3 =
+            LogMessage.of(START.plusSeconds(2), "host1", 12, 3456, "my-service", "my-component", Level.INFO, "Another info message");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void server_returns_archived_log_messages_matching_query() throws IOException {
+        File root = temporaryFolder.newFolder();
+        IndexedArchiverHandler archiver = new IndexedArchiverHandler(root.getPath(), 1 << 20);
+        archiver.handle(List.of(MESSAGE_1, MESSAGE_2, MESSAGE_3));
+        archiver.close();
+
+        try (RpcServer server = new RpcServer(0)) {
+            server.addMethod(new QueryLogMessagesMethod(new IndexedLogReader(root)).methodDefinition());
+            server.start();
+            try (TestClient client = new TestClient(server.listenPort())) {
+                assertEquals(List.of(MESSAGE_1, MESSAGE_3), client.query("host1", "", "", 10));
+                assertEquals(List.of(MESSAGE_2, MESSAGE_3), client.query("", "my-service", "info", 10));
+                assertEquals(List.of(MESSAGE_1), client.query("", "", "", 1));
+                assertEquals(List.of(), client.query("", "other-service", "", 10));
+            }
+        }
+    }
+
+    @Test
+    public void server_returns_at_most_max_messages() throws IOException {
+        File root = temporaryFolder.newFolder();
+        IndexedArchiverHandler archiver = new IndexedArchiverHandler(root.getPath(), 1 << 20);
+        archiver.handle(List.of(MESSAGE_1, MESSAGE_2, MESSAGE_3));
+        archiver.close();
+
+        try (RpcServer server = new RpcServer(0)) {
+            server.addMethod(new QueryLogMessagesMethod(new IndexedLogReader(root), 2).methodDefinition());
+            server.start();
+            try (TestClient client = new TestClient(server.listenPort())) {
+                assertEquals(List.of(MESSAGE_1, MESSAGE_2), client.query("", "", "", Integer.MAX_VALUE));
+            }
+        }
+    }
+
+    private static class TestClient implements AutoCloseable {
+
+        private final Supervisor supervisor;
+        private final Target target;
+
+        TestClient(int logserverPort) {
+            this.supervisor = new Supervisor(new Transport());
+            this.target = supervisor.connect(new Spec(logserverPort));
+        }
+
+        List<LogMessage> query(String hosts, String services, String levels, int maxMessages) {
+            Request request = new Request(QueryLogMessagesMethod.METHOD_NAME);
+            request.parameters().add(new Int64Value(START.toEpochMilli()));
+            request.parameters().add(new Int64Value(START.plus(Duration.ofHours(1)).toEpochMilli()));
+            request.parameters().add(new StringValue(hosts));
+            request.parameters().add(new StringValue(services));
+            request.parameters().add(new StringValue(levels));
+            request.parameters().add(new Int32Value(maxMessages));
+            target.invokeSync(request, Duration.ofSeconds(30));
+            assertFalse(request.errorMessage(), request.isError());
+            Values returnValues = request.returnValues();
+            assertEquals(3, returnValues.size());
+            assertEquals(0, returnValues.get(0).asInt8());
+            byte[] payload = returnValues.get(2).asData();
+            assertEquals(payload.length, returnValues.get(1).asInt32());
+            return ProtobufSerialization.fromLogRequest(payload);
+        }
+
+        @Override
+        public void close() {
+            target.close();
+            supervisor.transport().shutdown().join();
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.logserver.handlers.archive;
+
+import com.yahoo.log.LogMessage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ */
+public class IndexedArchiverHandlerTestCase {
+
+    private static final Instant start = Instant.parse("2022-06-01T11:30:00Z");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void messages_are_archived_in_indexed_blocks_and_found_by_queries() throws IOException {
+        File root = temporaryFolder.newFolder();
+        IndexedArchiverHandler handler = new IndexedArchiverHandler(root.getPath(), 1 << 20);
+        List<LogMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 3600; i++) {
+            LogMessage message = LogMessage.of(start.plusSeconds(i),
+                                               "host" + (i % 3),
+                                               12, 34,
+                                               i < 1800 ? "searchnode" : "container",
+                                               "component",
+                                               i % 300 == 0 ? Level.WARNING : Level.INFO,
+                                               "payload " + i);
+            messages.add(message);
+            handler.handle(message);
+            if (i % 100 == 99) handler.flush(); // one block per 100 messages
+        }
+        handler.close();
+
+        assertTrue(new File(root, "2022/06/01/11-0.vlog").isFile());
+        assertTrue(new File(root, "2022/06/01/12-0.vlog").isFile());
+        assertEquals(Set.of("11-0.vlog"), Set.of(new File(root, "2022/06/01").list((dir, name) -> name.startsWith("11"))));
+
+        IndexedLogReader reader = new IndexedLogReader(root);
+        assertQuery(reader, messages, new LogQuery(start, start.plus(Duration.ofHours(1)), List.of(), List.of(), List.of()), 36);
+
+        // Only the blocks of the second half hour, in the second hour directory, are decompressed
+        assertQuery(reader, messages, new LogQuery(start, start.plus(Duration.ofHours(1)), List.of(), List.of("container"), List.of()), 18);
+        assertQuery(reader, messages, new LogQuery(start.plusSeconds(1800), start.plusSeconds(1900), List.of("host1"), List.of(), List.of()), 1);
+        assertQuery(reader, messages, new LogQuery(start, start.plus(Duration.ofHours(1)), List.of("host0"), List.of(), List.of("WARNING")), 12);
+        assertQuery(reader, messages, new LogQuery(start, start.plus(Duration.ofHours(1)), List.of("host3"), List.of(), List.of()), 0);
+
+        List<LogMessage> limited = new ArrayList<>();
+        assertEquals(10, reader.read(new LogQuery(start, start.plusSeconds(3600), List.of(), List.of(), List.of()),
+                                     message -> limited.add(message) && limited.size() < 10));
+        assertEquals(messages.subList(0, 10), limited);
+    }
+
+    @Test
+    public void truncated_blocks_are_ignored() throws IOException {
+        File root = temporaryFolder.newFolder();
+        IndexedArchiverHandler handler = new IndexedArchiverHandler(root.getPath(), 1 << 20);
+        LogMessage message = LogMessage.of(start, "host", 12, 34, "service", "component", Level.INFO, "payload");
+        handler.handle(message);
+        handler.close();
+
+        File file = new File(root, "2022/06/01/11-0.vlog");
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[] { 0x56, 0x4c, 0x4f, 0x47, 0, 0, 0 });
+        }
+
+        List<LogMessage> found = new ArrayList<>();
+        new IndexedLogReader(root).read(new LogQuery(start, start.plusSeconds(1), List.of(), List.of(), List.of()), found::add);
+        assertEquals(List.of(message), found);
+    }
+
+    private static void assertQuery(IndexedLogReader reader, List<LogMessage> messages, LogQuery query,
+                                    long expectedDecompressedBlocks) throws IOException {
+        List<LogMessage> found = new ArrayList<>();
+        IndexedLogReader.Statistics statistics = new IndexedLogReader.Statistics();
+        reader.read(query, found::add, statistics);
+        assertEquals(messages.stream().filter(query::matches).toList(), found);
+        assertEquals(expectedDecompressedBlocks, statistics.blocksDecompressed);
+    }
+
+}
@@ -0,0 +1,59 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.messagebus.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The static part of resolving a route: The result of replacing the hop and route names at the start of a route
+ * by their definitions in a routing table. This only depends on the route and the routing table, so it is computed
+ * once per route and routing table and stored in the table, leaving only the routing policies to run per message.
+ * The work done by the policies, such as evaluating document selections and computing bucket distribution,
+ * depends on the message, and is not covered by this.
+ *
+ * @author agent
+ */
+final class RoutePlan {
+
+    private final Route route;
+    private final List<Route> recipients;
+    private final int depth;
+
+    /**
+     * Creates a new plan.
+     *
+     * @param route      The route after expansion.
+     * @param recipients The recipients of the last hop expanded, or null if no hop was expanded.
+     * @param depth      The number of expansions made.
+     */
+    RoutePlan(Route route, List<Route> recipients, int depth) {
+        this.route = copyOf(route);
+        this.recipients = recipients == null ? null : copyOf(recipients);
+        this.depth = depth;
+    }
+
+    /** Returns a copy of the route after expansion, which may be modified. */
+    Route route() { return copyOf(route); }
+
+    /** Returns a copy of the recipients of the last hop expanded, which may be modified, or null if no hop was expanded. */
+    List<Route> recipients() { return recipients == null ? null : copyOf(recipients); }
+
+    /** Returns the number of expansions made. */
+    int depth() { return depth; }
+
+    /** Returns a copy of the given route with copies of its hops, as routing modifies the hops of its routes */
+    private static Route copyOf(Route route) {
+        Route copy = new Route();
+        for (int i = 0; i < route.getNumHops(); i++)
+            copy.addHop(new Hop(route.getHop(i)));
+        return copy;
+    }
+
+    private static List<Route> copyOf(List<Route> routes) {
+        List<Route> copies = new ArrayList<>(routes.size());
+        for (Route route : routes)
+            copies.add(copyOf(route));
+        return copies;
+    }
+
+}
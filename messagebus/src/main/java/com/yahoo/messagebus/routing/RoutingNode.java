@@ -374,11 +374,7 @@ public class RoutingNode implements ReplyHandler {
         if (!children.isEmpty()) {
             return resolveChildren(depth + 1);
         }
-        while (lookupHop() || lookupRoute()) {
-            if (++depth > 64) {
-                break;
-            }
-        }
+        depth = expandRoute(depth);
         if (depth > 64) {
             setError(ErrorCode.ILLEGAL_ROUTE, "Depth limit exceeded.");
             return false;
@@ -396,6 +392,57 @@ public class RoutingNode implements ReplyHandler {
         return serviceAddress != null || reply != null;
     }
 
+    /**
+     * Replaces hop and route names at the start of the current route by their definitions in the routing table, until
+     * the first hop is not a name. As this only depends on the route and the routing table, the result is stored as a
+     * {@link RoutePlan} in the routing table and reused for subsequent messages sent along the same route. Plans are
+     * not used when tracing the resolution, nor stored when it fails.
+     *
+     * @param depth The current depth.
+     * @return The depth after expansion.
+     */
+    private int expandRoute(int depth) {
+        RoutingTable table = mbus.getRoutingTable(msg.getProtocol());
+        if (table == null || trace.shouldTrace(TraceLevel.SPLIT_MERGE)) {
+            return expandRoute(depth, null, null);
+        }
+        // The route string may be cached from before the ignore result flag of the first hop was set
+        String key = shouldIgnoreResult() ? "?" + route : route.toString();
+        RoutePlan plan = table.getRoutePlan(key);
+        if (plan == null) {
+            return expandRoute(depth, table, key);
+        }
+        route = plan.route();
+        if (plan.recipients() != null) {
+            recipients.clear();
+            recipients.addAll(plan.recipients());
+        }
+        return depth + plan.depth();
+    }
+
+    /**
+     * Expands the current route by lookups in the routing table, and stores the result as a plan in the given table
+     * if it is non-null and the expansion succeeds.
+     */
+    private int expandRoute(int depth, RoutingTable table, String key) {
+        int startDepth = depth;
+        boolean hopFound = false;
+        while (true) {
+            if (lookupHop()) {
+                hopFound = true;
+            } else if (!lookupRoute()) {
+                break;
+            }
+            if (++depth > 64) {
+                break;
+            }
+        }
+        if (table != null && depth <= 64 && reply == null) {
+            table.putRoutePlan(key, new RoutePlan(route, hopFound ? recipients : null, depth - startDepth));
+        }
+        return depth;
+    }
+
     /**
      * This method checks to see whether the string representation of the current hop is actually the name of another.
      * If a hop is found, the first hop of the current route is replaced by this.
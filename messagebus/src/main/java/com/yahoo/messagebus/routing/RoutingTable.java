@@ -4,6 +4,7 @@ package com.yahoo.messagebus.routing;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * At any time there may only ever be zero or one routing table registered in message bus for each protocol. This class
@@ -13,8 +14,12 @@ import java.util.Map;
  */
 public class RoutingTable {
 
+    /** The max number of route plans to keep. When exceeded all plans are dropped. */
+    private static final int maxRoutePlans = 10000;
+
     private final Map<String, HopBlueprint> hops = new LinkedHashMap<>();
     private final Map<String, Route> routes = new LinkedHashMap<>();
+    private final Map<String, RoutePlan> routePlans = new ConcurrentHashMap<>();
 
     /**
      * Creates a new routing table based on a given specification. This also verifies the integrity of the table.
@@ -130,6 +135,30 @@ public class RoutingTable {
         return routes.get(name);
     }
 
+    /**
+     * Returns the plan for resolving the route with the given key, or null if it is not known.
+     * This is multithread safe.
+     *
+     * @param key The key of the route, see {@link RoutingNode}.
+     * @return The plan, or null.
+     */
+    RoutePlan getRoutePlan(String key) {
+        return routePlans.get(key);
+    }
+
+    /**
+     * Stores the plan for resolving the route with the given key. This is multithread safe.
+     *
+     * @param key  The key of the route, see {@link RoutingNode}.
+     * @param plan The plan to store.
+     */
+    void putRoutePlan(String key, RoutePlan plan) {
+        if (routePlans.size() >= maxRoutePlans) {
+            routePlans.clear();
+        }
+        routePlans.put(key, plan);
+    }
+
     @Override
     public String toString() {
         StringBuilder ret = new StringBuilder("RoutingTable(hops = { ");
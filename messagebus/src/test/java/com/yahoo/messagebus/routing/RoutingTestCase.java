@@ -200,6 +200,45 @@ public class RoutingTestCase {
         assertFalse(reply.hasErrors());
     }
 
+    @Test
+    void requireThatRouteExpansionIsReusedUntilRoutingChanges() {
+        srcServer.setupRouting(new RoutingTableSpec(SimpleProtocol.NAME)
+                .addRoute(new RouteSpec("foo").addHop("dst"))
+                .addHop(new HopSpec("dst", dstSessName)));
+        for (int i = 0; i < 3; ++i) {
+            assertTrue(srcSession.send(createMessage("msg"), Route.parse("foo baz")).isAccepted());
+            Message msg = ((Receptor) dstSession.getMessageHandler()).getMessage(60);
+            assertNotNull(msg);
+            assertEquals("baz", msg.getRoute().toString());
+            dstSession.acknowledge(msg);
+            Reply reply = ((Receptor) srcSession.getReplyHandler()).getReply(60);
+            assertNotNull(reply);
+            assertFalse(reply.hasErrors());
+        }
+        assertNotNull(srcServer.mb.getRoutingTable(SimpleProtocol.NAME).getRoutePlan("foo baz"));
+
+        srcServer.setupRouting(new RoutingTableSpec(SimpleProtocol.NAME)
+                .addRoute(new RouteSpec("foo").addHop("route:bar")));
+        assertTrue(srcSession.send(createMessage("msg"), Route.parse("foo baz")).isAccepted());
+        Reply reply = ((Receptor) srcSession.getReplyHandler()).getReply(60);
+        assertNotNull(reply);
+        assertEquals(1, reply.getNumErrors());
+        assertEquals(ErrorCode.ILLEGAL_ROUTE, reply.getError(0).getCode());
+        assertNull(srcServer.mb.getRoutingTable(SimpleProtocol.NAME).getRoutePlan("foo baz"));
+    }
+
+    @Test
+    void requireThatRoutePlansAreNotModifiedThroughTheirRoutes() {
+        Route route = Route.parse("foo bar");
+        RoutePlan plan = new RoutePlan(route, List.of(Route.parse("baz")), 1);
+        route.getHop(0).setIgnoreResult(true);
+        plan.route().getHop(0).setIgnoreResult(true);
+        plan.recipients().get(0).getHop(0).setIgnoreResult(true);
+        assertFalse(plan.route().getHop(0).getIgnoreResult());
+        assertFalse(plan.recipients().get(0).getHop(0).getIgnoreResult());
+        assertEquals("foo bar", plan.route().toString());
+    }
+
     @Test
     void requireThatErrorDirectiveWorks() {
         Route route = Route.parse("foo/bar/baz");
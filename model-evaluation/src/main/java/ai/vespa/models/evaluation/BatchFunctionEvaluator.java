@@ -0,0 +1,230 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package ai.vespa.models.evaluation;
+
+import com.yahoo.api.annotations.Beta;
+import com.yahoo.searchlib.rankingexpression.ExpressionFunction;
+import com.yahoo.searchlib.rankingexpression.evaluation.TensorValue;
+import com.yahoo.tensor.DimensionSizes;
+import com.yahoo.tensor.IndexedTensor;
+import com.yahoo.tensor.Tensor;
+import com.yahoo.tensor.TensorType;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An evaluator which can be used to evaluate a single function over a batch of bindings once.
+ * Each row of the batch is bound as a regular {@link FunctionEvaluator}.
+ *
+ * ONNX models with a dynamic batch dimension (the first dimension, "d0", is unbound) are evaluated once for
+ * the whole batch, by stacking the inputs of all rows along this dimension and splitting the output back up.
+ * Other ONNX models, and rows which can not be stacked, are evaluated row by row.
+ *
+ * @author agent
+ */
+@Beta
+public class BatchFunctionEvaluator {
+
+    private static final String batchDimension = "d0";
+
+    private final Model model;
+    private final ExpressionFunction function;
+    private final List<FunctionEvaluator> rows = new ArrayList<>();
+    private Tensor missingValue = null;
+    private boolean evaluated = false;
+
+    BatchFunctionEvaluator(Model model, ExpressionFunction function) {
+        this.model = model;
+        this.function = function;
+    }
+
+    /**
+     * Adds a row to this batch.
+     *
+     * @return the evaluator to bind the arguments of this row in. This must not be evaluated by the caller.
+     */
+    public FunctionEvaluator addRow() {
+        if (evaluated)
+            throw new IllegalStateException("Cannot add a row to a used evaluator");
+        FunctionEvaluator row = model.evaluatorOf(function);
+        if (missingValue != null)
+            row.setMissingValue(missingValue);
+        rows.add(row);
+        return row;
+    }
+
+    /**
+     * Sets the default value to use for variables which are not bound, in all rows
+     *
+     * @param value the default value
+     * @return this for chaining
+     */
+    public BatchFunctionEvaluator setMissingValue(Tensor value) {
+        if (evaluated)
+            throw new IllegalStateException("Cannot change the missing value in a used evaluator");
+        missingValue = value;
+        rows.forEach(row -> row.setMissingValue(value));
+        return this;
+    }
+
+    /**
+     * Sets the default value to use for variables which are not bound, in all rows
+     *
+     * @param value the default value
+     * @return this for chaining
+     */
+    public BatchFunctionEvaluator setMissingValue(double value) {
+        return setMissingValue(Tensor.Builder.of(TensorType.empty).cell(value).build());
+    }
+
+    /** Returns the number of rows added to this */
+    public int size() { return rows.size(); }
+
+    /** Evaluates the function for each row, and returns the results in the order the rows were added */
+    public List<Tensor> evaluate() {
+        rows.forEach(FunctionEvaluator::checkArguments);
+        evaluated = true;
+        if (rows.size() > 1)
+            evaluateOnnxModelsInBatch();
+        List<Tensor> results = new ArrayList<>(rows.size());
+        for (FunctionEvaluator row : rows)
+            results.add(row.evaluate()); // evaluates any ONNX models not evaluated in batch
+        return results;
+    }
+
+    /** Returns the function evaluated by this */
+    public ExpressionFunction function() { return function; }
+
+    private void evaluateOnnxModelsInBatch() {
+        for (Map.Entry<String, OnnxModel> entry : rows.get(0).context().onnxModels().entrySet()) {
+            OnnxModel onnxModel = entry.getValue();
+            Map<String, TensorType> inputTypes = onnxModel.inputs();
+            if ( ! inputTypes.values().stream().allMatch(BatchFunctionEvaluator::hasDynamicBatchDimension)) continue;
+
+            int[] rowSizes = new int[rows.size()];
+            Map<String, Tensor> inputs = new HashMap<>();
+            for (String input : inputTypes.keySet()) {
+                List<Tensor> values = new ArrayList<>(rows.size());
+                for (FunctionEvaluator row : rows)
+                    values.add(row.context().get(input).asTensor());
+                Optional<Tensor> stacked = stack(values, rowSizes);
+                if (stacked.isEmpty()) break;
+                inputs.put(input, stacked.get());
+            }
+            if (inputs.size() != inputTypes.size()) continue;
+
+            Tensor output = onnxModel.evaluate(inputs, function.getName()); // Function name is output of model
+            Optional<List<Tensor>> outputs = split(output, rowSizes);
+            if (outputs.isEmpty()) continue;
+            for (int i = 0; i < rows.size(); i++)
+                rows.get(i).context().put(entry.getKey(), new TensorValue(outputs.get().get(i)));
+        }
+    }
+
+    private static boolean hasDynamicBatchDimension(TensorType type) {
+        return type.rank() > 0
+               && type.dimensions().get(0).name().equals(batchDimension)
+               && type.dimensions().get(0).size().isEmpty();
+    }
+
+    /**
+     * Returns the given tensors stacked along the batch dimension, or empty if they do not have the same
+     * value type and dimensions, with equal sizes except for the batch dimension.
+     *
+     * @param rowSizes the size of the batch dimension of each tensor, which must agree with this if already set
+     */
+    private static Optional<Tensor> stack(List<Tensor> tensors, int[] rowSizes) {
+        if ( ! (tensors.get(0) instanceof IndexedTensor)) return Optional.empty();
+        IndexedTensor first = (IndexedTensor) tensors.get(0);
+        TensorType.Value valueType = first.type().valueType();
+        if (first.type().rank() == 0 || ! first.type().dimensions().get(0).name().equals(batchDimension))
+            return Optional.empty();
+
+        long totalSize = 0;
+        long batchSize = 0;
+        for (int i = 0; i < tensors.size(); i++) {
+            if ( ! (tensors.get(i) instanceof IndexedTensor)) return Optional.empty();
+            IndexedTensor tensor = (IndexedTensor) tensors.get(i);
+            if (tensor.type().valueType() != valueType) return Optional.empty();
+            if ( ! tensor.type().dimensionNames().equals(first.type().dimensionNames())) return Optional.empty();
+            for (int d = 1; d < first.type().rank(); d++) {
+                if (tensor.dimensionSizes().size(d) != first.dimensionSizes().size(d)) return Optional.empty();
+            }
+            int rowSize = (int)tensor.dimensionSizes().size(0);
+            if (rowSizes[i] != 0 && rowSizes[i] != rowSize) return Optional.empty();
+            rowSizes[i] = rowSize;
+            batchSize += rowSize;
+            totalSize += tensor.size();
+        }
+
+        TensorType.Builder typeBuilder = new TensorType.Builder(valueType);
+        typeBuilder.indexed(batchDimension, batchSize);
+        for (int d = 1; d < first.type().rank(); d++)
+            typeBuilder.indexed(first.type().dimensions().get(d).name(), first.dimensionSizes().size(d));
+        TensorType type = typeBuilder.build();
+
+        // The batch dimension is the outermost, so stacking is concatenation in the standard value order
+        if (valueType == TensorType.Value.DOUBLE) {
+            double[] values = new double[(int)totalSize];
+            DoubleBuffer buffer = DoubleBuffer.wrap(values);
+            for (Tensor tensor : tensors)
+                ((IndexedTensor)tensor).copyTo(buffer);
+            return Optional.of(IndexedTensor.Builder.of(type, values).build());
+        }
+        else {
+            float[] values = new float[(int)totalSize];
+            FloatBuffer buffer = FloatBuffer.wrap(values);
+            for (Tensor tensor : tensors)
+                ((IndexedTensor)tensor).copyTo(buffer);
+            return Optional.of(IndexedTensor.Builder.of(type, values).build());
+        }
+    }
+
+    /**
+     * Returns the given tensor split along the batch dimension into tensors of the given sizes,
+     * or empty if the tensor is not of the total size in the batch dimension.
+     */
+    private static Optional<List<Tensor>> split(Tensor tensor, int[] rowSizes) {
+        if ( ! (tensor instanceof IndexedTensor)) return Optional.empty();
+        IndexedTensor batch = (IndexedTensor) tensor;
+        TensorType batchType = batch.type();
+        if (batchType.rank() == 0 || ! batchType.dimensions().get(0).name().equals(batchDimension))
+            return Optional.empty();
+        long batchSize = 0;
+        for (int rowSize : rowSizes)
+            batchSize += rowSize;
+        if (batch.dimensionSizes().size(0) != batchSize) return Optional.empty();
+
+        long cellsPerBatchEntry = batch.size() / batchSize;
+        List<Tensor> results = new ArrayList<>(rowSizes.length);
+        long offset = 0;
+        for (int rowSize : rowSizes) {
+            TensorType.Builder typeBuilder = new TensorType.Builder(batchType.valueType());
+            DimensionSizes.Builder sizesBuilder = new DimensionSizes.Builder(batchType.rank());
+            typeBuilder.indexed(batchDimension, rowSize);
+            sizesBuilder.set(0, rowSize);
+            for (int d = 1; d < batchType.rank(); d++) {
+                typeBuilder.indexed(batchType.dimensions().get(d).name(), batch.dimensionSizes().size(d));
+                sizesBuilder.set(d, batch.dimensionSizes().size(d));
+            }
+            IndexedTensor.BoundBuilder builder =
+                    (IndexedTensor.BoundBuilder)IndexedTensor.Builder.of(typeBuilder.build(), sizesBuilder.build());
+            long cells = rowSize * cellsPerBatchEntry;
+            for (long i = 0; i < cells; i++) {
+                if (batchType.valueType() == TensorType.Value.DOUBLE)
+                    builder.cellByDirectIndex(i, batch.get(offset + i));
+                else
+                    builder.cellByDirectIndex(i, batch.getFloat(offset + i));
+            }
+            results.add(builder.build());
+            offset += cells;
+        }
+        return Optional.of(results);
+    }
+
+}
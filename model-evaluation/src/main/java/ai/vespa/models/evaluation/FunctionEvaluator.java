@@ -101,14 +101,19 @@ public class FunctionEvaluator {
     }
 
     public Tensor evaluate() {
-        for (Map.Entry<String, TensorType> argument : function.argumentTypes().entrySet()) {
-            checkArgument(argument.getKey(), argument.getValue());
-        }
+        checkArguments();
         evaluated = true;
         evaluateOnnxModels();
         return function.getBody().evaluate(context).asTensor();
     }
 
+    /** Throws IllegalStateException if any argument of the function is not bound to a value of the right type */
+    void checkArguments() {
+        for (Map.Entry<String, TensorType> argument : function.argumentTypes().entrySet()) {
+            checkArgument(argument.getKey(), argument.getValue());
+        }
+    }
+
     private void checkArgument(String name, TensorType type) {
         if (context.isMissing(name))
             throw new IllegalStateException("Missing argument '" + name + "': Must be bound to a value of type " + type);
@@ -227,8 +227,26 @@ public class Model {
                                            Arrays.toString(names));
     }
 
+    /**
+     * Returns an evaluator which can be used to evaluate the given function over a batch of bindings once.
+     * The functions are identified by names as in {@link #evaluatorOf(String...)}.
+     *
+     * Usage:
+     * <code>
+     * BatchFunctionEvaluator batch = model.batchEvaluatorOf("myFunction");
+     * batch.addRow().bind("foo", value1);
+     * batch.addRow().bind("foo", value2);
+     * List&lt;Tensor&gt; results = batch.evaluate();
+     * </code>
+     *
+     * @throws IllegalArgumentException if the function is not present, or not uniquely identified by the names given
+     */
+    public BatchFunctionEvaluator batchEvaluatorOf(String ... names) {
+        return new BatchFunctionEvaluator(this, evaluatorOf(names).function());
+    }
+
     /** Returns a single-use evaluator of a function */
-    private FunctionEvaluator evaluatorOf(ExpressionFunction function) {
+    FunctionEvaluator evaluatorOf(ExpressionFunction function) {
         return new FunctionEvaluator(function, requireContextPrototype(function.getName()).copy());
     }
 
@@ -1,6 +1,7 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package ai.vespa.models.handler;
 
+import ai.vespa.models.evaluation.BatchFunctionEvaluator;
 import ai.vespa.models.evaluation.FunctionEvaluator;
 import ai.vespa.models.evaluation.Model;
 import ai.vespa.models.evaluation.ModelsEvaluator;
@@ -8,19 +9,27 @@ import com.yahoo.container.jdisc.HttpRequest;
 import com.yahoo.container.jdisc.HttpResponse;
 import com.yahoo.container.jdisc.ThreadedHttpRequestHandler;
 import com.yahoo.searchlib.rankingexpression.ExpressionFunction;
+import com.yahoo.slime.ArrayTraverser;
 import com.yahoo.slime.Cursor;
+import com.yahoo.slime.Inspector;
+import com.yahoo.slime.JsonParseException;
 import com.yahoo.slime.Slime;
+import com.yahoo.slime.SlimeUtils;
+import com.yahoo.slime.Type;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorType;
 import com.yahoo.tensor.serialization.JsonFormat;
 import com.yahoo.yolean.Exceptions;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executor;
@@ -33,6 +42,7 @@ public class ModelsEvaluationHandler extends ThreadedHttpRequestHandler {
     public static final String API_ROOT = "model-evaluation";
     public static final String VERSION_V1 = "v1";
     public static final String EVALUATE = "eval";
+    public static final String BATCH_EVALUATE = "batch-eval";
 
     private final ModelsEvaluator modelsEvaluator;
 
@@ -58,6 +68,11 @@ public class ModelsEvaluationHandler extends ThreadedHttpRequestHandler {
 
             Model model = modelsEvaluator.requireModel(modelName.get());
 
+            Optional<Integer> batchEvalSegment = path.lastIndexOf(BATCH_EVALUATE);
+            if (batchEvalSegment.isPresent()) {
+                return evaluateModelBatch(request, model, path.range(3, batchEvalSegment));
+            }
+
             Optional<Integer> evalSegment = path.lastIndexOf(EVALUATE);
             String[] function = path.range(3, evalSegment);
             if (evalSegment.isPresent()) {
@@ -88,15 +103,80 @@ public class ModelsEvaluationHandler extends ThreadedHttpRequestHandler {
             }
         }
         Tensor result = evaluator.evaluate();
+        return new Response(200, encode(result, property(request, "format.tensors")));
+    }
+
+    /**
+     * Evaluates a batch of rows given as a JSON request body on the form
+     * <code>{"rows": [ {"argument1": value, "argument2": value}, ... ]}</code>, where each value is a
+     * tensor in string form, or a number. The response is <code>{"results": [ tensor, ... ]}</code>,
+     * in the order of the rows, where each tensor is in the format given by "format.tensors".
+     */
+    private HttpResponse evaluateModelBatch(HttpRequest request, Model model, String[] function) {
+        BatchFunctionEvaluator evaluator = model.batchEvaluatorOf(function);
+
+        property(request, missingValueKey).ifPresent(missingValue -> evaluator.setMissingValue(Tensor.from(missingValue)));
+
+        Inspector rows = readRequestBody(request).get().field("rows");
+        if (rows.type() != Type.ARRAY)
+            throw new IllegalArgumentException("A batch evaluation request must contain an array of 'rows'");
+        rows.traverse((ArrayTraverser) (index, row) -> {
+            FunctionEvaluator rowEvaluator = evaluator.addRow();
+            for (Map.Entry<String, TensorType> argument : evaluator.function().argumentTypes().entrySet()) {
+                Inspector value = row.field(argument.getKey());
+                if (value.type() == Type.DOUBLE || value.type() == Type.LONG) {
+                    rowEvaluator.bind(argument.getKey(), value.asDouble());
+                }
+                else if (value.type() == Type.STRING) {
+                    try {
+                        rowEvaluator.bind(argument.getKey(), Tensor.from(argument.getValue(), value.asString()));
+                    } catch (IllegalArgumentException e) {
+                        rowEvaluator.bind(argument.getKey(), value.asString());  // since we don't yet support tensors with string values
+                    }
+                }
+            }
+        });
+        List<Tensor> results = evaluator.evaluate();
 
         Optional<String> format = property(request, "format.tensors");
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        response.writeBytes("{\"results\":[".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0)
+                response.write(',');
+            if (format.isPresent() && format.get().equalsIgnoreCase("string")) {
+                Slime result = new Slime();
+                result.setString(results.get(i).toString());
+                response.writeBytes(com.yahoo.slime.JsonFormat.toJsonBytes(result));
+            }
+            else {
+                response.writeBytes(encode(results.get(i), format));
+            }
+        }
+        response.writeBytes("]}".getBytes(StandardCharsets.UTF_8));
+        return new Response(200, response.toByteArray());
+    }
+
+    private static byte[] encode(Tensor result, Optional<String> format) {
         if (format.isPresent() && format.get().equalsIgnoreCase("long")) {
-            return new Response(200, JsonFormat.encode(result));
+            return JsonFormat.encode(result);
         }
         else if (format.isPresent() && format.get().equalsIgnoreCase("string")) {
-            return new Response(200, result.toString().getBytes(StandardCharsets.UTF_8));
+            return result.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return JsonFormat.encodeShortForm(result);
+    }
+
+    private static Slime readRequestBody(HttpRequest request) {
+        if (request.getData() == null)
+            throw new IllegalArgumentException("A batch evaluation request must have a body");
+        try {
+            return SlimeUtils.jsonToSlimeOrThrow(request.getData().readAllBytes());
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Could not parse the request body", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return new Response(200, JsonFormat.encodeShortForm(result));
     }
 
     private HttpResponse listAllModels(HttpRequest request) {
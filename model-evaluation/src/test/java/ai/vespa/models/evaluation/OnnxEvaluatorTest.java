@@ -14,6 +14,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
@@ -51,6 +52,31 @@ public class OnnxEvaluatorTest {
         assertEquals(function.evaluate(), Tensor.from("tensor<float>(d0[2],d1[1]):[0.63931,0.67574]"));
     }
 
+    @Test
+    public void testOnnxBatchEvaluation() {
+        assumeTrue(OnnxEvaluator.isRuntimeAvailable());
+        ModelsEvaluator models = createModels();
+
+        // Dynamic batch dimension: Evaluated once for all rows
+        BatchFunctionEvaluator batch = models.batchEvaluatorOf("one_layer");
+        batch.addRow().bind("input", Tensor.from("tensor<float>(d0[2],d1[3]):[[0.1, 0.2, 0.3],[0.4,0.5,0.6]]"));
+        batch.addRow().bind("input", Tensor.from("tensor<float>(d0[1],d1[3]):[[0.4,0.5,0.6]]"));
+        List<Tensor> results = batch.evaluate();
+        assertEquals(2, results.size());
+        assertEquals(Tensor.from("tensor<float>(d0[2],d1[1]):[0.63931,0.67574]"), results.get(0));
+        assertEquals(Tensor.from("tensor<float>(d0[1],d1[1]):[0.67574]"), results.get(1));
+
+        // Fixed batch dimension: Evaluated row by row
+        batch = models.batchEvaluatorOf("add_mul", "output1");
+        batch.addRow().bind("input1", Tensor.from("tensor<float>(d0[1]):[2]"))
+                      .bind("input2", Tensor.from("tensor<float>(d0[1]):[3]"));
+        batch.addRow().bind("input1", Tensor.from("tensor<float>(d0[1]):[4]"))
+                      .bind("input2", Tensor.from("tensor<float>(d0[1]):[5]"));
+        results = batch.evaluate();
+        assertEquals(6.0, results.get(0).sum().asDouble(), delta);
+        assertEquals(20.0, results.get(1).sum().asDouble(), delta);
+    }
+
     @SuppressWarnings("deprecation")
     private ModelsEvaluator createModels() {
         RankProfilesConfig config = ConfigGetter.getConfig(RankProfilesConfig.class, fileConfigId("rank-profiles.cfg"));
@@ -7,6 +7,7 @@ import com.yahoo.container.jdisc.HttpResponse;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.serialization.JsonFormat;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -56,6 +57,12 @@ class HandlerTester {
         assertResponse(getRequest, expectedCode, expectedResult);
     }
 
+    void assertPostResponse(String url, String body, int expectedCode, String expectedResult) {
+        HttpRequest postRequest = HttpRequest.createTestRequest(url, com.yahoo.jdisc.http.HttpRequest.Method.POST,
+                                                                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        assertResponse(postRequest, expectedCode, expectedResult);
+    }
+
     void assertResponse(HttpRequest request, int expectedCode, String expectedResult) {
         HttpResponse response = handler.handle(request);
         assertEquals("application/json", response.getContentType());
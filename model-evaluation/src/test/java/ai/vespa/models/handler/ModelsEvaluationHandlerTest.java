@@ -97,6 +97,27 @@ public class ModelsEvaluationHandlerTest {
         handler.assertResponse(url, properties, 200, expected);
     }
 
+    @Test
+    public void testXgBoostBatchEvaluation() {
+        String url = "http://localhost/model-evaluation/v1/xgboost_2_2/batch-eval";
+        String body = "{\"rows\":[" +
+                      "{\"f29\":-1.0,\"f56\":0.2,\"f60\":0.3,\"f109\":0.4,\"non-existing-binding\":-1}," +
+                      "{}" +
+                      "]}";
+        String expected = "{\"results\":[" +
+                          "{\"type\":\"tensor()\",\"values\":[-7.936679999999999]}," +
+                          "{\"type\":\"tensor()\",\"values\":[-4.376589999999999]}" +
+                          "]}";
+        handler.assertPostResponse(url, body, 200, expected);
+    }
+
+    @Test
+    public void testBatchEvaluationWithoutRows() {
+        String url = "http://localhost/model-evaluation/v1/xgboost_2_2/batch-eval";
+        String expected = "{\"error\":\"A batch evaluation request must contain an array of 'rows'\"}";
+        handler.assertPostResponse(url, "{}", 404, expected);
+    }
+
     @Test
     public void testLightGBMEvaluationWithoutBindings() {
         String url = "http://localhost/model-evaluation/v1/lightgbm_regression/eval";
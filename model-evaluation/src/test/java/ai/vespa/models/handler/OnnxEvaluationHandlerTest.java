@@ -117,6 +117,20 @@ public class OnnxEvaluationHandlerTest {
         handler.assertResponse(url, properties, 200, expected);
     }
 
+    @Test
+    public void testBatchEvaluation() {
+        String url = "http://localhost/model-evaluation/v1/one_layer/batch-eval";
+        String body = "{\"rows\":[" +
+                      "{\"input\":\"tensor<float>(d0[1],d1[3]):[[0.1, 0.2, 0.3]]\"}," +
+                      "{\"input\":\"tensor<float>(d0[1],d1[3]):[[0.4, 0.5, 0.6]]\"}" +
+                      "]}";
+        String expected = "{\"results\":[" +
+                          "\"tensor<float>(d0[1],d1[1]):[[0.6393113]]\"," +
+                          "\"tensor<float>(d0[1],d1[1]):[[0.67574286]]\"" +
+                          "]}";
+        handler.assertPostResponse(url + "?format.tensors=string", body, 200, expected);
+    }
+
     @SuppressWarnings("deprecation")
     static private ModelsEvaluator createModels() {
         RankProfilesConfig config = ConfigGetter.getConfig(RankProfilesConfig.class, fileConfigId("rank-profiles.cfg"));
@@ -0,0 +1,69 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+
+package ai.vespa.modelintegration.evaluator;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * A pool of direct buffers for the inputs of an ONNX session. ONNX Runtime uses direct buffers
+ * as tensor memory as-is, so a buffer can be reused as soon as the tensor created from it is closed.
+ * This is thread-safe.
+ *
+ * @author agent
+ */
+class InputBufferPool {
+
+    private static final int minBufferSize = 1024;
+
+    private final int maxPooledBuffers;
+    private final Deque<ByteBuffer> buffers = new ArrayDeque<>();
+
+    InputBufferPool(int maxPooledBuffers) {
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /** Returns a cleared, native order, direct buffer with at least the given capacity, and the given limit */
+    ByteBuffer acquire(int size) {
+        ByteBuffer buffer = poll(size);
+        if (buffer == null)
+            buffer = ByteBuffer.allocateDirect(capacityFor(size)).order(ByteOrder.nativeOrder());
+        buffer.clear().limit(size);
+        return buffer;
+    }
+
+    /** Returns the given buffers to this pool. The buffers must not be used by the caller after this */
+    void release(Collection<ByteBuffer> released) {
+        synchronized (buffers) {
+            for (ByteBuffer buffer : released) {
+                if (buffers.size() >= maxPooledBuffers) return;
+                buffers.push(buffer);
+            }
+        }
+    }
+
+    private ByteBuffer poll(int size) {
+        synchronized (buffers) {
+            for (Iterator<ByteBuffer> i = buffers.iterator(); i.hasNext(); ) {
+                ByteBuffer buffer = i.next();
+                if (buffer.capacity() >= size) {
+                    i.remove();
+                    return buffer;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Rounds up to a power of two, so buffers may be reused for inputs with slightly different sizes */
+    private static int capacityFor(int size) {
+        if (size <= minBufferSize) return minBufferSize;
+        int capacity = Integer.highestOneBit(size - 1) << 1;
+        return capacity > 0 ? capacity : size;
+    }
+
+}
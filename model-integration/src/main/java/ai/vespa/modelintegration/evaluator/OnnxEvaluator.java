@@ -10,8 +10,11 @@ import ai.onnxruntime.OrtSession;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorType;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -24,6 +27,7 @@ public class OnnxEvaluator {
 
     private final OrtEnvironment environment;
     private final OrtSession session;
+    private final InputBufferPool inputBuffers = new InputBufferPool(64);
 
     public OnnxEvaluator(String modelPath) {
         this(modelPath, null);
@@ -43,8 +47,9 @@ public class OnnxEvaluator {
 
     public Tensor evaluate(Map<String, Tensor> inputs, String output) {
         Map<String, OnnxTensor> onnxInputs = null;
+        List<ByteBuffer> buffers = new ArrayList<>(inputs.size());
         try {
-            onnxInputs = TensorConverter.toOnnxTensors(inputs, environment, session);
+            onnxInputs = TensorConverter.toOnnxTensors(inputs, environment, session, inputBuffers, buffers);
             try (OrtSession.Result result = session.run(onnxInputs, Collections.singleton(output))) {
                 return TensorConverter.toVespaTensor(result.get(0));
             }
@@ -54,13 +59,15 @@ public class OnnxEvaluator {
             if (onnxInputs != null) {
                 onnxInputs.values().forEach(OnnxTensor::close);
             }
+            inputBuffers.release(buffers);
         }
     }
 
     public Map<String, Tensor> evaluate(Map<String, Tensor> inputs) {
         Map<String, OnnxTensor> onnxInputs = null;
+        List<ByteBuffer> buffers = new ArrayList<>(inputs.size());
         try {
-            onnxInputs = TensorConverter.toOnnxTensors(inputs, environment, session);
+            onnxInputs = TensorConverter.toOnnxTensors(inputs, environment, session, inputBuffers, buffers);
             Map<String, Tensor> outputs = new HashMap<>();
             try (OrtSession.Result result = session.run(onnxInputs)) {
                 for (Map.Entry<String, OnnxValue> output : result) {
@@ -74,6 +81,7 @@ public class OnnxEvaluator {
             if (onnxInputs != null) {
                 onnxInputs.values().forEach(OnnxTensor::close);
             }
+            inputBuffers.release(buffers);
         }
     }
 
@@ -18,12 +18,12 @@ import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorType;
 
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.LongBuffer;
 import java.nio.ShortBuffer;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -35,7 +35,13 @@ import java.util.stream.Collectors;
  */
 class TensorConverter {
 
-    static Map<String, OnnxTensor> toOnnxTensors(Map<String, Tensor> tensorMap, OrtEnvironment env, OrtSession session)
+    /**
+     * Converts the given tensors to ONNX tensors backed by buffers from the given pool.
+     * The buffers used are added to the given collection, and must be released to the pool
+     * after the returned tensors are closed.
+     */
+    static Map<String, OnnxTensor> toOnnxTensors(Map<String, Tensor> tensorMap, OrtEnvironment env, OrtSession session,
+                                                 InputBufferPool pool, Collection<ByteBuffer> acquired)
         throws OrtException
     {
         Map<String, OnnxTensor> result = new HashMap<>();
@@ -43,13 +49,19 @@ class TensorConverter {
             Tensor vespaTensor = tensorMap.get(name);
             name = toOnnxName(name, session.getInputInfo().keySet());
             TensorInfo onnxTensorInfo = toTensorInfo(session.getInputInfo().get(name).getInfo());
-            OnnxTensor onnxTensor = toOnnxTensor(vespaTensor, onnxTensorInfo, env);
+            ByteBuffer buffer = pool.acquire((int)vespaTensor.size() * onnxTensorInfo.type.size);
+            acquired.add(buffer);
+            OnnxTensor onnxTensor = toOnnxTensor(vespaTensor, onnxTensorInfo, env, buffer);
             result.put(name, onnxTensor);
         }
         return result;
     }
 
-    static OnnxTensor toOnnxTensor(Tensor vespaTensor, TensorInfo onnxTensorInfo, OrtEnvironment environment)
+    /**
+     * Converts the given tensor to an ONNX tensor using the given direct buffer, which must have
+     * the tensor's size in bytes remaining, as its memory.
+     */
+    static OnnxTensor toOnnxTensor(Tensor vespaTensor, TensorInfo onnxTensorInfo, OrtEnvironment environment, ByteBuffer buffer)
         throws OrtException
     {
         if ( ! (vespaTensor instanceof IndexedTensor)) {
@@ -57,36 +69,39 @@ class TensorConverter {
         }
         IndexedTensor tensor = (IndexedTensor) vespaTensor;
 
-        ByteBuffer buffer = ByteBuffer.allocateDirect((int)tensor.size() * onnxTensorInfo.type.size).order(ByteOrder.nativeOrder());
         if (onnxTensorInfo.type == OnnxJavaType.FLOAT) {
-            for (int i = 0; i < tensor.size(); i++)
-                buffer.putFloat(tensor.getFloat(i));
-            return OnnxTensor.createTensor(environment, buffer.rewind().asFloatBuffer(), tensor.shape());
+            FloatBuffer floats = buffer.asFloatBuffer();
+            tensor.copyTo(floats);
+            return OnnxTensor.createTensor(environment, floats.rewind(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.DOUBLE) {
-            for (int i = 0; i < tensor.size(); i++)
-                buffer.putDouble(tensor.get(i));
-            return OnnxTensor.createTensor(environment, buffer.rewind().asDoubleBuffer(), tensor.shape());
+            DoubleBuffer doubles = buffer.asDoubleBuffer();
+            tensor.copyTo(doubles);
+            return OnnxTensor.createTensor(environment, doubles.rewind(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.INT8) {
+            ByteBuffer bytes = buffer.slice();
             for (int i = 0; i < tensor.size(); i++)
-                buffer.put((byte) tensor.get(i));
-            return OnnxTensor.createTensor(environment, buffer.rewind(), tensor.shape());
+                bytes.put((byte) tensor.get(i));
+            return OnnxTensor.createTensor(environment, bytes.rewind(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.INT16) {
+            ShortBuffer shorts = buffer.asShortBuffer();
             for (int i = 0; i < tensor.size(); i++)
-                buffer.putShort((short) tensor.get(i));
-            return OnnxTensor.createTensor(environment, buffer.rewind().asShortBuffer(), tensor.shape());
+                shorts.put((short) tensor.get(i));
+            return OnnxTensor.createTensor(environment, shorts.rewind(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.INT32) {
+            IntBuffer ints = buffer.asIntBuffer();
             for (int i = 0; i < tensor.size(); i++)
-                buffer.putInt((int) tensor.get(i));
-            return OnnxTensor.createTensor(environment, buffer.rewind().asIntBuffer(), tensor.shape());
+                ints.put((int) tensor.get(i));
+            return OnnxTensor.createTensor(environment, ints.rewind(), tensor.shape());
         }
         if (onnxTensorInfo.type == OnnxJavaType.INT64) {
+            LongBuffer longs = buffer.asLongBuffer();
             for (int i = 0; i < tensor.size(); i++)
-                buffer.putLong((long) tensor.get(i));
-            return OnnxTensor.createTensor(environment, buffer.rewind().asLongBuffer(), tensor.shape());
+                longs.put((long) tensor.get(i));
+            return OnnxTensor.createTensor(environment, longs.rewind(), tensor.shape());
         }
         throw new IllegalArgumentException("OnnxEvaluator does not currently support value type " + onnxTensorInfo.type);
     }
@@ -101,6 +116,12 @@ class TensorConverter {
         TensorType type = toVespaType(onnxTensor.getInfo());
         DimensionSizes sizes = sizesFromType(type);
 
+        // The float and double buffers returned are copies owned by us, which can be wrapped as-is
+        if (tensorInfo.type == OnnxJavaType.FLOAT && type.valueType() == TensorType.Value.FLOAT)
+            return IndexedTensor.wrap(type, sizes, onnxTensor.getFloatBuffer());
+        if (tensorInfo.type == OnnxJavaType.DOUBLE && type.valueType() == TensorType.Value.DOUBLE)
+            return IndexedTensor.wrap(type, sizes, onnxTensor.getDoubleBuffer());
+
         IndexedTensor.BoundBuilder builder = (IndexedTensor.BoundBuilder) Tensor.Builder.of(type, sizes);
         if (tensorInfo.type == OnnxJavaType.FLOAT) {
             FloatBuffer buffer = onnxTensor.getFloatBuffer();
@@ -6,14 +6,19 @@ import com.yahoo.document.predicate.Predicate;
 import com.yahoo.search.predicate.index.*;
 import com.yahoo.search.predicate.index.conjunction.ConjunctionHit;
 import com.yahoo.search.predicate.index.conjunction.ConjunctionIndex;
+import com.yahoo.search.predicate.serialization.PageAlignedFileReader;
+import com.yahoo.search.predicate.serialization.PageAlignedFileWriter;
 import com.yahoo.search.predicate.serialization.SerializationHelper;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
 import java.util.stream.Stream;
 
 /**
@@ -31,6 +36,10 @@ import java.util.stream.Stream;
  * </p><p>
  * Note that the {@link PredicateIndex} is thread-safe, but a {@link Searcher} is not.
  * Each thread <strong>must</strong> use its own searcher.
+ * </p><p>
+ * An index may be written to a file with {@link #writeToFile(Path)}, and used directly from a memory mapping
+ * of this file with {@link #fromMappedFile(Path)}. Only the data which is proportional to the number of
+ * documents, and the conjunction index, are then read to the heap.
  * </p>
  * @author Magnar Nedland
  * @author bjorncs
@@ -39,6 +48,8 @@ import java.util.stream.Stream;
 public class PredicateIndex {
 
     private static final int SERIALIZATION_FORMAT_VERSION = 3;
+    private static final int MAPPED_FORMAT_MAGIC = 0x50726564; // "Pred"
+    private static final int MAPPED_FORMAT_VERSION = 1;
 
     private final PredicateRangeTermExpander expander;
     private final int[] internalToExternalIdMapping;
@@ -50,7 +61,7 @@ public class PredicateIndex {
     private final SimpleIndex conjunctionIntervalIndex;
     private final PredicateIntervalStore intervalStore;
     private final ConjunctionIndex conjunctionIndex;
-    private final int[] zeroConstraintDocuments;
+    private final IntBuffer zeroConstraintDocuments;
     private final Config config;
     private final AtomicReference<CachedPostingListCounter> postingListCounter;
 
@@ -70,6 +81,22 @@ public class PredicateIndex {
             PredicateIntervalStore intervalStore,
             ConjunctionIndex conjunctionIndex,
             int[] zeroConstraintDocuments) {
+        this(config, internalToExternalIdMapping, minFeatureIndex, intervalEnds, highestIntervalEnd, intervalIndex,
+             boundsIndex, conjunctionIntervalIndex, intervalStore, conjunctionIndex, IntBuffer.wrap(zeroConstraintDocuments));
+    }
+
+    private PredicateIndex(
+            Config config,
+            int[] internalToExternalIdMapping,
+            byte[] minFeatureIndex,
+            short[] intervalEnds,
+            int highestIntervalEnd,
+            SimpleIndex intervalIndex,
+            SimpleIndex boundsIndex,
+            SimpleIndex conjunctionIntervalIndex,
+            PredicateIntervalStore intervalStore,
+            ConjunctionIndex conjunctionIndex,
+            IntBuffer zeroConstraintDocuments) {
         this.internalToExternalIdMapping = internalToExternalIdMapping;
         this.minFeatureIndex = minFeatureIndex;
         this.intervalEnds = intervalEnds;
@@ -103,7 +130,7 @@ public class PredicateIndex {
         SerializationHelper.writeByteArray(minFeatureIndex, out);
         SerializationHelper.writeShortArray(intervalEnds, out);
         out.writeInt(highestIntervalEnd);
-        SerializationHelper.writeIntArray(zeroConstraintDocuments, out);
+        SerializationHelper.writeIntBuffer(zeroConstraintDocuments, out);
         intervalIndex.writeToOutputStream(out);
         boundsIndex.writeToOutputStream(out);
         conjunctionIntervalIndex.writeToOutputStream(out);
@@ -143,6 +170,73 @@ public class PredicateIndex {
         );
     }
 
+    /**
+     * Writes this to a file in a page aligned format, which can be used directly from a memory mapping,
+     * see {@link #fromMappedFile(Path)}.
+     */
+    public void writeToFile(Path file) throws IOException {
+        try (PageAlignedFileWriter writer = new PageAlignedFileWriter(file)) {
+            DataOutputStream header = writer.header();
+            header.writeInt(MAPPED_FORMAT_MAGIC);
+            header.writeInt(MAPPED_FORMAT_VERSION);
+            config.writeToOutputStream(header);
+            header.writeInt(highestIntervalEnd);
+            writer.writeSection(internalToExternalIdMapping);
+            writer.writeSection(minFeatureIndex);
+            writer.writeSection(intervalEnds);
+            writer.writeSection(zeroConstraintDocuments);
+            intervalIndex.writeSections(writer);
+            boundsIndex.writeSections(writer);
+            conjunctionIntervalIndex.writeSections(writer);
+            intervalStore.writeSections(writer);
+            writer.writeSection(conjunctionIndex::writeToOutputStream);
+        }
+    }
+
+    /**
+     * Returns an index using a memory mapping of a file written by {@link #writeToFile(Path)}.
+     * The posting lists and intervals are read from the mapping as they are used,
+     * so the file must not be changed while the returned index is in use.
+     */
+    public static PredicateIndex fromMappedFile(Path file) throws IOException {
+        try (PageAlignedFileReader reader = new PageAlignedFileReader(file)) {
+            DataInputStream header = reader.header();
+            int magic = header.readInt();
+            if (magic != MAPPED_FORMAT_MAGIC) {
+                throw new IllegalArgumentException("'" + file + "' is not a predicate index file");
+            }
+            int version = header.readInt();
+            if (version != MAPPED_FORMAT_VERSION) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid mapped format version. Expected %d, was %d.", MAPPED_FORMAT_VERSION, version));
+            }
+            Config config = Config.fromInputStream(header);
+            int highestIntervalEnd = header.readInt();
+            int[] internalToExternalIdMapping = reader.nextIntArraySection();
+            byte[] minFeatureIndex = reader.nextByteArraySection();
+            short[] intervalEnds = reader.nextShortArraySection();
+            IntBuffer zeroConstraintDocuments = reader.nextIntSection();
+            SimpleIndex intervalIndex = SimpleIndex.fromSections(reader);
+            SimpleIndex boundsIndex = SimpleIndex.fromSections(reader);
+            SimpleIndex conjunctionIntervalIndex = SimpleIndex.fromSections(reader);
+            PredicateIntervalStore intervalStore = PredicateIntervalStore.fromSections(reader);
+            ConjunctionIndex conjunctionIndex = ConjunctionIndex.fromInputStream(reader.nextStreamSection());
+            return new PredicateIndex(
+                    config,
+                    internalToExternalIdMapping,
+                    minFeatureIndex,
+                    intervalEnds,
+                    highestIntervalEnd,
+                    intervalIndex,
+                    boundsIndex,
+                    conjunctionIntervalIndex,
+                    intervalStore,
+                    conjunctionIndex,
+                    zeroConstraintDocuments
+            );
+        }
+    }
+
     @Beta
     public class Searcher {
         private final byte[] nPostingListsForDocument;
@@ -160,6 +254,15 @@ public class PredicateIndex {
          * @return A stream of hits.
          */
         public Stream<Hit> search(PredicateQuery query) {
+            return search(query, null);
+        }
+
+        /**
+         * Retrieves a stream of hits for the given query, skipping removed documents.
+         *
+         * @param removed tests whether a document, given by its internal id, is removed, or null if none are
+         */
+        Stream<Hit> search(PredicateQuery query, IntPredicate removed) {
             ArrayList<PostingList> postingLists = new ArrayList<>();
             for (PredicateQuery.Feature feature : query.getFeatures()) {
                 addIntervalPostingList(feature.featureHash, feature.subqueryBitmap, postingLists);
@@ -178,10 +281,13 @@ public class PredicateIndex {
             CachedPostingListCounter counter = postingListCounter.get();
             counter.registerUsage(postingLists);
             counter.countPostingListsPerDocument(postingLists, nPostingListsForDocument);
-            return new PredicateSearch(
-                    postingLists, nPostingListsForDocument, minFeatureIndex, intervalEnds, highestIntervalEnd).stream()
-                    // Map to external id. Note that internal id for first document is 1.
-                    .map(hit -> new Hit(internalToExternalIdMapping[hit.getDocId()], hit.getSubquery()));
+            Stream<Hit> hits = new PredicateSearch(
+                    postingLists, nPostingListsForDocument, minFeatureIndex, intervalEnds, highestIntervalEnd).stream();
+            if (removed != null) {
+                hits = hits.filter(hit -> ! removed.test(hit.getDocId()));
+            }
+            // Map to external id. Note that internal id for first document is 1.
+            return hits.map(hit -> new Hit(internalToExternalIdMapping[hit.getDocId()], hit.getSubquery()));
         }
 
         private void addCompressedZStarPostingList(List<PostingList> postingLists) {
@@ -217,7 +323,7 @@ public class PredicateIndex {
         }
 
         private void addZeroConstraintPostingList(ArrayList<PostingList> postingLists) {
-            if (zeroConstraintDocuments.length > 0) {
+            if (zeroConstraintDocuments.limit() > 0) {
                 postingLists.add(new ZeroConstraintPostingList(zeroConstraintDocuments));
             }
         }
@@ -0,0 +1,348 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.predicate;
+
+import com.yahoo.api.annotations.Beta;
+import com.yahoo.document.predicate.BooleanPredicate;
+import com.yahoo.document.predicate.Predicate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * An index of {@link Predicate} objects which, unlike {@link PredicateIndex}, can be updated after it is created.
+ * <p>
+ * The index consists of a list of immutable segments, each of which is a {@link PredicateIndex}.
+ * Documents which are added or removed with {@link #indexDocument(int, Predicate)} and {@link #removeDocument(int)}
+ * are buffered until {@link #commit()} is called, or the buffer is full. The buffered documents are then built
+ * into a new, small segment, and earlier versions of these documents are marked as removed in a tombstone bitmap
+ * of the segment holding them. Segments are merged in the background, dropping removed documents,
+ * to keep the number of segments low.
+ * </p><p>
+ * This supports a single writer and concurrent readers: The methods changing the index must not be called
+ * concurrently, while searches may run concurrently with these. As with {@link PredicateIndex},
+ * a {@link Searcher} is not thread-safe, and each thread <strong>must</strong> use its own searcher.
+ * A search running concurrently with a commit may return both the old and new version of a document updated
+ * by that commit.
+ * </p>
+ *
+ * @author agent
+ */
+@Beta
+public class UpdatablePredicateIndex implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_BUFFERED_DOCUMENTS = 10_000;
+    private static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    private final Config config;
+    private final int maxBufferedDocuments;
+    private final int maxSegments;
+    private final Executor mergeExecutor;
+    private final ExecutorService ownedMergeExecutor;
+
+    /** Documents added or removed since the last commit, in order. Removed documents have a null predicate. */
+    private final Map<Integer, Predicate> buffered = new LinkedHashMap<>();
+    /** The segment holding the current version of each document. Guarded by this. */
+    private final Map<Integer, Segment> locations = new HashMap<>();
+    /** Whether a merge is running. Guarded by this. */
+    private boolean merging = false;
+
+    private volatile List<Segment> segments = List.of();
+
+    /**
+     * Creates an empty index which merges segments in a thread owned by this.
+     *
+     * @param config the configuration used to build each segment
+     */
+    public UpdatablePredicateIndex(Config config) {
+        this(config, DEFAULT_MAX_BUFFERED_DOCUMENTS, DEFAULT_MAX_SEGMENTS, null);
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param config               the configuration used to build each segment
+     * @param maxBufferedDocuments the number of changed documents which triggers a commit
+     * @param maxSegments          the number of segments which triggers a merge in the background
+     * @param mergeExecutor        the executor running merges, or null to use a thread owned by this
+     */
+    public UpdatablePredicateIndex(Config config, int maxBufferedDocuments, int maxSegments, Executor mergeExecutor) {
+        if (maxBufferedDocuments < 1)
+            throw new IllegalArgumentException("maxBufferedDocuments must be positive, was " + maxBufferedDocuments);
+        if (maxSegments < 1)
+            throw new IllegalArgumentException("maxSegments must be positive, was " + maxSegments);
+        this.config = config;
+        this.maxBufferedDocuments = maxBufferedDocuments;
+        this.maxSegments = maxSegments;
+        this.ownedMergeExecutor = mergeExecutor == null ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "predicate-index-merger");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.mergeExecutor = mergeExecutor == null ? ownedMergeExecutor : mergeExecutor;
+    }
+
+    /**
+     * Adds or replaces the predicate of a document. The change becomes visible to searches on the next commit.
+     *
+     * @param docId     a 32-bit document id, returned in the Hit objects when the predicate matches
+     * @param predicate the predicate to index
+     */
+    public void indexDocument(int docId, Predicate predicate) {
+        buffered.put(docId, predicate);
+        if (buffered.size() >= maxBufferedDocuments) {
+            commit();
+        }
+    }
+
+    /**
+     * Removes a document. This becomes visible to searches on the next commit.
+     *
+     * @param docId the id of the document to remove
+     */
+    public void removeDocument(int docId) {
+        buffered.put(docId, null);
+        if (buffered.size() >= maxBufferedDocuments) {
+            commit();
+        }
+    }
+
+    /** Makes all documents added or removed since the last commit visible to searches. */
+    public synchronized void commit() {
+        if (buffered.isEmpty()) return;
+
+        List<Integer> docIds = new ArrayList<>();
+        List<Predicate> predicates = new ArrayList<>();
+        for (Map.Entry<Integer, Predicate> document : buffered.entrySet()) {
+            if (document.getValue() != null && ! isNeverMatchingDocument(document.getValue())) {
+                docIds.add(document.getKey());
+                predicates.add(document.getValue());
+            }
+        }
+        if ( ! docIds.isEmpty()) {
+            Segment added = new Segment(config, docIds, predicates);
+            List<Segment> updated = new ArrayList<>(segments);
+            updated.add(added);
+            segments = List.copyOf(updated);
+            removeFromCurrentSegments(buffered.keySet());
+            for (int docId : docIds) {
+                locations.put(docId, added);
+            }
+        }
+        else {
+            removeFromCurrentSegments(buffered.keySet());
+        }
+        buffered.clear();
+        scheduleMerge();
+    }
+
+    private void removeFromCurrentSegments(Set<Integer> docIds) {
+        for (int docId : docIds) {
+            Segment segment = locations.remove(docId);
+            if (segment != null) {
+                segment.remove(docId);
+            }
+        }
+    }
+
+    /** Returns the number of documents visible to searches */
+    public int getDocumentCount() {
+        return segments.stream().mapToInt(Segment::liveCount).sum();
+    }
+
+    /** Returns the number of segments of this index */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /** See {@link PredicateIndex#rebuildPostingListCache()} */
+    public void rebuildPostingListCache() {
+        segments.forEach(segment -> segment.index.rebuildPostingListCache());
+    }
+
+    /**
+     * Create a new searcher.
+     */
+    public Searcher searcher() {
+        return new Searcher();
+    }
+
+    /** Stops merging segments, if merging is done in a thread owned by this */
+    @Override
+    public void close() {
+        if (ownedMergeExecutor != null) {
+            ownedMergeExecutor.shutdownNow();
+        }
+    }
+
+    private static boolean isNeverMatchingDocument(Predicate p) {
+        return p instanceof BooleanPredicate && !((BooleanPredicate) p).getValue();
+    }
+
+    /** Starts a merge in the background if one is needed and none is running. Must be called while holding this. */
+    private void scheduleMerge() {
+        if (merging) return;
+        List<Segment> toMerge = selectSegmentsToMerge(segments);
+        if (toMerge.isEmpty()) return;
+        merging = true;
+        try {
+            mergeExecutor.execute(() -> merge(toMerge));
+        } catch (RejectedExecutionException e) {
+            merging = false; // Shut down: Leave the segments as they are
+        }
+    }
+
+    /**
+     * Returns the segments to merge next: The smallest segments, if there are too many, and any segment
+     * where at least half the documents are removed.
+     */
+    private List<Segment> selectSegmentsToMerge(List<Segment> segments) {
+        List<Segment> selected = new ArrayList<>();
+        if (segments.size() > maxSegments) {
+            List<Segment> bySize = new ArrayList<>(segments);
+            bySize.sort(Comparator.comparingInt(Segment::liveCount));
+            selected.addAll(bySize.subList(0, Math.max(2, segments.size() - maxSegments + 1)));
+        }
+        for (Segment segment : segments) {
+            if (segment.removedCount() * 2 >= segment.size() && ! selected.contains(segment)) {
+                selected.add(segment);
+            }
+        }
+        return selected;
+    }
+
+    /** Replaces the given segments by a single segment of the documents in them which are not removed */
+    private void merge(List<Segment> toMerge) {
+        try {
+            List<Integer> docIds = new ArrayList<>();
+            List<Predicate> predicates = new ArrayList<>();
+            for (Segment segment : toMerge) {
+                for (int internalId = 0; internalId < segment.size(); internalId++) {
+                    if ( ! segment.isRemoved(internalId)) {
+                        docIds.add(segment.docIds[internalId]);
+                        predicates.add(segment.predicates[internalId]);
+                    }
+                }
+            }
+            Segment merged = docIds.isEmpty() ? null : new Segment(config, docIds, predicates);
+            synchronized (this) {
+                Set<Segment> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+                replaced.addAll(toMerge);
+                if (merged != null) {
+                    // Move documents not changed while merging to the new segment, and remove the others from it
+                    for (int docId : docIds) {
+                        if (replaced.contains(locations.get(docId))) {
+                            locations.put(docId, merged);
+                        } else {
+                            merged.remove(docId);
+                        }
+                    }
+                }
+                List<Segment> updated = new ArrayList<>(segments.size());
+                if (merged != null) {
+                    updated.add(merged);
+                }
+                for (Segment segment : segments) {
+                    if ( ! replaced.contains(segment)) {
+                        updated.add(segment);
+                    }
+                }
+                segments = List.copyOf(updated);
+                merging = false;
+                scheduleMerge();
+            }
+        }
+        catch (RuntimeException e) {
+            synchronized (this) {
+                merging = false;
+            }
+            throw e;
+        }
+    }
+
+    /** An immutable predicate index, and a bitmap of the documents in it which are removed. */
+    private static class Segment {
+
+        private final PredicateIndex index;
+        /** The external id and predicate of each document, indexed by internal id */
+        private final int[] docIds;
+        private final Predicate[] predicates;
+        private final Map<Integer, Integer> internalIds;
+        private final AtomicLongArray removed;
+        private final AtomicInteger removedCount = new AtomicInteger();
+
+        Segment(Config config, List<Integer> docIds, List<Predicate> predicates) {
+            PredicateIndexBuilder builder = new PredicateIndexBuilder(config);
+            this.docIds = new int[docIds.size()];
+            this.predicates = predicates.toArray(new Predicate[0]);
+            this.internalIds = new HashMap<>(docIds.size() * 2);
+            for (int i = 0; i < docIds.size(); i++) {
+                // The builder assigns internal ids in insertion order to documents which may match
+                builder.indexDocument(docIds.get(i), predicates.get(i));
+                this.docIds[i] = docIds.get(i);
+                internalIds.put(docIds.get(i), i);
+            }
+            this.index = builder.build();
+            this.removed = new AtomicLongArray((docIds.size() + 63) >> 6);
+        }
+
+        int size() { return docIds.length; }
+
+        int removedCount() { return removedCount.get(); }
+
+        int liveCount() { return size() - removedCount(); }
+
+        boolean isRemoved(int internalId) {
+            return (removed.get(internalId >> 6) & (1L << internalId)) != 0;
+        }
+
+        void remove(int docId) {
+            Integer internalId = internalIds.get(docId);
+            if (internalId == null) return;
+            long bit = 1L << internalId;
+            long previous = removed.getAndAccumulate(internalId >> 6, bit, (word, mask) -> word | mask);
+            if ((previous & bit) == 0) {
+                removedCount.incrementAndGet();
+            }
+        }
+
+    }
+
+    @Beta
+    public class Searcher {
+
+        /** The searchers of the segments searched last */
+        private final Map<Segment, PredicateIndex.Searcher> searchers = new IdentityHashMap<>();
+
+        private Searcher() { }
+
+        /**
+         * Retrieves a stream of hits for the given query, from the documents visible at the time of the call.
+         *
+         * @param query Specifies the boolean variables that are true.
+         * @return A stream of hits.
+         */
+        public Stream<Hit> search(PredicateQuery query) {
+            List<Segment> current = segments;
+            searchers.keySet().retainAll(current);
+            return current.stream()
+                    .flatMap(segment -> searchers.computeIfAbsent(segment, s -> s.index.searcher())
+                                                 .search(query, segment::isRemoved));
+        }
+
+    }
+
+}
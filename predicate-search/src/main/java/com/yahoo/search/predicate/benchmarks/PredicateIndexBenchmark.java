@@ -4,10 +4,13 @@ package com.yahoo.search.predicate.benchmarks;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.collect.Iterators;
+import com.yahoo.document.predicate.Predicate;
 import com.yahoo.search.predicate.Config;
+import com.yahoo.search.predicate.Hit;
 import com.yahoo.search.predicate.PredicateIndex;
 import com.yahoo.search.predicate.PredicateIndexBuilder;
 import com.yahoo.search.predicate.PredicateQuery;
+import com.yahoo.search.predicate.UpdatablePredicateIndex;
 import com.yahoo.search.predicate.serialization.PredicateQuerySerializer;
 import com.yahoo.search.predicate.utils.VespaFeedParser;
 import com.yahoo.search.predicate.utils.VespaQueryParser;
@@ -24,6 +27,7 @@ import java.io.DataOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -40,6 +44,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static com.yahoo.search.predicate.benchmarks.PredicateIndexBenchmark.BenchmarkArguments.Algorithm;
 import static com.yahoo.search.predicate.benchmarks.PredicateIndexBenchmark.BenchmarkArguments.Format;
@@ -66,12 +73,16 @@ public class PredicateIndexBenchmark {
                 .setArity(args.arity)
                 .setUseConjunctionAlgorithm(args.algorithm == Algorithm.CONJUNCTION)
                 .build();
-        PredicateIndex index = getIndex(args, config);
-        if (args.indexOutputFile != null) {
-            writeIndexToFile(index, args.indexOutputFile);
-        }
-        if (args.queryFile != null) {
-            runQueries(args, index);
+        if (args.updates) {
+            runUpdates(args, config);
+        } else {
+            PredicateIndex index = getIndex(args, config);
+            if (args.indexOutputFile != null) {
+                writeIndexToFile(index, args.indexOutputFile, args.mapped);
+            }
+            if (args.queryFile != null) {
+                runQueries(args, index::rebuildPostingListCache, () -> index.searcher()::search);
+            }
         }
         output.put("Total time", System.currentTimeMillis() - start);
         output.put("Timestamp", new Date().toString());
@@ -87,6 +98,10 @@ public class PredicateIndexBenchmark {
             System.err.println("Provide either a feed file or index file.");
             return Optional.empty();
         }
+        if (args.updates && args.feedFile == null) {
+            System.err.println("Provide a feed file to measure updates.");
+            return Optional.empty();
+        }
         return Optional.of(args);
     }
 
@@ -105,6 +120,11 @@ public class PredicateIndexBenchmark {
             PredicateIndex index = builder.build();
             output.put("Time prepare index", System.currentTimeMillis() - start);
             return index;
+        } else if (args.mapped) {
+            long start = System.currentTimeMillis();
+            PredicateIndex index = PredicateIndex.fromMappedFile(Paths.get(args.indexFile));
+            output.put("Time map index", System.currentTimeMillis() - start);
+            return index;
         } else {
             try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(args.indexFile)))) {
                 long start = System.currentTimeMillis();
@@ -115,7 +135,52 @@ public class PredicateIndexBenchmark {
         }
     }
 
-    private static void writeIndexToFile(PredicateIndex index, String indexOutputFile) throws IOException {
+    /**
+     * Feeds the documents to an updatable index, and then replaces random documents by other documents
+     * from the feed for the given runtime, while running queries if a query file is given.
+     */
+    private static void runUpdates(BenchmarkArguments args, Config config) throws IOException {
+        List<Predicate> predicates = new ArrayList<>();
+        VespaFeedParser.parseDocuments(args.feedFile, args.maxDocuments, predicates::add);
+        output.put("Indexed document count", predicates.size());
+
+        try (UpdatablePredicateIndex index = new UpdatablePredicateIndex(config)) {
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < predicates.size(); i++) {
+                index.indexDocument(i, predicates.get(i));
+            }
+            index.commit();
+            output.put("Time indexing documents", System.currentTimeMillis() - start);
+
+            Updater updater = new Updater(index, predicates);
+            Thread updaterThread = new Thread(updater, "updater");
+            start = System.currentTimeMillis();
+            updaterThread.start();
+            if (args.queryFile != null) {
+                runQueries(args, index::rebuildPostingListCache, () -> index.searcher()::search);
+            } else {
+                sleep(args.runtime);
+            }
+            updaterThread.interrupt();
+            try {
+                updaterThread.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            long updateTime = System.currentTimeMillis() - start;
+            output.put("Updates", updater.updates);
+            output.put("Updates per second", updater.updates * 1000d / updateTime);
+            output.put("Segment count", index.getSegmentCount());
+        }
+    }
+
+    private static void writeIndexToFile(PredicateIndex index, String indexOutputFile, boolean mapped) throws IOException {
+        if (mapped) {
+            long start = System.currentTimeMillis();
+            index.writeToFile(Paths.get(indexOutputFile));
+            output.put("Time write index", System.currentTimeMillis() - start);
+            return;
+        }
         try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexOutputFile)))) {
             long start = System.currentTimeMillis();
             index.writeToOutputStream(out);
@@ -136,21 +201,24 @@ public class PredicateIndexBenchmark {
         output.put("Index file", args.indexFile);
         output.put("Query format", args.format);
         output.put("Warmup", args.warmup);
+        output.put("Measure updates", args.updates);
+        output.put("Mapped index file", args.mapped);
     }
 
-    private static void runQueries(BenchmarkArguments args, PredicateIndex index) throws IOException {
+    private static void runQueries(BenchmarkArguments args, Runnable postingListCacheRebuilder,
+                                   Supplier<Function<PredicateQuery, Stream<Hit>>> searchers) throws IOException {
         List<PredicateQuery> queries = parseQueries(args.queryFile, args.maxQueries, args.format);
-        long warmup1 = warmup(queries, index, args.nThreads, args.warmup / 2);
+        long warmup1 = warmup(queries, searchers, args.nThreads, args.warmup / 2);
         output.put("Time warmup before building posting cache", warmup1);
-        rebuildPostingListCache(index);
-        long warmup2 = warmup(queries, index, args.nThreads, args.warmup / 2);
+        rebuildPostingListCache(postingListCacheRebuilder);
+        long warmup2 = warmup(queries, searchers, args.nThreads, args.warmup / 2);
         output.put("Time warmup after building posting cache", warmup2);
-        searchIndex(queries, index, args.nThreads, args.runtime);
+        searchIndex(queries, searchers, args.nThreads, args.runtime);
     }
 
-    private static void rebuildPostingListCache(PredicateIndex index) {
+    private static void rebuildPostingListCache(Runnable postingListCacheRebuilder) {
         long start = System.currentTimeMillis();
-        index.rebuildPostingListCache();
+        postingListCacheRebuilder.run();
         output.put("Time rebuild posting list cache", System.currentTimeMillis() - start);
     }
 
@@ -164,27 +232,29 @@ public class PredicateIndexBenchmark {
         return queries;
     }
 
-    private static long warmup(List<PredicateQuery> queries, PredicateIndex index, int nThreads, int warmup) {
+    private static long warmup(List<PredicateQuery> queries, Supplier<Function<PredicateQuery, Stream<Hit>>> searchers,
+                               int nThreads, int warmup) {
         ExecutorService executor = Executors.newFixedThreadPool(nThreads);
         Random random = new Random(42);
         for (int i = 0; i < nThreads; i++) {
             List<PredicateQuery> shuffledQueries = new ArrayList<>(queries);
             Collections.shuffle(shuffledQueries, random);
-            executor.submit(new QueryRunner(shuffledQueries, index.searcher()));
+            executor.submit(new QueryRunner(shuffledQueries, searchers.get()));
         }
         long start = System.currentTimeMillis();
         waitAndShutdown(warmup, executor);
         return System.currentTimeMillis() - start;
     }
 
-    private static void searchIndex(List<PredicateQuery> queries, PredicateIndex index, int nThreads, int runtime) {
+    private static void searchIndex(List<PredicateQuery> queries, Supplier<Function<PredicateQuery, Stream<Hit>>> searchers,
+                                    int nThreads, int runtime) {
         ExecutorService executor = Executors.newFixedThreadPool(nThreads);
         Random random = new Random(42);
         List<QueryRunner> runners = new ArrayList<>();
         for (int i = 0; i < nThreads; i++) {
             List<PredicateQuery> shuffledQueries = new ArrayList<>(queries);
             Collections.shuffle(shuffledQueries, random);
-            runners.add(new QueryRunner(shuffledQueries, index.searcher()));
+            runners.add(new QueryRunner(shuffledQueries, searchers.get()));
         }
         long start = System.currentTimeMillis();
         List<Future<ResultMetrics>> futureResults = runners.stream().map(executor::submit).collect(toList());
@@ -203,6 +273,14 @@ public class PredicateIndexBenchmark {
         }
     }
 
+    private static void sleep(int seconds) {
+        try {
+            Thread.sleep(seconds * 1000);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private static ResultMetrics getResult(List<Future<ResultMetrics>> futureResults) {
         try {
             ResultMetrics combined = futureResults.get(0).get();
@@ -217,9 +295,9 @@ public class PredicateIndexBenchmark {
 
     private static class QueryRunner implements Callable<ResultMetrics> {
         private final List<PredicateQuery> queries;
-        private final PredicateIndex.Searcher searcher;
+        private final Function<PredicateQuery, Stream<Hit>> searcher;
 
-        public QueryRunner(List<PredicateQuery> queries, PredicateIndex.Searcher seacher) {
+        public QueryRunner(List<PredicateQuery> queries, Function<PredicateQuery, Stream<Hit>> seacher) {
             this.queries = queries;
             this.searcher = seacher;
         }
@@ -230,7 +308,7 @@ public class PredicateIndexBenchmark {
             ResultMetrics result = new ResultMetrics();
             while (!Thread.interrupted()) {
                 long start = System.nanoTime();
-                long hits = searcher.search(iterator.next()).count();
+                long hits = searcher.apply(iterator.next()).count();
                 double latencyMilliseconds = (System.nanoTime() - start) / 1_000_000d;
                 result.registerResult(hits, latencyMilliseconds);
             }
@@ -238,6 +316,33 @@ public class PredicateIndexBenchmark {
         }
     }
 
+    /** Replaces random documents in the index by other documents until interrupted, committing every 1000 updates */
+    private static class Updater implements Runnable {
+        private final UpdatablePredicateIndex index;
+        private final List<Predicate> predicates;
+        private volatile long updates = 0;
+
+        public Updater(UpdatablePredicateIndex index, List<Predicate> predicates) {
+            this.index = index;
+            this.predicates = predicates;
+        }
+
+        @Override
+        public void run() {
+            Random random = new Random(42);
+            long count = 0;
+            while (!Thread.interrupted()) {
+                index.indexDocument(random.nextInt(predicates.size()), predicates.get(random.nextInt(predicates.size())));
+                if (++count % 1000 == 0) {
+                    index.commit();
+                    updates = count;
+                }
+            }
+            index.commit();
+            updates = count;
+        }
+    }
+
     private static void writeOutputToStandardOut() {
         try {
             ObjectMapper objectMapper = new ObjectMapper();
@@ -291,6 +396,14 @@ public class PredicateIndexBenchmark {
         @Option(name = {"-quf", "--query-file"}, description = "File path to a query file")
         public String queryFile;
 
+        @Option(name = {"-u", "--updates"},
+                description = "Use an updatable index, and measure update throughput while running queries")
+        public boolean updates = false;
+
+        @Option(name = {"-m", "--mapped"},
+                description = "Write and read index files in the page aligned format, and search the index file memory mapped")
+        public boolean mapped = false;
+
         @Inject
         public HelpOption helpOption;
     }
@@ -1,6 +1,8 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.search.predicate.index;
 
+import java.nio.IntBuffer;
+
 /**
  * Wraps a posting stream of IntervalWithBounds objects (for collapsed
  * fixed tree leaf nodes) into a PostingList.
@@ -10,8 +12,9 @@ package com.yahoo.search.predicate.index;
  */
 public class BoundsPostingList extends MultiIntervalPostingList {
     private final int valueDiff;
-    private final IntervalWithBounds intervalWithBounds = new IntervalWithBounds();
     private final PredicateIntervalStore store;
+    private int currentIntervalIndex;
+    private int currentIntervalsEnd;
     private int currentInterval;
 
     /**
@@ -23,21 +26,33 @@ public class BoundsPostingList extends MultiIntervalPostingList {
         this.store = store;
     }
 
+    /**
+     * @param valueDiff Difference from the collapsed leaf node's actual value.
+     */
+    public BoundsPostingList(PredicateIntervalStore store, IntBuffer docIds, IntBuffer dataRefs, long subquery, int valueDiff) {
+        super(docIds, dataRefs, subquery);
+        this.valueDiff = valueDiff;
+        this.store = store;
+    }
+
     @Override
     protected boolean prepareIntervals(int dataRef) {
-        intervalWithBounds.setIntervalArray(store.get(dataRef), 0);
+        currentIntervalIndex = store.getBegin(dataRef);
+        currentIntervalsEnd = store.getEnd(dataRef);
         return nextInterval();
     }
 
     @Override
     public boolean nextInterval() {
-        while (intervalWithBounds.hasValue()) {
-            if (intervalWithBounds.contains(valueDiff)) {
-                this.currentInterval = intervalWithBounds.getInterval();
-                intervalWithBounds.nextValue();
+        // The intervals are stored as pairs of interval and bounds, see IntervalWithBounds
+        while (currentIntervalIndex < currentIntervalsEnd - 1) {
+            int interval = store.getInterval(currentIntervalIndex);
+            int bounds = store.getInterval(currentIntervalIndex + 1);
+            currentIntervalIndex += 2;
+            if (IntervalWithBounds.contains(bounds, valueDiff)) {
+                this.currentInterval = interval;
                 return true;
             }
-            intervalWithBounds.nextValue();
         }
         return false;
     }
@@ -2,10 +2,14 @@
 package com.yahoo.search.predicate.index;
 
 import com.google.common.collect.MinMaxPriorityQueue;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectLongMap;
 import org.eclipse.collections.api.tuple.primitive.ObjectLongPair;
-import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
-import org.eclipse.collections.impl.map.mutable.primitive.ObjectLongHashMap;
+import org.eclipse.collections.impl.block.factory.HashingStrategies;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMapWithHashingStrategy;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectLongHashMapWithHashingStrategy;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -13,6 +17,8 @@ import java.util.List;
 /**
  * Counts the number of posting lists per document id.
  * Caches the most expensive posting list in a bit vector.
+ * Posting lists are identified by the identity of their document id buffer, as the content of these
+ * may be large, and reside in a memory mapped file.
  *
  * @author bjorncs
  */
@@ -22,17 +28,17 @@ public class CachedPostingListCounter {
     private static final double THRESHOLD_USE_BIT_VECTOR = 1;
 
     private final int nDocuments;
-    private final ObjectLongHashMap<int[]> frequency = new ObjectLongHashMap<>();
-    private final ObjectIntHashMap<int[]> postingListMapping;
+    private final MutableObjectLongMap<IntBuffer> frequency = new ObjectLongHashMapWithHashingStrategy<>(HashingStrategies.identityStrategy());
+    private final MutableObjectIntMap<IntBuffer> postingListMapping;
     private final int[] bitVector;
 
     public CachedPostingListCounter(int nDocuments) {
         this.nDocuments = nDocuments;
-        this.postingListMapping = new ObjectIntHashMap<>();
+        this.postingListMapping = new ObjectIntHashMapWithHashingStrategy<>(HashingStrategies.identityStrategy());
         this.bitVector = new int[0];
     }
 
-    private CachedPostingListCounter(ObjectIntHashMap<int[]> postingListMapping, int[] bitVector) {
+    private CachedPostingListCounter(MutableObjectIntMap<IntBuffer> postingListMapping, int[] bitVector) {
         this.nDocuments = bitVector.length;
         this.postingListMapping = postingListMapping;
         this.bitVector = bitVector;
@@ -46,17 +52,17 @@ public class CachedPostingListCounter {
 
     public void countPostingListsPerDocument(List<PostingList> postingLists, byte[] nPostingListsForDocument) {
         Arrays.fill(nPostingListsForDocument, (byte) 0);
-        List<int[]> nonCachedPostingLists = new ArrayList<>(postingLists.size());
-        List<int[]> cachedPostingLists = new ArrayList<>(postingLists.size());
+        List<IntBuffer> nonCachedPostingLists = new ArrayList<>(postingLists.size());
+        List<IntBuffer> cachedPostingLists = new ArrayList<>(postingLists.size());
         long nDocumentsCachedPostingLists = 0;
         int postingListBitmap = 0;
         for (PostingList postingList : postingLists) {
-            int[] docIds = postingList.getDocIds();
+            IntBuffer docIds = postingList.getDocIds();
             int index = postingListMapping.getIfAbsent(docIds, -1);
             if (index >= 0) {
                 cachedPostingLists.add(docIds);
                 postingListBitmap |= (1 << index);
-                nDocumentsCachedPostingLists += docIds.length;
+                nDocumentsCachedPostingLists += docIds.limit();
             } else {
                 nonCachedPostingLists.add(docIds);
             }
@@ -79,10 +85,18 @@ public class CachedPostingListCounter {
         }
     }
 
-    private static void countUsingDocIdIteration(byte[] nPostingListsForDocument, List<int[]> nonCachedPostingLists) {
-        for (int[] docIds : nonCachedPostingLists) {
-            for (int docId : docIds) {
-                ++nPostingListsForDocument[docId];
+    private static void countUsingDocIdIteration(byte[] nPostingListsForDocument, List<IntBuffer> nonCachedPostingLists) {
+        for (IntBuffer docIds : nonCachedPostingLists) {
+            int[] docIdArray = IntBuffers.arrayOf(docIds);
+            if (docIdArray != null) {
+                for (int docId : docIdArray) {
+                    ++nPostingListsForDocument[docId];
+                }
+            } else {
+                int length = docIds.limit();
+                for (int i = 0; i < length; i++) {
+                    ++nPostingListsForDocument[docIds.get(i)];
+                }
             }
         }
     }
@@ -91,19 +105,20 @@ public class CachedPostingListCounter {
         MinMaxPriorityQueue<Entry> mostExpensive = MinMaxPriorityQueue
                 .maximumSize(32).expectedSize(32).create();
         synchronized (this) {
-            for (ObjectLongPair<int[]> p : frequency.keyValuesView()) {
+            for (ObjectLongPair<IntBuffer> p : frequency.keyValuesView()) {
                 mostExpensive.add(new Entry(p.getOne(), p.getTwo()));
             }
         }
-        ObjectIntHashMap<int[]> postingListMapping = new ObjectIntHashMap<>();
+        MutableObjectIntMap<IntBuffer> postingListMapping = new ObjectIntHashMapWithHashingStrategy<>(HashingStrategies.identityStrategy());
         int[] bitVector = new int[nDocuments];
         int length = mostExpensive.size();
         for (int i = 0; i < length; i++) {
             Entry e = mostExpensive.removeFirst();
-            int[] docIds = e.docIds;
+            IntBuffer docIds = e.docIds;
             postingListMapping.put(docIds, i);
-            for (int docId : docIds) {
-                bitVector[docId] |= (1 << i);
+            int docIdsLength = docIds.limit();
+            for (int j = 0; j < docIdsLength; j++) {
+                bitVector[docIds.get(j)] |= (1 << i);
             }
         }
         return new CachedPostingListCounter(postingListMapping, bitVector);
@@ -113,17 +128,17 @@ public class CachedPostingListCounter {
         return bitVector;
     }
 
-    ObjectIntHashMap<int[]> getPostingListMapping() {
+    MutableObjectIntMap<IntBuffer> getPostingListMapping() {
         return postingListMapping;
     }
 
     private static class Entry implements Comparable<Entry> {
-        public final int[] docIds;
+        public final IntBuffer docIds;
         final double cost;
 
-        private Entry(int[] docIds, long frequency) {
+        private Entry(IntBuffer docIds, long frequency) {
             this.docIds = docIds;
-            this.cost = docIds.length * (double) frequency;
+            this.cost = docIds.limit() * (double) frequency;
             assert cost > 0;
         }
 
@@ -0,0 +1,23 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.predicate.index;
+
+import java.nio.IntBuffer;
+
+/**
+ * Access to the arrays of buffers on the heap, such that these are searched as arrays,
+ * while buffers in memory mapped files are read through the buffer.
+ *
+ * @author agent
+ */
+class IntBuffers {
+
+    private IntBuffers() {}
+
+    /** Returns the array holding exactly the content of the given buffer, or null if there is no such array */
+    static int[] arrayOf(IntBuffer buffer) {
+        if ( ! buffer.hasArray() || buffer.arrayOffset() != 0) return null;
+        int[] array = buffer.array();
+        return array.length == buffer.limit() ? array : null;
+    }
+
+}
@@ -1,6 +1,8 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.search.predicate.index;
 
+import java.nio.IntBuffer;
+
 /**
  * Implementation of PostingList for regular features that store
  * their intervals and nothing else.
@@ -11,8 +13,8 @@ package com.yahoo.search.predicate.index;
 public class IntervalPostingList extends MultiIntervalPostingList {
 
     private final PredicateIntervalStore store;
-    private int[] currentIntervals;
     private int currentIntervalIndex;
+    private int currentIntervalsEnd;
     private int currentInterval;
 
     public IntervalPostingList(PredicateIntervalStore store, int[] docIds, int[] dataRefs, long subquery) {
@@ -20,18 +22,23 @@ public class IntervalPostingList extends MultiIntervalPostingList {
         this.store = store;
     }
 
+    public IntervalPostingList(PredicateIntervalStore store, IntBuffer docIds, IntBuffer dataRefs, long subquery) {
+        super(docIds, dataRefs, subquery);
+        this.store = store;
+    }
+
     @Override
     protected boolean prepareIntervals(int dataRef) {
-        currentIntervals = store.get(dataRef);
-        currentIntervalIndex = 1;
-        currentInterval = currentIntervals[0];
+        currentIntervalIndex = store.getBegin(dataRef);
+        currentIntervalsEnd = store.getEnd(dataRef);
+        currentInterval = store.getInterval(currentIntervalIndex++);
         return true;
     }
 
     @Override
     public boolean nextInterval() {
-        if (currentIntervalIndex < currentIntervals.length) {
-            this.currentInterval = currentIntervals[currentIntervalIndex++];
+        if (currentIntervalIndex < currentIntervalsEnd) {
+            this.currentInterval = store.getInterval(currentIntervalIndex++);
             return true;
         }
         return false;
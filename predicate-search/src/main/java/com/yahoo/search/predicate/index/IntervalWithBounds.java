@@ -51,7 +51,16 @@ public class IntervalWithBounds {
      * @return true if value is contained within the specified bounds
      */
     public boolean contains(int value) {
-        int bounds = getBounds();
+        return contains(getBounds(), value);
+    }
+
+    /**
+     * Checks if a value is contained within the given bounds.
+     * @param bounds Bounds as returned by {@link #getBounds()}
+     * @param value Value to check against
+     * @return true if value is contained within the given bounds
+     */
+    public static boolean contains(int bounds, int value) {
         if ((bounds & 0x80000000) != 0) {
             return value >= (bounds & 0x3fffffff);
         } else if ((bounds & 0x40000000) != 0) {
@@ -3,6 +3,8 @@ package com.yahoo.search.predicate.index;
 
 import com.yahoo.search.predicate.utils.PostingListSearch;
 
+import java.nio.IntBuffer;
+
 /**
  * Shared implementation for posting lists that may have multiple intervals.
  *
@@ -11,18 +13,27 @@ import com.yahoo.search.predicate.utils.PostingListSearch;
  */
 public abstract class MultiIntervalPostingList implements PostingList {
 
-    private final int[] docIds;
-    private final int[] dataRefs;
+    private final IntBuffer docIds;
+    private final IntBuffer dataRefs;
+    /** The doc ids and data refs as arrays when these are on the heap, or null when memory mapped */
+    private final int[] docIdArray;
+    private final int[] dataRefArray;
     private final long subquery;
     private final int length;
     private int currentIndex;
     private int currentDocId;
 
     public MultiIntervalPostingList(int[] docIds, int[] dataRefs, long subquery) {
+        this(IntBuffer.wrap(docIds), IntBuffer.wrap(dataRefs), subquery);
+    }
+
+    public MultiIntervalPostingList(IntBuffer docIds, IntBuffer dataRefs, long subquery) {
         this.docIds = docIds;
         this.dataRefs = dataRefs;
+        this.docIdArray = IntBuffers.arrayOf(docIds);
+        this.dataRefArray = IntBuffers.arrayOf(dataRefs);
         this.subquery = subquery;
-        this.length = docIds.length;
+        this.length = docIds.limit();
         this.currentIndex = 0;
         this.currentDocId = -1;
     }
@@ -30,11 +41,12 @@ public abstract class MultiIntervalPostingList implements PostingList {
     @Override
     public final boolean nextDocument(int docId) {
         int index = currentIndex;
-        index = PostingListSearch.interpolationSearch(docIds, index, length, docId);
+        index = docIdArray != null ? PostingListSearch.interpolationSearch(docIdArray, index, length, docId)
+                                   : PostingListSearch.interpolationSearch(docIds, index, length, docId);
         if (index == length) {
             return false;
         }
-        this.currentDocId = docIds[index];
+        this.currentDocId = docIdArray != null ? docIdArray[index] : docIds.get(index);
         this.currentIndex = index;
         assert currentDocId > docId;
         return true;
@@ -42,7 +54,7 @@ public abstract class MultiIntervalPostingList implements PostingList {
 
     @Override
     public final boolean prepareIntervals() {
-        return prepareIntervals(dataRefs[currentIndex]);
+        return prepareIntervals(dataRefArray != null ? dataRefArray[currentIndex] : dataRefs.get(currentIndex));
     }
 
     protected abstract boolean prepareIntervals(int dataRef);
@@ -58,7 +70,7 @@ public abstract class MultiIntervalPostingList implements PostingList {
     }
 
     @Override
-    public final int[] getDocIds() {
+    public final IntBuffer getDocIds() {
         return docIds;
     }
 
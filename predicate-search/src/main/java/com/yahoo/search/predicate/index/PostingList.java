@@ -1,6 +1,8 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.search.predicate.index;
 
+import java.nio.IntBuffer;
+
 /**
  * Interface for posting lists to be used by the algorithm implemented in PredicateSearch.
  *
@@ -48,8 +50,9 @@ public interface PostingList {
     long getSubquery();
 
     /**
-     * @return The document ids
+     * @return The document ids. This is the same instance for all posting lists of the same feature,
+     *         and must only be read using absolute get methods.
      */
-    int[] getDocIds();
+    IntBuffer getDocIds();
 
 }
@@ -2,11 +2,14 @@
 package com.yahoo.search.predicate.index;
 
 import com.google.common.primitives.Ints;
+import com.yahoo.search.predicate.serialization.PageAlignedFileReader;
+import com.yahoo.search.predicate.serialization.PageAlignedFileWriter;
 import com.yahoo.search.predicate.serialization.SerializationHelper;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -14,25 +17,71 @@ import java.util.List;
 import java.util.Map;
 
 /**
+ * Stores the interval lists of the posting lists, referenced by the data refs of the posting lists.
+ * All interval lists are stored consecutively in a single buffer, which may be a memory mapped file section.
+ *
  * @author bjorncs
  */
 public class PredicateIntervalStore {
 
-    private final int[][] intervalsList;
+    /** The start of each interval list in intervals, followed by the end of the last one */
+    private final IntBuffer offsets;
+    private final IntBuffer intervals;
+    /** The offsets and intervals as arrays when these are on the heap, or null when memory mapped */
+    private final int[] offsetArray;
+    private final int[] intervalArray;
 
     public PredicateIntervalStore(int[][] intervalsList) {
-        this.intervalsList = intervalsList;
+        int[] offsets = new int[intervalsList.length + 1];
+        for (int i = 0; i < intervalsList.length; i++) {
+            offsets[i + 1] = Math.addExact(offsets[i], intervalsList[i].length);
+        }
+        int[] intervals = new int[offsets[intervalsList.length]];
+        for (int i = 0; i < intervalsList.length; i++) {
+            System.arraycopy(intervalsList[i], 0, intervals, offsets[i], intervalsList[i].length);
+        }
+        this.offsets = IntBuffer.wrap(offsets);
+        this.intervals = IntBuffer.wrap(intervals);
+        this.offsetArray = offsets;
+        this.intervalArray = intervals;
+    }
+
+    private PredicateIntervalStore(IntBuffer offsets, IntBuffer intervals) {
+        this.offsets = offsets;
+        this.intervals = intervals;
+        this.offsetArray = IntBuffers.arrayOf(offsets);
+        this.intervalArray = IntBuffers.arrayOf(intervals);
     }
 
+    /** Returns a copy of the interval list with the given reference */
     public int[] get(int intervalRef) {
-        assert intervalRef < intervalsList.length;
-        return intervalsList[intervalRef];
+        int begin = getBegin(intervalRef);
+        int[] intervalList = new int[getEnd(intervalRef) - begin];
+        intervals.get(begin, intervalList);
+        return intervalList;
+    }
+
+    /** Returns the position of the first interval in the interval list with the given reference */
+    public int getBegin(int intervalRef) {
+        assert intervalRef < offsets.limit() - 1;
+        return offsetArray != null ? offsetArray[intervalRef] : offsets.get(intervalRef);
+    }
+
+    /** Returns the position after the last interval in the interval list with the given reference */
+    public int getEnd(int intervalRef) {
+        return offsetArray != null ? offsetArray[intervalRef + 1] : offsets.get(intervalRef + 1);
+    }
+
+    /** Returns the interval at the given position, see {@link #getBegin(int)} */
+    public int getInterval(int position) {
+        return intervalArray != null ? intervalArray[position] : intervals.get(position);
     }
 
     public void writeToOutputStream(DataOutputStream out) throws IOException {
-        out.writeInt(intervalsList.length);
-        for (int[] intervals : intervalsList) {
-            SerializationHelper.writeIntArray(intervals, out);
+        int length = offsets.limit() - 1;
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+            SerializationHelper.writeIntArray(get(i), out);
         }
     }
 
@@ -45,6 +94,21 @@ public class PredicateIntervalStore {
         return new PredicateIntervalStore(intervalsList);
     }
 
+    /** Writes this to sections which can be read from a memory mapped file by {@link #fromSections} */
+    public void writeSections(PageAlignedFileWriter out) throws IOException {
+        out.writeSection(offsets);
+        out.writeSection(intervals);
+    }
+
+    /** Returns a store using the sections written by {@link #writeSections} directly */
+    public static PredicateIntervalStore fromSections(PageAlignedFileReader in) throws IOException {
+        IntBuffer offsets = in.nextIntSection();
+        IntBuffer intervals = in.nextIntSection();
+        if (offsets.limit() == 0)
+            throw new IllegalArgumentException("Invalid interval store: Missing offsets");
+        return new PredicateIntervalStore(offsets, intervals);
+    }
+
     public static class Builder {
         private final List<int[]> intervalsListBuilder = new ArrayList<>();
         private final Map<Entry, Integer> intervalsListIndexes = new HashMap<>();
@@ -1,6 +1,8 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.search.predicate.index;
 
+import com.yahoo.search.predicate.serialization.PageAlignedFileReader;
+import com.yahoo.search.predicate.serialization.PageAlignedFileWriter;
 import com.yahoo.search.predicate.serialization.SerializationHelper;
 import org.eclipse.collections.api.map.primitive.LongObjectMap;
 import org.eclipse.collections.api.tuple.primitive.LongObjectPair;
@@ -9,24 +11,40 @@ import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * An index mapping keys of type Long to lists of postings of generic data.
+ * <p>
+ * An index on the heap holds its entries in a hash map. An index used from a memory mapped file,
+ * see {@link #fromSections}, instead looks up keys by binary search in the mapped file.
+ * </p>
  *
  * @author Magnar Nedland
  * @author bjorncs
  */
 public class SimpleIndex {
 
+    /** The entries of this, or null if this is used from a mapped file */
     private final LongObjectMap<Entry> dictionary;
+    /** The entries of this in a mapped file, or null if this is on the heap */
+    private final MappedEntries mapped;
 
     public SimpleIndex(LongObjectMap<Entry> dictionary) {
         this.dictionary = dictionary;
+        this.mapped = null;
+    }
+
+    private SimpleIndex(MappedEntries mapped) {
+        this.dictionary = null;
+        this.mapped = mapped;
     }
 
     /**
@@ -36,16 +54,20 @@ public class SimpleIndex {
      * @return list of postings
      */
     public Entry getPostingList(long key) {
-        return dictionary.get(key);
+        return dictionary != null ? dictionary.get(key) : mapped.get(key);
     }
 
     public void writeToOutputStream(DataOutputStream out) throws IOException {
+        if (mapped != null) {
+            mapped.writeToOutputStream(out);
+            return;
+        }
         out.writeInt(dictionary.size());
         for (LongObjectPair<Entry> pair : dictionary.keyValuesView()) {
             out.writeLong(pair.getOne());
             Entry entry = pair.getTwo();
-            SerializationHelper.writeIntArray(entry.docIds, out);
-            SerializationHelper.writeIntArray(entry.dataRefs, out);
+            SerializationHelper.writeIntBuffer(entry.docIds, out);
+            SerializationHelper.writeIntBuffer(entry.dataRefs, out);
         }
     }
 
@@ -62,14 +84,132 @@ public class SimpleIndex {
         return new SimpleIndex(dictionary);
     }
 
+    /**
+     * Writes this to sections which can be used from a memory mapped file by {@link #fromSections}:
+     * The sorted keys, the start of the postings of each key, and the doc ids and data refs of all keys.
+     */
+    public void writeSections(PageAlignedFileWriter out) throws IOException {
+        if (mapped != null) {
+            mapped.writeSections(out);
+            return;
+        }
+        long[] keys = dictionary.keySet().toSortedArray();
+        int[] offsets = new int[keys.length + 1];
+        for (int i = 0; i < keys.length; i++)
+            offsets[i + 1] = Math.addExact(offsets[i], dictionary.get(keys[i]).docIds.limit());
+        int[] docIds = new int[offsets[keys.length]];
+        int[] dataRefs = new int[offsets[keys.length]];
+        for (int i = 0; i < keys.length; i++) {
+            Entry entry = dictionary.get(keys[i]);
+            entry.docIds.get(0, docIds, offsets[i], entry.docIds.limit());
+            entry.dataRefs.get(0, dataRefs, offsets[i], entry.dataRefs.limit());
+        }
+        out.writeSection(LongBuffer.wrap(keys));
+        out.writeSection(offsets);
+        out.writeSection(docIds);
+        out.writeSection(dataRefs);
+    }
+
+    /** Returns an index using the sections written by {@link #writeSections} directly */
+    public static SimpleIndex fromSections(PageAlignedFileReader in) throws IOException {
+        LongBuffer keys = in.nextLongSection();
+        IntBuffer offsets = in.nextIntSection();
+        IntBuffer docIds = in.nextIntSection();
+        IntBuffer dataRefs = in.nextIntSection();
+        if (offsets.limit() != keys.limit() + 1 || docIds.limit() != dataRefs.limit())
+            throw new IllegalArgumentException("Invalid simple index: Section sizes do not match");
+        return new SimpleIndex(new MappedEntries(keys, offsets, docIds, dataRefs));
+    }
+
     public static class Entry {
-        public final int[] docIds;
-        public final int[] dataRefs;
+        public final IntBuffer docIds;
+        public final IntBuffer dataRefs;
 
         private Entry(int[] docIds, int[] dataRefs) {
+            this(IntBuffer.wrap(docIds), IntBuffer.wrap(dataRefs));
+        }
+
+        private Entry(IntBuffer docIds, IntBuffer dataRefs) {
+            this.docIds = docIds;
+            this.dataRefs = dataRefs;
+        }
+    }
+
+    /**
+     * The entries of an index in a memory mapped file. The keys are sorted, and the postings of
+     * all keys are stored consecutively in a doc id and a data ref buffer.
+     */
+    private static class MappedEntries {
+
+        private final LongBuffer keys;
+        /** The start of the postings of each key, followed by the end of the postings of the last key */
+        private final IntBuffer offsets;
+        private final IntBuffer docIds;
+        private final IntBuffer dataRefs;
+        /**
+         * The entries looked up so far, by key index, such that the same entry is returned for a key each time,
+         * as the posting list cache identifies posting lists by their doc id buffer
+         */
+        private final AtomicReferenceArray<Entry> entries;
+
+        MappedEntries(LongBuffer keys, IntBuffer offsets, IntBuffer docIds, IntBuffer dataRefs) {
+            this.keys = keys;
+            this.offsets = offsets;
             this.docIds = docIds;
             this.dataRefs = dataRefs;
+            this.entries = new AtomicReferenceArray<>(keys.limit());
         }
+
+        Entry get(long key) {
+            int index = indexOf(key);
+            if (index < 0) return null;
+            Entry entry = entries.get(index);
+            if (entry != null) return entry;
+            entries.compareAndSet(index, null, createEntry(index));
+            return entries.get(index);
+        }
+
+        private int indexOf(long key) {
+            int low = 0;
+            int high = keys.limit() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midKey = keys.get(mid);
+                if (midKey < key) {
+                    low = mid + 1;
+                } else if (midKey > key) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private Entry createEntry(int index) {
+            int begin = offsets.get(index);
+            int length = offsets.get(index + 1) - begin;
+            return new Entry(docIds.slice(begin, length), dataRefs.slice(begin, length));
+        }
+
+        void writeToOutputStream(DataOutputStream out) throws IOException {
+            int nEntries = keys.limit();
+            out.writeInt(nEntries);
+            for (int i = 0; i < nEntries; i++) {
+                out.writeLong(keys.get(i));
+                Entry entry = createEntry(i);
+                SerializationHelper.writeIntBuffer(entry.docIds, out);
+                SerializationHelper.writeIntBuffer(entry.dataRefs, out);
+            }
+        }
+
+        void writeSections(PageAlignedFileWriter out) throws IOException {
+            out.writeSection(keys);
+            out.writeSection(offsets);
+            out.writeSection(docIds);
+            out.writeSection(dataRefs);
+        }
+
     }
 
     public static class Builder {
@@ -3,6 +3,8 @@ package com.yahoo.search.predicate.index;
 
 import com.yahoo.search.predicate.SubqueryBitmap;
 
+import java.nio.IntBuffer;
+
 /**
  * Wraps a posting list of compressed NOT-features.
  * The compression works by implying an interval of size 1 after each
@@ -15,8 +17,8 @@ import com.yahoo.search.predicate.SubqueryBitmap;
 public class ZstarCompressedPostingList extends MultiIntervalPostingList {
 
     private final PredicateIntervalStore store;
-    private int[] currentIntervals;
     private int currentIntervalIndex;
+    private int currentIntervalsEnd;
     private int prevInterval;
     private int currentInterval;
 
@@ -29,18 +31,23 @@ public class ZstarCompressedPostingList extends MultiIntervalPostingList {
         this.store = store;
     }
 
+    public ZstarCompressedPostingList(PredicateIntervalStore store, IntBuffer docIds, IntBuffer dataRefs) {
+        super(docIds, dataRefs, SubqueryBitmap.ALL_SUBQUERIES);
+        this.store = store;
+    }
+
     @Override
     protected boolean prepareIntervals(int dataRef) {
-        currentIntervals = store.get(dataRef);
-        currentIntervalIndex = 0;
+        currentIntervalIndex = store.getBegin(dataRef);
+        currentIntervalsEnd = store.getEnd(dataRef);
         return nextInterval();
     }
 
     @Override
     public boolean nextInterval() {
         int nextInterval = -1;
-        if (currentIntervalIndex < currentIntervals.length) {
-            nextInterval = currentIntervals[currentIntervalIndex];
+        if (currentIntervalIndex < currentIntervalsEnd) {
+            nextInterval = store.getInterval(currentIntervalIndex);
         }
         if (prevInterval != 0) {
             if (Interval.isZStar2Interval(nextInterval)) {
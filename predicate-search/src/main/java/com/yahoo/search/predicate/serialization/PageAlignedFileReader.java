@@ -0,0 +1,143 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.predicate.serialization;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file written by {@link PageAlignedFileWriter} by memory mapping its sections.
+ * The sections are returned in the order they were written, and remain valid after this is closed.
+ *
+ * @author agent
+ */
+public class PageAlignedFileReader implements AutoCloseable {
+
+    private static final int TRAILER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long[] offsets;
+    private final long[] lengths;
+    private final long tableOffset;
+    private int nextSection = 0;
+
+    public PageAlignedFileReader(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < TRAILER_SIZE)
+                throw new IllegalArgumentException("'" + file + "' is not a page aligned file: Too short");
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_SIZE, TRAILER_SIZE);
+            int sectionCount = trailer.getInt();
+            this.tableOffset = trailer.getLong();
+            if (sectionCount < 0 || tableOffset < 0 || tableOffset + sectionCount * 16L + TRAILER_SIZE != size)
+                throw new IllegalArgumentException("'" + file + "' is not a page aligned file: Invalid section table");
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, tableOffset, sectionCount * 16L);
+            this.offsets = new long[sectionCount];
+            this.lengths = new long[sectionCount];
+            for (int i = 0; i < sectionCount; i++) {
+                offsets[i] = table.getLong();
+                lengths[i] = table.getLong();
+                if (offsets[i] < 0 || lengths[i] < 0 || lengths[i] > Integer.MAX_VALUE || offsets[i] + lengths[i] > tableOffset)
+                    throw new IllegalArgumentException("'" + file + "' is not a page aligned file: Invalid section " + i);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Returns a stream of the header, which is the data preceding the first section */
+    public DataInputStream header() throws IOException {
+        long length = offsets.length > 0 ? offsets[0] : tableOffset;
+        return new DataInputStream(new ByteBufferInputStream(map(0, length)));
+    }
+
+    public IntBuffer nextIntSection() throws IOException {
+        return nextSection().asIntBuffer();
+    }
+
+    public LongBuffer nextLongSection() throws IOException {
+        return nextSection().asLongBuffer();
+    }
+
+    /** Returns the next section copied to the heap as an array */
+    public int[] nextIntArraySection() throws IOException {
+        IntBuffer section = nextIntSection();
+        int[] values = new int[section.limit()];
+        section.get(values);
+        return values;
+    }
+
+    /** Returns the next section copied to the heap as an array */
+    public short[] nextShortArraySection() throws IOException {
+        ByteBuffer section = nextSection();
+        short[] values = new short[section.limit() / Short.BYTES];
+        section.asShortBuffer().get(values);
+        return values;
+    }
+
+    /** Returns the next section copied to the heap as an array */
+    public byte[] nextByteArraySection() throws IOException {
+        ByteBuffer section = nextSection();
+        byte[] values = new byte[section.limit()];
+        section.get(values);
+        return values;
+    }
+
+    /** Returns a stream of the next section, written by {@link PageAlignedFileWriter#writeSection(PageAlignedFileWriter.StreamSerializer)} */
+    public DataInputStream nextStreamSection() throws IOException {
+        return new DataInputStream(new ByteBufferInputStream(nextSection()));
+    }
+
+    /** Returns the next section as a read-only buffer */
+    public ByteBuffer nextSection() throws IOException {
+        if (nextSection == offsets.length)
+            throw new IllegalArgumentException("'" + file + "' has only " + offsets.length + " sections");
+        int section = nextSection++;
+        return map(offsets[section], lengths[section]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer map(long offset, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) return 0;
+            if ( ! buffer.hasRemaining()) return -1;
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+    }
+
+}
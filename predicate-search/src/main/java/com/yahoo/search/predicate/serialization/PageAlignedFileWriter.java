@@ -0,0 +1,129 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.predicate.serialization;
+
+import com.google.common.io.CountingOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a file consisting of a header followed by sections of primitive arrays, each starting on a page boundary,
+ * such that each section can be memory mapped and used directly as a buffer by {@link PageAlignedFileReader}.
+ * <p>
+ * The header is written to {@link #header()} before any section. The sections are followed by a table of
+ * the offset and length of each section, the number of sections, and the offset of the table.
+ * All values are big-endian, as written by {@link DataOutputStream}.
+ * </p>
+ *
+ * @author agent
+ */
+public class PageAlignedFileWriter implements AutoCloseable {
+
+    public static final int PAGE_SIZE = 4096;
+
+    private final CountingOutputStream counter;
+    private final DataOutputStream out;
+    private final List<long[]> sections = new ArrayList<>();
+
+    public PageAlignedFileWriter(Path file) throws IOException {
+        this(Files.newOutputStream(file));
+    }
+
+    public PageAlignedFileWriter(OutputStream out) {
+        this.counter = new CountingOutputStream(new BufferedOutputStream(out, 1 << 16));
+        this.out = new DataOutputStream(counter);
+    }
+
+    /** Returns the stream to write the header to, before any section is written */
+    public DataOutputStream header() {
+        if ( ! sections.isEmpty())
+            throw new IllegalStateException("The header must be written before any section");
+        return out;
+    }
+
+    public void writeSection(IntBuffer values) throws IOException {
+        long offset = startSection();
+        int length = values.limit();
+        for (int i = 0; i < length; i++) {
+            out.writeInt(values.get(i));
+        }
+        endSection(offset);
+    }
+
+    public void writeSection(int[] values) throws IOException {
+        writeSection(IntBuffer.wrap(values));
+    }
+
+    public void writeSection(LongBuffer values) throws IOException {
+        long offset = startSection();
+        int length = values.limit();
+        for (int i = 0; i < length; i++) {
+            out.writeLong(values.get(i));
+        }
+        endSection(offset);
+    }
+
+    public void writeSection(short[] values) throws IOException {
+        long offset = startSection();
+        for (short value : values) {
+            out.writeShort(value);
+        }
+        endSection(offset);
+    }
+
+    public void writeSection(byte[] values) throws IOException {
+        long offset = startSection();
+        out.write(values);
+        endSection(offset);
+    }
+
+    /** Writes a section of data which is read as a stream, see {@link PageAlignedFileReader#nextStreamSection()} */
+    public void writeSection(StreamSerializer serializer) throws IOException {
+        long offset = startSection();
+        serializer.serialize(out);
+        endSection(offset);
+    }
+
+    /** Writes the section table and closes the underlying stream */
+    @Override
+    public void close() throws IOException {
+        long tableOffset = counter.getCount();
+        for (long[] section : sections) {
+            out.writeLong(section[0]);
+            out.writeLong(section[1]);
+        }
+        out.writeInt(sections.size());
+        out.writeLong(tableOffset);
+        out.close();
+    }
+
+    private long startSection() throws IOException {
+        long padding = (PAGE_SIZE - counter.getCount() % PAGE_SIZE) % PAGE_SIZE;
+        for (long i = 0; i < padding; i++) {
+            out.writeByte(0);
+        }
+        return counter.getCount();
+    }
+
+    private void endSection(long offset) {
+        long length = counter.getCount() - offset;
+        if (length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Section " + sections.size() + " is " + length +
+                                               " bytes, but at most " + Integer.MAX_VALUE + " bytes can be mapped");
+        sections.add(new long[] { offset, length });
+    }
+
+    @FunctionalInterface
+    public interface StreamSerializer {
+        void serialize(DataOutputStream out) throws IOException;
+    }
+
+}
@@ -6,6 +6,7 @@ import com.yahoo.search.predicate.PredicateIndex;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.IntBuffer;
 
 /**
  * Misc utility functions to help serialization of {@link PredicateIndex}.
@@ -21,6 +22,14 @@ public class SerializationHelper {
         }
     }
 
+    public static void writeIntBuffer(IntBuffer buffer, DataOutputStream out) throws IOException {
+        int length = buffer.limit();
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+            out.writeInt(buffer.get(i));
+        }
+    }
+
     public static int[] readIntArray(DataInputStream in) throws IOException {
         int length = in.readInt();
         int[] array = new int[length];
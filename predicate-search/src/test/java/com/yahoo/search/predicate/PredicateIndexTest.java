@@ -3,8 +3,10 @@ package com.yahoo.search.predicate;
 
 import com.yahoo.document.predicate.Predicate;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 import static com.yahoo.search.predicate.serialization.SerializationTestHelper.assertSerializationDeserializationMatches;
 import static java.util.stream.Collectors.toList;
@@ -18,6 +20,9 @@ public class PredicateIndexTest {
 
     private static final int DOC_ID = 42;
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void requireThatPredicateIndexCanSearch() {
         PredicateIndexBuilder builder = new PredicateIndexBuilder(10);
@@ -138,4 +143,39 @@ public class PredicateIndexTest {
         assertSerializationDeserializationMatches(
                 index, PredicateIndex::writeToOutputStream, PredicateIndex::fromInputStream);
     }
+
+    @Test
+    void requireThatIndexCanBeSearchedFromMappedFile() throws IOException {
+        PredicateIndexBuilder builder = new PredicateIndexBuilder(10);
+        builder.indexDocument(1, Predicate.fromString("country in ['no', 'se'] and gender in ['male']"));
+        builder.indexDocument(2, Predicate.fromString("country in ['no'] and gender not in ['male']"));
+        builder.indexDocument(3, Predicate.fromString("true"));
+        builder.indexDocument(0x3fffffe, Predicate.fromString("country in ['no'] and gender in ['female']"));
+        Path file = tempDir.resolve("predicate-index");
+        builder.build().writeToFile(file);
+        PredicateIndex index = PredicateIndex.fromMappedFile(file);
+
+        PredicateIndex.Searcher searcher = index.searcher();
+        PredicateQuery query = new PredicateQuery();
+        query.addFeature("country", "no");
+        query.addFeature("gender", "female");
+        assertEquals("[2, 3, 67108862]", searcher.search(query).collect(toList()).toString());
+        query.addFeature("gender", "male");
+        assertEquals("[1, 3, 67108862]", searcher.search(query).collect(toList()).toString());
+        index.rebuildPostingListCache();
+        assertEquals("[1, 3, 67108862]", index.searcher().search(query).collect(toList()).toString());
+    }
+
+    @Test
+    void require_that_mapped_file_retains_data() throws IOException {
+        PredicateIndexBuilder builder = new PredicateIndexBuilder(10);
+        builder.indexDocument(1, Predicate.fromString("country in ['no', 'se'] and gender in ['male']"));
+        builder.indexDocument(0x3fffffe, Predicate.fromString("country in ['no'] and gender in ['female']"));
+        PredicateIndex index = builder.build();
+        Path file = tempDir.resolve("predicate-index");
+        index.writeToFile(file);
+        assertSerializationDeserializationMatches(
+                index, PredicateIndex::writeToOutputStream, in -> PredicateIndex.fromMappedFile(file));
+    }
+
 }
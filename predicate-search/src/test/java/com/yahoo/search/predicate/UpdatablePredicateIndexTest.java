@@ -0,0 +1,101 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.search.predicate;
+
+import com.yahoo.document.predicate.Predicate;
+import org.junit.jupiter.api.Test;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author agent
+ */
+public class UpdatablePredicateIndexTest {
+
+    private static final Config CONFIG = new Config.Builder().setArity(10).build();
+
+    @Test
+    void requireThatCommittedDocumentsAreSearchable() {
+        try (UpdatablePredicateIndex index = new UpdatablePredicateIndex(CONFIG, 100, 8, Runnable::run)) {
+            UpdatablePredicateIndex.Searcher searcher = index.searcher();
+            index.indexDocument(1, Predicate.fromString("country in ['no', 'se'] and gender in ['male']"));
+            index.indexDocument(2, Predicate.fromString("country in ['no'] and gender in ['female']"));
+            assertEquals("[]", search(searcher, "no", "male"));
+
+            index.commit();
+            assertEquals("[1]", search(searcher, "no", "male"));
+            assertEquals("[2]", search(searcher, "no", "female"));
+            assertEquals(2, index.getDocumentCount());
+        }
+    }
+
+    @Test
+    void requireThatDocumentsCanBeUpdatedAndRemoved() {
+        try (UpdatablePredicateIndex index = new UpdatablePredicateIndex(CONFIG, 100, 8, Runnable::run)) {
+            UpdatablePredicateIndex.Searcher searcher = index.searcher();
+            index.indexDocument(1, Predicate.fromString("country in ['no'] and gender in ['male']"));
+            index.indexDocument(2, Predicate.fromString("country in ['no'] and gender in ['male']"));
+            index.commit();
+            assertEquals("[1, 2]", search(searcher, "no", "male"));
+
+            index.indexDocument(1, Predicate.fromString("country in ['se'] and gender in ['male']"));
+            index.removeDocument(2);
+            index.commit();
+            assertEquals("[]", search(searcher, "no", "male"));
+            assertEquals("[1]", search(searcher, "se", "male"));
+            assertEquals(1, index.getDocumentCount());
+
+            index.removeDocument(1);
+            index.commit();
+            assertEquals("[]", search(searcher, "se", "male"));
+            assertEquals(0, index.getDocumentCount());
+        }
+    }
+
+    @Test
+    void requireThatSegmentsAreMerged() {
+        try (UpdatablePredicateIndex index = new UpdatablePredicateIndex(CONFIG, 1, 2, Runnable::run)) {
+            UpdatablePredicateIndex.Searcher searcher = index.searcher();
+            for (int i = 0; i < 10; i++) {
+                index.indexDocument(i, Predicate.fromString("country in ['no']"));
+            }
+            assertEquals(10, index.getDocumentCount());
+            assertEquals(10, searcher.search(query("no", "male")).count());
+            assertEquals(true, index.getSegmentCount() <= 2);
+
+            for (int i = 0; i < 10; i += 2) {
+                index.removeDocument(i);
+            }
+            assertEquals("[1, 3, 5, 7, 9]", searcher.search(query("no", "male")).map(Hit::getDocId).sorted().collect(toList()).toString());
+            assertEquals(5, index.getDocumentCount());
+            assertEquals(true, index.getSegmentCount() <= 2);
+        }
+    }
+
+    @Test
+    void requireThatAlwaysAndNeverMatchingDocumentsAreHandled() {
+        try (UpdatablePredicateIndex index = new UpdatablePredicateIndex(CONFIG, 100, 8, Runnable::run)) {
+            UpdatablePredicateIndex.Searcher searcher = index.searcher();
+            index.indexDocument(1, Predicate.fromString("true"));
+            index.indexDocument(2, Predicate.fromString("false"));
+            index.commit();
+            assertEquals("[1]", search(searcher, "no", "male"));
+
+            index.indexDocument(1, Predicate.fromString("false"));
+            index.commit();
+            assertEquals("[]", search(searcher, "no", "male"));
+        }
+    }
+
+    private static String search(UpdatablePredicateIndex.Searcher searcher, String country, String gender) {
+        return searcher.search(query(country, gender)).collect(toList()).toString();
+    }
+
+    private static PredicateQuery query(String country, String gender) {
+        PredicateQuery query = new PredicateQuery();
+        query.addFeature("country", country);
+        query.addFeature("gender", gender);
+        return query;
+    }
+
+}
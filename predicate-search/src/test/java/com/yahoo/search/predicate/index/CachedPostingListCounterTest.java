@@ -2,9 +2,10 @@
 package com.yahoo.search.predicate.index;
 
 import com.google.common.primitives.Ints;
-import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
 import org.junit.jupiter.api.Test;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -52,7 +53,7 @@ public class CachedPostingListCounterTest {
         }
         c.registerUsage(list);
         CachedPostingListCounter newC = c.rebuildCache();
-        ObjectIntHashMap<int[]> mapping = newC.getPostingListMapping();
+        MutableObjectIntMap<IntBuffer> mapping = newC.getPostingListMapping();
         assertEquals(0, mapping.getIfAbsent(p2.getDocIds(), -1));
         assertEquals(1, mapping.getIfAbsent(p3.getDocIds(), -1));
         assertEquals(2, mapping.getIfAbsent(p1.getDocIds(), -1));
@@ -112,7 +113,7 @@ public class CachedPostingListCounterTest {
 
     private static PostingList postingList(Integer... docIds) {
         PostingList postingList = mock(PostingList.class);
-        when(postingList.getDocIds()).thenReturn(Ints.toArray(Arrays.asList((docIds))));
+        when(postingList.getDocIds()).thenReturn(IntBuffer.wrap(Ints.toArray(Arrays.asList((docIds)))));
         return postingList;
     }
 
@@ -65,9 +65,8 @@ public class PredicateIntervalStoreTest {
         int ref1 = builder.insert(intervals1);
         int ref2 = builder.insert(intervals2);
         PredicateIntervalStore store = builder.build();
-        int[] a1 = store.get(ref1);
-        int[] a2 = store.get(ref2);
-        assertEquals(a1, a2);
+        assertEquals(ref1, ref2);
+        assertArrayEquals(store.get(ref1), store.get(ref2));
     }
 
     private static void testInsertAndRetrieve(int... intervals) {
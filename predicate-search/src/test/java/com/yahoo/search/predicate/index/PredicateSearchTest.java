@@ -5,6 +5,7 @@ import com.yahoo.search.predicate.Hit;
 import com.yahoo.search.predicate.SubqueryBitmap;
 import org.junit.jupiter.api.Test;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -212,8 +213,9 @@ public class PredicateSearchTest {
         Arrays.fill(intervalEnds, (short) 0xFF);
         List<PostingList> list = Arrays.asList(postingLists);
         for (PostingList postingList : postingLists) {
-            for (int id : postingList.getDocIds()) {
-                nPostingListsForDocument[id]++;
+            IntBuffer docIds = postingList.getDocIds();
+            for (int i = 0; i < docIds.limit(); i++) {
+                nPostingListsForDocument[docIds.get(i)]++;
             }
         }
         return new PredicateSearch(list, nPostingListsForDocument, minFeatures, intervalEnds, 0xFF);
@@ -280,8 +282,8 @@ public class PredicateSearchTest {
         }
 
         @Override
-        public int[] getDocIds() {
-            return Arrays.stream(entries).mapToInt(e -> e.docId).toArray();
+        public IntBuffer getDocIds() {
+            return IntBuffer.wrap(Arrays.stream(entries).mapToInt(e -> e.docId).toArray());
         }
 
         public static class Entry {
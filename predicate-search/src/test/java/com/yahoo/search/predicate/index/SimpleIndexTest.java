@@ -1,13 +1,19 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.search.predicate.index;
 
+import com.yahoo.search.predicate.serialization.PageAlignedFileReader;
+import com.yahoo.search.predicate.serialization.PageAlignedFileWriter;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 import static com.yahoo.search.predicate.serialization.SerializationTestHelper.assertSerializationDeserializationMatches;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * @author <a href="mailto:magnarn@yahoo-inc.com">Magnar Nedland</a>
@@ -18,6 +24,9 @@ public class SimpleIndexTest {
     private static final long KEY = 0x12345L;
     private static final int DOC_ID = 42;
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void requireThatValuesCanBeInserted() {
         SimpleIndex.Builder builder = new SimpleIndex.Builder();
@@ -25,16 +34,16 @@ public class SimpleIndexTest {
         SimpleIndex index = builder.build();
         SimpleIndex.Entry e = index.getPostingList(KEY);
         assertNotNull(e);
-        assertEquals(1, e.docIds.length);
+        assertEquals(1, e.docIds.limit());
 
         builder = new SimpleIndex.Builder();
         builder.insert(KEY, new Posting(DOC_ID, 10));
         builder.insert(KEY, new Posting(DOC_ID + 1, 20));
         index = builder.build();
         e = index.getPostingList(KEY);
-        assertEquals(2, e.docIds.length);
-        assertEquals(10, e.dataRefs[0]);
-        assertEquals(20, e.dataRefs[1]);
+        assertEquals(2, e.docIds.limit());
+        assertEquals(10, e.dataRefs.get(0));
+        assertEquals(20, e.dataRefs.get(1));
     }
 
     @Test
@@ -45,10 +54,10 @@ public class SimpleIndexTest {
         builder.insert(KEY, new Posting(DOC_ID + 1, 30));
         SimpleIndex index = builder.build();
         SimpleIndex.Entry entry = index.getPostingList(KEY);
-        assertEquals(3, entry.docIds.length);
-        assertEquals(DOC_ID - 1, entry.docIds[0]);
-        assertEquals(DOC_ID, entry.docIds[1]);
-        assertEquals(DOC_ID + 1, entry.docIds[2]);
+        assertEquals(3, entry.docIds.limit());
+        assertEquals(DOC_ID - 1, entry.docIds.get(0));
+        assertEquals(DOC_ID, entry.docIds.get(1));
+        assertEquals(DOC_ID + 1, entry.docIds.get(2));
     }
 
     @Test
@@ -62,4 +71,28 @@ public class SimpleIndexTest {
         SimpleIndex index = builder.build();
         assertSerializationDeserializationMatches(index, SimpleIndex::writeToOutputStream, SimpleIndex::fromInputStream);
     }
+
+    @Test
+    void requireThatIndexCanBeUsedFromMappedFile() throws IOException {
+        SimpleIndex.Builder builder = new SimpleIndex.Builder();
+        builder.insert(KEY, new Posting(DOC_ID, 10));
+        builder.insert(KEY, new Posting(DOC_ID + 1, 20));
+        builder.insert(-KEY, new Posting(DOC_ID, 30));
+        Path file = tempDir.resolve("index");
+        try (PageAlignedFileWriter writer = new PageAlignedFileWriter(file)) {
+            builder.build().writeSections(writer);
+        }
+        SimpleIndex index;
+        try (PageAlignedFileReader reader = new PageAlignedFileReader(file)) {
+            index = SimpleIndex.fromSections(reader);
+        }
+        SimpleIndex.Entry e = index.getPostingList(KEY);
+        assertEquals(2, e.docIds.limit());
+        assertEquals(DOC_ID + 1, e.docIds.get(1));
+        assertEquals(20, e.dataRefs.get(1));
+        assertEquals(30, index.getPostingList(-KEY).dataRefs.get(0));
+        assertNull(index.getPostingList(KEY + 1));
+        assertSame(e.docIds, index.getPostingList(KEY).docIds);
+    }
+
 }
@@ -161,6 +161,31 @@ public class Group extends Identifiable {
 
     }
 
+    /**
+     * Prunes all levels of a partially merged group so that they do not exceed the precision of the level,
+     * keeping the groups with the highest rank. This only prunes levels ranked by relevance, as the rank of
+     * such groups can only increase by further merging. It does not replace {@link #postMerge}.
+     *
+     * @param levels       The specs of all grouping levels.
+     * @param firstLevel   The first level to merge.
+     * @param currentLevel The current level.
+     */
+    public void prune(List<GroupingLevel> levels, int firstLevel, int currentLevel) {
+        if (currentLevel >= levels.size()) return;
+        if (currentLevel >= firstLevel) {
+            long precision = levels.get(currentLevel).getPrecision();
+            if (precision >= 0 && children.size() > precision && children.stream().allMatch(Group::isRankedByRelevance)) {
+                sortChildrenByRank();
+                // Copy, such that the pruned groups are released, and later merges do not modify a view
+                children = new ArrayList<>(children.subList(0, (int)precision));
+                sortChildrenById();
+            }
+        }
+        for (Group group : children) {
+            group.prune(levels, firstLevel, currentLevel + 1);
+        }
+    }
+
     /** Sorts the children by their id, if they are not sorted already. */
     public void sortChildrenById() {
         if (sortType == SortType.BYID) {
@@ -70,6 +70,14 @@ public class Grouping extends Identifiable {
         root.merge(firstLevel, 0, rhs.root);
     }
 
+    /**
+     * Prunes the groups of a partially merged grouping which can not make it into the final result,
+     * to make further merging cheaper. See {@link Group#prune}.
+     */
+    public void prune() {
+        root.prune(groupingLevels, firstLevel, 0);
+    }
+
     /**
      * Invoked after merging is done. It is intended used for resolving any dependencies or derivates
      * that might have changes due to the merge.
@@ -2,6 +2,7 @@
 package com.yahoo.searchlib.aggregation;
 
 import com.yahoo.searchlib.expression.FloatResultNode;
+import com.yahoo.searchlib.expression.IntegerResultNode;
 import com.yahoo.searchlib.expression.NullResultNode;
 import com.yahoo.searchlib.expression.StringBucketResultNode;
 import com.yahoo.vespa.objects.BufferSerializer;
@@ -217,6 +218,31 @@ public class GroupingTestCase {
         assertEquals(StringBucketResultNode.class, grouping.getRoot().getChildren().get(0).getId().getClass());
     }
 
+    @Test
+    public void requireThatPruneKeepsHighestRankedGroupsWithinPrecision() {
+        Grouping grouping = new Grouping();
+        grouping.addLevel(new GroupingLevel().setPrecision(2));
+        grouping.setLastLevel(1);
+        for (int i = 0; i < 5; i++)
+            grouping.getRoot().addChild(new Group().setId(new IntegerResultNode(i)).setRank(i));
+        grouping.prune();
+        assertEquals(2, grouping.getRoot().getChildren().size());
+        assertEquals(new IntegerResultNode(3), grouping.getRoot().getChildren().get(0).getId());
+        assertEquals(new IntegerResultNode(4), grouping.getRoot().getChildren().get(1).getId());
+    }
+
+    @Test
+    public void requireThatPruneLeavesGroupsNotRankedByRelevance() {
+        Grouping grouping = new Grouping();
+        grouping.addLevel(new GroupingLevel().setPrecision(2));
+        grouping.setLastLevel(1);
+        for (int i = 0; i < 5; i++)
+            grouping.getRoot().addChild(new Group().setId(new IntegerResultNode(i)).setRank(i)
+                                                   .addOrderBy(new CountAggregationResult(9), true));
+        grouping.prune();
+        assertEquals(5, grouping.getRoot().getChildren().size());
+    }
+
     private static void assertSerialize(Grouping grouping) {
         BufferSerializer buf = new BufferSerializer();
         grouping.serializeWithId(buf);
@@ -0,0 +1,95 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.service.health;
+
+import ai.vespa.util.http.hc5.VespaAsyncHttpClientBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-safe, asynchronous /state/v1/health client, which shares one connection pool and I/O reactor
+ * between all the endpoints it is used for. The endpoints are plain http, so requests use HTTP/1.1,
+ * over a bounded number of kept-alive connections per endpoint.
+ *
+ * @author agent
+ */
+class AsyncStateV1HealthClient implements AutoCloseable {
+
+    private final CloseableHttpAsyncClient client;
+    private final RequestConfig requestConfig;
+
+    AsyncStateV1HealthClient(Duration requestTimeout, Duration connectionKeepAlive, int maxConnections, int maxConnectionsPerRoute) {
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(requestTimeout.toMillis())) // establishment of connection
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(requestTimeout.toMillis())) // connection from pool
+                .setResponseTimeout(Timeout.ofMilliseconds(requestTimeout.toMillis())) // waiting for data
+                .setDefaultKeepAlive(connectionKeepAlive.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.client = VespaAsyncHttpClientBuilder
+                .create(tlsStrategy -> PoolingAsyncClientConnectionManagerBuilder.create()
+                                                                                 .setMaxConnTotal(maxConnections)
+                                                                                 .setMaxConnPerRoute(maxConnectionsPerRoute)
+                                                                                 .setTlsStrategy(tlsStrategy)
+                                                                                 .build())
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                .setUserAgent("service-monitor")
+                .disableAutomaticRetries()
+                .evictIdleConnections(TimeValue.ofMilliseconds(connectionKeepAlive.toMillis()))
+                .build();
+        client.start();
+    }
+
+    /** Returns the health of the given endpoint. The returned future always completes normally. */
+    CompletableFuture<HealthInfo> get(URL url) {
+        SimpleHttpRequest request = SimpleRequestBuilder.get(url.toString()).build();
+        request.setConfig(requestConfig);
+
+        CompletableFuture<HealthInfo> result = new CompletableFuture<>();
+        client.execute(request, new FutureCallback<>() {
+            @Override public void completed(SimpleHttpResponse response) { result.complete(handle(response)); }
+            @Override public void failed(Exception e) { result.complete(HealthInfo.fromException(e)); }
+            @Override public void cancelled() { result.complete(HealthInfo.fromException(new CancellationException("Request cancelled"))); }
+        });
+        return result;
+    }
+
+    private static HealthInfo handle(SimpleHttpResponse response) {
+        int httpStatusCode = response.getCode();
+        if (httpStatusCode < 200 || httpStatusCode >= 300) {
+            return HealthInfo.fromBadHttpStatusCode(httpStatusCode);
+        }
+
+        try {
+            byte[] body = response.getBodyBytes();
+            if (body == null) {
+                throw new IllegalArgumentException("Empty response body");
+            }
+            if (body.length > StateV1HealthClient.MAX_CONTENT_LENGTH) {
+                throw new IllegalArgumentException("Content too long: " + body.length + " bytes");
+            }
+            return StateV1HealthClient.healthInfoFromBody(response.getBodyText());
+        } catch (Exception e) {
+            return HealthInfo.fromException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+
+}
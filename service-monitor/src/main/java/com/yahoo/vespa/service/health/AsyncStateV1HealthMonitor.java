@@ -0,0 +1,59 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.service.health;
+
+import com.yahoo.vespa.applicationmodel.ServiceStatus;
+import com.yahoo.vespa.applicationmodel.ServiceStatusInfo;
+
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Monitors the health of a single URL endpoint, polled by a {@link StateV1HealthPoller}.
+ *
+ * @author agent
+ */
+class AsyncStateV1HealthMonitor implements HealthMonitor {
+
+    private final URL url;
+    private final StateV1HealthPoller poller;
+
+    private volatile ServiceStatusInfo serviceStatusInfo = new ServiceStatusInfo(ServiceStatus.UNKNOWN);
+    private volatile Duration interval;
+    private volatile boolean closed = false;
+
+    AsyncStateV1HealthMonitor(URL url, StateV1HealthPoller poller) {
+        this.url = url;
+        this.poller = poller;
+        this.interval = poller.minInterval();
+    }
+
+    URL url() { return url; }
+
+    boolean isClosed() { return closed; }
+
+    /** Updates the status from a health lookup started at the given time, and returns the delay until the next lookup. */
+    Duration update(HealthInfo healthInfo, Instant start) {
+        ServiceStatusInfo previous = serviceStatusInfo;
+        serviceStatusInfo = StateV1HealthUpdater.nextServiceStatusInfo(previous, healthInfo, start, url.toString());
+        if (serviceStatusInfo.serviceStatus() != previous.serviceStatus()) {
+            interval = poller.minInterval();
+        } else {
+            Duration doubled = interval.multipliedBy(2);
+            interval = doubled.compareTo(poller.maxInterval()) < 0 ? doubled : poller.maxInterval();
+        }
+        return interval;
+    }
+
+    @Override
+    public ServiceStatusInfo getStatus() {
+        return serviceStatusInfo;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        poller.stopMonitoring(this);
+    }
+
+}
@@ -1,9 +1,11 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespa.service.health;
 
+import com.yahoo.cloud.config.ConfigserverConfig;
 import com.yahoo.component.annotation.Inject;
 import com.yahoo.config.model.api.ApplicationInfo;
 import com.yahoo.config.provision.ApplicationId;
+import com.yahoo.jdisc.Metric;
 import com.yahoo.vespa.applicationmodel.ClusterId;
 import com.yahoo.vespa.applicationmodel.ConfigId;
 import com.yahoo.vespa.applicationmodel.ServiceStatus;
@@ -49,16 +51,40 @@ public class HealthMonitorManager implements MonitorManager, HealthMonitorApi {
     // explicitly set by the server.
     private static final Duration KEEP_ALIVE = Duration.ofSeconds(60);
 
+    // With asyncHealthPolling, all endpoints are polled asynchronously by one poller. The polling interval of an
+    // endpoint starts at MIN_POLL_INTERVAL when its health changes, and backs off to TARGET_HEALTH_STALENESS while
+    // it is stable.
+    // At most MAX_CONCURRENT_REQUESTS are in flight at any time, which also bounds the number of connections.
+    private static final Duration MIN_POLL_INTERVAL = Duration.ofSeconds(1);
+    static final int MAX_CONCURRENT_REQUESTS = MAX_ENDPOINTS / 5;
+
     private final ConcurrentHashMap<ApplicationId, ApplicationHealthMonitor> healthMonitors = new ConcurrentHashMap<>();
     private final DuperModelManager duperModel;
     private final ApplicationHealthMonitorFactory applicationHealthMonitorFactory;
 
     @Inject
+    public HealthMonitorManager(DuperModelManager duperModel, ConfigserverConfig config, Metric metric) {
+        this(duperModel, config.asyncHealthPolling()
+                         ? new StateV1HealthModel(new StateV1HealthPoller(MIN_POLL_INTERVAL,
+                                                                          TARGET_HEALTH_STALENESS,
+                                                                          HEALTH_REQUEST_TIMEOUT,
+                                                                          KEEP_ALIVE,
+                                                                          MAX_CONCURRENT_REQUESTS,
+                                                                          config.healthPollingMaxConnectionsPerEndpoint(),
+                                                                          metric))
+                         : createSynchronousHealthModel());
+    }
+
+    /** Creates a manager polling each endpoint synchronously, using a pool of THREAD_POOL_SIZE threads. */
     public HealthMonitorManager(DuperModelManager duperModel) {
-        this(duperModel, new StateV1HealthModel(TARGET_HEALTH_STALENESS,
-                                                HEALTH_REQUEST_TIMEOUT,
-                                                KEEP_ALIVE,
-                                                new RunletExecutorImpl(THREAD_POOL_SIZE)));
+        this(duperModel, createSynchronousHealthModel());
+    }
+
+    private static StateV1HealthModel createSynchronousHealthModel() {
+        return new StateV1HealthModel(TARGET_HEALTH_STALENESS,
+                                      HEALTH_REQUEST_TIMEOUT,
+                                      KEEP_ALIVE,
+                                      new RunletExecutorImpl(THREAD_POOL_SIZE));
     }
 
     private HealthMonitorManager(DuperModelManager duperModel, StateV1HealthModel healthModel) {
@@ -22,7 +22,7 @@ import static com.yahoo.yolean.Exceptions.uncheck;
  */
 public class StateV1HealthClient implements AutoCloseable {
 
-    private static final long MAX_CONTENT_LENGTH = 1L << 20; // 1 MB
+    static final long MAX_CONTENT_LENGTH = 1L << 20; // 1 MB
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final Logger logger = Logger.getLogger(StateV1HealthClient.class.getName());
     private final ApacheHttpClient httpClient;
@@ -54,6 +54,11 @@ public class StateV1HealthClient implements AutoCloseable {
             throw new IllegalArgumentException("Content too long: " + contentLength + " bytes");
         }
         String body = getContentFunction.apply(bodyEntity);
+        return healthInfoFromBody(body);
+    }
+
+    /** Returns the health info in the given /state/v1/health response body. */
+    static HealthInfo healthInfoFromBody(String body) throws IOException {
         HealthResponse healthResponse = MAPPER.readValue(body, HealthResponse.class);
 
         if (healthResponse.status == null || healthResponse.status.code == null) {
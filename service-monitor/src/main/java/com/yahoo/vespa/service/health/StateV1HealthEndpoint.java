@@ -7,6 +7,7 @@ import com.yahoo.vespa.service.monitor.ServiceId;
 
 import java.net.URL;
 import java.time.Duration;
+import java.util.function.Function;
 
 import static com.yahoo.yolean.Exceptions.uncheck;
 
@@ -16,10 +17,7 @@ import static com.yahoo.yolean.Exceptions.uncheck;
 class StateV1HealthEndpoint implements HealthEndpoint {
     private final ServiceId serviceId;
     private final URL url;
-    private final Duration requestTimeout;
-    private final Duration connectionKeepAlive;
-    private final Duration delay;
-    private final RunletExecutor executor;
+    private final Function<URL, HealthMonitor> monitorFactory;
 
     StateV1HealthEndpoint(ServiceId serviceId,
                           HostName hostname,
@@ -28,12 +26,15 @@ class StateV1HealthEndpoint implements HealthEndpoint {
                           Duration requestTimeout,
                           Duration connectionKeepAlive,
                           RunletExecutor executor) {
+        this(serviceId, hostname, port, url -> new StateV1HealthMonitor(new StateV1HealthUpdater(url, requestTimeout, connectionKeepAlive),
+                                                                         executor,
+                                                                         delay));
+    }
+
+    StateV1HealthEndpoint(ServiceId serviceId, HostName hostname, int port, Function<URL, HealthMonitor> monitorFactory) {
         this.serviceId = serviceId;
-        this.delay = delay;
-        this.executor = executor;
         this.url = uncheck(() -> new URL("http", hostname.value(), port, "/state/v1/health"));
-        this.requestTimeout = requestTimeout;
-        this.connectionKeepAlive = connectionKeepAlive;
+        this.monitorFactory = monitorFactory;
     }
 
     @Override
@@ -43,8 +44,7 @@ class StateV1HealthEndpoint implements HealthEndpoint {
 
     @Override
     public HealthMonitor startMonitoring() {
-        var updater = new StateV1HealthUpdater(url, requestTimeout, connectionKeepAlive);
-        return new StateV1HealthMonitor(updater, executor, delay);
+        return monitorFactory.apply(url);
     }
 
     @Override
@@ -30,7 +30,9 @@ public class StateV1HealthModel implements AutoCloseable {
     private final Duration requestTimeout;
     private final Duration connectionKeepAlive;
     private final RunletExecutor executor;
+    private final StateV1HealthPoller poller;
 
+    /** Creates a model where each endpoint is polled synchronously in a runlet of the given executor. */
     StateV1HealthModel(Duration targetHealthStaleness,
                        Duration requestTimeout,
                        Duration connectionKeepAlive,
@@ -39,6 +41,16 @@ public class StateV1HealthModel implements AutoCloseable {
         this.requestTimeout = requestTimeout;
         this.connectionKeepAlive = connectionKeepAlive;
         this.executor = executor;
+        this.poller = null;
+    }
+
+    /** Creates a model where all endpoints are polled asynchronously by the given poller. */
+    StateV1HealthModel(StateV1HealthPoller poller) {
+        this.targetHealthStaleness = poller.maxInterval();
+        this.requestTimeout = null;
+        this.connectionKeepAlive = null;
+        this.executor = null;
+        this.poller = poller;
     }
 
     Map<ServiceId, HealthEndpoint> extractHealthEndpoints(ApplicationInfo application) {
@@ -50,14 +62,15 @@ public class StateV1HealthModel implements AutoCloseable {
                 ServiceId serviceId = ApplicationInstanceGenerator.getServiceId(application, serviceInfo);
                 for (PortInfo portInfo : serviceInfo.getPorts()) {
                     if (portTaggedWith(portInfo, HTTP_HEALTH_PORT_TAGS)) {
-                        StateV1HealthEndpoint endpoint = new StateV1HealthEndpoint(
-                                serviceId,
-                                hostname,
-                                portInfo.getPort(),
-                                targetHealthStaleness,
-                                requestTimeout,
-                                connectionKeepAlive,
-                                executor);
+                        StateV1HealthEndpoint endpoint = poller == null
+                                ? new StateV1HealthEndpoint(serviceId,
+                                                            hostname,
+                                                            portInfo.getPort(),
+                                                            targetHealthStaleness,
+                                                            requestTimeout,
+                                                            connectionKeepAlive,
+                                                            executor)
+                                : new StateV1HealthEndpoint(serviceId, hostname, portInfo.getPort(), poller::startMonitoring);
                         endpoints.put(serviceId, endpoint);
                         break; // Avoid >1 endpoints per serviceId
                     }
@@ -82,6 +95,7 @@ public class StateV1HealthModel implements AutoCloseable {
 
     @Override
     public void close() {
-        executor.close();
+        if (poller != null) poller.close();
+        if (executor != null) executor.close();
     }
 }
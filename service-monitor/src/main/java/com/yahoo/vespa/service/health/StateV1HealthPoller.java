@@ -0,0 +1,170 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.service.health;
+
+import com.yahoo.concurrent.DaemonThreadFactory;
+import com.yahoo.jdisc.Metric;
+
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Polls /state/v1/health of any number of endpoints, using a single scheduler thread and a shared
+ * asynchronous HTTP client, instead of one thread and client per endpoint.
+ *
+ * <p>The polling interval of each endpoint adapts to its health: it is reset to the minimum interval
+ * when the health status changes, and is then doubled on each poll up to the maximum interval.
+ * The number of concurrent requests is bounded, and polls which are due when this limit is reached
+ * are queued, and sent in order as requests complete.</p>
+ *
+ * @author agent
+ */
+class StateV1HealthPoller implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(StateV1HealthPoller.class.getName());
+
+    static final String POLL_LATENCY_METRIC = "serviceMonitor.health.poll.latency";
+    static final String MAX_STALENESS_METRIC = "serviceMonitor.health.staleness.max";
+    static final String ENDPOINTS_METRIC = "serviceMonitor.health.endpoints";
+
+    private final AsyncStateV1HealthClient client;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Semaphore permits;
+    private final Metric metric;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private final Set<AsyncStateV1HealthMonitor> monitors = ConcurrentHashMap.newKeySet();
+    private final Queue<AsyncStateV1HealthMonitor> waiting = new ConcurrentLinkedQueue<>();
+
+    StateV1HealthPoller(Duration minInterval, Duration maxInterval, Duration requestTimeout, Duration connectionKeepAlive,
+                        int maxConcurrentRequests, int maxConnectionsPerEndpoint, Metric metric) {
+        this(new AsyncStateV1HealthClient(requestTimeout, connectionKeepAlive, maxConcurrentRequests, maxConnectionsPerEndpoint),
+             minInterval, maxInterval, maxConcurrentRequests, metric, Clock.systemUTC(),
+             new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("health-poller-")));
+    }
+
+    StateV1HealthPoller(AsyncStateV1HealthClient client, Duration minInterval, Duration maxInterval,
+                        int maxConcurrentRequests, Metric metric, Clock clock, ScheduledExecutorService scheduler) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0)
+            throw new IllegalArgumentException("Require 0 < minInterval <= maxInterval, but got " +
+                                               minInterval + " and " + maxInterval);
+
+        this.client = client;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.metric = metric;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        scheduler.scheduleWithFixedDelay(this::reportMetrics, maxInterval.toMillis(), maxInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Starts polling the health of the given endpoint, until the returned monitor is closed. */
+    HealthMonitor startMonitoring(URL url) {
+        AsyncStateV1HealthMonitor monitor = new AsyncStateV1HealthMonitor(url, this);
+        monitors.add(monitor);
+        // Spread the initial polls over the maximum interval, to avoid bursts when many endpoints are added
+        schedule(monitor, Duration.ofMillis(ThreadLocalRandom.current().nextLong(maxInterval.toMillis())));
+        return monitor;
+    }
+
+    Duration minInterval() { return minInterval; }
+    Duration maxInterval() { return maxInterval; }
+    Instant now() { return clock.instant(); }
+
+    void stopMonitoring(AsyncStateV1HealthMonitor monitor) {
+        monitors.remove(monitor);
+    }
+
+    /** Polls the given monitor after the given delay, unless the monitor is closed by then. */
+    void schedule(AsyncStateV1HealthMonitor monitor, Duration delay) {
+        if (monitor.isClosed() || scheduler.isShutdown()) return;
+        scheduler.schedule(() -> poll(monitor), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void poll(AsyncStateV1HealthMonitor monitor) {
+        if (monitor.isClosed()) return;
+        waiting.add(monitor);
+        pollWaiting();
+    }
+
+    /**
+     * Polls waiting monitors while there are permits. A permit which is released after another thread failed to
+     * acquire one is always followed by a call to this, so monitors are never left waiting with a permit available.
+     */
+    private void pollWaiting() {
+        while ( ! waiting.isEmpty() && permits.tryAcquire()) {
+            AsyncStateV1HealthMonitor monitor = waiting.poll();
+            if (monitor == null || monitor.isClosed())
+                permits.release();
+            else
+                fetch(monitor);
+        }
+    }
+
+    /** Fetches the health of the given monitor, using a permit which is acquired by the caller. */
+    private void fetch(AsyncStateV1HealthMonitor monitor) {
+        // Get time before fetching rather than after, to make the resulting age be an upper limit.
+        Instant start = clock.instant();
+        try {
+            client.get(monitor.url()).whenComplete((healthInfo, exception) -> {
+                permits.release();
+                pollWaiting();
+                metric.set(POLL_LATENCY_METRIC, Duration.between(start, clock.instant()).toMillis() / 1000.0, null);
+                Duration nextInterval = monitor.update(exception == null ? healthInfo : HealthInfo.fromException(asException(exception)),
+                                                       start);
+                schedule(monitor, nextInterval);
+            });
+        }
+        catch (RuntimeException e) {
+            permits.release();
+            logger.log(Level.WARNING, "Failed polling health of " + monitor.url(), e);
+            schedule(monitor, monitor.update(HealthInfo.fromException(e), start));
+        }
+    }
+
+    void reportMetrics() {
+        Instant now = clock.instant();
+        Duration maxStaleness = Duration.ZERO;
+        for (AsyncStateV1HealthMonitor monitor : monitors) {
+            Instant lastChecked = monitor.getStatus().lastChecked().orElse(null);
+            if (lastChecked == null) continue;
+            Duration staleness = Duration.between(lastChecked, now);
+            if (staleness.compareTo(maxStaleness) > 0)
+                maxStaleness = staleness;
+        }
+        metric.set(MAX_STALENESS_METRIC, maxStaleness.toMillis() / 1000.0, null);
+        metric.set(ENDPOINTS_METRIC, monitors.size(), null);
+    }
+
+    private static Exception asException(Throwable throwable) {
+        return throwable instanceof Exception ? (Exception) throwable : new RuntimeException(throwable);
+    }
+
+    @Override
+    public void close() {
+        monitors.forEach(AsyncStateV1HealthMonitor::close);
+        scheduler.shutdown();
+        try {
+            if ( ! scheduler.awaitTermination(10, TimeUnit.SECONDS))
+                logger.log(Level.WARNING, "Timed out waiting for termination of health poller");
+        } catch (InterruptedException e) {
+            logger.log(Level.WARNING, "Interrupted waiting for termination of health poller", e);
+        }
+        client.close();
+    }
+
+}
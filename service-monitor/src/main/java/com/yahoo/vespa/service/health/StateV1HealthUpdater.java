@@ -52,11 +52,16 @@ class StateV1HealthUpdater implements HealthUpdater {
             healthInfo = HealthInfo.fromException(e);
         }
 
+        serviceStatusInfo = nextServiceStatusInfo(serviceStatusInfo, healthInfo, now, endpoint);
+    }
+
+    /** Returns the status info following the given previous one, after a health lookup started at the given time. */
+    static ServiceStatusInfo nextServiceStatusInfo(ServiceStatusInfo previous, HealthInfo healthInfo, Instant now, String endpoint) {
         ServiceStatus newServiceStatus = healthInfo.isHealthy() ? ServiceStatus.UP : ServiceStatus.DOWN;
 
         final Optional<Instant> newSince;
-        if (newServiceStatus == serviceStatusInfo.serviceStatus()) {
-            newSince = serviceStatusInfo.since();
+        if (newServiceStatus == previous.serviceStatus()) {
+            newSince = previous.since();
         } else {
             newSince = Optional.of(now);
 
@@ -66,8 +71,8 @@ class StateV1HealthUpdater implements HealthUpdater {
             }
         }
 
-        serviceStatusInfo = new ServiceStatusInfo(newServiceStatus, newSince, Optional.of(now),
-                healthInfo.getErrorDescription(), Optional.of(endpoint));
+        return new ServiceStatusInfo(newServiceStatus, newSince, Optional.of(now),
+                                     healthInfo.getErrorDescription(), Optional.of(endpoint));
     }
 
     @Override
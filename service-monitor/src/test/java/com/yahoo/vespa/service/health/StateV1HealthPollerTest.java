@@ -0,0 +1,110 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.vespa.service.health;
+
+import com.yahoo.jdisc.Metric;
+import com.yahoo.vespa.applicationmodel.ServiceStatus;
+import org.junit.Test;
+
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent
+ */
+public class StateV1HealthPollerTest {
+
+    private final AsyncStateV1HealthClient client = mock(AsyncStateV1HealthClient.class);
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final Metric metric = mock(Metric.class);
+    private final Clock clock = Clock.fixed(Instant.ofEpochSecond(1000), ZoneOffset.UTC);
+    private final StateV1HealthPoller poller = new StateV1HealthPoller(client, Duration.ofSeconds(1), Duration.ofSeconds(10),
+                                                                       1, metric, clock, scheduler);
+
+    @Test
+    public void intervalBacksOffWhileHealthIsStableAndIsResetOnChange() throws Exception {
+        URL url = new URL("http://host.com:19071/state/v1/health");
+        AsyncStateV1HealthMonitor monitor = (AsyncStateV1HealthMonitor) poller.startMonitoring(url);
+        assertEquals(ServiceStatus.UNKNOWN, monitor.getStatus().serviceStatus());
+
+        when(client.get(url)).thenReturn(CompletableFuture.completedFuture(HealthInfo.fromHealthStatusCode(HealthInfo.UP_STATUS_CODE)));
+        assertNextDelay(monitor, 1);
+        assertEquals(ServiceStatus.UP, monitor.getStatus().serviceStatus());
+        assertEquals(clock.instant(), monitor.getStatus().lastChecked().get());
+        assertNextDelay(monitor, 2);
+        assertNextDelay(monitor, 4);
+        assertNextDelay(monitor, 8);
+        assertNextDelay(monitor, 10);
+        assertNextDelay(monitor, 10);
+
+        when(client.get(url)).thenReturn(CompletableFuture.completedFuture(HealthInfo.fromBadHttpStatusCode(500)));
+        assertNextDelay(monitor, 1);
+        assertEquals(ServiceStatus.DOWN, monitor.getStatus().serviceStatus());
+        assertNextDelay(monitor, 2);
+
+        verify(metric, times(8)).set(eq(StateV1HealthPoller.POLL_LATENCY_METRIC), any(), any());
+    }
+
+    @Test
+    public void pollsAreQueuedWhenConcurrencyLimitIsReached() throws Exception {
+        URL url1 = new URL("http://host1.com:19071/state/v1/health");
+        URL url2 = new URL("http://host2.com:19071/state/v1/health");
+        AsyncStateV1HealthMonitor monitor1 = (AsyncStateV1HealthMonitor) poller.startMonitoring(url1);
+        AsyncStateV1HealthMonitor monitor2 = (AsyncStateV1HealthMonitor) poller.startMonitoring(url2);
+
+        CompletableFuture<HealthInfo> pending = new CompletableFuture<>();
+        when(client.get(url1)).thenReturn(pending);
+        when(client.get(url2)).thenReturn(CompletableFuture.completedFuture(HealthInfo.fromHealthStatusCode(HealthInfo.UP_STATUS_CODE)));
+
+        poller.poll(monitor1);
+        clearInvocations(scheduler);
+        poller.poll(monitor2);
+        verify(client, never()).get(url2);
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+
+        pending.complete(HealthInfo.fromHealthStatusCode(HealthInfo.UP_STATUS_CODE));
+        verify(client).get(url2);
+        assertEquals(ServiceStatus.UP, monitor2.getStatus().serviceStatus());
+    }
+
+    @Test
+    public void closedMonitorsAreNotPolled() throws Exception {
+        URL url = new URL("http://host.com:19071/state/v1/health");
+        AsyncStateV1HealthMonitor monitor = (AsyncStateV1HealthMonitor) poller.startMonitoring(url);
+        monitor.close();
+        assertTrue(monitor.isClosed());
+
+        poller.poll(monitor);
+        verify(client, never()).get(any());
+
+        poller.reportMetrics();
+        verify(metric).set(StateV1HealthPoller.ENDPOINTS_METRIC, 0, null);
+        assertFalse(monitor.getStatus().lastChecked().isPresent());
+    }
+
+    private void assertNextDelay(AsyncStateV1HealthMonitor monitor, long expectedSeconds) {
+        clearInvocations(scheduler);
+        poller.poll(monitor);
+        verify(scheduler).schedule(any(Runnable.class), eq(expectedSeconds * 1000), eq(TimeUnit.MILLISECONDS));
+        verify(scheduler, never()).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+    }
+
+}
@@ -116,7 +116,12 @@ public interface FeedClientBuilder {
     /** Specify HTTP(S) proxy for all endpoints */
     FeedClientBuilder setProxy(URI uri);
 
+    /** Sets the content encoding used to compress request bodies; the default is no compression */
+    FeedClientBuilder setCompression(Compression compression);
+
     /** Constructs instance of {@link FeedClient} from builder configuration */
     FeedClient build();
 
+    enum Compression { none, zstd }
+
 }
@@ -1,6 +1,7 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package ai.vespa.feed.client.impl;
 
+import ai.vespa.feed.client.FeedClientBuilder.Compression;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -58,6 +59,7 @@ class CliArguments {
     private static final String STDIN_OPTION = "stdin";
     private static final String DOOM_OPTION = "max-failure-seconds";
     private static final String PROXY_OPTION = "proxy";
+    private static final String COMPRESSION_OPTION = "compression";
 
     private final CommandLine arguments;
 
@@ -193,6 +195,14 @@ class CliArguments {
         }
     }
 
+    Compression compression() throws CliArgumentsException {
+        try {
+            return stringValue(COMPRESSION_OPTION).map(Compression::valueOf).orElse(Compression.none);
+        } catch (IllegalArgumentException e) {
+            throw new CliArgumentsException("Invalid compression: " + stringValue(COMPRESSION_OPTION).get(), e);
+        }
+    }
+
     private OptionalInt intValue(String option) throws CliArgumentsException {
         try {
             Number number = (Number) arguments.getParsedOptionValue(option);
@@ -354,6 +364,11 @@ class CliArguments {
                         .desc("URI to proxy endpoint")
                         .hasArg()
                         .type(URL.class)
+                        .build())
+                .addOption(Option.builder()
+                        .longOpt(COMPRESSION_OPTION)
+                        .desc("Compression of request bodies: 'none' or 'zstd'. Default is none")
+                        .hasArg()
                         .build());
     }
 
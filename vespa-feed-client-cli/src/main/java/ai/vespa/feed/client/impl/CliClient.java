@@ -165,6 +165,7 @@ public class CliClient {
         cliArgs.doomSeconds().ifPresent(doom -> builder.setCircuitBreaker(new GracePeriodCircuitBreaker(Duration.ofSeconds(10),
                                                                                                         Duration.ofSeconds(doom))));
         cliArgs.proxy().ifPresent(builder::setProxy);
+        builder.setCompression(cliArgs.compression());
         return builder.build();
     }
 
@@ -1,6 +1,7 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package ai.vespa.feed.client.impl;
 
+import ai.vespa.feed.client.FeedClientBuilder.Compression;
 import ai.vespa.feed.client.impl.CliArguments.CliArgumentsException;
 import org.junit.jupiter.api.Test;
 
@@ -29,7 +30,8 @@ class CliArgumentsTest {
                 "--ca-certificates=ca-certs.pem", "--disable-ssl-hostname-verification",
                 "--header=\"My-Header: my-value\"", "--header", "Another-Header: another-value", "--benchmark",
                 "--route=myroute", "--timeout=0.125", "--trace=9", "--verbose", "--silent",
-                "--show-errors", "--show-all", "--max-failure-seconds=30", "--proxy", "https://myproxy:1234"});
+                "--show-errors", "--show-all", "--max-failure-seconds=30", "--proxy", "https://myproxy:1234",
+                "--compression", "zstd"});
         assertEquals(URI.create("https://vespa.ai:4443/"), args.endpoint());
         assertEquals(Paths.get("feed.json"), args.inputFile().get());
         assertEquals(10, args.connections().getAsInt());
@@ -53,6 +55,7 @@ class CliArgumentsTest {
         assertTrue(args.showSuccesses());
         assertFalse(args.showProgress());
         assertEquals(URI.create("https://myproxy:1234"), args.proxy().orElse(null));
+        assertEquals(Compression.zstd, args.compression());
     }
 
     @Test
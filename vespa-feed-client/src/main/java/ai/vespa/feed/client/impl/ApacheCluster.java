@@ -1,7 +1,9 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package ai.vespa.feed.client.impl;
 
+import ai.vespa.feed.client.FeedClientBuilder.Compression;
 import ai.vespa.feed.client.HttpResponse;
+import io.airlift.compress.zstd.ZstdCompressor;
 import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
 import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 import org.apache.hc.client5.http.config.RequestConfig;
@@ -43,6 +45,7 @@ class ApacheCluster implements Cluster {
     private final List<BasicHeader> defaultHeaders = Arrays.asList(new BasicHeader("User-Agent", String.format("vespa-feed-client/%s", Vespa.VERSION)),
                                                                    new BasicHeader("Vespa-Client-Version", Vespa.VERSION));
     private final RequestConfig requestConfig;
+    private final boolean compress;
     private int someNumber = 0;
 
     private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(t -> new Thread(t, "request-timeout-thread"));
@@ -52,6 +55,7 @@ class ApacheCluster implements Cluster {
             for (URI endpoint : builder.endpoints)
                 endpoints.add(new Endpoint(createHttpClient(builder), endpoint));
         this.requestConfig = createRequestConfig(builder);
+        this.compress = builder.compression == Compression.zstd;
     }
 
     @Override
@@ -77,8 +81,14 @@ class ApacheCluster implements Cluster {
             request.setConfig(requestConfig);
             defaultHeaders.forEach(request::setHeader);
             wrapped.headers().forEach((name, value) -> request.setHeader(name, value.get()));
-            if (wrapped.body() != null)
-                request.setBody(wrapped.body(), ContentType.APPLICATION_JSON);
+            if (wrapped.body() != null) {
+                if (compress) {
+                    request.setHeader("Content-Encoding", "zstd");
+                    request.setBody(zstd(wrapped.body()), ContentType.APPLICATION_JSON);
+                }
+                else
+                    request.setBody(wrapped.body(), ContentType.APPLICATION_JSON);
+            }
 
             Future<?> future = endpoint.client.execute(request,
                                                        new FutureCallback<SimpleHttpResponse>() {
@@ -96,6 +106,14 @@ class ApacheCluster implements Cluster {
         vessel.whenComplete((__, ___) -> endpoint.inflight.decrementAndGet());
     }
 
+    /** Compresses the given body as a single Zstd frame */
+    private static byte[] zstd(byte[] body) {
+        ZstdCompressor compressor = new ZstdCompressor();
+        byte[] compressed = new byte[compressor.maxCompressedLength(body.length)];
+        int length = compressor.compress(body, 0, body.length, compressed, 0, compressed.length);
+        return Arrays.copyOf(compressed, length);
+    }
+
     @Override
     public void close() {
         Throwable thrown = null;
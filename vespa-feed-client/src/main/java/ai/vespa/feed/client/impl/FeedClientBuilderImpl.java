@@ -51,6 +51,7 @@ public class FeedClientBuilderImpl implements FeedClientBuilder {
     boolean dryrun = false;
     boolean speedTest = false;
     URI proxy;
+    Compression compression = Compression.none;
 
 
     public FeedClientBuilderImpl() {
@@ -196,6 +197,12 @@ public class FeedClientBuilderImpl implements FeedClientBuilder {
 
     @Override public FeedClientBuilder setProxy(URI uri) { this.proxy = uri; return this; }
 
+    @Override
+    public FeedClientBuilderImpl setCompression(Compression compression) {
+        this.compression = requireNonNull(compression);
+        return this;
+    }
+
     /** Constructs instance of {@link ai.vespa.feed.client.FeedClient} from builder configuration */
     @Override
     public FeedClient build() {
@@ -9,6 +9,7 @@ import com.yahoo.concurrent.DaemonThreadFactory;
 import com.yahoo.concurrent.SystemTimer;
 import com.yahoo.container.core.HandlerMetricContextUtil;
 import com.yahoo.container.core.documentapi.VespaDocumentAccess;
+import com.yahoo.compress.CompressionType;
 import com.yahoo.container.jdisc.ContentChannelOutputStream;
 import com.yahoo.document.Document;
 import com.yahoo.document.DocumentId;
@@ -18,6 +19,7 @@ import com.yahoo.document.DocumentRemove;
 import com.yahoo.document.DocumentTypeManager;
 import com.yahoo.document.DocumentUpdate;
 import com.yahoo.document.FixedBucketSpaces;
+import com.yahoo.document.columnar.ColumnarDocumentWriter;
 import com.yahoo.document.TestAndSetCondition;
 import com.yahoo.document.config.DocumentmanagerConfig;
 import com.yahoo.document.fieldset.DocIdOnly;
@@ -79,6 +81,8 @@ import java.nio.ByteBuffer;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -169,6 +173,9 @@ public class DocumentV1ApiHandler extends AbstractRequestHandler {
     private static final String SLICES = "slices";
     private static final String SLICE_ID = "sliceId";
     private static final String DRY_RUN = "dryRun";
+    private static final String DOCUMENT_FORMAT = "format.documents";
+    private static final int COLUMNAR_BATCH_SIZE = 256;
+    private static final Duration COLUMNAR_BATCH_LINGER = Duration.ofMillis(100);
 
     private final Clock clock;
     private final Duration handlerTimeout;
@@ -365,9 +372,13 @@ public class DocumentV1ApiHandler extends AbstractRequestHandler {
         disallow(request, DRY_RUN);
         enqueueAndDispatch(request, handler, () -> {
             boolean streamed = getProperty(request, STREAM, booleanParser).orElse(false);
+            boolean columnar = isColumnarFormat(request);
             VisitorParameters parameters = parseGetParameters(request, path, streamed);
             return () -> {
-                visitAndWrite(request, parameters, handler, streamed);
+                if (columnar)
+                    visitAndWriteColumnar(request, parameters, handler, streamed);
+                else
+                    visitAndWrite(request, parameters, handler, streamed);
                 return true; // VisitorSession has its own throttle handling.
             };
         });
@@ -750,6 +761,16 @@ public class DocumentV1ApiHandler extends AbstractRequestHandler {
             json.writeArrayFieldStart("documents");
         }
 
+        synchronized void writeBatchesArrayStart() throws IOException {
+            json.writeArrayFieldStart("batches");
+        }
+
+        /** Writes the given documents, of one document type, as a base64 encoded columnar batch, and flushes it. */
+        synchronized void writeBatchValue(List<Document> documents) throws IOException {
+            json.writeString(Base64.getEncoder().encodeToString(ColumnarDocumentWriter.encode(documents, CompressionType.LZ4)));
+            json.flush();
+        }
+
         /** Writes documents to an internal queue, which is flushed regularly. */
         void writeDocumentValue(Document document, CompletionHandler completionHandler) throws IOException {
             if (completionHandler != null) {
@@ -1287,6 +1308,95 @@ public class DocumentV1ApiHandler extends AbstractRequestHandler {
         });
     }
 
+    private static boolean isColumnarFormat(HttpRequest request) {
+        String format = getProperty(request, DOCUMENT_FORMAT).orElse("json");
+        switch (format) {
+            case "json": return false;
+            case "columnar": return true;
+            default: throw new IllegalArgumentException("Document format must be 'json' or 'columnar', but was '" + format + "'");
+        }
+    }
+
+    /**
+     * Writes the visited documents as an array of base64 encoded batches in the columnar format of
+     * {@link ColumnarDocumentWriter}, instead of JSON documents. The pending batch is written when full, when the next
+     * document is of another type, or when it has waited for COLUMNAR_BATCH_LINGER, and its documents are acked
+     * only after it is written. Each visitor may have a full batch of unacked documents, so that one visitor can fill it.
+     */
+    private void visitAndWriteColumnar(HttpRequest request, VisitorParameters parameters, ResponseHandler handler, boolean streamed) {
+        parameters.setMaxPending(Math.max(parameters.getMaxPending(), COLUMNAR_BATCH_SIZE));
+        visit(request, parameters, streamed, handler, new VisitCallback() {
+            final List<Document> batch = new ArrayList<>();
+            final List<Runnable> acks = new ArrayList<>(); // Acks of the documents in the batch.
+            ScheduledFuture<?> linger = null;
+            @Override public void onStart(JsonResponse response) throws IOException {
+                if (streamed)
+                    response.commit(Response.Status.OK);
+
+                response.writeBatchesArrayStart();
+            }
+            @Override public void onDocument(JsonResponse response, Document document, Runnable ack, Consumer<String> onError) {
+                List<Runnable> written = new ArrayList<>();
+                try {
+                    synchronized (batch) {
+                        if ( ! batch.isEmpty() && ! batch.get(0).getDataType().equals(document.getDataType()))
+                            writeBatch(response, written);
+
+                        batch.add(document);
+                        acks.add(ack);
+                        if (batch.size() >= COLUMNAR_BATCH_SIZE)
+                            writeBatch(response, written);
+                        else if (linger == null)
+                            linger = visitDispatcher.schedule(() -> writeLingering(response, onError),
+                                                              COLUMNAR_BATCH_LINGER.toMillis(), MILLISECONDS);
+                    }
+                }
+                catch (Exception e) {
+                    onError.accept(e.getMessage());
+                }
+                written.forEach(Runnable::run); // Outside the lock, as acking may deliver the next document.
+            }
+            @Override public void onEnd(JsonResponse response) throws IOException {
+                List<Runnable> written = new ArrayList<>();
+                try {
+                    synchronized (batch) {
+                        writeBatch(response, written);
+                    }
+                }
+                finally {
+                    written.forEach(Runnable::run);
+                }
+                response.writeArrayEnd();
+            }
+            private void writeLingering(JsonResponse response, Consumer<String> onError) {
+                List<Runnable> written = new ArrayList<>();
+                try {
+                    synchronized (batch) {
+                        writeBatch(response, written);
+                    }
+                }
+                catch (Exception e) {
+                    onError.accept(e.getMessage());
+                }
+                written.forEach(Runnable::run);
+            }
+            /** Writes the pending batch, if any, and moves the acks of its documents to the given list, also if writing fails. */
+            private void writeBatch(JsonResponse response, List<Runnable> written) throws IOException {
+                if (linger != null) linger.cancel(false);
+                linger = null;
+                if (batch.isEmpty()) return;
+                try {
+                    response.writeBatchValue(List.copyOf(batch));
+                }
+                finally {
+                    batch.clear();
+                    written.addAll(acks);
+                    acks.clear();
+                }
+            }
+        });
+    }
+
     private void visitWithRemote(HttpRequest request, VisitorParameters parameters, ResponseHandler handler) {
         visit(request, parameters, false, handler, new VisitCallback() { });
     }
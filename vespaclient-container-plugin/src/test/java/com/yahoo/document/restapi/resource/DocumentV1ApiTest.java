@@ -12,6 +12,8 @@ import com.yahoo.document.DocumentTypeManager;
 import com.yahoo.document.DocumentUpdate;
 import com.yahoo.document.FixedBucketSpaces;
 import com.yahoo.document.TestAndSetCondition;
+import com.yahoo.document.columnar.ColumnarBatch;
+import com.yahoo.document.columnar.ColumnarDocumentReader;
 import com.yahoo.document.config.DocumentmanagerConfig;
 import com.yahoo.document.datatypes.StringFieldValue;
 import com.yahoo.document.datatypes.TensorFieldValue;
@@ -64,6 +66,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -300,6 +303,28 @@ public class DocumentV1ApiTest {
                        "}", response.readAll());
         assertEquals(200, response.getStatus());
 
+        // GET with format.documents=columnar writes the documents as base64 encoded batches in the columnar format
+        access.expect(tokens);
+        access.expect(parameters -> {
+            parameters.getLocalDataHandler().onMessage(new PutDocumentMessage(new DocumentPut(doc1)), tokens.get(0));
+            parameters.getLocalDataHandler().onMessage(new PutDocumentMessage(new DocumentPut(doc2)), tokens.get(1));
+            parameters.getControlHandler().onDone(VisitorControlHandler.CompletionCode.SUCCESS, "We made it!");
+        });
+        response = driver.sendRequest("http://localhost/document/v1/space/music/docid?format.documents=columnar&stream=true");
+        Inspector columnar = SlimeUtils.jsonToSlime(response.readAll()).get();
+        assertEquals(200, response.getStatus());
+        assertEquals(2, columnar.field("documentCount").asLong());
+        assertEquals(1, columnar.field("batches").entries());
+        ColumnarBatch batch = ColumnarDocumentReader.decode(Base64.getDecoder().decode(columnar.field("batches").entry(0).asString()));
+        assertEquals("music", batch.documentType());
+        assertEquals("id:space:music:n=1:two", batch.id(1));
+        assertEquals("Tom Waits", batch.column("artist").get().getString(0));
+        assertEquals(Tensor.from("tensor(x[3]):[4,5,6]"), batch.column("embedding").get().getTensor(1));
+
+        // GET with an unknown document format is a bad request
+        response = driver.sendRequest("http://localhost/document/v1/space/music/docid?format.documents=xml");
+        assertEquals(400, response.getStatus());
+
         // GET with namespace and document type is a restricted visit.
         ProgressToken progress = new ProgressToken();
         VisitorIterator.createFromExplicitBucketSet(Set.of(new BucketId(1), new BucketId(2)), 8, progress)
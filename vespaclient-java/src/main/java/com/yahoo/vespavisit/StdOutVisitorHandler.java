@@ -1,9 +1,11 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespavisit;
 
+import com.yahoo.compress.CompressionType;
 import com.yahoo.document.BucketId;
 import com.yahoo.document.Document;
 import com.yahoo.document.DocumentId;
+import com.yahoo.document.columnar.ColumnarDocumentWriter;
 import com.yahoo.document.json.JsonWriter;
 import com.yahoo.document.serialization.XmlStream;
 import com.yahoo.documentapi.AckToken;
@@ -40,6 +42,7 @@ public class StdOutVisitorHandler extends VdsVisitHandler {
     private int processTimeMilliSecs;
     private PrintStream out;
     private final boolean jsonOutput;
+    private final ColumnarDocumentWriter columnarWriter;
 
     private VisitorDataHandler dataHandler;
 
@@ -47,18 +50,37 @@ public class StdOutVisitorHandler extends VdsVisitHandler {
                                 boolean showProgress, boolean showStatistics, boolean doStatistics,
                                 boolean abortOnClusterDown, int processtime, boolean jsonOutput)
     {
-        this(printIds, indentXml, showProgress, showStatistics, doStatistics, abortOnClusterDown, processtime, jsonOutput, createStdOutPrintStream());
+        this(printIds, indentXml, showProgress, showStatistics, doStatistics, abortOnClusterDown, processtime, jsonOutput, 0);
+    }
+
+    /**
+     * Creates a handler which writes documents in the columnar binary format of {@link ColumnarDocumentWriter},
+     * in batches of the given size, if this is positive, instead of as JSON or XML.
+     */
+    public StdOutVisitorHandler(boolean printIds, boolean indentXml,
+                                boolean showProgress, boolean showStatistics, boolean doStatistics,
+                                boolean abortOnClusterDown, int processtime, boolean jsonOutput, int columnarBatchSize)
+    {
+        this(printIds, indentXml, showProgress, showStatistics, doStatistics, abortOnClusterDown, processtime, jsonOutput, columnarBatchSize, createStdOutPrintStream());
     }
 
     StdOutVisitorHandler(boolean printIds, boolean indentXml,
                          boolean showProgress, boolean showStatistics, boolean doStatistics,
                          boolean abortOnClusterDown, int processtime, boolean jsonOutput, PrintStream out)
+    {
+        this(printIds, indentXml, showProgress, showStatistics, doStatistics, abortOnClusterDown, processtime, jsonOutput, 0, out);
+    }
+
+    StdOutVisitorHandler(boolean printIds, boolean indentXml,
+                         boolean showProgress, boolean showStatistics, boolean doStatistics,
+                         boolean abortOnClusterDown, int processtime, boolean jsonOutput, int columnarBatchSize, PrintStream out)
     {
         super(showProgress, showStatistics, abortOnClusterDown);
         this.printIds = printIds;
         this.indentXml = indentXml;
         this.processTimeMilliSecs = processtime;
         this.jsonOutput = jsonOutput;
+        this.columnarWriter = columnarBatchSize > 0 ? new ColumnarDocumentWriter(out, columnarBatchSize, CompressionType.LZ4) : null;
         this.out = out;
         this.dataHandler = new DataHandler(doStatistics);
     }
@@ -153,7 +175,9 @@ public class StdOutVisitorHandler extends VdsVisitHandler {
                     out.print(" (Last modified at ");
                     out.println(timestamp + ")");
                 } else {
-                    if (jsonOutput) {
+                    if (columnarWriter != null) {
+                        columnarWriter.write(doc);
+                    } else if (jsonOutput) {
                         writeJsonDocument(doc);
                     } else {
                         out.print(doc.toXML(
@@ -181,6 +205,8 @@ public class StdOutVisitorHandler extends VdsVisitHandler {
 
                 if (printIds) {
                     out.println(docId + " (Removed)");
+                } else if (columnarWriter != null) {
+                    throw new UnsupportedOperationException("Removes can not be written as columnar output");
                 } else {
                     if (jsonOutput) {
                         writeJsonDocumentRemove(docId);
@@ -249,7 +275,14 @@ public class StdOutVisitorHandler extends VdsVisitHandler {
 
         @Override
         public synchronized void onDone() {
-            if (jsonOutput && !printIds) {
+            if (columnarWriter != null && !printIds) {
+                try {
+                    columnarWriter.flush();
+                } catch (IOException e) {
+                    System.err.println("Failed to output documents: " + e.getMessage());
+                }
+            }
+            else if (jsonOutput && !printIds) {
                 if (first) {
                     out.print('[');
                 }
@@ -339,6 +339,15 @@ public class VdsVisit {
               .hasArg(false)
               .build());
 
+        options.addOption(Option.builder()
+                .longOpt("columnaroutput")
+                .hasArg(true)
+                .argName("batchsize")
+                .desc("Output documents in batches of this size, in a compressed, columnar binary format, " +
+                      "which is read with com.yahoo.document.columnar.ColumnarDocumentReader")
+                .type(Number.class)
+                .build());
+
         options.addOption(Option.builder()
                 .longOpt("bucketspace")
                 .hasArg(true)
@@ -362,6 +371,7 @@ public class VdsVisit {
         private int processTime = 0;
         private int fullTimeout = 7 * 24 * 60 * 60 * 1000;
         private boolean jsonOutput = false;
+        private int columnarBatchSize = 0;
 
         public VisitorParameters getVisitorParameters() {
             return visitorParameters;
@@ -430,6 +440,14 @@ public class VdsVisit {
         public void setJsonOutput(boolean jsonOutput) {
             this.jsonOutput = jsonOutput;
         }
+
+        public int getColumnarBatchSize() {
+            return columnarBatchSize;
+        }
+
+        public void setColumnarBatchSize(int columnarBatchSize) {
+            this.columnarBatchSize = columnarBatchSize;
+        }
     }
 
     protected static class ArgumentParser {
@@ -559,6 +577,19 @@ public class VdsVisit {
                 throw new IllegalArgumentException("Cannot combine both xml and json output");
             }
             allParams.setJsonOutput(!xmlOutput);
+            if (line.hasOption("columnaroutput")) {
+                if (jsonOutput || xmlOutput) {
+                    throw new IllegalArgumentException("Cannot combine columnar output with xml or json output");
+                }
+                if (line.hasOption("r")) {
+                    throw new IllegalArgumentException("Removed documents cannot be included in columnar output");
+                }
+                int batchSize = ((Number) line.getParsedOptionValue("columnaroutput")).intValue();
+                if (batchSize < 1) {
+                    throw new IllegalArgumentException("Columnar output batch size must be positive");
+                }
+                allParams.setColumnarBatchSize(batchSize);
+            }
 
             allParams.setVisitorParameters(params);
             return allParams;
@@ -722,7 +753,8 @@ public class VdsVisit {
                 params.getStatisticsParts() != null,
                 params.getAbortOnClusterDown(),
                 params.getProcessTime(),
-                params.jsonOutput);
+                params.jsonOutput,
+                params.getColumnarBatchSize());
 
         if (visitorParameters.getResumeFileName() != null) {
             handler.setProgressFileName(visitorParameters.getResumeFileName());
@@ -1,14 +1,26 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.vespavisit;
 
+import com.yahoo.document.DataType;
+import com.yahoo.document.Document;
+import com.yahoo.document.DocumentType;
+import com.yahoo.document.Field;
+import com.yahoo.document.columnar.ColumnarBatch;
+import com.yahoo.document.columnar.ColumnarDocumentReader;
+import com.yahoo.document.datatypes.StringFieldValue;
+import com.yahoo.documentapi.DumpVisitorDataHandler;
 import com.yahoo.documentapi.VisitorDataHandler;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 /**
  * @author bjorncs
@@ -50,4 +62,28 @@ public class StdOutVisitorHandlerTest {
         String output = out.toString().trim();
         assertEquals(expectedOutput, output);
     }
-}
\ No newline at end of file
+
+    @Test
+    void columnar_output_is_written_in_batches() throws IOException {
+        DocumentType type = new DocumentType("music");
+        type.addField(new Field("artist", DataType.STRING));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StdOutVisitorHandler visitorHandler =
+                new StdOutVisitorHandler(false, false, false, false, false, false, 0, false, 2, new PrintStream(out, true));
+        DumpVisitorDataHandler dataHandler = (DumpVisitorDataHandler) visitorHandler.getDataHandler();
+        for (int i = 0; i < 3; i++) {
+            Document document = new Document(type, "id:ns:music::" + i);
+            document.setFieldValue("artist", new StringFieldValue("artist" + i));
+            dataHandler.onDocument(document, 0);
+        }
+        dataHandler.onDone();
+
+        ColumnarDocumentReader reader = new ColumnarDocumentReader(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(2, reader.next().get().size());
+        ColumnarBatch last = reader.next().get();
+        assertEquals("id:ns:music::2", last.id(0));
+        assertEquals("artist2", last.column("artist").get().getString(0));
+        assertFalse(reader.next().isPresent());
+    }
+
+}
@@ -223,6 +223,22 @@ public class VdsVisitTestCase {
         }
     }
 
+    @Test
+    void columnar_output_requires_positive_batch_size_and_no_removes() throws Exception {
+        VdsVisit.ArgumentParser parser = createMockArgumentParser();
+        assertEquals(0, parser.parse(emptyArgList()).getColumnarBatchSize());
+        assertEquals(500, parser.parse(new String[]{"--columnaroutput", "500"}).getColumnarBatchSize());
+
+        for (String[] args : List.of(new String[]{"--columnaroutput", "0"},
+                                     new String[]{"--columnaroutput", "500", "--jsonoutput"},
+                                     new String[]{"--columnaroutput", "500", "--visitremoves"})) {
+            try {
+                parser.parse(args);
+                fail("no exception thrown");
+            } catch (IllegalArgumentException expected) { }
+        }
+    }
+
     @Test
     void testCommandLineShortOptionsInvokeHelp() throws Exception {
         // Short options testing (for options that do not collide with each other)
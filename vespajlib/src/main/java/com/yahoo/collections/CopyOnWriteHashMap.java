@@ -14,7 +14,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Use this to make clones cheap in maps which are often not further modified.
  * <p>
  * As with regular maps, this can only be used safely if the content of the map is immutable.
- * If not, the {@link #copyMap} method can be overridden to perform a deep clone.
+ * If not, the {@link #copyMap} method can be overridden to perform a deep clone, and {@link #isMutable}
+ * to return true for the values which must be copied before they are returned to a reader, who may modify them.
  *
  * @author bratseth
  */
@@ -64,10 +65,30 @@ public class CopyOnWriteHashMap<K,V> extends AbstractMap<K,V> implements Cloneab
         return new HashMap<>(original);
     }
 
+    /**
+     * Returns whether the given value may be modified by those reading it from this, such that this must
+     * get its own copy of the map before the value is returned. This default implementation returns false.
+     */
+    protected boolean isMutable(V value) {
+        return false;
+    }
+
+    /** Makes this writable if it is shared with a clone, and contains any mutable value */
+    private void makeWritableIfMutable() {
+        if (isWritable()) return;
+        for (V value : map.values()) {
+            if (value != null && isMutable(value)) {
+                makeWritable();
+                return;
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public CopyOnWriteHashMap<K,V> clone() {
         try {
             CopyOnWriteHashMap<K,V> clone = (CopyOnWriteHashMap<K,V>)super.clone();
+            clone.entrySet = null; // the view of this is bound to this
             makeReadOnly(); // owners shared with clone
             return clone;
         }
@@ -83,6 +104,29 @@ public class CopyOnWriteHashMap<K,V> extends AbstractMap<K,V> implements Cloneab
         return entrySet;
     }
 
+    @Override
+    public V get(Object key) {
+        V value = map.get(key);
+        if (value == null || isWritable() || ! isMutable(value)) return value;
+        makeWritable();
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
     @Override
     public V put(K key, V value) {
         makeWritable();
@@ -110,6 +154,7 @@ public class CopyOnWriteHashMap<K,V> extends AbstractMap<K,V> implements Cloneab
     private final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
 
         public Iterator<Map.Entry<K,V>> iterator() {
+            makeWritableIfMutable();
             return new EntryIterator();
         }
 
@@ -131,7 +176,10 @@ public class CopyOnWriteHashMap<K,V> extends AbstractMap<K,V> implements Cloneab
             return map.size();
         }
 
-        public void clear() { map.clear(); }
+        public void clear() {
+            makeWritable();
+            map.clear();
+        }
 
     }
 
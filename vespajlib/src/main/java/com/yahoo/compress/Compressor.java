@@ -1,6 +1,7 @@
 // Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
 package com.yahoo.compress;
 
+import com.yahoo.yolean.concurrent.ConcurrentResourcePool;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4FastDecompressor;
@@ -27,6 +28,12 @@ public class Compressor {
 
     private static final LZ4Factory factory = LZ4Factory.fastestInstance();
 
+    /** Buffers larger than this are not reused */
+    private static final int maxPooledBufferSize = 1 << 20;
+
+    /** Buffers LZ4 compresses into, such that only the compressed size is allocated for each compression */
+    private static final ConcurrentResourcePool<byte[]> lz4Buffers = new ConcurrentResourcePool<>(() -> new byte[0]);
+
     /** Creates a compressor with default settings. */
     public Compressor() {
         this(CompressionType.LZ4);
@@ -92,8 +99,8 @@ public class Compressor {
                 if (len < compressMinSizeBytes) {
                     return compact(CompressionType.INCOMPRESSIBLE, data, offset, len);
                 }
-                byte[] compressedData = getCompressor().compress(data, offset, len);
-                if (compressedData.length + 8 >= len * compressionThresholdFactor) {
+                byte[] compressedData = compressLz4(data, offset, len);
+                if (compressedData == null) {
                     return compact(CompressionType.INCOMPRESSIBLE, data, offset, len);
                 }
                 return new Compression(CompressionType.LZ4, len, compressedData);
@@ -114,6 +121,27 @@ public class Compressor {
         }
         return new Compression(type, len, data);
     }
+    /**
+     * Compresses with LZ4 into a reused buffer, and returns a copy of just the compressed data,
+     * or null if it does not compress enough to be worth it.
+     */
+    private byte[] compressLz4(byte[] data, int offset, int len) {
+        LZ4Compressor compressor = getCompressor();
+        int maxCompressedLength = compressor.maxCompressedLength(len);
+        byte[] buffer = maxCompressedLength <= maxPooledBufferSize ? lz4Buffers.alloc() : null;
+        if (buffer == null || buffer.length < maxCompressedLength)
+            buffer = new byte[maxCompressedLength];
+        try {
+            int compressedLength = compressor.compress(data, offset, len, buffer, 0, maxCompressedLength);
+            if (compressedLength + 8 >= len * compressionThresholdFactor) return null;
+            return Arrays.copyOf(buffer, compressedLength);
+        }
+        finally {
+            if (buffer.length <= maxPooledBufferSize)
+                lz4Buffers.free(buffer);
+        }
+    }
+
     private LZ4Compressor getCompressor() {
         return level < 7 ? factory.fastCompressor() : factory.highCompressor();
     }
@@ -0,0 +1,205 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.compress;
+
+import java.util.Arrays;
+
+/**
+ * Decodes a sequence of Zstd frames (https://github.com/facebook/zstd/blob/dev/doc/zstd_compression_format.md),
+ * which is given in chunks of any size, and decoded one complete frame at a time. Memory use is therefore
+ * bounded by the frame size, which is small for streaming encoders like {@link ZstdOutputStream}, which emit
+ * a frame per buffer, but may be the full content for encoders which produce a single frame.
+ *
+ * The content size declared in a frame header is never trusted by itself: Output is only allocated after the
+ * blocks of a frame are received, and never larger than what those blocks can hold, or than the remaining
+ * content allowed by the max content size of this. Skippable frames are discarded as they arrive.
+ *
+ * This class is not thread safe.
+ *
+ * @author agent
+ */
+public class ZstdFrameDecoder {
+
+    private static final int frameMagic = 0xFD2FB528;
+    private static final int skippableFrameMagicMask = 0xFFFFFFF0;
+    private static final int skippableFrameMagic = 0x184D2A50;
+    private static final int maxBlockSize = 128 * 1024;
+    private static final long maxFrameContentSize = Integer.MAX_VALUE - 8;
+
+    private final ZstdCompressor decompressor = new ZstdCompressor();
+    private final long maxContentSize;
+    private byte[] buffer = new byte[1024];
+    private int start = 0;
+    private int end = 0;
+    private long decodedSize = 0;
+    private long skipRemaining = 0;
+
+    // The frame currently being received, with positions relative to start. The frame is not started if scanned is 0
+    private int scanned = 0;
+    private long declaredContentSize = -1;
+    private long minContentSize = 0;
+    private long maxContentSizeOfBlocks = 0;
+    private boolean lastBlockScanned = false;
+
+    /** Creates a decoder which does not limit the total size of decoded content */
+    public ZstdFrameDecoder() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a decoder which throws {@link ContentTooLargeException} rather than decode more than the
+     * given number of bytes in total.
+     */
+    public ZstdFrameDecoder(long maxContentSize) {
+        if (maxContentSize < 0) throw new IllegalArgumentException("Max content size cannot be negative");
+        this.maxContentSize = maxContentSize;
+    }
+
+    /** Adds the given compressed data to the data to decode */
+    public void feed(byte[] data, int offset, int length) {
+        if (skipRemaining > 0) { // Nothing is buffered while skipping
+            int skipped = (int) Math.min(skipRemaining, length);
+            skipRemaining -= skipped;
+            offset += skipped;
+            length -= skipped;
+        }
+        if (end + length > buffer.length) {
+            int size = end - start;
+            if (size + length > buffer.length)
+                buffer = Arrays.copyOfRange(buffer, start, start + Math.max(2 * buffer.length, size + length));
+            else
+                System.arraycopy(buffer, start, buffer, 0, size);
+            start = 0;
+            end = size;
+        }
+        System.arraycopy(data, offset, buffer, end, length);
+        end += length;
+    }
+
+    /**
+     * Returns the decoded content of the next frame, or null if the next frame is not yet complete.
+     * Skippable frames are skipped, and give empty content.
+     *
+     * @throws ContentTooLargeException if decoding the next frame would exceed the max content size of this
+     * @throws IllegalArgumentException if the data is not a sequence of Zstd frames
+     */
+    public byte[] next() {
+        if (scanned == 0) {
+            if (end - start < 8) return null;
+
+            int magic = intAt(start);
+            if ((magic & skippableFrameMagicMask) == skippableFrameMagic) {
+                long frameSize = 8 + (intAt(start + 4) & 0xFFFFFFFFL);
+                int skipped = (int) Math.min(frameSize, end - start);
+                start += skipped;
+                skipRemaining = frameSize - skipped;
+                return new byte[0];
+            }
+            if (magic != frameMagic)
+                throw new IllegalArgumentException("Not a Zstd frame: magic number is 0x" + Integer.toHexString(magic));
+            if ( ! startFrame()) return null;
+        }
+        int frameSize = scanBlocks();
+        if (frameSize < 0) return null;
+
+        long remaining = maxContentSize - decodedSize;
+        long outputSize = declaredContentSize >= 0 ? declaredContentSize : Math.min(maxContentSizeOfBlocks, remaining);
+        if (outputSize > maxFrameContentSize)
+            throw new ContentTooLargeException("Zstd frame content of " + outputSize + " bytes is too large");
+        byte[] content = new byte[(int) outputSize];
+        int decompressed;
+        try {
+            decompressed = decompressor.decompress(buffer, start, frameSize, content, 0, content.length);
+        }
+        catch (RuntimeException e) {
+            if (outputSize < maxContentSizeOfBlocks && declaredContentSize < 0)
+                throw new ContentTooLargeException("Zstd content exceeds the max size of " + maxContentSize + " bytes");
+            throw e;
+        }
+        start += frameSize;
+        decodedSize += decompressed;
+        scanned = 0;
+        return decompressed == content.length ? content : Arrays.copyOf(content, decompressed);
+    }
+
+    /** Returns whether all data given to this has been decoded, i.e., there is no partial frame buffered */
+    public boolean isEmpty() { return start == end && skipRemaining == 0; }
+
+    /** Reads the header of the frame at start, and returns whether it is complete */
+    private boolean startFrame() {
+        int descriptor = buffer[start + 4] & 0xFF;
+        int contentSizeFlag = descriptor >>> 6;
+        boolean singleSegment = (descriptor & 0x20) != 0;
+        int dictionaryIdFlag = descriptor & 0x03;
+        int contentSizeOffset = 4 + 1 + (singleSegment ? 0 : 1) + (dictionaryIdFlag == 3 ? 4 : dictionaryIdFlag);
+        int contentSizeBytes = contentSizeFlag == 0 ? (singleSegment ? 1 : 0) : 1 << contentSizeFlag;
+        int headerSize = contentSizeOffset + contentSizeBytes;
+        if (headerSize > end - start) return false;
+
+        declaredContentSize = contentSizeBytes == 0 ? -1 : longAt(start + contentSizeOffset, contentSizeBytes);
+        if (contentSizeBytes == 2) declaredContentSize += 256;
+        if (declaredContentSize < 0 && contentSizeBytes == 8)
+            throw new IllegalArgumentException("Zstd frame declares a content size larger than 2^63 bytes");
+        if (declaredContentSize > maxContentSize - decodedSize)
+            throw new ContentTooLargeException("Zstd frame content of " + declaredContentSize + " bytes exceeds " +
+                                               "the max content size of " + maxContentSize + " bytes");
+        scanned = headerSize;
+        minContentSize = 0;
+        maxContentSizeOfBlocks = 0;
+        lastBlockScanned = false;
+        return true;
+    }
+
+    /**
+     * Walks the block headers received since the last call to find the end of the frame, and bounds for its
+     * decompressed size, and returns the size of the frame, or -1 if it is not yet complete.
+     */
+    private int scanBlocks() {
+        boolean hasChecksum = (buffer[start + 4] & 0x04) != 0;
+        while ( ! lastBlockScanned) {
+            int position = start + scanned;
+            if (position + 3 > end) return -1;
+            int blockHeader = (buffer[position] & 0xFF) | (buffer[position + 1] & 0xFF) << 8 | (buffer[position + 2] & 0xFF) << 16;
+            int blockType = (blockHeader >>> 1) & 3;
+            int blockSize = blockHeader >>> 3;
+            if (blockSize > maxBlockSize)
+                throw new IllegalArgumentException("Zstd block size " + blockSize + " is larger than the max of " + maxBlockSize);
+            int size;
+            switch (blockType) {
+                case 0: size = blockSize; minContentSize += blockSize; maxContentSizeOfBlocks += blockSize; break; // Raw
+                case 1: size = 1; minContentSize += blockSize; maxContentSizeOfBlocks += blockSize; break;         // RLE
+                case 2: size = blockSize; minContentSize += blockSize; maxContentSizeOfBlocks += maxBlockSize; break; // Compressed, not larger than its content
+                default: throw new IllegalArgumentException("Reserved Zstd block type in frame");
+            }
+            if (minContentSize > maxContentSize - decodedSize)
+                throw new ContentTooLargeException("Zstd content exceeds the max size of " + maxContentSize + " bytes");
+            if (position + 3 + size > end) return -1;
+            scanned += 3 + size;
+            lastBlockScanned = (blockHeader & 1) != 0;
+        }
+        if (declaredContentSize > maxContentSizeOfBlocks)
+            throw new IllegalArgumentException("Zstd frame declares " + declaredContentSize + " bytes of content, " +
+                                               "but its blocks hold at most " + maxContentSizeOfBlocks);
+        int frameSize = scanned + (hasChecksum ? 4 : 0);
+        return start + frameSize <= end ? frameSize : -1;
+    }
+
+    private int intAt(int position) {
+        return (buffer[position] & 0xFF) | (buffer[position + 1] & 0xFF) << 8 |
+               (buffer[position + 2] & 0xFF) << 16 | (buffer[position + 3] & 0xFF) << 24;
+    }
+
+    private long longAt(int position, int length) {
+        long value = 0;
+        for (int i = length - 1; i >= 0; i--)
+            value = value << 8 | (buffer[position + i] & 0xFF);
+        return value;
+    }
+
+    /** Thrown when decoding would exceed the max content size of a decoder */
+    public static class ContentTooLargeException extends IllegalArgumentException {
+
+        public ContentTooLargeException(String message) { super(message); }
+
+    }
+
+}
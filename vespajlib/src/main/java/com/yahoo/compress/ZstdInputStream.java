@@ -0,0 +1,96 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.compress;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decompresses a stream of Zstd frames, such as those written by {@link ZstdOutputStream}, one frame at a time.
+ *
+ * @author agent
+ */
+public class ZstdInputStream extends InputStream {
+
+    public static final int DEFAULT_READ_BUFFER_SIZE = 8*1024;
+
+    private final ZstdFrameDecoder decoder = new ZstdFrameDecoder();
+    private final InputStream in;
+    private final byte[] readBuffer;
+    private byte[] frame = new byte[0];
+    private int framePosition = 0;
+    private boolean isClosed = false;
+
+    public ZstdInputStream(InputStream in, int readBufferSize) {
+        this.in = in;
+        this.readBuffer = new byte[readBufferSize];
+    }
+
+    public ZstdInputStream(InputStream in) {
+        this(in, DEFAULT_READ_BUFFER_SIZE);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        throwIfClosed();
+        if (len == 0) return 0;
+        if ( ! fillFrame()) return -1;
+
+        int copyLength = Math.min(len, frame.length - framePosition);
+        System.arraycopy(frame, framePosition, b, off, copyLength);
+        framePosition += copyLength;
+        return copyLength;
+    }
+
+    @Override
+    public int available() {
+        return frame.length - framePosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (isClosed) return;
+        isClosed = true;
+        in.close();
+    }
+
+    /** Decodes frames until there is unread content, and returns whether there is, or false at the end of the stream */
+    private boolean fillFrame() throws IOException {
+        while (framePosition == frame.length) {
+            byte[] next = nextFrame();
+            if (next == null) return false;
+            frame = next;
+            framePosition = 0;
+        }
+        return true;
+    }
+
+    private byte[] nextFrame() throws IOException {
+        try {
+            byte[] next;
+            while ((next = decoder.next()) == null) {
+                int read = in.read(readBuffer);
+                if (read == -1) {
+                    if (decoder.isEmpty()) return null;
+                    throw new EOFException("Zstd stream ended in the middle of a frame");
+                }
+                decoder.feed(readBuffer, 0, read);
+            }
+            return next;
+        }
+        catch (RuntimeException e) { // Thrown by the decoder on corrupt data
+            throw new IOException("Invalid Zstd stream", e);
+        }
+    }
+
+    private void throwIfClosed() {
+        if (isClosed) throw new IllegalArgumentException("Input stream is already closed");
+    }
+
+}
@@ -126,6 +126,14 @@ public class GrowableByteBuffer implements Comparable<GrowableByteBuffer> {
         buffer = newByteBuf;
     }
 
+    /**
+     * Grows this if necessary, such that the given number of bytes can be put at the current position.
+     * Use this before writing directly into a view of this, such as the one returned by {@link #asFloatBuffer}.
+     */
+    public void ensureRemaining(int putSize) {
+        accomodate(putSize);
+    }
+
     private void accomodate(int putSize) {
         int bufPos = buffer.position();
         int bufSize = buffer.capacity();
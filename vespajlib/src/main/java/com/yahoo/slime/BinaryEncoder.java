@@ -16,6 +16,9 @@ final class BinaryEncoder implements ArrayTraverser, ObjectSymbolTraverser {
         out = output;
     }
 
+    /** Returns the capacity of the buffer this encodes into */
+    int bufferCapacity() { return out.capacity(); }
+
     BufferedOutput encode(Slime slime) {
         out.reset();
         encodeSymbolTable(slime);
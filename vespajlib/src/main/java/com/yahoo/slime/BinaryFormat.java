@@ -2,6 +2,7 @@
 package com.yahoo.slime;
 
 import com.yahoo.compress.Compressor;
+import com.yahoo.yolean.concurrent.ConcurrentResourcePool;
 
 /**
  * Class for serializing Slime data into binary format, or deserializing
@@ -9,6 +10,12 @@ import com.yahoo.compress.Compressor;
  */
 public class BinaryFormat {
 
+    /** Encoders with buffers larger than this are not reused */
+    private static final int maxPooledBufferSize = 1 << 20;
+
+    /** Encoders which are reused, such that encoding does not allocate and grow a new buffer each time */
+    private static final ConcurrentResourcePool<BinaryEncoder> encoders = new ConcurrentResourcePool<>(BinaryEncoder::new);
+
     static long encode_zigzag(long x) {
         return ((x << 1) ^ (x >> 63)); // note ASR
     }
@@ -43,7 +50,12 @@ public class BinaryFormat {
      * @return a new byte array with just the encoded slime.
      **/
     public static byte[] encode(Slime slime) {
-        return new BinaryEncoder().encode(slime).toArray();
+        BinaryEncoder encoder = encoders.alloc();
+        try {
+            return encoder.encode(slime).toArray();
+        } finally {
+            free(encoder);
+        }
     }
 
     /**
@@ -53,7 +65,17 @@ public class BinaryFormat {
      * @return a new byte array with just the encoded and compressed slime.
      **/
     public static Compressor.Compression encode_and_compress(Slime slime, Compressor compressor) {
-        return new BinaryEncoder().encode(slime).compress(compressor);
+        BinaryEncoder encoder = encoders.alloc();
+        try {
+            return encoder.encode(slime).compress(compressor);
+        } finally {
+            free(encoder);
+        }
+    }
+
+    private static void free(BinaryEncoder encoder) {
+        if (encoder.bufferCapacity() <= maxPooledBufferSize)
+            encoders.free(encoder);
     }
 
     /**
@@ -37,6 +37,8 @@ final class BufferedOutput {
 
     int position() { return pos; }
 
+    int capacity() { return capacity; }
+
     void put(byte b) {
         reserve(1);
         buf[pos++] = b;
@@ -48,9 +50,8 @@ final class BufferedOutput {
 
     void put(byte[] bytes) {
         reserve(bytes.length);
-        for (byte b : bytes) {
-            buf[pos++] = b;
-        }
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
     }
 
     byte[] toArray() {
@@ -62,6 +63,9 @@ final class BufferedOutput {
         return new String(buf, 0, pos, charset);
     }
     Compressor.Compression compress(Compressor compressor) {
-        return compressor.compress(buf, pos);
+        Compressor.Compression compression = compressor.compress(buf, pos);
+        if (compression.data() == buf) // handed out as is: Don't write to it again
+            buf = new byte[capacity];
+        return compression;
     }
 }
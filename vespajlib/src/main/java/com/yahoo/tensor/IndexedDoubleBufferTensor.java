@@ -0,0 +1,66 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.tensor;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * An indexed tensor implementation holding values in a double buffer, which may be direct.
+ * This allows wrapping values computed outside the JVM without copying them.
+ *
+ * @author agent
+ */
+class IndexedDoubleBufferTensor extends IndexedTensor {
+
+    private final DoubleBuffer values;
+
+    /** Creates a tensor of the values from index 0 to the limit of the given buffer, ignoring its position */
+    IndexedDoubleBufferTensor(TensorType type, DimensionSizes dimensionSizes, DoubleBuffer values) {
+        super(type, dimensionSizes);
+        if (dimensionSizes.totalSize() != values.limit()) {
+            throw new IllegalArgumentException("Invalid size(" + values.limit() + ") of supplied value buffer." +
+                                               " Type specifies that size should be " + dimensionSizes.totalSize());
+        }
+        this.values = values;
+    }
+
+    @Override
+    public long size() {
+        return values.limit();
+    }
+
+    @Override
+    public double get(long valueIndex) { return values.get((int)valueIndex); }
+
+    @Override
+    public float getFloat(long valueIndex) { return (float)get(valueIndex); }
+
+    @Override
+    public void copyTo(FloatBuffer target) {
+        for (int i = 0; i < values.limit(); i++)
+            target.put((float)values.get(i));
+    }
+
+    @Override
+    public void copyTo(DoubleBuffer target) {
+        target.put(values.duplicate().rewind());
+    }
+
+    @Override
+    public IndexedTensor withType(TensorType type) {
+        throwOnIncompatibleType(type);
+        return new IndexedDoubleBufferTensor(type, dimensionSizes(), values);
+    }
+
+    /** Returns the same hash code as an {@link IndexedDoubleTensor} with the same values */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < values.limit(); i++) {
+            long bits = Double.doubleToLongBits(values.get(i));
+            result = 31 * result + (int)(bits ^ (bits >>> 32));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,64 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.tensor;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * An indexed tensor implementation holding values in a float buffer, which may be direct.
+ * This allows wrapping values computed outside the JVM without copying them.
+ *
+ * @author agent
+ */
+class IndexedFloatBufferTensor extends IndexedTensor {
+
+    private final FloatBuffer values;
+
+    /** Creates a tensor of the values from index 0 to the limit of the given buffer, ignoring its position */
+    IndexedFloatBufferTensor(TensorType type, DimensionSizes dimensionSizes, FloatBuffer values) {
+        super(type, dimensionSizes);
+        if (dimensionSizes.totalSize() != values.limit()) {
+            throw new IllegalArgumentException("Invalid size(" + values.limit() + ") of supplied value buffer." +
+                                               " Type specifies that size should be " + dimensionSizes.totalSize());
+        }
+        this.values = values;
+    }
+
+    @Override
+    public long size() {
+        return values.limit();
+    }
+
+    @Override
+    public double get(long valueIndex) { return getFloat(valueIndex); }
+
+    @Override
+    public float getFloat(long valueIndex) { return values.get((int)valueIndex); }
+
+    @Override
+    public void copyTo(FloatBuffer target) {
+        target.put(values.duplicate().rewind());
+    }
+
+    @Override
+    public void copyTo(DoubleBuffer target) {
+        for (int i = 0; i < values.limit(); i++)
+            target.put(values.get(i));
+    }
+
+    @Override
+    public IndexedTensor withType(TensorType type) {
+        throwOnIncompatibleType(type);
+        return new IndexedFloatBufferTensor(type, dimensionSizes(), values);
+    }
+
+    /** Returns the same hash code as an {@link IndexedFloatTensor} with the same values */
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < values.limit(); i++)
+            result = 31 * result + Float.floatToIntBits(values.get(i));
+        return result;
+    }
+
+}
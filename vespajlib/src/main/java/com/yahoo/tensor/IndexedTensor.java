@@ -4,6 +4,8 @@ package com.yahoo.tensor;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -199,6 +201,28 @@ public abstract class IndexedTensor implements Tensor {
         return result;
     }
 
+    /**
+     * Puts all the values of this as floats into the given buffer in the <i>standard value order</i>,
+     * starting at the current position of the buffer.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has less than size() remaining
+     */
+    public void copyTo(FloatBuffer target) {
+        for (long i = 0; i < size(); i++)
+            target.put(getFloat(i));
+    }
+
+    /**
+     * Puts all the values of this as doubles into the given buffer in the <i>standard value order</i>,
+     * starting at the current position of the buffer.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has less than size() remaining
+     */
+    public void copyTo(DoubleBuffer target) {
+        for (long i = 0; i < size(); i++)
+            target.put(get(i));
+    }
+
     @Override
     public Map<TensorAddress, Double> cells() {
         if (dimensionSizes.dimensions() == 0)
@@ -278,6 +302,36 @@ public abstract class IndexedTensor implements Tensor {
         return Tensor.equals(this, ((Tensor)other));
     }
 
+    /**
+     * Returns a tensor backed by the given buffer, which may be direct, holding the values in the
+     * <i>standard value order</i> from index 0 to the limit of the buffer.
+     * This <b>transfers ownership</b> of the buffer - it must not be further mutated by the caller.
+     *
+     * @throws IllegalArgumentException if the type does not have float cells, or the limit of the buffer
+     *         is not the total size given by the dimension sizes
+     */
+    public static IndexedTensor wrap(TensorType type, DimensionSizes sizes, FloatBuffer values) {
+        Builder.validate(type, sizes);
+        if (type.valueType() != TensorType.Value.FLOAT)
+            throw new IllegalArgumentException("Can not wrap a float buffer in a tensor of type " + type);
+        return new IndexedFloatBufferTensor(type, sizes, values);
+    }
+
+    /**
+     * Returns a tensor backed by the given buffer, which may be direct, holding the values in the
+     * <i>standard value order</i> from index 0 to the limit of the buffer.
+     * This <b>transfers ownership</b> of the buffer - it must not be further mutated by the caller.
+     *
+     * @throws IllegalArgumentException if the type does not have double cells, or the limit of the buffer
+     *         is not the total size given by the dimension sizes
+     */
+    public static IndexedTensor wrap(TensorType type, DimensionSizes sizes, DoubleBuffer values) {
+        Builder.validate(type, sizes);
+        if (type.valueType() != TensorType.Value.DOUBLE)
+            throw new IllegalArgumentException("Can not wrap a double buffer in a tensor of type " + type);
+        return new IndexedDoubleBufferTensor(type, sizes, values);
+    }
+
     public abstract static class Builder implements Tensor.Builder {
 
         final TensorType type;
@@ -89,6 +89,14 @@ public class TensorType {
 
     private final TensorType mappedSubtype;
 
+    private final int hashCode;
+
+    /**
+     * Whether this is the canonical instance of this type, see {@link TensorTypeRegistry}.
+     * This only changes from false to true, so reading a stale value is safe.
+     */
+    private boolean canonical = false;
+
     public TensorType(Value valueType, Collection<Dimension> dimensions) {
         this.valueType = valueType;
         List<Dimension> dimensionList = new ArrayList<>(dimensions);
@@ -101,6 +109,7 @@ public class TensorType {
             mappedSubtype = this;
         else
             mappedSubtype = new TensorType(valueType, dimensions.stream().filter(d -> ! d.isIndexed()).collect(Collectors.toList()));
+        hashCode = Objects.hash(this.dimensions, valueType);
     }
 
     static public Value combinedValueType(TensorType ... types) {
@@ -229,6 +238,8 @@ public class TensorType {
 
         TensorType other = (TensorType)o;
         if ( (this.rank() == 0) && (other.rank() == 0)) return true;
+        if (this.canonical && other.canonical) return false; // canonical instances are only equal to themselves
+        if (this.hashCode != other.hashCode) return false;
         if ( this.valueType != other.valueType) return false;
         if ( ! this.dimensions.equals(other.dimensions)) return false;
         return true;
@@ -284,9 +295,11 @@ public class TensorType {
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(dimensions, valueType);
-    }
+    public int hashCode() { return hashCode; }
+
+    boolean isCanonical() { return canonical; }
+
+    void setCanonical() { canonical = true; }
 
     /**
      * A tensor dimension.
@@ -23,8 +23,9 @@ public class TensorTypeParser {
     private static final Pattern indexedPattern = Pattern.compile("(\\w+)\\[(\\d*)\\]");
     private static final Pattern mappedPattern = Pattern.compile("(\\w+)\\{\\}");
 
+    /** Returns the canonical instance of the type given by this spec, which is only parsed if not already cached */
     public static TensorType fromSpec(String specString) {
-        return fromSpec(specString, null);
+        return TensorTypeRegistry.parsed(specString, () -> fromSpec(specString, null));
     }
 
     /**
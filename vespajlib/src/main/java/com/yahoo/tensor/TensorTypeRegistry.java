@@ -0,0 +1,79 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.tensor;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Canonical instances of tensor types, and caches of the types resulting from parsing type specs
+ * and resolving the types of binary tensor operations.
+ * <p>
+ * Canonical instances are only weakly referenced from this, such that types which are no longer used
+ * can be garbage collected. The caches are bounded, and cleared when full.
+ * This is multithread safe.
+ *
+ * @author agent
+ */
+class TensorTypeRegistry {
+
+    /** The max number of results to keep in each cache */
+    private static final int maxCachedResults = 10000;
+
+    private static final Interner<TensorType> canonicalTypes = Interners.newWeakInterner();
+
+    private static final Map<String, TensorType> parsedTypes = new ConcurrentHashMap<>();
+
+    private static final Map<Resolution, TensorType> resolvedTypes = new ConcurrentHashMap<>();
+
+    private TensorTypeRegistry() {}
+
+    /** Returns the canonical instance of the given type */
+    static TensorType canonical(TensorType type) {
+        if (type.isCanonical()) return type;
+        TensorType canonical = canonicalTypes.intern(type);
+        if (canonical == type)
+            type.setCanonical();
+        return canonical;
+    }
+
+    /**
+     * Returns the canonical type of the given type spec, using the given parser if it is not already cached.
+     * Specs which fail to parse are not cached.
+     */
+    static TensorType parsed(String spec, Supplier<TensorType> parser) {
+        TensorType type = parsedTypes.get(spec);
+        if (type != null) return type;
+        return put(spec, canonical(parser.get()), parsedTypes);
+    }
+
+    /**
+     * Returns the canonical type resulting from the given binary operation on the given types, using the given
+     * resolver if it is not already cached. Failed resolutions are not cached.
+     *
+     * @param operation the name of the operation
+     * @param lhs the type of the left argument
+     * @param rhs the type of the right argument
+     * @param dimension the dimension argument of the operation, or null if it takes none
+     * @param resolver the resolver of the type, when not cached
+     */
+    static TensorType resolved(String operation, TensorType lhs, TensorType rhs, String dimension, Supplier<TensorType> resolver) {
+        Resolution resolution = new Resolution(operation, lhs, rhs, dimension);
+        TensorType type = resolvedTypes.get(resolution);
+        if (type != null) return type;
+        return put(resolution, canonical(resolver.get()), resolvedTypes);
+    }
+
+    private static <KEY> TensorType put(KEY key, TensorType type, Map<KEY, TensorType> cache) {
+        if (cache.size() >= maxCachedResults)
+            cache.clear();
+        cache.put(key, type);
+        return type;
+    }
+
+    private record Resolution(String operation, TensorType lhs, TensorType rhs, String dimension) {}
+
+}
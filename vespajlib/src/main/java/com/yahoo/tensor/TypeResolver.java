@@ -12,6 +12,7 @@ import static com.yahoo.tensor.TensorType.Value;
 
 /**
  * Common type resolving for basic tensor operations.
+ * The results of binary operations are cached, see {@link TensorTypeRegistry}.
  *
  * @author arnej
  */
@@ -132,6 +133,10 @@ public class TypeResolver {
     }
 
     static public TensorType join(TensorType lhs, TensorType rhs) {
+        return TensorTypeRegistry.resolved("join", lhs, rhs, null, () -> resolveJoin(lhs, rhs));
+    }
+
+    private static TensorType resolveJoin(TensorType lhs, TensorType rhs) {
         Value cellType = Value.DOUBLE;
         if (lhs.rank() > 0 && rhs.rank() > 0) {
             // both types decide the new cell type
@@ -193,6 +198,10 @@ public class TypeResolver {
     }
 
     static public TensorType concat(TensorType lhs, TensorType rhs, String concatDimension) {
+        return TensorTypeRegistry.resolved("concat", lhs, rhs, concatDimension, () -> resolveConcat(lhs, rhs, concatDimension));
+    }
+
+    private static TensorType resolveConcat(TensorType lhs, TensorType rhs, String concatDimension) {
         Value cellType = Value.DOUBLE;
         if (lhs.rank() > 0 && rhs.rank() > 0) {
             if (lhs.valueType() == rhs.valueType()) {
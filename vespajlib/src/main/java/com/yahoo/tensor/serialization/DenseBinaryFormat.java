@@ -7,6 +7,9 @@ import com.yahoo.tensor.IndexedTensor;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorType;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 import java.util.Optional;
 
 /**
@@ -16,6 +19,7 @@ import java.util.Optional;
  * Cell_values = [double, double, double, ...]*
  * where values are encoded in order of increasing indexes in each dimension, increasing
  * indexes of later dimensions in the dimension type before earlier.
+ * Cell values are encoded and decoded in bulk through views of the buffer rather than one by one.
  *
  * @author bratseth
  */
@@ -56,23 +60,36 @@ public class DenseBinaryFormat implements BinaryFormat {
     }
 
     private void encodeDoubleCells(IndexedTensor tensor, GrowableByteBuffer buffer) {
-        for (int i = 0; i < tensor.size(); i++)
-            buffer.putDouble(tensor.get(i));
+        buffer.ensureRemaining(byteSize(tensor.size(), Double.BYTES));
+        DoubleBuffer cells = buffer.asDoubleBuffer();
+        tensor.copyTo(cells);
+        buffer.position(buffer.position() + cells.position() * Double.BYTES);
     }
 
     private void encodeFloatCells(IndexedTensor tensor, GrowableByteBuffer buffer) {
-        for (int i = 0; i < tensor.size(); i++)
-            buffer.putFloat(tensor.getFloat(i));
+        buffer.ensureRemaining(byteSize(tensor.size(), Float.BYTES));
+        FloatBuffer cells = buffer.asFloatBuffer();
+        tensor.copyTo(cells);
+        buffer.position(buffer.position() + cells.position() * Float.BYTES);
     }
 
     private void encodeBFloat16Cells(IndexedTensor tensor, GrowableByteBuffer buffer) {
+        buffer.ensureRemaining(byteSize(tensor.size(), Short.BYTES));
+        ShortBuffer cells = buffer.asShortBuffer();
         for (int i = 0; i < tensor.size(); i++)
-            buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat(tensor.getFloat(i)));
+            cells.put(TypedBinaryFormat.bFloat16BitsFromFloat(tensor.getFloat(i)));
+        buffer.position(buffer.position() + cells.position() * Short.BYTES);
     }
 
     private void encodeInt8Cells(IndexedTensor tensor, GrowableByteBuffer buffer) {
-        for (int i = 0; i < tensor.size(); i++)
-            buffer.put((byte) tensor.getFloat(i));
+        byte[] cells = new byte[byteSize(tensor.size(), Byte.BYTES)];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = (byte) tensor.getFloat(i);
+        buffer.put(cells);
+    }
+
+    private static int byteSize(long cellCount, int cellSize) {
+        return Math.toIntExact(cellCount * cellSize);
     }
 
     @Override
@@ -95,9 +112,7 @@ public class DenseBinaryFormat implements BinaryFormat {
             type = decodeType(buffer);
             sizes = sizesFromType(type);
         }
-        Tensor.Builder builder = Tensor.Builder.of(type, sizes);
-        decodeCells(sizes, buffer, (IndexedTensor.BoundBuilder)builder);
-        return builder.build();
+        return decodeCells(type, sizes, buffer).build();
     }
 
     private TensorType decodeType(GrowableByteBuffer buffer) {
@@ -116,35 +131,48 @@ public class DenseBinaryFormat implements BinaryFormat {
         return builder.build();
     }
 
-    private void decodeCells(DimensionSizes sizes, GrowableByteBuffer buffer, IndexedTensor.BoundBuilder builder) {
+    private IndexedTensor.Builder decodeCells(TensorType type, DimensionSizes sizes, GrowableByteBuffer buffer) {
+        int cellCount = Math.toIntExact(sizes.totalSize());
         switch (serializationValueType) {
-            case DOUBLE: decodeDoubleCells(sizes, builder, buffer); break;
-            case FLOAT: decodeFloatCells(sizes, builder, buffer); break;
-            case BFLOAT16: decodeBFloat16Cells(sizes, builder, buffer); break;
-            case INT8: decodeInt8Cells(sizes, builder, buffer); break;
+            case DOUBLE: return IndexedTensor.Builder.of(type, sizes, decodeDoubleCells(cellCount, buffer));
+            case FLOAT: return IndexedTensor.Builder.of(type, sizes, decodeFloatCells(cellCount, buffer));
+            case BFLOAT16: return IndexedTensor.Builder.of(type, sizes, decodeBFloat16Cells(cellCount, buffer));
+            case INT8: return IndexedTensor.Builder.of(type, sizes, decodeInt8Cells(cellCount, buffer));
+            default: throw new IllegalStateException("Unexpected value type " + serializationValueType);
         }
     }
 
-    private void decodeDoubleCells(DimensionSizes sizes, IndexedTensor.BoundBuilder builder, GrowableByteBuffer buffer) {
-        for (long i = 0; i < sizes.totalSize(); i++)
-            builder.cellByDirectIndex(i, buffer.getDouble());
+    private double[] decodeDoubleCells(int cellCount, GrowableByteBuffer buffer) {
+        double[] values = new double[cellCount];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + cellCount * Double.BYTES);
+        return values;
     }
 
-    private void decodeFloatCells(DimensionSizes sizes, IndexedTensor.BoundBuilder builder, GrowableByteBuffer buffer) {
-        for (long i = 0; i < sizes.totalSize(); i++)
-            builder.cellByDirectIndex(i, buffer.getFloat());
+    private float[] decodeFloatCells(int cellCount, GrowableByteBuffer buffer) {
+        float[] values = new float[cellCount];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + cellCount * Float.BYTES);
+        return values;
     }
 
-    private void decodeBFloat16Cells(DimensionSizes sizes, IndexedTensor.BoundBuilder builder, GrowableByteBuffer buffer) {
-        for (long i = 0; i < sizes.totalSize(); i++) {
-            builder.cellByDirectIndex(i, TypedBinaryFormat.floatFromBFloat16Bits(buffer.getShort()));
-        }
+    private float[] decodeBFloat16Cells(int cellCount, GrowableByteBuffer buffer) {
+        short[] bits = new short[cellCount];
+        buffer.asShortBuffer().get(bits);
+        buffer.position(buffer.position() + cellCount * Short.BYTES);
+        float[] values = new float[cellCount];
+        for (int i = 0; i < cellCount; i++)
+            values[i] = TypedBinaryFormat.floatFromBFloat16Bits(bits[i]);
+        return values;
     }
 
-    private void decodeInt8Cells(DimensionSizes sizes, IndexedTensor.BoundBuilder builder, GrowableByteBuffer buffer) {
-        for (long i = 0; i < sizes.totalSize(); i++) {
-            builder.cellByDirectIndex(i, (float) buffer.get());
-        }
+    private float[] decodeInt8Cells(int cellCount, GrowableByteBuffer buffer) {
+        byte[] bytes = new byte[cellCount];
+        buffer.get(bytes);
+        float[] values = new float[cellCount];
+        for (int i = 0; i < cellCount; i++)
+            values[i] = bytes[i];
+        return values;
     }
 
 }
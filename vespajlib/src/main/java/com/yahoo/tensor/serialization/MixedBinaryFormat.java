@@ -8,11 +8,13 @@ import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorAddress;
 import com.yahoo.tensor.TensorType;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -63,34 +65,40 @@ class MixedBinaryFormat implements BinaryFormat {
     private void encodeCells(GrowableByteBuffer buffer, MixedTensor tensor) {
         switch (serializationValueType) {
             case DOUBLE: encodeCells(buffer, tensor, buffer::putDouble); break;
-            case FLOAT: encodeCells(buffer, tensor, (val) -> buffer.putFloat(val.floatValue())); break;
+            case FLOAT: encodeCells(buffer, tensor, (val) -> buffer.putFloat((float)val)); break;
             case BFLOAT16: encodeCells(buffer, tensor, (val) ->
-                    buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat(val.floatValue()))); break;
-            case INT8: encodeCells(buffer, tensor, (val) -> buffer.put(((byte)val.floatValue()))); break;
+                    buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat((float)val))); break;
+            case INT8: encodeCells(buffer, tensor, (val) -> buffer.put(((byte)(float)val))); break;
         }
     }
 
-    private void encodeCells(GrowableByteBuffer buffer, MixedTensor tensor, Consumer<Double> consumer) {
-        List<TensorType.Dimension> sparseDimensions = tensor.type().dimensions().stream().filter(d -> !d.isIndexed()).collect(Collectors.toList());
+    private void encodeCells(GrowableByteBuffer buffer, MixedTensor tensor, DoubleConsumer consumer) {
+        int[] sparseIndexes = sparseDimensionIndexes(tensor.type());
         long denseSubspaceSize = tensor.denseSubspaceSize();
-        if (sparseDimensions.size() > 0) {
+        if (sparseIndexes.length > 0) {
             buffer.putInt1_4Bytes((int)(tensor.size() / denseSubspaceSize));  // XXX: Size truncation
         }
         Iterator<Tensor.Cell> cellIterator = tensor.cellIterator();
         while (cellIterator.hasNext()) {
             Tensor.Cell cell = cellIterator.next();
-            for (TensorType.Dimension dimension : sparseDimensions) {
-                int index = tensor.type().indexOfDimension(dimension.name()).orElseThrow(() ->
-                    new IllegalStateException("Dimension not found in address."));
+            for (int index : sparseIndexes)
                 buffer.putUtf8String(cell.getKey().label(index));
-            }
-            consumer.accept(cell.getValue());
+            consumer.accept(cell.getDoubleValue());
             for (int i = 1; i < denseSubspaceSize; ++i ) {
-                consumer.accept(cellIterator.next().getValue());
+                consumer.accept(cellIterator.next().getDoubleValue());
             }
         }
     }
 
+    /** Returns the indexes of the mapped dimensions of the given type, in the order of the type */
+    private static int[] sparseDimensionIndexes(TensorType type) {
+        int[] indexes = new int[(int)type.dimensions().stream().filter(d -> !d.isIndexed()).count()];
+        for (int i = 0, sparse = 0; i < type.dimensions().size(); i++)
+            if ( ! type.dimensions().get(i).isIndexed())
+                indexes[sparse++] = i;
+        return indexes;
+    }
+
     @Override
     public Tensor decode(Optional<TensorType> optionalType, GrowableByteBuffer buffer) {
         TensorType type;
@@ -136,26 +144,28 @@ class MixedBinaryFormat implements BinaryFormat {
         }
     }
 
-    private void decodeCells(GrowableByteBuffer buffer, MixedTensor.BoundBuilder builder, TensorType type, Supplier<Double> supplier) {
-        List<TensorType.Dimension> sparseDimensions = type.dimensions().stream().filter(d -> !d.isIndexed()).collect(Collectors.toList());
-        TensorType sparseType = MixedTensor.createPartialType(type.valueType(), sparseDimensions);
+    private void decodeCells(GrowableByteBuffer buffer, MixedTensor.BoundBuilder builder, TensorType type, DoubleSupplier supplier) {
+        int sparseDimensionCount = sparseDimensionIndexes(type).length;
         long denseSubspaceSize = builder.denseSubspaceSize();
 
         int numBlocks = 1;
-        if (sparseDimensions.size() > 0) {
+        if (sparseDimensionCount > 0) {
             numBlocks = buffer.getInt1_4Bytes();
         }
 
+        // The block address labels are in the order of the sparse dimensions, and repeat across blocks
+        String[] sparseLabels = new String[sparseDimensionCount];
+        Map<String, String> labels = new HashMap<>();
         double[] denseSubspace = new double[(int)denseSubspaceSize];
         for (int i = 0; i < numBlocks; ++i) {
-            TensorAddress.Builder sparseAddress = new TensorAddress.Builder(sparseType);
-            for (TensorType.Dimension sparseDimension : sparseDimensions) {
-                sparseAddress.add(sparseDimension.name(), buffer.getUtf8String());
+            for (int j = 0; j < sparseDimensionCount; j++) {
+                String label = buffer.getUtf8String();
+                sparseLabels[j] = labels.computeIfAbsent(label, __ -> label);
             }
             for (long denseOffset = 0; denseOffset < denseSubspaceSize; denseOffset++) {
-                denseSubspace[(int)denseOffset] = supplier.get();
+                denseSubspace[(int)denseOffset] = supplier.getAsDouble();
             }
-            builder.block(sparseAddress.build(), denseSubspace);
+            builder.block(TensorAddress.of(sparseLabels), denseSubspace);
         }
     }
 
@@ -6,11 +6,13 @@ import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorAddress;
 import com.yahoo.tensor.TensorType;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
 
 /**
  * Implementation of a sparse binary format for a tensor on the form:
@@ -51,18 +53,18 @@ class SparseBinaryFormat implements BinaryFormat {
         buffer.putInt1_4Bytes((int)tensor.size()); // XXX: Size truncation
         switch (serializationValueType) {
             case DOUBLE: encodeCells(buffer, tensor, buffer::putDouble); break;
-            case FLOAT: encodeCells(buffer, tensor, (val) -> buffer.putFloat(val.floatValue())); break;
+            case FLOAT: encodeCells(buffer, tensor, (val) -> buffer.putFloat((float)val)); break;
             case BFLOAT16: encodeCells(buffer, tensor, (val) ->
-                    buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat(val.floatValue()))); break;
-            case INT8: encodeCells(buffer, tensor, (val) -> buffer.put((byte)(val.floatValue()))); break;
+                    buffer.putShort(TypedBinaryFormat.bFloat16BitsFromFloat((float)val))); break;
+            case INT8: encodeCells(buffer, tensor, (val) -> buffer.put((byte)(float)val)); break;
         }
     }
 
-    private void encodeCells(GrowableByteBuffer buffer, Tensor tensor, Consumer<Double> consumer) {
+    private void encodeCells(GrowableByteBuffer buffer, Tensor tensor, DoubleConsumer consumer) {
         for (Iterator<Tensor.Cell> i = tensor.cellIterator(); i.hasNext(); ) {
             Tensor.Cell cell = i.next();
             encodeAddress(buffer, cell.getKey());
-            consumer.accept(cell.getValue());
+            consumer.accept(cell.getDoubleValue());
         }
     }
 
@@ -111,21 +113,23 @@ class SparseBinaryFormat implements BinaryFormat {
         }
     }
 
-    private void decodeCells(GrowableByteBuffer buffer, Tensor.Builder builder, TensorType type, Supplier<Double> supplier) {
+    private void decodeCells(GrowableByteBuffer buffer, Tensor.Builder builder, TensorType type, DoubleSupplier supplier) {
         long numCells = buffer.getInt1_4Bytes(); // XXX: Size truncation
+        String[] addressLabels = new String[type.dimensions().size()];
+        Map<String, String> labels = new HashMap<>(); // labels repeat across cells, so share a single instance of each
         for (long i = 0; i < numCells; ++i) {
-            Tensor.Builder.CellBuilder cellBuilder = builder.cell();
-            decodeAddress(buffer, cellBuilder, type);
-            cellBuilder.value(supplier.get());
+            decodeAddress(buffer, addressLabels, labels, type);
+            builder.cell(TensorAddress.of(addressLabels), supplier.getAsDouble());
         }
     }
 
-    private void decodeAddress(GrowableByteBuffer buffer, Tensor.Builder.CellBuilder builder, TensorType type) {
-        for (TensorType.Dimension dimension : type.dimensions()) {
+    private void decodeAddress(GrowableByteBuffer buffer, String[] addressLabels, Map<String, String> labels, TensorType type) {
+        for (int i = 0; i < addressLabels.length; i++) {
             String label = buffer.getUtf8String();
-            if ( ! label.isEmpty()) {
-                builder.label(dimension.name(), label);
-            }
+            if (label.isEmpty())
+                throw new IllegalArgumentException("Missing a label for dimension '" + type.dimensions().get(i).name() +
+                                                   "' for " + type);
+            addressLabels[i] = labels.computeIfAbsent(label, __ -> label);
         }
     }
 
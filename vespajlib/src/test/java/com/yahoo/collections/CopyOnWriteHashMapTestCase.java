@@ -3,7 +3,16 @@ package com.yahoo.collections;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author bratseth
@@ -62,4 +71,56 @@ public class CopyOnWriteHashMapTestCase {
         assertEquals(2, clone.size());
     }
 
+    @Test
+    public void testCloneAndModifyThroughEntrySet() {
+        CopyOnWriteHashMap<String, String> map = new CopyOnWriteHashMap<>();
+        map.put("a", "a1");
+        map.entrySet();
+        CopyOnWriteHashMap<String,String> clone = map.clone();
+        clone.entrySet().clear();
+        assertTrue(clone.isEmpty());
+        assertEquals(1, map.size());
+        assertTrue(map.containsKey("a"));
+        assertFalse(clone.containsKey("a"));
+    }
+
+    @Test
+    public void testMutableValuesAreCopiedOnRead() {
+        ListValuedMap map = new ListValuedMap();
+        map.put("a", new ArrayList<>(List.of("a1")));
+        map.put("b", new ArrayList<>(List.of("b1")));
+        ListValuedMap clone = map.clone();
+        assertSame(map.get("a"), map.get("a"));
+
+        clone.get("a").add("a2");
+        assertEquals(List.of("a1"), map.get("a"));
+        assertEquals(List.of("a1", "a2"), clone.get("a"));
+        assertNotSame(map.get("b"), clone.get("b"));
+
+        ListValuedMap secondClone = map.clone();
+        for (Map.Entry<String, List<String>> entry : secondClone.entrySet())
+            entry.getValue().add("modified");
+        assertEquals(List.of("a1"), map.get("a"));
+        assertEquals(List.of("b1"), map.get("b"));
+    }
+
+    private static class ListValuedMap extends CopyOnWriteHashMap<String, List<String>> {
+
+        @Override
+        protected Map<String, List<String>> copyMap(Map<String, List<String>> original) {
+            Map<String, List<String>> copy = new HashMap<>();
+            original.forEach((key, value) -> copy.put(key, new ArrayList<>(value)));
+            return copy;
+        }
+
+        @Override
+        protected boolean isMutable(List<String> value) { return true; }
+
+        @Override
+        public ListValuedMap clone() {
+            return (ListValuedMap)super.clone();
+        }
+
+    }
+
 }
@@ -3,7 +3,11 @@ package com.yahoo.compress;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -24,4 +28,25 @@ class CompressorTest {
         assertArrayEquals(inputData, decompressedData);
     }
 
+    @Test
+    void compresses_into_independent_arrays_using_lz4() {
+        Compressor compressor = new Compressor(CompressionType.LZ4, 3, 0.9, 0);
+        Random random = new Random(42);
+        List<byte[]> inputs = new ArrayList<>();
+        List<Compressor.Compression> compressions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            byte[] inputData = new byte[1000 * (i + 1)];
+            if (i % 2 == 0)
+                random.nextBytes(inputData);
+            else
+                Arrays.fill(inputData, (byte)i);
+            inputs.add(inputData);
+            compressions.add(compressor.compress(inputData));
+        }
+        for (int i = 0; i < inputs.size(); i++) {
+            assertEquals(i % 2 == 0 ? CompressionType.INCOMPRESSIBLE : CompressionType.LZ4, compressions.get(i).type());
+            assertArrayEquals(inputs.get(i), compressor.decompress(compressions.get(i)));
+        }
+    }
+
 }
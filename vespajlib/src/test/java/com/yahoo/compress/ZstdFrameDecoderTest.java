@@ -0,0 +1,101 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.compress;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author agent
+ */
+class ZstdFrameDecoderTest {
+
+    private static final byte[] inputData = "The quick brown fox jumps over the lazy dog\n".repeat(1000).getBytes();
+
+    @Test
+    void frames_are_decoded_when_complete() {
+        byte[] compressed = new ZstdCompressor().compress(inputData, 0, inputData.length);
+        ZstdFrameDecoder decoder = new ZstdFrameDecoder(inputData.length);
+        decoder.feed(compressed, 0, compressed.length - 1);
+        assertNull(decoder.next());
+        assertFalse(decoder.isEmpty());
+        decoder.feed(compressed, compressed.length - 1, 1);
+        assertArrayEquals(inputData, decoder.next());
+        assertTrue(decoder.isEmpty());
+    }
+
+    @Test
+    void content_larger_than_the_max_size_is_rejected() {
+        byte[] compressed = new ZstdCompressor().compress(inputData, 0, inputData.length);
+        ZstdFrameDecoder decoder = new ZstdFrameDecoder(inputData.length + 1);
+        decoder.feed(compressed, 0, compressed.length);
+        decoder.feed(compressed, 0, compressed.length);
+        assertArrayEquals(inputData, decoder.next());
+        assertThrows(ZstdFrameDecoder.ContentTooLargeException.class, decoder::next);
+    }
+
+    @Test
+    void declared_content_size_is_checked_before_the_frame_is_received() {
+        ZstdFrameDecoder decoder = new ZstdFrameDecoder(1 << 20);
+        decoder.feed(frameDeclaring(1L << 31), 0, 13);
+        assertThrows(ZstdFrameDecoder.ContentTooLargeException.class, decoder::next);
+    }
+
+    @Test
+    void declared_content_size_larger_than_the_blocks_is_rejected() {
+        byte[] frame = frameDeclaring(1L << 31);
+        ZstdFrameDecoder decoder = new ZstdFrameDecoder();
+        decoder.feed(frame, 0, frame.length);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, decoder::next);
+        assertEquals("Zstd frame declares 2147483648 bytes of content, but its blocks hold at most 1", e.getMessage());
+    }
+
+    @Test
+    void blocks_exceeding_the_max_size_are_rejected_as_they_arrive() {
+        ZstdFrameDecoder decoder = new ZstdFrameDecoder(1000);
+        ByteBuffer frame = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        frame.putInt(0xFD2FB528).put((byte) 0).put((byte) 0); // No content size, window descriptor
+        for (int i = 0; i < 4; i++)
+            putBlockHeader(frame, 1, 300, false); // RLE
+        frame.put((byte) 'a');
+        decoder.feed(frame.array(), 0, frame.position());
+        assertThrows(ZstdFrameDecoder.ContentTooLargeException.class, decoder::next);
+    }
+
+    @Test
+    void skippable_frames_are_discarded_as_they_arrive() {
+        ZstdFrameDecoder decoder = new ZstdFrameDecoder(0);
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt(0x184D2A50).putInt(1 << 30);
+        decoder.feed(header.array(), 0, 8);
+        assertArrayEquals(new byte[0], decoder.next());
+        assertFalse(decoder.isEmpty());
+        byte[] data = new byte[1 << 20];
+        for (int i = 0; i < 1 << 10; i++)
+            decoder.feed(data, 0, data.length);
+        assertTrue(decoder.isEmpty());
+        assertNull(decoder.next());
+    }
+
+    /** Returns a frame declaring the given content size, holding a single raw block of one byte */
+    private static byte[] frameDeclaring(long contentSize) {
+        ByteBuffer frame = ByteBuffer.allocate(17).order(ByteOrder.LITTLE_ENDIAN);
+        frame.putInt(0xFD2FB528).put((byte) 0xE0).putLong(contentSize); // Single segment, 8 byte content size
+        putBlockHeader(frame, 0, 1, true);
+        frame.put((byte) 'a');
+        return frame.array();
+    }
+
+    private static void putBlockHeader(ByteBuffer frame, int type, int size, boolean last) {
+        int header = size << 3 | type << 1 | (last ? 1 : 0);
+        frame.put((byte) header).put((byte) (header >>> 8)).put((byte) (header >>> 16));
+    }
+
+}
@@ -0,0 +1,76 @@
+// Copyright Yahoo. Licensed under the terms of the Apache 2.0 license. See LICENSE in the project root.
+package com.yahoo.compress;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author agent
+ */
+class ZstdInputStreamTest {
+
+    private static final byte[] inputData = "The quick brown fox jumps over the lazy dog\n".repeat(1000).getBytes();
+
+    @Test
+    void input_stream_decompresses_frames_written_by_output_stream() throws IOException {
+        ByteArrayOutputStream arrayOut = new ByteArrayOutputStream();
+        try (ZstdOutputStream zstdOut = new ZstdOutputStream(arrayOut, 1000)) {
+            zstdOut.write(inputData);
+        }
+        assertArrayEquals(inputData, readAll(new ZstdInputStream(new TrickleInputStream(arrayOut.toByteArray(), 7), 13)));
+    }
+
+    @Test
+    void input_stream_decompresses_single_frame() throws IOException {
+        byte[] compressed = new ZstdCompressor().compress(inputData, 0, inputData.length);
+        assertArrayEquals(inputData, readAll(new ZstdInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    @Test
+    void truncated_input_fails() {
+        byte[] compressed = new ZstdCompressor().compress(inputData, 0, inputData.length);
+        InputStream truncated = new ByteArrayInputStream(Arrays.copyOf(compressed, compressed.length - 1));
+        assertThrows(EOFException.class, () -> readAll(new ZstdInputStream(truncated)));
+    }
+
+    @Test
+    void non_zstd_input_fails() {
+        assertThrows(IOException.class, () -> readAll(new ZstdInputStream(new ByteArrayInputStream(inputData))));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[100];
+        int read;
+        while ((read = in.read(buffer)) != -1)
+            out.write(buffer, 0, read);
+        return out.toByteArray();
+    }
+
+    /** Returns at most the given number of bytes per read */
+    private static class TrickleInputStream extends ByteArrayInputStream {
+
+        private final int chunkSize;
+
+        TrickleInputStream(byte[] data, int chunkSize) {
+            super(data);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+
+    }
+
+}
@@ -5,6 +5,10 @@ import com.yahoo.compress.CompressionType;
 import com.yahoo.compress.Compressor;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static com.yahoo.slime.BinaryFormat.decode_double;
 import static com.yahoo.slime.BinaryFormat.decode_meta;
 import static com.yahoo.slime.BinaryFormat.decode_type;
@@ -555,4 +559,28 @@ public class BinaryFormatTestCase {
         assertThat(c.entry(5).valid(), is(false)); // not ARRAY
     }
 
+    @Test
+    public void testEncodingsAreNotOverwrittenByLaterEncodings() {
+        Random random = new Random(42);
+        List<byte[]> data = new ArrayList<>();
+        List<byte[]> encoded = new ArrayList<>();
+        List<Compressor.Compression> compressed = new ArrayList<>();
+        Compressor compressor = new Compressor(CompressionType.LZ4, 3, 0.9, 0);
+        for (int size = 4080; size < 4100; size++) { // Encoded to around the initial buffer size of 4096 bytes
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+            Slime slime = new Slime();
+            slime.setObject().setData("d", bytes);
+            data.add(bytes);
+            encoded.add(BinaryFormat.encode(slime));
+            compressed.add(BinaryFormat.encode_and_compress(slime, compressor));
+        }
+        for (int i = 0; i < data.size(); i++) {
+            assertThat(BinaryFormat.decode(encoded.get(i)).get().field("d").asData(), is(data.get(i)));
+            assertThat(compressed.get(i).type(), is(CompressionType.INCOMPRESSIBLE));
+            byte[] decompressed = compressor.decompress(compressed.get(i));
+            assertThat(BinaryFormat.decode(decompressed).get().field("d").asData(), is(data.get(i)));
+        }
+    }
+
 }
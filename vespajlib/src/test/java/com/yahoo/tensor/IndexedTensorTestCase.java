@@ -3,6 +3,10 @@ package com.yahoo.tensor;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -74,6 +78,43 @@ public class IndexedTensorTestCase {
         }
     }
     
+    @Test
+    public void testBufferWrapping() {
+        TensorType floatType = TensorType.fromSpec("tensor<float>(x[2],y[2])");
+        DimensionSizes sizes = new DimensionSizes.Builder(2).set(0, 2).set(1, 2).build();
+        FloatBuffer floats = ByteBuffer.allocateDirect(4 * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        floats.put(new float[] { 1.0f, 2.0f, 3.0f, 4.0f });
+        IndexedTensor wrappedFloats = IndexedTensor.wrap(floatType, sizes, floats);
+        IndexedTensor builtFloats = IndexedTensor.Builder.of(floatType, new float[] { 1.0f, 2.0f, 3.0f, 4.0f }).build();
+        assertEquals(builtFloats, wrappedFloats);
+        assertEquals(builtFloats.hashCode(), wrappedFloats.hashCode());
+        assertEquals(3.0f, wrappedFloats.getFloat(1, 0), 0.0f);
+
+        FloatBuffer copy = FloatBuffer.allocate(4);
+        builtFloats.copyTo(copy);
+        assertEquals(FloatBuffer.wrap(new float[] { 1.0f, 2.0f, 3.0f, 4.0f }), copy.rewind());
+
+        TensorType doubleType = TensorType.fromSpec("tensor(x[2],y[2])");
+        IndexedTensor wrappedDoubles = IndexedTensor.wrap(doubleType, sizes, DoubleBuffer.wrap(new double[] { 1.0, 2.0, 3.0, 4.0 }));
+        Tensor builtDoubles = IndexedTensor.Builder.of(doubleType, new double[] { 1.0, 2.0, 3.0, 4.0 }).build();
+        assertEquals(builtDoubles, wrappedDoubles);
+        assertEquals(builtDoubles.hashCode(), wrappedDoubles.hashCode());
+        assertEquals(wrappedDoubles, wrappedDoubles.withType(TensorType.fromSpec("tensor(x[2],y[2])")));
+
+        try {
+            IndexedTensor.wrap(doubleType, sizes, DoubleBuffer.allocate(3));
+            fail("Expect IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid size(3) of supplied value buffer. Type specifies that size should be 4", e.getMessage());
+        }
+        try {
+            IndexedTensor.wrap(doubleType, sizes, FloatBuffer.allocate(4));
+            fail("Expect IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Can not wrap a float buffer in a tensor of type tensor(x[2],y[2])", e.getMessage());
+        }
+    }
+
     @Test
     public void testBoundBuilding() {
         TensorType type = new TensorType.Builder().indexed("v", vSize)
@@ -5,6 +5,9 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -102,6 +105,25 @@ public class TensorTypeTestCase {
         assertEquals("tensor<int8>(x[])", TensorType.fromSpec("tensor<int8>(x[])").toString());
     }
 
+    @Test
+    public void requireThatEqualTypesShareTheCanonicalInstance() {
+        TensorType parsed = TensorType.fromSpec("tensor<float>(x[3],y{})");
+        assertSame(parsed, TensorType.fromSpec("tensor<float>(x[3],y{})"));
+        assertSame(parsed, TensorType.fromSpec("tensor<float>( y{} , x[3] )"));
+
+        TensorType built = new TensorType.Builder(TensorType.Value.FLOAT).mapped("y").indexed("x", 3).build();
+        assertNotSame(parsed, built);
+        assertEquals(parsed, built);
+        assertSame(parsed, TensorTypeRegistry.canonical(built));
+
+        assertSame(TypeResolver.join(parsed, TensorType.fromSpec("tensor(z[2])")),
+                   TypeResolver.join(built, TensorType.fromSpec("tensor(z[2])")));
+        assertSame(TypeResolver.concat(parsed, parsed, "x"), TypeResolver.concat(built, built, "x"));
+        assertEquals("tensor<float>(x[6],y{})", TypeResolver.concat(parsed, parsed, "x").toString());
+        assertNotEquals(parsed, TensorType.fromSpec("tensor<float>(x[4],y{})"));
+        assertEquals(TensorType.fromSpec("tensor()"), TensorType.fromSpec("tensor<float>()"));
+    }
+
     private static void assertTensorType(String typeSpec) {
         assertTensorType(typeSpec, typeSpec);
     }
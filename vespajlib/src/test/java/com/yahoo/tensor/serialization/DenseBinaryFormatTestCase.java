@@ -2,6 +2,7 @@
 package com.yahoo.tensor.serialization;
 
 import com.yahoo.io.GrowableByteBuffer;
+import com.yahoo.tensor.IndexedTensor;
 import com.yahoo.tensor.Tensor;
 import com.yahoo.tensor.TensorType;
 import org.junit.Test;
@@ -108,6 +109,28 @@ public class DenseBinaryFormatTestCase {
         assertSerialization("tensor<int8>(x[2],y[2]):[2, 3, 4, 5]");
     }
 
+    @Test
+    public void testSerializationOfEmbeddingsBetweenOtherData() {
+        for (TensorType.Value valueType : TensorType.Value.values()) {
+            TensorType type = new TensorType.Builder(valueType).indexed("x", 768).build();
+            IndexedTensor.BoundBuilder builder = (IndexedTensor.BoundBuilder)Tensor.Builder.of(type);
+            for (int i = 0; i < 768; i++)
+                builder.cellByDirectIndex(i, (i % 100) - 50);
+            Tensor tensor = builder.build();
+
+            GrowableByteBuffer buffer = new GrowableByteBuffer(16);
+            buffer.putInt(17);
+            new DenseBinaryFormat(valueType).encode(buffer, tensor);
+            buffer.putInt(42);
+            buffer.flip();
+
+            assertEquals(17, buffer.getInt());
+            assertEquals(tensor, new DenseBinaryFormat(valueType).decode(Optional.of(type), buffer));
+            assertEquals(42, buffer.getInt());
+            assertEquals(0, buffer.remaining());
+        }
+    }
+
     private void assertSerialization(String tensorString) {
         assertSerialization(Tensor.from(tensorString));
     }